@@ -22,12 +22,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 /**
+ * Splits every partition of the {@link Divider} into {@code applicationPartitionSize} partitions.
+ * The {@link AlarmReader} of a partition only checks the applications whose name hashes to its index.
+ *
  * @author minwoo.jung
  */
 public class AlarmPartitioner implements Partitioner {
@@ -36,14 +42,44 @@ public class AlarmPartitioner implements Partitioner {
     private static final String PARTITION_NAME_PREFIX = "alarm_partition_number_";
     private static final String BATCH_NAME = "alarm_batch";
 
+    static final String APPLICATION_PARTITION_INDEX = "alarm_application_partition_index";
+    static final String APPLICATION_PARTITION_SIZE = "alarm_application_partition_size";
+
     private final Divider divider;
 
-    public AlarmPartitioner(@Qualifier("divider") Optional<Divider> divider) {
+    private final int applicationPartitionSize;
+
+    public AlarmPartitioner(Optional<Divider> divider) {
+        this(divider, 1);
+    }
+
+    @Autowired
+    public AlarmPartitioner(@Qualifier("divider") Optional<Divider> divider,
+                            @Value("${job.alarm.partition.size:4}") int applicationPartitionSize) {
         this.divider = divider.orElseGet(DefaultDivider::new);
+        if (applicationPartitionSize <= 0) {
+            throw new IllegalArgumentException("applicationPartitionSize must be '> 0'");
+        }
+        this.applicationPartitionSize = applicationPartitionSize;
     }
 
     @Override
     public Map<String, ExecutionContext> partition(int gridSize) {
-        return divider.divide(PARTITION_NAME_PREFIX, BATCH_NAME);
+        final Map<String, ExecutionContext> partitions = divider.divide(PARTITION_NAME_PREFIX, BATCH_NAME);
+        if (applicationPartitionSize == 1) {
+            return partitions;
+        }
+
+        final Map<String, ExecutionContext> applicationPartitions = new HashMap<>();
+        for (Map.Entry<String, ExecutionContext> entry : partitions.entrySet()) {
+            for (int index = 0; index < applicationPartitionSize; index++) {
+                final ExecutionContext executionContext = new ExecutionContext(entry.getValue());
+                executionContext.putInt(APPLICATION_PARTITION_INDEX, index);
+                executionContext.putInt(APPLICATION_PARTITION_SIZE, applicationPartitionSize);
+                applicationPartitions.put(entry.getKey() + "_" + index, executionContext);
+            }
+        }
+        logger.debug("alarm partitions:{}", applicationPartitions.keySet());
+        return applicationPartitions;
     }
 }
@@ -23,9 +23,12 @@ import com.navercorp.pinpoint.web.alarm.vo.Rule;
 import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
 import com.navercorp.pinpoint.web.service.AlarmService;
 import com.navercorp.pinpoint.web.vo.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
 
 import java.util.*;
@@ -35,7 +38,9 @@ import java.util.concurrent.ConcurrentLinkedDeque;
  * @author minwoo.jung
  */
 public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListener {
-    
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final DataCollectorFactory dataCollectorFactory;
     
     private final ApplicationIndexDao applicationIndexDao;
@@ -44,6 +49,10 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
     
     private final Queue<AlarmChecker> checkers = new ConcurrentLinkedDeque<>();
 
+    private long startTime;
+    private int applicationCount;
+    private int checkerCount;
+
     public AlarmReader(DataCollectorFactory dataCollectorFactory, ApplicationIndexDao applicationIndexDao, AlarmService alarmService) {
         this.dataCollectorFactory = Objects.requireNonNull(dataCollectorFactory, "dataCollectorFactory");
         this.applicationIndexDao = Objects.requireNonNull(applicationIndexDao, "applicationIndexDao");
@@ -56,11 +65,22 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
 
     @Override
     public void beforeStep(StepExecution stepExecution) {
+        this.startTime = System.currentTimeMillis();
+        final ExecutionContext executionContext = stepExecution.getExecutionContext();
+        final int partitionIndex = executionContext.getInt(AlarmPartitioner.APPLICATION_PARTITION_INDEX, 0);
+        final int partitionSize = executionContext.getInt(AlarmPartitioner.APPLICATION_PARTITION_SIZE, 1);
+
         List<Application> applicationList = applicationIndexDao.selectAllApplicationNames();
 
         for (Application application : applicationList) {
+            // rules are selected by the application name, so the partition is chosen by the name as well
+            if (Math.floorMod(application.getName().hashCode(), partitionSize) != partitionIndex) {
+                continue;
+            }
             addChecker(application);
+            applicationCount++;
         }
+        checkerCount = checkers.size();
     }
 
     private void addChecker(Application application) {
@@ -84,6 +104,10 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
 
     @Override
     public ExitStatus afterStep(StepExecution stepExecution) {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} completed. applications:{}, checkers:{}, elapsed:{}ms", stepExecution.getStepName(),
+                    applicationCount, checkerCount, System.currentTimeMillis() - startTime);
+        }
         return null;
     }
 }
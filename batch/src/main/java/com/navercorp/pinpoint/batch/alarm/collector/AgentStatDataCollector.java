@@ -16,14 +16,18 @@
 
 package com.navercorp.pinpoint.batch.alarm.collector;
 
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.batch.alarm.DataCollectorFactory.DataCollectorCategory;
+import com.navercorp.pinpoint.web.dao.AgentStatRollupDao;
 import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
 import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +42,7 @@ public class AgentStatDataCollector extends DataCollector {
     private final AgentStatDao<JvmGcBo> jvmGcDao;
     private final AgentStatDao<CpuLoadBo> cpuLoadDao;
     private final ApplicationIndexDao applicationIndexDao;
+    private final AgentStatRollupDao agentStatRollupDao;
     private final long timeSlotEndTime;
     private final long slotInterval;
     private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
@@ -48,11 +53,21 @@ public class AgentStatDataCollector extends DataCollector {
     private final Map<String, Long> agentSystemCpuUsageRate = new HashMap<>();
 
     public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+        this(category, application, jvmGcDao, cpuLoadDao, applicationIndexDao, null, timeSlotEndTime, slotInterval);
+    }
+
+    /**
+     * @param agentStatRollupDao reads the per minute rollups written by the collector instead of the raw stats if not null.
+     *                           The rollups hold the jvm gc and cpu load stats only, the datasource checkers keep reading the raw stats
+     *                           through {@link DataSourceDataCollector}.
+     */
+    public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationIndexDao applicationIndexDao, AgentStatRollupDao agentStatRollupDao, long timeSlotEndTime, long slotInterval) {
         super(category);
         this.application = application;
         this.jvmGcDao = jvmGcDao;
         this.cpuLoadDao = cpuLoadDao;
         this.applicationIndexDao = applicationIndexDao;
+        this.agentStatRollupDao = agentStatRollupDao;
         this.timeSlotEndTime = timeSlotEndTime;
         this.slotInterval = slotInterval;
     }
@@ -64,11 +79,21 @@ public class AgentStatDataCollector extends DataCollector {
         }
 
         Range range = Range.newUncheckedRange(timeSlotEndTime - slotInterval, timeSlotEndTime);
+        if (agentStatRollupDao != null) {
+            collectRollup(range);
+            init.set(true);
+            return;
+        }
+
         List<String> agentIds = applicationIndexDao.selectAgentIds(application.getName());
 
+        // one multi agent scan per stat type instead of two scans per agent
+        Map<String, List<JvmGcBo>> jvmGcBoMap = jvmGcDao.getAgentStatList(agentIds, range);
+        Map<String, List<CpuLoadBo>> cpuLoadBoMap = cpuLoadDao.getAgentStatList(agentIds, range);
+
         for(String agentId : agentIds) {
-            List<JvmGcBo> jvmGcBos = jvmGcDao.getAgentStatList(agentId, range);
-            List<CpuLoadBo> cpuLoadBos = cpuLoadDao.getAgentStatList(agentId, range);
+            List<JvmGcBo> jvmGcBos = jvmGcBoMap.getOrDefault(agentId, Collections.emptyList());
+            List<CpuLoadBo> cpuLoadBos = cpuLoadBoMap.getOrDefault(agentId, Collections.emptyList());
             long totalHeapSize = 0;
             long usedHeapSize = 0;
             long jvmCpuUsaged = 0;
@@ -105,6 +130,26 @@ public class AgentStatDataCollector extends DataCollector {
 
     }
 
+    private void collectRollup(Range range) {
+        Map<String, AgentStatRollupBo> rollupMap = agentStatRollupDao.selectAgentStatRollup(application, range);
+
+        for (AgentStatRollupBo rollup : rollupMap.values()) {
+            String agentId = rollup.getAgentId();
+
+            if (rollup.get(AgentStatRollupField.JVM_GC_SAMPLE_COUNT) > 0) {
+                long percent = calculatePercent(rollup.get(AgentStatRollupField.HEAP_USED), rollup.get(AgentStatRollupField.HEAP_MAX));
+                agentHeapUsageRate.put(agentId, percent);
+                agentGcCount.put(agentId, rollup.get(AgentStatRollupField.GC_OLD_COUNT));
+            }
+            long cpuLoadSampleCount = rollup.get(AgentStatRollupField.CPU_LOAD_SAMPLE_COUNT);
+            if (cpuLoadSampleCount > 0) {
+                long total = AgentStatRollupField.CPU_LOAD_SCALE * cpuLoadSampleCount;
+                agentJvmCpuUsageRate.put(agentId, calculatePercent(rollup.get(AgentStatRollupField.JVM_CPU_LOAD), total));
+                agentSystemCpuUsageRate.put(agentId, calculatePercent(rollup.get(AgentStatRollupField.SYSTEM_CPU_LOAD), total));
+            }
+        }
+    }
+
     public Map<String, Long> getHeapUsageRate() {
         return agentHeapUsageRate;
     }
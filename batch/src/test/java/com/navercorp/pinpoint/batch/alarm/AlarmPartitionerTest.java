@@ -22,8 +22,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.batch.item.ExecutionContext;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class AlarmPartitionerTest {
 
@@ -35,4 +38,18 @@ public class AlarmPartitionerTest {
         Map<String, ExecutionContext> partitions = partitioner.partition(0);
         Assert.assertEquals(1, partitions.size());
     }
+
+    @Test
+    public void applicationPartitionTest() {
+        AlarmPartitioner partitioner = new AlarmPartitioner(Optional.empty(), 4);
+        Map<String, ExecutionContext> partitions = partitioner.partition(0);
+        Assert.assertEquals(4, partitions.size());
+
+        Set<Integer> indexes = new HashSet<>();
+        for (ExecutionContext executionContext : partitions.values()) {
+            Assert.assertEquals(4, executionContext.getInt(AlarmPartitioner.APPLICATION_PARTITION_SIZE));
+            indexes.add(executionContext.getInt(AlarmPartitioner.APPLICATION_PARTITION_INDEX));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), indexes);
+    }
 }
@@ -39,6 +39,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
@@ -68,6 +69,27 @@ public class AlarmReaderTest {
         assertNull(reader.read());
     }
 
+    @Test
+    public void readTest_applicationPartition() {
+        final int partitionSize = 3;
+        int total = 0;
+        for (int index = 0; index < partitionSize; index++) {
+            StepExecution stepExecution = new StepExecution("alarmStep", null);
+            ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putInt(AlarmPartitioner.APPLICATION_PARTITION_INDEX, index);
+            executionContext.putInt(AlarmPartitioner.APPLICATION_PARTITION_SIZE, partitionSize);
+            stepExecution.setExecutionContext(executionContext);
+
+            AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmService);
+            reader.beforeStep(stepExecution);
+            while (reader.read() != null) {
+                total++;
+            }
+        }
+        // every application is checked by exactly one partition
+        assertEquals(7, total);
+    }
+
     @Test
     public void readTest3() {
         StepExecution stepExecution = new StepExecution("alarmStep", null);
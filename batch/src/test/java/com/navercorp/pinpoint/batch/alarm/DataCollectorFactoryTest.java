@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import com.navercorp.pinpoint.batch.alarm.collector.AgentStatDataCollector;
+import com.navercorp.pinpoint.batch.alarm.collector.DataCollector;
+import com.navercorp.pinpoint.batch.alarm.collector.DataSourceDataCollector;
+import com.navercorp.pinpoint.batch.alarm.vo.DataSourceAlarmVO;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.web.dao.hbase.HbaseApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class DataCollectorFactoryTest {
+
+    private static final String AGENT_ID = "testAgent";
+
+    private final Application application = new Application("test", ServiceType.STAND_ALONE);
+    private final long timeSlotEndTime = 1558936971494L;
+
+    private AgentStatDao<JvmGcBo> jvmGcDao;
+    private AgentStatDao<CpuLoadBo> cpuLoadDao;
+    private AgentStatDao<DataSourceListBo> dataSourceDao;
+    private HbaseApplicationIndexDao applicationIndexDao;
+    private AgentStatRollupDao agentStatRollupDao;
+
+    private DataCollectorFactory dataCollectorFactory;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        jvmGcDao = mock(AgentStatDao.class);
+        cpuLoadDao = mock(AgentStatDao.class);
+        dataSourceDao = mock(AgentStatDao.class);
+        applicationIndexDao = mock(HbaseApplicationIndexDao.class);
+        agentStatRollupDao = mock(AgentStatRollupDao.class);
+        when(applicationIndexDao.selectAgentIds(anyString())).thenReturn(Collections.singletonList(AGENT_ID));
+
+        dataCollectorFactory = new DataCollectorFactory();
+        ReflectionTestUtils.setField(dataCollectorFactory, "jvmGcDao", jvmGcDao);
+        ReflectionTestUtils.setField(dataCollectorFactory, "cpuLoadDao", cpuLoadDao);
+        ReflectionTestUtils.setField(dataCollectorFactory, "dataSourceDao", dataSourceDao);
+        ReflectionTestUtils.setField(dataCollectorFactory, "hbaseApplicationIndexDao", applicationIndexDao);
+        ReflectionTestUtils.setField(dataCollectorFactory, "agentStatRollupDao", agentStatRollupDao);
+        ReflectionTestUtils.setField(dataCollectorFactory, "rollupEnable", true);
+    }
+
+    @Test
+    public void createDataCollector_rollup_agentStat() {
+        DataCollector dataCollector = dataCollectorFactory.createDataCollector(CheckerCategory.HEAP_USAGE_RATE, application, timeSlotEndTime);
+        assertTrue(dataCollector instanceof AgentStatDataCollector);
+
+        dataCollector.collect();
+
+        Range range = Range.newUncheckedRange(timeSlotEndTime - DataCollectorFactory.SLOT_INTERVAL_FIVE_MIN, timeSlotEndTime);
+        verify(agentStatRollupDao).selectAgentStatRollup(application, range);
+        verifyZeroInteractions(jvmGcDao, cpuLoadDao, applicationIndexDao);
+    }
+
+    @Test
+    public void createDataCollector_rollup_dataSource() {
+        DataSourceBo dataSourceBo = new DataSourceBo();
+        dataSourceBo.setId(1);
+        dataSourceBo.setDatabaseName("testDatabase");
+        dataSourceBo.setActiveConnectionSize(15);
+        dataSourceBo.setMaxConnectionSize(30);
+        DataSourceListBo dataSourceListBo = new DataSourceListBo();
+        dataSourceListBo.add(dataSourceBo);
+        when(dataSourceDao.getAgentStatList(anyString(), any(Range.class))).thenReturn(Collections.singletonList(dataSourceListBo));
+
+        DataCollector dataCollector = dataCollectorFactory.createDataCollector(CheckerCategory.DATASOURCE_CONNECTION_USAGE_RATE, application, timeSlotEndTime);
+        assertTrue(dataCollector instanceof DataSourceDataCollector);
+
+        dataCollector.collect();
+
+        // datasource stats are not rolled up, the raw stats are scanned even with the rollup enabled
+        Range range = Range.newUncheckedRange(timeSlotEndTime - DataCollectorFactory.SLOT_INTERVAL_FIVE_MIN, timeSlotEndTime);
+        verify(dataSourceDao).getAgentStatList(AGENT_ID, range);
+        verifyZeroInteractions(agentStatRollupDao);
+
+        List<DataSourceAlarmVO> dataSourceAlarmVOList = ((DataSourceDataCollector) dataCollector).getDataSourceConnectionUsageRate().get(AGENT_ID);
+        assertEquals(1, dataSourceAlarmVOList.size());
+        assertEquals(15, dataSourceAlarmVOList.get(0).getActiveConnectionAvg());
+        assertEquals(30, dataSourceAlarmVOList.get(0).getMaxConnectionAvg());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.batch.alarm.collector;
+
+import com.navercorp.pinpoint.batch.alarm.DataCollectorFactory;
+import com.navercorp.pinpoint.batch.alarm.DataCollectorFactory.DataCollectorCategory;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class AgentStatDataCollectorTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void collect_rollup() {
+        String applicationId = "test";
+        String agentId1 = "testAgent1";
+        String agentId2 = "testAgent2";
+        Application application = new Application(applicationId, ServiceType.STAND_ALONE);
+        long timeStamp = 1558936971494L;
+        Range range = Range.newUncheckedRange(timeStamp - DataCollectorFactory.SLOT_INTERVAL_FIVE_MIN, timeStamp);
+
+        AgentStatRollupBo rollup1 = new AgentStatRollupBo(agentId1);
+        rollup1.add(AgentStatRollupField.HEAP_USED, 300);
+        rollup1.add(AgentStatRollupField.HEAP_MAX, 400);
+        rollup1.add(AgentStatRollupField.JVM_GC_SAMPLE_COUNT, 2);
+        rollup1.add(AgentStatRollupField.GC_OLD_COUNT, 3);
+        rollup1.add(AgentStatRollupField.JVM_CPU_LOAD, AgentStatRollupField.toCpuLoadValue(0.2) + AgentStatRollupField.toCpuLoadValue(0.4));
+        rollup1.add(AgentStatRollupField.SYSTEM_CPU_LOAD, AgentStatRollupField.toCpuLoadValue(0.5) + AgentStatRollupField.toCpuLoadValue(0.7));
+        rollup1.add(AgentStatRollupField.CPU_LOAD_SAMPLE_COUNT, 2);
+
+        AgentStatRollupBo rollup2 = new AgentStatRollupBo(agentId2);
+        rollup2.add(AgentStatRollupField.CPU_LOAD_SAMPLE_COUNT, 1);
+        rollup2.add(AgentStatRollupField.JVM_CPU_LOAD, AgentStatRollupField.toCpuLoadValue(0.9));
+
+        Map<String, AgentStatRollupBo> rollupMap = new HashMap<>();
+        rollupMap.put(agentId1, rollup1);
+        rollupMap.put(agentId2, rollup2);
+        AgentStatRollupDao rollupDao = mock(AgentStatRollupDao.class);
+        when(rollupDao.selectAgentStatRollup(any(Application.class), any(Range.class))).thenReturn(rollupMap);
+
+        AgentStatDao<JvmGcBo> jvmGcDao = mock(AgentStatDao.class);
+        AgentStatDao<CpuLoadBo> cpuLoadDao = mock(AgentStatDao.class);
+        ApplicationIndexDao applicationIndexDao = mock(ApplicationIndexDao.class);
+
+        AgentStatDataCollector collector = new AgentStatDataCollector(DataCollectorCategory.AGENT_STAT, application, jvmGcDao, cpuLoadDao, applicationIndexDao, rollupDao, timeStamp, DataCollectorFactory.SLOT_INTERVAL_FIVE_MIN);
+        collector.collect();
+
+        verify(rollupDao).selectAgentStatRollup(application, range);
+        verifyZeroInteractions(jvmGcDao, cpuLoadDao, applicationIndexDao);
+
+        assertEquals(Long.valueOf(75), collector.getHeapUsageRate().get(agentId1));
+        assertEquals(Long.valueOf(3), collector.getGCCount().get(agentId1));
+        assertEquals(Long.valueOf(30), collector.getJvmCpuUsageRate().get(agentId1));
+        assertEquals(Long.valueOf(60), collector.getSystemCpuUsageRate().get(agentId1));
+
+        assertFalse(collector.getHeapUsageRate().containsKey(agentId2));
+        assertFalse(collector.getGCCount().containsKey(agentId2));
+        assertEquals(Long.valueOf(90), collector.getJvmCpuUsageRate().get(agentId2));
+        assertEquals(Long.valueOf(0), collector.getSystemCpuUsageRate().get(agentId2));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.buffer;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.DirectBufferPool;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.buffer.PooledDirectBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap {@link AutomaticBuffer}/{@link FixedBuffer} compared with the off-heap {@link PooledDirectBuffer}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferBenchmark {
+
+    private static final String APPLICATION_NAME = "pinpoint-benchmark-application";
+
+    @Param({"automatic", "pooledDirect"})
+    private String bufferType;
+
+    // number of the encoded values, stat and span values are mostly small
+    @Param({"16", "256"})
+    private int valueCount;
+
+    private final DirectBufferPool pool = new DirectBufferPool();
+
+    private long[] values;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.values = new long[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            // small deltas with some negatives like the stat values
+            values[i] = random.nextInt(4096) - 512;
+        }
+        final Buffer buffer = new AutomaticBuffer(64);
+        writeValues(buffer);
+        this.encoded = buffer.getBuffer();
+    }
+
+    private Buffer newWriteBuffer() {
+        if ("pooledDirect".equals(bufferType)) {
+            return new PooledDirectBuffer(pool, 64);
+        }
+        return new AutomaticBuffer(64);
+    }
+
+    private Buffer newReadBuffer() {
+        if ("pooledDirect".equals(bufferType)) {
+            return new PooledDirectBuffer(pool, encoded);
+        }
+        return new FixedBuffer(encoded);
+    }
+
+    private static void release(Buffer buffer) {
+        if (buffer instanceof PooledDirectBuffer) {
+            ((PooledDirectBuffer) buffer).release();
+        }
+    }
+
+    private void writeValues(Buffer buffer) {
+        buffer.putPrefixedString(APPLICATION_NAME);
+        buffer.putLong(System.currentTimeMillis());
+        for (long value : values) {
+            buffer.putSVLong(value);
+            buffer.putVInt((int) value & 0x7FFF);
+        }
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        final Buffer buffer = newWriteBuffer();
+        try {
+            writeValues(buffer);
+            // HBase accepts a ByteBuffer value, no copy for the direct buffer
+            final ByteBuffer value = buffer.wrapByteBuffer();
+            blackhole.consume(value);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    @Benchmark
+    public void encodeToBytes(Blackhole blackhole) {
+        final Buffer buffer = newWriteBuffer();
+        try {
+            writeValues(buffer);
+            blackhole.consume(buffer.getBuffer());
+        } finally {
+            release(buffer);
+        }
+    }
+
+    @Benchmark
+    public long decode(Blackhole blackhole) {
+        final Buffer buffer = newReadBuffer();
+        try {
+            blackhole.consume(buffer.readPrefixedString());
+            long sum = buffer.readLong();
+            for (int i = 0; i < valueCount; i++) {
+                sum += buffer.readSVLong();
+                sum += buffer.readVInt();
+            }
+            return sum;
+        } finally {
+            release(buffer);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.profiler.context.DefaultSpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorage;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageConfig;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffering and SpanChunk flushing of {@link BufferedStorage}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferedStorageBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int spanEventCount;
+
+    @Param({"20"})
+    private int bufferSize;
+
+    // -1 : count only, estimate serialized bytes otherwise
+    @Param({"-1", "4096"})
+    private int maxBufferBytes;
+
+    private TraceFixture traceFixture;
+    private BlackholeDataSender dataSender;
+    private BufferedStorageConfig config;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.traceFixture = new TraceFixture();
+        this.dataSender = new BlackholeDataSender(blackhole);
+        this.config = new BufferedStorageConfig(bufferSize, maxBufferBytes, BufferedStorageConfig.DISABLED);
+    }
+
+    @Benchmark
+    public void store() {
+        final TraceRoot traceRoot = traceFixture.newTraceRoot();
+        final BufferedStorage storage = new BufferedStorage(new DefaultSpanChunkFactory(traceRoot), dataSender, config);
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent();
+            spanEvent.setSequence((short) i);
+            storage.store(spanEvent);
+        }
+        storage.store(new Span(traceRoot));
+    }
+
+    private static class BlackholeDataSender implements DataSender<Object> {
+        private final Blackhole blackhole;
+
+        private BlackholeDataSender(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public boolean send(Object data) {
+            blackhole.consume(data);
+            return true;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
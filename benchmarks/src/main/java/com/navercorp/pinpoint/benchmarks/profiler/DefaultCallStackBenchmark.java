@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.profiler.context.CallStack;
+import com.navercorp.pinpoint.profiler.context.CallStackFactoryV1;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * push/pop of {@link com.navercorp.pinpoint.profiler.context.DefaultCallStack}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultCallStackBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int depth;
+
+    private CallStackFactoryV1 callStackFactory;
+    private SpanEvent[] spanEvents;
+
+    @Setup
+    public void setup() {
+        this.callStackFactory = new CallStackFactoryV1(512);
+        this.spanEvents = new SpanEvent[depth];
+        for (int i = 0; i < depth; i++) {
+            spanEvents[i] = new SpanEvent();
+        }
+    }
+
+    @Benchmark
+    public void pushPop(Blackhole blackhole) {
+        final CallStack<SpanEvent> callStack = callStackFactory.newCallStack();
+        for (int i = 0; i < depth; i++) {
+            callStack.push(spanEvents[i]);
+        }
+        for (int i = 0; i < depth; i++) {
+            blackhole.consume(callStack.pop());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace begin/end and nested span events of {@link com.navercorp.pinpoint.profiler.context.DefaultTrace}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultTraceBenchmark {
+
+    private TraceFixture traceFixture;
+
+    /**
+     * Span event count of a trace, only the span event benchmarks are run for each depth.
+     */
+    @State(Scope.Thread)
+    public static class SpanEventDepth {
+        @Param({"1", "16", "64"})
+        private int depth;
+    }
+
+    @Setup
+    public void setup() {
+        this.traceFixture = new TraceFixture();
+    }
+
+    @Benchmark
+    public void traceBeginEnd(Blackhole blackhole) {
+        final Trace trace = traceFixture.newTrace();
+        trace.getSpanRecorder().recordApiId(1);
+        blackhole.consume(trace);
+        trace.close();
+    }
+
+    @Benchmark
+    public void nestedSpanEvent(SpanEventDepth spanEventDepth, Blackhole blackhole) {
+        final int depth = spanEventDepth.depth;
+        final Trace trace = traceFixture.newTrace();
+        for (int i = 0; i < depth; i++) {
+            final SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordApiId(i + 1);
+            blackhole.consume(recorder);
+        }
+        for (int i = 0; i < depth; i++) {
+            trace.traceBlockEnd();
+        }
+        trace.close();
+    }
+
+    @Benchmark
+    public void sequentialSpanEvent(SpanEventDepth spanEventDepth, Blackhole blackhole) {
+        final int depth = spanEventDepth.depth;
+        final Trace trace = traceFixture.newTrace();
+        for (int i = 0; i < depth; i++) {
+            final SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordApiId(i + 1);
+            blackhole.consume(recorder);
+            trace.traceBlockEnd();
+        }
+        trace.close();
+    }
+}
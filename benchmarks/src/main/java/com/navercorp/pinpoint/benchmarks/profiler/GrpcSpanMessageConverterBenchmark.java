@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.compress.GrpcSpanProcessorV2;
+import com.navercorp.pinpoint.profiler.context.grpc.GrpcSpanMessageConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span to protobuf conversion. {@link GrpcSpanMessageConverter} with {@link GrpcSpanProcessorV2}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrpcSpanMessageConverterBenchmark {
+
+    @Param({"1", "16", "64"})
+    private int spanEventCount;
+
+    @Param({"0", "2"})
+    private int annotationCount;
+
+    private GrpcSpanMessageConverter converter;
+    private Span span;
+
+    @Setup
+    public void setup() {
+        this.converter = new GrpcSpanMessageConverter(TraceFixture.AGENT_ID, TraceFixture.SERVICE_TYPE, new GrpcSpanProcessorV2());
+        // GrpcSpanProcessorV2 sorts the SpanEvent list in place. the list is already sorted by sequence, so the span can be reused
+        this.span = new TraceFixture().newSpan(spanEventCount, annotationCount);
+    }
+
+    @Benchmark
+    public GeneratedMessageV3 toMessage() {
+        return converter.toMessage(span);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() {
+        final GeneratedMessageV3 message = converter.toMessage(span);
+        return message.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation recording of {@link com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanEventRecorderBenchmark {
+
+    private static final ServiceType SERVICE_TYPE = ServiceType.INTERNAL_METHOD;
+    private static final String SQL = "SELECT * FROM member WHERE id = 10 AND name = 'pinpoint'";
+
+    private WrappedSpanEventRecorder recorder;
+    private final Object argument = new Object() {
+        @Override
+        public String toString() {
+            return "argument";
+        }
+    };
+
+    @Setup
+    public void setup() {
+        final TraceFixture traceFixture = new TraceFixture();
+        this.recorder = traceFixture.newWrappedSpanEventRecorder(traceFixture.newTraceRoot());
+    }
+
+    private SpanEvent newSpanEvent() {
+        final SpanEvent spanEvent = new SpanEvent();
+        recorder.setWrapped(spanEvent);
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordApiId() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordServiceType(SERVICE_TYPE);
+        recorder.recordApiId(10);
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordStringAttribute() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordAttribute(AnnotationKey.ARGS0, "value");
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordIntAttribute() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordAttribute(AnnotationKey.ARGS0, 1234);
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordObjectAttribute() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordAttribute(AnnotationKey.ARGS0, argument);
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordMultipleAttribute() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordApiId(10);
+        recorder.recordAttribute(AnnotationKey.ARGS0, "value0");
+        recorder.recordAttribute(AnnotationKey.ARGS1, 1);
+        recorder.recordAttribute(AnnotationKey.ARGS2, argument);
+        recorder.recordAttribute(AnnotationKey.RETURN_DATA, "return");
+        return spanEvent;
+    }
+
+    @Benchmark
+    public SpanEvent recordSqlInfo() {
+        final SpanEvent spanEvent = newSpanEvent();
+        recorder.recordSqlInfo(SQL);
+        return spanEvent;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.EmptySpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.PooledSpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per traced call with and without {@link PooledSpanEventRecycler}.
+ * <p>
+ * The data sender recycles SpanEvents as the grpc span converter does after serialization.
+ * Compare gc.alloc.rate.norm of the gc profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanEventRecycleBenchmark {
+
+    private static final ServiceType SERVICE_TYPE = ServiceType.INTERNAL_METHOD;
+
+    @Param({"false", "true"})
+    private boolean recycle;
+
+    @Param({"1", "16", "64"})
+    private int spanEventCount;
+
+    private TraceFixture traceFixture;
+
+    @Setup
+    public void setup() {
+        final SpanEventRecycler spanEventRecycler = recycle ? new PooledSpanEventRecycler() : EmptySpanEventRecycler.INSTANCE;
+        this.traceFixture = new TraceFixture(new RecycleDataSender(spanEventRecycler), spanEventRecycler);
+    }
+
+    @Benchmark
+    public Trace tracedCall() {
+        final Trace trace = traceFixture.newTrace();
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordServiceType(SERVICE_TYPE);
+            recorder.recordApiId(10);
+            recorder.recordAttribute(AnnotationKey.ARGS0, "value");
+            recorder.recordAttribute(AnnotationKey.ARGS1, i);
+            trace.traceBlockEnd();
+        }
+        trace.close();
+        return trace;
+    }
+
+    private static class RecycleDataSender implements DataSender<Object> {
+        private final SpanEventRecycler spanEventRecycler;
+
+        private RecycleDataSender(SpanEventRecycler spanEventRecycler) {
+            this.spanEventRecycler = spanEventRecycler;
+        }
+
+        @Override
+        public boolean send(Object data) {
+            if (data instanceof SpanChunk) {
+                spanEventRecycler.recycle(((SpanChunk) data).getSpanEventList());
+            } else if (data instanceof Span) {
+                spanEventRecycler.recycle(((Span) data).getSpanEventList());
+            }
+            return true;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
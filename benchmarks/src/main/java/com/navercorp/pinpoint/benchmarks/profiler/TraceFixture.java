@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.profiler;
+
+import com.navercorp.pinpoint.bootstrap.context.AsyncContext;
+import com.navercorp.pinpoint.bootstrap.context.AsyncState;
+import com.navercorp.pinpoint.bootstrap.context.SpanRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.AsyncContextFactory;
+import com.navercorp.pinpoint.profiler.context.AsyncId;
+import com.navercorp.pinpoint.profiler.context.CallStack;
+import com.navercorp.pinpoint.profiler.context.CallStackFactory;
+import com.navercorp.pinpoint.profiler.context.CallStackFactoryV1;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultTrace;
+import com.navercorp.pinpoint.profiler.context.EmptySpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.SpanFactory;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceHandle;
+import com.navercorp.pinpoint.profiler.context.errorhandler.BypassErrorHandler;
+import com.navercorp.pinpoint.profiler.context.errorhandler.IgnoreErrorHandler;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.recorder.DefaultSpanRecorder;
+import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorage;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
+import com.navercorp.pinpoint.profiler.metadata.DefaultSqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.DefaultStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.SimpleCache;
+import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.EmptyDataSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds {@link DefaultTrace} the same way as the DefaultBaseTraceFactory, without guice and network.
+ */
+public class TraceFixture {
+
+    public static final String AGENT_ID = "benchmark-agent";
+    public static final short SERVICE_TYPE = 1010;
+    // AnnotationKey.ARGS0
+    public static final int ANNOTATION_KEY = -1;
+
+    private static final int MAX_CALL_STACK_DEPTH = 512;
+    private static final int SPAN_EVENT_BUFFER_SIZE = 20;
+
+    private final long agentStartTime = System.currentTimeMillis();
+    private final AtomicLong transactionId = new AtomicLong();
+
+    private final IgnoreErrorHandler errorHandler = new BypassErrorHandler();
+    private final StringMetaDataService stringMetaDataService;
+    private final SqlMetaDataService sqlMetaDataService;
+    private final AsyncContextFactory asyncContextFactory = new UnsupportedAsyncContextFactory();
+
+    private final CallStackFactory<SpanEvent> callStackFactory;
+    private final SpanFactory spanFactory = new DefaultSpanFactory();
+    private final DataSender<Object> dataSender;
+
+    public TraceFixture() {
+        this(newEmptyDataSender());
+    }
+
+    public TraceFixture(DataSender<Object> dataSender) {
+        this(dataSender, EmptySpanEventRecycler.INSTANCE);
+    }
+
+    public TraceFixture(DataSender<Object> dataSender, SpanEventRecycler spanEventRecycler) {
+        this.dataSender = dataSender;
+        this.callStackFactory = new CallStackFactoryV1(MAX_CALL_STACK_DEPTH, spanEventRecycler);
+        final EmptyDataSender metadataSender = new EmptyDataSender();
+        this.stringMetaDataService = new DefaultStringMetaDataService(metadataSender, new SimpleCache<String>(new SimpleCache.ZigZagTransformer()));
+        this.sqlMetaDataService = new DefaultSqlMetaDataService(metadataSender, new SimpleCache<String>(new SimpleCache.ZigZagTransformer()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataSender<Object> newEmptyDataSender() {
+        return (DataSender<Object>) EmptyDataSender.INSTANCE;
+    }
+
+    public TraceRoot newTraceRoot() {
+        final long nextTransactionId = transactionId.incrementAndGet();
+        final TraceId traceId = new DefaultTraceId(AGENT_ID, agentStartTime, nextTransactionId);
+        return new DefaultTraceRoot(traceId, AGENT_ID, System.currentTimeMillis(), nextTransactionId);
+    }
+
+    public Trace newTrace() {
+        final TraceRoot traceRoot = newTraceRoot();
+        final Span span = spanFactory.newSpan(traceRoot);
+        span.setServiceType(SERVICE_TYPE);
+
+        final CallStack<SpanEvent> callStack = callStackFactory.newCallStack();
+        final Storage storage = new BufferedStorage(new DefaultSpanChunkFactory(traceRoot), dataSender, SPAN_EVENT_BUFFER_SIZE);
+
+        final SpanRecorder spanRecorder = new DefaultSpanRecorder(span, true, true, stringMetaDataService, sqlMetaDataService, errorHandler);
+        final WrappedSpanEventRecorder wrappedSpanEventRecorder = newWrappedSpanEventRecorder(traceRoot);
+        return new DefaultTrace(span, callStack, storage, true, spanRecorder, wrappedSpanEventRecorder, ActiveTraceHandle.EMPTY_HANDLE);
+    }
+
+    public WrappedSpanEventRecorder newWrappedSpanEventRecorder(TraceRoot traceRoot) {
+        return new WrappedSpanEventRecorder(traceRoot, asyncContextFactory, stringMetaDataService, sqlMetaDataService, errorHandler);
+    }
+
+    public Span newSpan(int spanEventCount, int annotationPerSpanEvent) {
+        final TraceRoot traceRoot = newTraceRoot();
+        final Span span = spanFactory.newSpan(traceRoot);
+        span.setServiceType(SERVICE_TYPE);
+        span.setRemoteAddr("127.0.0.1");
+        span.setApiId(1);
+        span.setElapsedTime(100);
+
+        final List<SpanEvent> spanEventList = new ArrayList<SpanEvent>(spanEventCount);
+        final long startTime = span.getStartTime();
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(i % 8 + 1);
+            spanEvent.setStartTime(startTime + i);
+            spanEvent.setElapsedTime(1);
+            spanEvent.setServiceType(SERVICE_TYPE);
+            spanEvent.setApiId(i + 2);
+            for (int j = 0; j < annotationPerSpanEvent; j++) {
+                spanEvent.addAnnotation(new Annotation(ANNOTATION_KEY, "value-" + j));
+            }
+            spanEventList.add(spanEvent);
+        }
+        span.setSpanEventList(spanEventList);
+        return span;
+    }
+
+    private static class UnsupportedAsyncContextFactory implements AsyncContextFactory {
+        @Override
+        public AsyncId newAsyncId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncContext newAsyncContext(TraceRoot traceRoot, AsyncId asyncId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncContext newAsyncContext(TraceRoot traceRoot, AsyncId asyncId, AsyncState asyncState) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
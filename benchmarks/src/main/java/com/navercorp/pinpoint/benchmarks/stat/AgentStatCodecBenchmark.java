@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmarks.stat;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.JvmGcCodecV2;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v3.JvmGcCodecV3;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value by value {@link JvmGcCodecV2} compared with the column oriented {@link JvmGcCodecV3}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgentStatCodecBenchmark {
+
+    private static final String AGENT_ID = "benchmark-agent";
+    private static final long COLLECT_INTERVAL = 5000;
+
+    @Param({"v2", "v3"})
+    private String codecVersion;
+
+    // number of the data points in a row
+    @Param({"60", "600"})
+    private int valueCount;
+
+    private AgentStatCodec<JvmGcBo> codec;
+    private List<JvmGcBo> jvmGcBos;
+    private byte[] encoded;
+    private AgentStatDecodingContext decodingContext;
+
+    @Setup
+    public void setup() {
+        if ("v3".equals(codecVersion)) {
+            this.codec = new JvmGcCodecV3();
+        } else {
+            this.codec = new JvmGcCodecV2(new AgentStatDataPointCodec());
+        }
+
+        final Random random = new Random(0);
+        final long startTimestamp = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        final long initialTimestamp = System.currentTimeMillis();
+        this.jvmGcBos = new ArrayList<>(valueCount);
+        long gcOldCount = 0;
+        long gcOldTime = 0;
+        for (int i = 0; i < valueCount; i++) {
+            final JvmGcBo jvmGcBo = new JvmGcBo();
+            jvmGcBo.setAgentId(AGENT_ID);
+            jvmGcBo.setStartTimestamp(startTimestamp);
+            jvmGcBo.setTimestamp(initialTimestamp + i * COLLECT_INTERVAL);
+            jvmGcBo.setGcType(JvmGcType.G1);
+            jvmGcBo.setHeapUsed(256 * 1024 * 1024L + random.nextInt(256 * 1024 * 1024));
+            jvmGcBo.setHeapMax(1024 * 1024 * 1024L);
+            jvmGcBo.setNonHeapUsed(64 * 1024 * 1024L + random.nextInt(1024 * 1024));
+            jvmGcBo.setNonHeapMax(-1L);
+            if (random.nextInt(10) == 0) {
+                gcOldCount++;
+                gcOldTime += random.nextInt(500);
+            }
+            jvmGcBo.setGcOldCount(gcOldCount);
+            jvmGcBo.setGcOldTime(gcOldTime);
+            jvmGcBos.add(jvmGcBo);
+        }
+
+        final Buffer buffer = new AutomaticBuffer();
+        codec.encodeValues(buffer, jvmGcBos);
+        this.encoded = buffer.getBuffer();
+
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        this.decodingContext = new AgentStatDecodingContext();
+        decodingContext.setAgentId(AGENT_ID);
+        decodingContext.setBaseTimestamp(baseTimestamp);
+        decodingContext.setTimestampDelta(initialTimestamp - baseTimestamp);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        final Buffer buffer = new AutomaticBuffer();
+        codec.encodeValues(buffer, jvmGcBos);
+        return buffer.getBuffer();
+    }
+
+    @Benchmark
+    public List<JvmGcBo> decode() {
+        final Buffer buffer = new FixedBuffer(encoded);
+        return codec.decodeValues(buffer, decodingContext);
+    }
+}
@@ -39,6 +39,8 @@ public interface DataReceiverGroupConfiguration {
 
     int getSocketCount();
 
+    boolean isUdpEpoll();
+
     int getWorkerThreadSize();
 
     int getWorkerQueueSize();
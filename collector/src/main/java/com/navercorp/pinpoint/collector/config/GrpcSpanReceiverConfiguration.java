@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.collector.config;
 import com.navercorp.pinpoint.common.server.config.AnnotationVisitor;
 import com.navercorp.pinpoint.common.server.config.LoggingEvent;
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.StringUtils;
 import com.navercorp.pinpoint.grpc.server.ServerOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 
 import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -72,6 +75,16 @@ public class GrpcSpanReceiverConfiguration {
     @Value("${collector.receiver.grpc.span.stream.idletimeout:-1}")
     private long grpcStreamIdleTimeout;
 
+    @Value("${collector.receiver.grpc.span.stream.fair.enable:false}")
+    private boolean grpcStreamFairEnable;
+    @Value("${collector.receiver.grpc.span.stream.fair.quantum:16}")
+    private int grpcStreamFairQuantum;
+    @Value("${collector.receiver.grpc.span.stream.fair.queue.size:1000}")
+    private int grpcStreamFairQueueSize;
+    // agentId or applicationName:weight, comma separated
+    @Value("${collector.receiver.grpc.span.stream.fair.weight:}")
+    private String grpcStreamFairWeight;
+
     private ServerOption grpcServerOption;
 
 
@@ -101,6 +114,12 @@ public class GrpcSpanReceiverConfiguration {
         Assert.isTrue(grpcWorkerExecutorQueueSize > 0, "grpcWorkerExecutorQueueSize must be greater than 0");
 
         Assert.isTrue(grpcStreamSchedulerThreadSize > 0, "grpcStreamSchedulerThreadSize must be greater than 0");
+
+        Assert.isTrue(grpcStreamFairQuantum > 0, "grpcStreamFairQuantum must be greater than 0");
+        Assert.isTrue(grpcStreamFairQueueSize > 0, "grpcStreamFairQueueSize must be greater than 0");
+        for (Integer weight : getGrpcStreamFairWeightMap().values()) {
+            Assert.isTrue(weight > 0, "grpcStreamFairWeight must be greater than 0");
+        }
     }
 
 
@@ -160,6 +179,34 @@ public class GrpcSpanReceiverConfiguration {
         return grpcStreamIdleTimeout;
     }
 
+    public boolean isGrpcStreamFairEnable() {
+        return grpcStreamFairEnable;
+    }
+
+    public int getGrpcStreamFairQuantum() {
+        return grpcStreamFairQuantum;
+    }
+
+    public int getGrpcStreamFairQueueSize() {
+        return grpcStreamFairQueueSize;
+    }
+
+    public Map<String, Integer> getGrpcStreamFairWeightMap() {
+        return parseWeightMap(grpcStreamFairWeight);
+    }
+
+    static Map<String, Integer> parseWeightMap(String weights) {
+        final Map<String, Integer> weightMap = new HashMap<>();
+        for (String token : StringUtils.tokenizeToStringList(weights, ",")) {
+            final int index = token.lastIndexOf(':');
+            Assert.isTrue(index > 0, "invalid weight:" + token);
+            final String key = token.substring(0, index).trim();
+            final int weight = Integer.parseInt(token.substring(index + 1).trim());
+            weightMap.put(key, weight);
+        }
+        return weightMap;
+    }
+
     public ServerOption getGrpcServerOption() {
         return grpcServerOption;
     }
@@ -181,6 +228,10 @@ public class GrpcSpanReceiverConfiguration {
         sb.append(", grpcStreamSchedulerPeriodMillis=").append(grpcStreamSchedulerPeriodMillis);
         sb.append(", grpcStreamSchedulerRecoveryMessageCount=").append(grpcStreamSchedulerRecoveryMessageCount);
         sb.append(", grpcStreamIdleTimeout=").append(grpcStreamIdleTimeout);
+        sb.append(", grpcStreamFairEnable=").append(grpcStreamFairEnable);
+        sb.append(", grpcStreamFairQuantum=").append(grpcStreamFairQuantum);
+        sb.append(", grpcStreamFairQueueSize=").append(grpcStreamFairQueueSize);
+        sb.append(", grpcStreamFairWeight='").append(grpcStreamFairWeight).append('\'');
         sb.append(", grpcServerOption=").append(grpcServerOption);
         sb.append('}');
         return sb.toString();
@@ -22,10 +22,17 @@ public class ScatterConfiguration {
     @Value("${collector.scatter.serverside-scan:v1}")
     private String serverSideScan;
 
+    @Value("${collector.scatter.rollup.enable:false}")
+    private boolean rollupEnable;
+
     public ServerSideScan getServerSideScan() {
         return ServerSideScan.valueOf(serverSideScan);
     }
 
+    public boolean isRollupEnable() {
+        return rollupEnable;
+    }
+
     @PostConstruct
     public void log() {
         logger.info("{}", this);
@@ -37,6 +44,7 @@ public class ScatterConfiguration {
     public String toString() {
         return "ScatterConfiguration{" +
                 "serverSideScan='" + serverSideScan + '\'' +
+                ", rollupEnable=" + rollupEnable +
                 '}';
     }
 }
@@ -59,6 +59,9 @@ public class SpanReceiverConfiguration implements DataReceiverGroupConfiguration
     @Value("${collector.receiver.span.udp.socket.count:-1}")
     private int socketCount;
 
+    @Value("${collector.receiver.span.udp.epoll:false}")
+    private boolean udpEpoll;
+
     @Value("${collector.receiver.span.worker.threadSize:256}")
     private int workerThreadSize;
 
@@ -144,6 +147,11 @@ public class SpanReceiverConfiguration implements DataReceiverGroupConfiguration
         return socketCount;
     }
 
+    @Override
+    public boolean isUdpEpoll() {
+        return udpEpoll;
+    }
+
     @Override
     public int getWorkerThreadSize() {
         return workerThreadSize;
@@ -171,6 +179,7 @@ public class SpanReceiverConfiguration implements DataReceiverGroupConfiguration
         sb.append(", udpReceiveBufferSize=").append(udpReceiveBufferSize);
         sb.append(", reusePort=").append(reusePort);
         sb.append(", socketCount=").append(socketCount);
+        sb.append(", udpEpoll=").append(udpEpoll);
         sb.append(", workerThreadSize=").append(workerThreadSize);
         sb.append(", workerQueueSize=").append(workerQueueSize);
         sb.append(", workerMonitorEnable=").append(workerMonitorEnable);
@@ -59,6 +59,9 @@ public class StatReceiverConfiguration implements DataReceiverGroupConfiguration
     @Value("${collector.receiver.stat.udp.socket.count:-1}")
     private int socketCount;
 
+    @Value("${collector.receiver.stat.udp.epoll:false}")
+    private boolean udpEpoll;
+
     @Value("${collector.receiver.stat.udp.reuseport:false}")
     private boolean reusePort;
 
@@ -143,6 +146,11 @@ public class StatReceiverConfiguration implements DataReceiverGroupConfiguration
         return socketCount;
     }
 
+    @Override
+    public boolean isUdpEpoll() {
+        return udpEpoll;
+    }
+
     @Override
     public int getWorkerThreadSize() {
         return workerThreadSize;
@@ -169,6 +177,7 @@ public class StatReceiverConfiguration implements DataReceiverGroupConfiguration
         sb.append(", udpBindPort=").append(udpBindPort);
         sb.append(", udpReceiveBufferSize=").append(udpReceiveBufferSize);
         sb.append(", socketCount=").append(socketCount);
+        sb.append(", udpEpoll=").append(udpEpoll);
         sb.append(", reusePort=").append(reusePort);
         sb.append(", workerThreadSize=").append(workerThreadSize);
         sb.append(", workerQueueSize=").append(workerQueueSize);
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.controller;
+
+import com.navercorp.pinpoint.grpc.server.flowcontrol.FairStreamScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per agent throughput and shed counters of the {@link FairStreamScheduler}.
+ */
+@Controller
+@RequestMapping("/streamScheduler")
+public class StreamSchedulerController {
+
+    private final List<FairStreamScheduler> fairStreamSchedulerList;
+
+    @Autowired
+    public StreamSchedulerController(List<FairStreamScheduler> fairStreamSchedulerList) {
+        this.fairStreamSchedulerList = Objects.requireNonNull(fairStreamSchedulerList, "fairStreamSchedulerList");
+    }
+
+    @RequestMapping(value = "/stats", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, List<StreamQueueStat>> getStats() {
+        final Map<String, List<StreamQueueStat>> result = new LinkedHashMap<>();
+        for (FairStreamScheduler scheduler : fairStreamSchedulerList) {
+            final List<StreamQueueStat> statList = new ArrayList<>();
+            for (FairStreamScheduler.StreamQueue streamQueue : scheduler.getStreamQueueList()) {
+                statList.add(new StreamQueueStat(streamQueue));
+            }
+            result.put(scheduler.getName(), statList);
+        }
+        return result;
+    }
+
+    public static class StreamQueueStat {
+        private final String key;
+        private final int weight;
+        private final int queueSize;
+        private final long processedCount;
+        private final long shedCount;
+
+        public StreamQueueStat(FairStreamScheduler.StreamQueue streamQueue) {
+            this.key = streamQueue.getKey();
+            this.weight = streamQueue.getWeight();
+            this.queueSize = streamQueue.getQueueSize();
+            this.processedCount = streamQueue.getProcessedCount();
+            this.shedCount = streamQueue.getShedCount();
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public long getProcessedCount() {
+            return processedCount;
+        }
+
+        public long getShedCount() {
+            return shedCount;
+        }
+    }
+}
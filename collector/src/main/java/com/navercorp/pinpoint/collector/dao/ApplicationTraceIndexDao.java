@@ -18,9 +18,16 @@ package com.navercorp.pinpoint.collector.dao;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 
+import java.util.List;
+
 /**
  * @author emeroad
  */
 public interface ApplicationTraceIndexDao {
     void insert(SpanBo span);
+
+    /**
+     * Writes the index of the spans with a single multi put.
+     */
+    void insert(List<SpanBo> spanList);
 }
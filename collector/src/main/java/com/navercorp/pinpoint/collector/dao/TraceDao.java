@@ -3,11 +3,18 @@ package com.navercorp.pinpoint.collector.dao;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 
+import java.util.List;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
 public interface TraceDao {
     boolean insert(SpanBo span);
 
+    /**
+     * Writes the spans with a single multi put.
+     */
+    void insert(List<SpanBo> spanList);
+
     boolean insertSpanChunk(SpanChunkBo spanChunk);
 }
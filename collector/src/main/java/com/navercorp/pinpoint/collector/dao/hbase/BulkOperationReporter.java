@@ -30,6 +30,8 @@ public class BulkOperationReporter {
 
     private volatile long lastFlushTimeMillis;
 
+    private volatile long memoryUsage;
+
     public void reportFlushAll() {
         flushCount.incrementAndGet();
         lastFlushTimeMillis = System.currentTimeMillis();
@@ -39,6 +41,10 @@ public class BulkOperationReporter {
         rejectedCount.increment();
     }
 
+    public void reportMemoryUsage(long memoryUsage) {
+        this.memoryUsage = memoryUsage;
+    }
+
     public long getFlushAllCount() {
         return flushCount.get();
     }
@@ -51,4 +57,11 @@ public class BulkOperationReporter {
         return lastFlushTimeMillis;
     }
 
+    /**
+     * @return estimated bytes held by the incrementer right before the last flush
+     */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkWriter;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.CallRowKey;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.ColumnName;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.ResponseColumnName;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowKey;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import com.navercorp.pinpoint.common.server.util.TimeSlot;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+
+/**
+ * Per minute agent stat counters of an application.
+ * Uses the same row key and column layout as the ApplicationMapStatisticsSelf table,
+ * the column slot number is the {@link AgentStatRollupField} code.
+ */
+@Repository
+public class HbaseAgentStatRollupDao implements AgentStatRollupDao {
+
+    private final TimeSlot timeSlot;
+    private final BulkWriter bulkWriter;
+
+    public HbaseAgentStatRollupDao(TimeSlot timeSlot,
+                                   @Qualifier("agentStatRollupBulkWriter") BulkWriter bulkWriter) {
+        this.timeSlot = Objects.requireNonNull(timeSlot, "timeSlot");
+        this.bulkWriter = Objects.requireNonNull(bulkWriter, "bulkWriter");
+    }
+
+    @Override
+    public void update(String applicationName, short applicationServiceType, String agentId, long timestamp, AgentStatRollupField field, long value) {
+        Objects.requireNonNull(applicationName, "applicationName");
+        Objects.requireNonNull(agentId, "agentId");
+        Objects.requireNonNull(field, "field");
+
+        final long rowTimeSlot = timeSlot.getTimeSlot(timestamp);
+        final RowKey rowKey = new CallRowKey(applicationName, applicationServiceType, rowTimeSlot);
+        final ColumnName columnName = new ResponseColumnName(agentId, field.getCode());
+        this.bulkWriter.increment(rowKey, columnName, value);
+    }
+
+    @Override
+    public void flushLink() {
+        this.bulkWriter.flushLink();
+    }
+
+    @Override
+    public void flushAvgMax() {
+        this.bulkWriter.flushAvgMax();
+    }
+}
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import com.navercorp.pinpoint.collector.config.ScatterConfiguration;
 import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.collector.monitor.SpanBatchMetrics;
 import com.navercorp.pinpoint.collector.util.CollectorUtils;
 import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
 import com.navercorp.pinpoint.common.buffer.Buffer;
@@ -29,10 +30,10 @@ import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.agent.ApplicationNameRowKeyEncoder;
 import com.navercorp.pinpoint.common.server.scatter.FuzzyRowKeyFactory;
 import com.navercorp.pinpoint.common.server.scatter.OneByteFuzzyRowKeyFactory;
-import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.server.util.SpanUtils;
 
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Put;
 import org.slf4j.Logger;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 
@@ -58,8 +61,6 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
     private final TableDescriptor<HbaseColumnFamily.ApplicationTraceIndexTrace> descriptor;
 
-    private final AcceptedTimeService acceptedTimeService;
-
     private final AbstractRowKeyDistributor rowKeyDistributor;
 
     private final FuzzyRowKeyFactory<Byte> fuzzyRowKeyFactory = new OneByteFuzzyRowKeyFactory();
@@ -67,16 +68,18 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
     private final ApplicationNameRowKeyEncoder rowKeyEncoder = new ApplicationNameRowKeyEncoder();
 
+    private final SpanBatchMetrics spanBatchMetrics;
+
     public HbaseApplicationTraceIndexDao(@Qualifier("asyncPutHbaseTemplate") HbaseOperations2 hbaseTemplate,
                                          TableDescriptor<HbaseColumnFamily.ApplicationTraceIndexTrace> descriptor,
                                          @Qualifier("applicationTraceIndexDistributor") AbstractRowKeyDistributor rowKeyDistributor,
-                                         AcceptedTimeService acceptedTimeService,
-                                         ScatterConfiguration scatterConfiguration) {
+                                         ScatterConfiguration scatterConfiguration,
+                                         SpanBatchMetrics spanBatchMetrics) {
         this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
-        this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
         this.rowKeyDistributor = Objects.requireNonNull(rowKeyDistributor, "rowKeyDistributor");
         this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
         this.scatterConfiguration = Objects.requireNonNull(scatterConfiguration, "scatterConfiguration");
+        this.spanBatchMetrics = Objects.requireNonNull(spanBatchMetrics, "spanBatchMetrics");
     }
 
     @Override
@@ -87,6 +90,41 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
             logger.debug("insert ApplicationTraceIndex: {}", span);
         }
 
+        final Put put = createPut(span);
+
+        final TableName applicationTraceIndexTableName = descriptor.getTableName();
+        hbaseTemplate.asyncPut(applicationTraceIndexTableName, put);
+    }
+
+    @Override
+    public void insert(List<SpanBo> spanList) {
+        Objects.requireNonNull(spanList, "spanList");
+        if (spanList.isEmpty()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert ApplicationTraceIndex size:{}", spanList.size());
+        }
+
+        final List<Put> putList = new ArrayList<>(spanList.size());
+        for (SpanBo span : spanList) {
+            try {
+                putList.add(createPut(span));
+            } catch (Exception e) {
+                // skip the invalid span only
+                logger.warn("Failed to create ApplicationTraceIndex put. span:{}", span, e);
+            }
+        }
+
+        final TableName applicationTraceIndexTableName = descriptor.getTableName();
+        final List<Put> rejectedPutList = hbaseTemplate.asyncPut(applicationTraceIndexTableName, putList);
+        if (CollectionUtils.isNotEmpty(rejectedPutList)) {
+            spanBatchMetrics.asyncPutReject(rejectedPutList.size());
+            hbaseTemplate.put(applicationTraceIndexTableName, rejectedPutList);
+        }
+    }
+
+    private Put createPut(SpanBo span) {
         // Assert agentId
         CollectorUtils.checkAgentId(span.getAgentId());
         // Assert applicationName
@@ -98,15 +136,14 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         buffer.putPrefixedString(span.getAgentId());
         final byte[] value = buffer.getBuffer();
 
-        final long acceptedTime = acceptedTimeService.getAcceptedTime();
+        // the span may be written long after it was accepted when the spans are batched
+        final long acceptedTime = span.getCollectorAcceptTime();
         final byte[] distributedKey = createRowKey(span, acceptedTime);
 
         final Put put = new Put(distributedKey);
 
         put.addColumn(descriptor.getColumnFamilyName(), makeQualifier(span) , acceptedTime, value);
-
-        final TableName applicationTraceIndexTableName = descriptor.getTableName();
-        hbaseTemplate.asyncPut(applicationTraceIndexTableName, put);
+        return put;
     }
 
     private byte[] makeQualifier(final SpanBo span) {
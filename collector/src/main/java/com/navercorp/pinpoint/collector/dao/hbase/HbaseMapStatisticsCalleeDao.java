@@ -74,6 +74,13 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     @Override
     public void update(String calleeApplicationName, ServiceType calleeServiceType, String callerApplicationName, ServiceType callerServiceType, String callerHost, int elapsed, boolean isError) {
+        final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        update(calleeApplicationName, calleeServiceType, callerApplicationName, callerServiceType, callerHost, callerSlotNumber, 1, elapsed, elapsed);
+    }
+
+    @Override
+    public void update(String calleeApplicationName, ServiceType calleeServiceType, String callerApplicationName, ServiceType callerServiceType, String callerHost,
+                       short callerSlotNumber, long count, long elapsedSum, long maxElapsed) {
         Objects.requireNonNull(calleeApplicationName, "calleeApplicationName");
         Objects.requireNonNull(callerApplicationName, "callerApplicationName");
 
@@ -97,20 +104,18 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
         final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot);
 
-        final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
-
         HistogramSchema histogramSchema = calleeServiceType.getHistogramSchema();
 
         final ColumnName callerColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
-        this.bulkWriter.increment(calleeRowKey, callerColumnName);
+        this.bulkWriter.increment(calleeRowKey, callerColumnName, count);
 
         if (mapLinkConfiguration.isEnableAvg()) {
             final ColumnName sumColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, histogramSchema.getSumStatSlot().getSlotTime());
-            this.bulkWriter.increment(calleeRowKey, sumColumnName, elapsed);
+            this.bulkWriter.increment(calleeRowKey, sumColumnName, elapsedSum);
         }
         if (mapLinkConfiguration.isEnableMax()) {
             final ColumnName maxColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, histogramSchema.getMaxStatSlot().getSlotTime());
-            this.bulkWriter.updateMax(calleeRowKey, maxColumnName, elapsed);
+            this.bulkWriter.updateMax(calleeRowKey, maxColumnName, maxElapsed);
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.dao.ScatterRollupDao;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkConfiguration;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkWriter;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.ColumnName;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.DefaultRowInfo;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowInfo;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowKey;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.ScatterRollupColumnName;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.ScatterRollupRowKey;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableDescriptor;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pre-aggregated scatter of an application.
+ * Every cell (x slot, elapsed slot, error, agent) of a minute row counts its transactions
+ * and keeps the first transaction seen in each flush interval as the sample shown on the scatter chart.
+ */
+@Repository
+public class HbaseScatterRollupDao implements ScatterRollupDao {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HbaseOperations2 hbaseTemplate;
+    private final TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor;
+    private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+    private final BulkWriter bulkWriter;
+    private final int maxSampleSize;
+
+    private final AtomicReference<Map<RowInfo, byte[]>> sampleMap = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    public HbaseScatterRollupDao(@Qualifier("asyncPutHbaseTemplate") HbaseOperations2 hbaseTemplate,
+                                 TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor,
+                                 @Qualifier("scatterRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix,
+                                 @Qualifier("scatterRollupBulkWriter") BulkWriter bulkWriter,
+                                 BulkConfiguration bulkConfiguration) {
+        this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
+        this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
+        this.rowKeyDistributorByHashPrefix = Objects.requireNonNull(rowKeyDistributorByHashPrefix, "rowKeyDistributorByHashPrefix");
+        this.bulkWriter = Objects.requireNonNull(bulkWriter, "bulkWriter");
+        Objects.requireNonNull(bulkConfiguration, "bulkConfiguration");
+        this.maxSampleSize = bulkConfiguration.getSelfLimitSize();
+    }
+
+    @Override
+    public void insert(SpanBo span) {
+        Objects.requireNonNull(span, "span");
+
+        final long acceptedTime = span.getCollectorAcceptTime();
+        final RowKey rowKey = new ScatterRollupRowKey(span.getApplicationId(), ScatterRollupUtils.getRowTimeSlot(acceptedTime));
+        final int xSlot = ScatterRollupUtils.getXSlot(acceptedTime);
+        final int elapsedSlot = ScatterRollupUtils.getElapsedSlot(span.getElapsed());
+        final ColumnName columnName = new ScatterRollupColumnName(xSlot, elapsedSlot, span.getErrCode() != 0, span.getAgentId());
+
+        this.bulkWriter.increment(rowKey, columnName);
+        addSample(rowKey, columnName, span);
+    }
+
+    private void addSample(RowKey rowKey, ColumnName columnName, SpanBo span) {
+        final Map<RowInfo, byte[]> sampleMap = this.sampleMap.get();
+        if (maxSampleSize > 0 && sampleMap.size() >= maxSampleSize) {
+            return;
+        }
+        final RowInfo rowInfo = new DefaultRowInfo(descriptor.getTableName(), rowKey, columnName);
+        if (sampleMap.containsKey(rowInfo)) {
+            return;
+        }
+        sampleMap.putIfAbsent(rowInfo, ScatterRollupUtils.makeSampleValue(span));
+    }
+
+    @Override
+    public void flushLink() {
+        this.bulkWriter.flushLink();
+        flushSample();
+    }
+
+    private void flushSample() {
+        final Map<RowInfo, byte[]> sampleMap = this.sampleMap.getAndSet(new ConcurrentHashMap<>());
+        if (sampleMap.isEmpty()) {
+            return;
+        }
+
+        final byte[] family = HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_SAMPLE.getName();
+        final List<Put> putList = new ArrayList<>(sampleMap.size());
+        for (Map.Entry<RowInfo, byte[]> entry : sampleMap.entrySet()) {
+            final RowInfo rowInfo = entry.getKey();
+            final byte[] rowKey = rowKeyDistributorByHashPrefix.getDistributedKey(rowInfo.getRowKey().getRowKey());
+            final Put put = new Put(rowKey);
+            put.addColumn(family, rowInfo.getColumnName().getColumnName(), entry.getValue());
+            putList.add(put);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("flush {} Put:{}", this.getClass().getSimpleName(), putList.size());
+        }
+        final TableName tableName = descriptor.getTableName();
+        final List<Put> rejectedPutList = this.hbaseTemplate.asyncPut(tableName, putList);
+        if (CollectionUtils.isNotEmpty(rejectedPutList)) {
+            logger.info("asyncPut rejected, put {} samples synchronously", rejectedPutList.size());
+            this.hbaseTemplate.put(tableName, rejectedPutList);
+        }
+    }
+
+    @Override
+    public void flushAvgMax() {
+        this.bulkWriter.flushAvgMax();
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.dao.hbase;
 
 import com.navercorp.pinpoint.collector.dao.TraceDao;
+import com.navercorp.pinpoint.collector.monitor.SpanBatchMetrics;
 import com.navercorp.pinpoint.collector.util.CollectorUtils;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
@@ -36,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -57,16 +59,20 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private final RowKeyEncoder<TransactionId> rowKeyEncoder;
 
+    private final SpanBatchMetrics spanBatchMetrics;
+
     public HbaseTraceDaoV2(@Qualifier("asyncPutHbaseTemplate") HbaseOperations2 hbaseTemplate,
                            TableDescriptor<HbaseColumnFamily.Trace> descriptor,
                            @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
                            SpanSerializerV2 spanSerializer,
-                           SpanChunkSerializerV2 spanChunkSerializer) {
+                           SpanChunkSerializerV2 spanChunkSerializer,
+                           SpanBatchMetrics spanBatchMetrics) {
         this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
         this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
         this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
         this.spanSerializer = Objects.requireNonNull(spanSerializer, "spanSerializer");
         this.spanChunkSerializer = Objects.requireNonNull(spanChunkSerializer, "spanChunkSerializer");
+        this.spanBatchMetrics = Objects.requireNonNull(spanBatchMetrics, "spanBatchMetrics");
     }
 
     @Override
@@ -76,6 +82,42 @@ public class HbaseTraceDaoV2 implements TraceDao {
             logger.debug("insert trace: {}", spanBo);
         }
 
+        final Put put = createPut(spanBo);
+
+        TableName traceTableName = descriptor.getTableName();
+
+        return hbaseTemplate.asyncPut(traceTableName, put);
+    }
+
+    @Override
+    public void insert(List<SpanBo> spanList) {
+        Objects.requireNonNull(spanList, "spanList");
+        if (spanList.isEmpty()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert trace size:{}", spanList.size());
+        }
+
+        final List<Put> putList = new ArrayList<>(spanList.size());
+        for (SpanBo spanBo : spanList) {
+            try {
+                putList.add(createPut(spanBo));
+            } catch (Exception e) {
+                // skip the invalid span only
+                logger.warn("Failed to create trace put. span:{}", spanBo, e);
+            }
+        }
+
+        TableName traceTableName = descriptor.getTableName();
+        final List<Put> rejectedPutList = hbaseTemplate.asyncPut(traceTableName, putList);
+        if (CollectionUtils.isNotEmpty(rejectedPutList)) {
+            spanBatchMetrics.asyncPutReject(rejectedPutList.size());
+            hbaseTemplate.put(traceTableName, rejectedPutList);
+        }
+    }
+
+    private Put createPut(SpanBo spanBo) {
         // Assert agentId
         CollectorUtils.checkAgentId(spanBo.getAgentId());
         // Assert applicationName
@@ -88,10 +130,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
         final Put put = new Put(rowKey, acceptedTime);
 
         this.spanSerializer.serialize(spanBo, put, null);
-
-        TableName traceTableName = descriptor.getTableName();
-
-        return hbaseTemplate.asyncPut(traceTableName, put);
+        return put;
     }
 
     @Override
@@ -22,7 +22,10 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.HbaseTable;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.CpuLoadSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSerializer;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
@@ -31,6 +34,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Put;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -48,15 +52,21 @@ public class HbaseCpuLoadDao implements AgentStatDaoV2<CpuLoadBo> {
 
     private final AgentStatHbaseOperationFactory agentStatHbaseOperationFactory;
 
-    private final CpuLoadSerializer cpuLoadSerializer;
+    private final HbaseSerializer<List<CpuLoadBo>, Put> cpuLoadSerializer;
 
     public HbaseCpuLoadDao(@Qualifier("asyncPutHbaseTemplate") HbaseOperations2 hbaseTemplate,
                            TableNameProvider tableNameProvider, AgentStatHbaseOperationFactory agentStatHbaseOperationFactory,
-                           CpuLoadSerializer cpuLoadSerializer) {
+                           CpuLoadSerializer cpuLoadSerializer,
+                           @Value("${collector.stat.columnar.enable:false}") boolean columnarEnable) {
         this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
         this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
         this.agentStatHbaseOperationFactory = Objects.requireNonNull(agentStatHbaseOperationFactory, "agentStatHbaseOperationFactory");
-        this.cpuLoadSerializer = Objects.requireNonNull(cpuLoadSerializer, "cpuLoadSerializer");
+        Objects.requireNonNull(cpuLoadSerializer, "cpuLoadSerializer");
+        if (columnarEnable) {
+            this.cpuLoadSerializer = new AgentStatColumnSerializer<>(AgentStatColumnSchemas.CPU_LOAD);
+        } else {
+            this.cpuLoadSerializer = cpuLoadSerializer;
+        }
     }
 
     @Override
@@ -23,6 +23,8 @@ import com.navercorp.pinpoint.common.hbase.HbaseTable;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.JvmGcSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSerializer;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
@@ -32,6 +34,7 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Put;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -56,6 +59,11 @@ public class HbaseJvmGcDao implements AgentStatDaoV2<JvmGcBo> {
     @Autowired
     private JvmGcSerializer jvmGcSerializer;
 
+    @Value("${collector.stat.columnar.enable:false}")
+    private boolean columnarEnable;
+
+    private final AgentStatColumnSerializer<JvmGcBo> jvmGcColumnSerializer = new AgentStatColumnSerializer<>(AgentStatColumnSchemas.JVM_GC);
+
     @Override
     public void insert(String agentId, List<JvmGcBo> jvmGcBos) {
         Objects.requireNonNull(agentId, "agentId");
@@ -65,7 +73,12 @@ public class HbaseJvmGcDao implements AgentStatDaoV2<JvmGcBo> {
         if (CollectionUtils.isEmpty(jvmGcBos)) {
             return;
         }
-        List<Put> jvmGcBoPuts = this.agentStatHbaseOperationFactory.createPuts(agentId, AgentStatType.JVM_GC, jvmGcBos, this.jvmGcSerializer);
+        final List<Put> jvmGcBoPuts;
+        if (columnarEnable) {
+            jvmGcBoPuts = this.agentStatHbaseOperationFactory.createPuts(agentId, AgentStatType.JVM_GC, jvmGcBos, this.jvmGcColumnSerializer);
+        } else {
+            jvmGcBoPuts = this.agentStatHbaseOperationFactory.createPuts(agentId, AgentStatType.JVM_GC, jvmGcBos, this.jvmGcSerializer);
+        }
         if (!jvmGcBoPuts.isEmpty()) {
             TableName agentStatTableName = tableNameProvider.getTableName(HbaseTable.AGENT_STAT_VER2);
             this.hbaseTemplate.asyncPut(agentStatTableName, jvmGcBoPuts);
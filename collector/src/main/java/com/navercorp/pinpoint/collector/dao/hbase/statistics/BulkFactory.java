@@ -1,9 +1,11 @@
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.navercorp.pinpoint.collector.dao.hbase.BulkOperationReporter;
+import com.navercorp.pinpoint.collector.dao.hbase.HbaseAgentStatRollupDao;
 import com.navercorp.pinpoint.collector.dao.hbase.HbaseMapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.HbaseMapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.HbaseMapStatisticsCallerDao;
+import com.navercorp.pinpoint.collector.dao.hbase.HbaseScatterRollupDao;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.TableDescriptor;
@@ -34,6 +36,11 @@ public class BulkFactory {
 
     private BulkIncrementer newBulkIncrementer(String reporterName, HbaseColumnFamily hbaseColumnFamily, int limitSize) {
         BulkOperationReporter reporter = bulkOperationReporterFactory.getBulkOperationReporter(reporterName);
+        if (bulkConfiguration.enablePrimitiveIncrementer()) {
+            // always bounded, limitSize is applied to the table itself
+            int maxSize = limitSize > 0 ? limitSize : PrimitiveBulkIncrementer.DEFAULT_MAX_SIZE;
+            return new PrimitiveBulkIncrementer(hbaseColumnFamily.getName(), maxSize, reporter);
+        }
         RowKeyMerge merge = new RowKeyMerge(hbaseColumnFamily);
         BulkIncrementer bulkIncrementer = new DefaultBulkIncrementer(merge);
 
@@ -138,6 +145,56 @@ public class BulkFactory {
         return newBulkWriter(loggerName, hbaseTemplate, descriptor, rowKeyDistributorByHashPrefix, bulkIncrementer, bulkUpdater);
     }
 
+    @Bean("agentStatRollupBulkIncrementer")
+    public BulkIncrementer getAgentStatRollupBulkIncrementer() {
+        String reporterName = "agentStatRollupBulkIncrementerReporter";
+        HbaseColumnFamily hbaseColumnFamily = HbaseColumnFamily.AGENT_STAT_ROLLUP_COUNTER;
+        int limitSize = bulkConfiguration.getSelfLimitSize();
+
+        return newBulkIncrementer(reporterName, hbaseColumnFamily, limitSize);
+    }
+
+    @Bean("agentStatRollupBulkUpdater")
+    public BulkUpdater getAgentStatRollupBulkUpdater() {
+        String reporterName = "agentStatRollupBulkUpdaterReporter";
+        return getBulkUpdater(reporterName);
+    }
+
+    @Bean("agentStatRollupBulkWriter")
+    public BulkWriter newAgentStatRollupBulkWriter(HbaseOperations2 hbaseTemplate,
+                                                   TableDescriptor<HbaseColumnFamily.AgentStatRollup> descriptor,
+                                                   @Qualifier("agentStatRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix,
+                                                   @Qualifier("agentStatRollupBulkIncrementer") BulkIncrementer bulkIncrementer,
+                                                   @Qualifier("agentStatRollupBulkUpdater") BulkUpdater bulkUpdater) {
+        String loggerName = newBulkWriterName(HbaseAgentStatRollupDao.class.getName());
+        return newBulkWriter(loggerName, hbaseTemplate, descriptor, rowKeyDistributorByHashPrefix, bulkIncrementer, bulkUpdater);
+    }
+
+    @Bean("scatterRollupBulkIncrementer")
+    public BulkIncrementer getScatterRollupBulkIncrementer() {
+        String reporterName = "scatterRollupBulkIncrementerReporter";
+        HbaseColumnFamily hbaseColumnFamily = HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER;
+        int limitSize = bulkConfiguration.getSelfLimitSize();
+
+        return newBulkIncrementer(reporterName, hbaseColumnFamily, limitSize);
+    }
+
+    @Bean("scatterRollupBulkUpdater")
+    public BulkUpdater getScatterRollupBulkUpdater() {
+        String reporterName = "scatterRollupBulkUpdaterReporter";
+        return getBulkUpdater(reporterName);
+    }
+
+    @Bean("scatterRollupBulkWriter")
+    public BulkWriter newScatterRollupBulkWriter(HbaseOperations2 hbaseTemplate,
+                                                 TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor,
+                                                 @Qualifier("scatterRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix,
+                                                 @Qualifier("scatterRollupBulkIncrementer") BulkIncrementer bulkIncrementer,
+                                                 @Qualifier("scatterRollupBulkUpdater") BulkUpdater bulkUpdater) {
+        String loggerName = newBulkWriterName(HbaseScatterRollupDao.class.getName());
+        return newBulkWriter(loggerName, hbaseTemplate, descriptor, rowKeyDistributorByHashPrefix, bulkIncrementer, bulkUpdater);
+    }
+
     private String newBulkWriterName(String className) {
         return className + "-writer";
     }
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.dao.hbase.BulkOperationReporter;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link BulkIncrementer} that keeps the counters in a striped open addressing table of primitive longs.
+ * <p>
+ * Row key and column name are interned into a single byte[] ({@code rowKeyLength(2) + rowKey + columnName})
+ * on first use, so an entry costs one byte[] and a few array slots instead of a RowInfo, RowKey, ColumnName and AtomicLong.
+ * The number of entries is bounded by {@code maxSize}. Increments for new keys are rejected once the bound is reached.
+ */
+class PrimitiveBulkIncrementer implements BulkIncrementer {
+
+    static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+    static final int DEFAULT_STRIPE_SIZE = 16;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+    private static final int ROW_KEY_LENGTH_SIZE = 2;
+    // object header + length + reference
+    private static final int KEY_OVERHEAD = 16 + 4;
+    // keys + tableNames + hashes + values
+    private static final int SLOT_SIZE = 4 + 4 + 4 + 8;
+
+    private final byte[] family;
+    private final int maxSize;
+    private final BulkOperationReporter reporter;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    PrimitiveBulkIncrementer(byte[] family, int maxSize, BulkOperationReporter reporter) {
+        this(family, maxSize, DEFAULT_STRIPE_SIZE, reporter);
+    }
+
+    PrimitiveBulkIncrementer(byte[] family, int maxSize, int stripeSize, BulkOperationReporter reporter) {
+        Objects.requireNonNull(family, "family");
+        this.family = Arrays.copyOf(family, family.length);
+
+        Assert.isTrue(maxSize > 0, "maxSize must be ' > 0'");
+        this.maxSize = maxSize;
+
+        Assert.isTrue(stripeSize > 0 && Integer.bitCount(stripeSize) == 1, "stripeSize must be a power of two");
+        this.stripes = new Stripe[stripeSize];
+        for (int i = 0; i < stripeSize; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeSize - 1;
+
+        this.reporter = Objects.requireNonNull(reporter, "reporter");
+    }
+
+    @Override
+    public void increment(TableName tableName, RowKey rowKey, ColumnName columnName) {
+        increment(tableName, rowKey, columnName, 1L);
+    }
+
+    @Override
+    public void increment(TableName tableName, RowKey rowKey, ColumnName columnName, long addition) {
+        Objects.requireNonNull(tableName, "tableName");
+        final byte[] row = rowKey.getRowKey();
+        final byte[] column = columnName.getColumnName();
+
+        final int hash = hash(tableName, row, column);
+        // the low bits pick the slot, the high bits pick the stripe
+        final Stripe stripe = stripes[(hash >>> 24) & stripeMask];
+        final boolean success;
+        synchronized (stripe) {
+            success = stripe.add(tableName, row, column, hash, addition);
+        }
+        if (!success) {
+            reporter.reportReject();
+        }
+    }
+
+    private static int hash(TableName tableName, byte[] row, byte[] column) {
+        int hash = tableName.hashCode();
+        hash = 31 * hash + Arrays.hashCode(row);
+        hash = 31 * hash + Arrays.hashCode(column);
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public Map<TableName, List<Increment>> getIncrements(RowKeyDistributorByHashPrefix rowKeyDistributor) {
+        reporter.reportMemoryUsage(getMemoryUsage());
+
+        final List<Stripe> snapshotList = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            final Stripe snapshot;
+            synchronized (stripe) {
+                snapshot = stripe.drain();
+            }
+            if (snapshot.size != 0) {
+                snapshotList.add(snapshot);
+            }
+        }
+        try {
+            if (snapshotList.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            return createBulkIncrement(snapshotList, rowKeyDistributor);
+        } finally {
+            reporter.reportFlushAll();
+        }
+    }
+
+    private Map<TableName, List<Increment>> createBulkIncrement(List<Stripe> snapshotList, RowKeyDistributorByHashPrefix rowKeyDistributor) {
+        final Map<TableName, Map<ByteBuffer, Increment>> tables = new HashMap<>();
+        for (Stripe snapshot : snapshotList) {
+            for (int i = 0; i < snapshot.keys.length; i++) {
+                final byte[] key = snapshot.keys[i];
+                if (key == null) {
+                    continue;
+                }
+                final int rowKeyLength = getRowKeyLength(key);
+                final Map<ByteBuffer, Increment> rows = tables.computeIfAbsent(snapshot.tableNames[i], k -> new HashMap<>());
+                final ByteBuffer rowKey = ByteBuffer.wrap(key, ROW_KEY_LENGTH_SIZE, rowKeyLength).slice();
+                Increment increment = rows.get(rowKey);
+                if (increment == null) {
+                    increment = new Increment(getDistributedKey(rowKey, rowKeyDistributor));
+                    rows.put(rowKey, increment);
+                }
+                final byte[] column = Arrays.copyOfRange(key, ROW_KEY_LENGTH_SIZE + rowKeyLength, key.length);
+                increment.addColumn(family, column, snapshot.values[i]);
+            }
+        }
+
+        final Map<TableName, List<Increment>> tableIncrementMap = new HashMap<>(tables.size());
+        for (Map.Entry<TableName, Map<ByteBuffer, Increment>> entry : tables.entrySet()) {
+            tableIncrementMap.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+        }
+        return tableIncrementMap;
+    }
+
+    private byte[] getDistributedKey(ByteBuffer rowKey, RowKeyDistributorByHashPrefix rowKeyDistributor) {
+        final byte[] key = new byte[rowKey.remaining()];
+        rowKey.duplicate().get(key);
+        if (rowKeyDistributor == null) {
+            return key;
+        }
+        return rowKeyDistributor.getDistributedKey(key);
+    }
+
+    private static int getRowKeyLength(byte[] key) {
+        return ((key[0] & 0xff) << 8) | (key[1] & 0xff);
+    }
+
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return estimated bytes held by the counter table. not synchronized, for monitoring only
+     */
+    long getMemoryUsage() {
+        long memoryUsage = 0;
+        for (Stripe stripe : stripes) {
+            memoryUsage += (long) stripe.keys.length * SLOT_SIZE;
+            memoryUsage += stripe.keyBytes;
+        }
+        return memoryUsage;
+    }
+
+    private class Stripe {
+        private byte[][] keys;
+        private TableName[] tableNames;
+        private int[] hashes;
+        private long[] values;
+        private int size;
+        private long keyBytes;
+
+        private Stripe() {
+            this(INITIAL_STRIPE_CAPACITY);
+        }
+
+        private Stripe(int capacity) {
+            this.keys = new byte[capacity][];
+            this.tableNames = new TableName[capacity];
+            this.hashes = new int[capacity];
+            this.values = new long[capacity];
+        }
+
+        private boolean add(TableName tableName, byte[] row, byte[] column, int hash, long addition) {
+            final int mask = keys.length - 1;
+            int index = hash & mask;
+            while (true) {
+                final byte[] key = keys[index];
+                if (key == null) {
+                    break;
+                }
+                if (hashes[index] == hash && tableName.equals(tableNames[index]) && equalsKey(key, row, column)) {
+                    values[index] += addition;
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+
+            if (PrimitiveBulkIncrementer.this.size.incrementAndGet() > maxSize) {
+                PrimitiveBulkIncrementer.this.size.decrementAndGet();
+                return false;
+            }
+            final byte[] key = newKey(row, column);
+            keys[index] = key;
+            tableNames[index] = tableName;
+            hashes[index] = hash;
+            values[index] = addition;
+            size++;
+            keyBytes += key.length + KEY_OVERHEAD;
+            if (size * 4 >= keys.length * 3) {
+                rehash(keys.length << 1);
+            }
+            return true;
+        }
+
+        private void rehash(int newCapacity) {
+            final byte[][] oldKeys = keys;
+            final TableName[] oldTableNames = tableNames;
+            final int[] oldHashes = hashes;
+            final long[] oldValues = values;
+
+            this.keys = new byte[newCapacity][];
+            this.tableNames = new TableName[newCapacity];
+            this.hashes = new int[newCapacity];
+            this.values = new long[newCapacity];
+
+            final int mask = newCapacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                tableNames[index] = oldTableNames[i];
+                hashes[index] = oldHashes[i];
+                values[index] = oldValues[i];
+            }
+        }
+
+        /**
+         * Moves all entries into a new Stripe and resets this one.
+         */
+        private Stripe drain() {
+            final Stripe snapshot = new Stripe(0);
+            snapshot.keys = this.keys;
+            snapshot.tableNames = this.tableNames;
+            snapshot.hashes = this.hashes;
+            snapshot.values = this.values;
+            snapshot.size = this.size;
+
+            if (this.size != 0) {
+                PrimitiveBulkIncrementer.this.size.addAndGet(-this.size);
+                this.keys = new byte[INITIAL_STRIPE_CAPACITY][];
+                this.tableNames = new TableName[INITIAL_STRIPE_CAPACITY];
+                this.hashes = new int[INITIAL_STRIPE_CAPACITY];
+                this.values = new long[INITIAL_STRIPE_CAPACITY];
+                this.size = 0;
+                this.keyBytes = 0;
+            }
+            return snapshot;
+        }
+    }
+
+    private static byte[] newKey(byte[] row, byte[] column) {
+        Assert.isTrue(row.length <= 0xffff, "rowKey too long");
+        final byte[] key = new byte[ROW_KEY_LENGTH_SIZE + row.length + column.length];
+        key[0] = (byte) (row.length >>> 8);
+        key[1] = (byte) row.length;
+        System.arraycopy(row, 0, key, ROW_KEY_LENGTH_SIZE, row.length);
+        System.arraycopy(column, 0, key, ROW_KEY_LENGTH_SIZE + row.length, column.length);
+        return key;
+    }
+
+    private static boolean equalsKey(byte[] key, byte[] row, byte[] column) {
+        if (key.length != ROW_KEY_LENGTH_SIZE + row.length + column.length) {
+            return false;
+        }
+        if (getRowKeyLength(key) != row.length) {
+            return false;
+        }
+        int offset = ROW_KEY_LENGTH_SIZE;
+        for (byte b : row) {
+            if (key[offset++] != b) {
+                return false;
+            }
+        }
+        for (byte b : column) {
+            if (key[offset++] != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveBulkIncrementer{" +
+                "maxSize=" + maxSize +
+                ", stripes=" + stripes.length +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+
+import java.util.Objects;
+
+public class ScatterRollupColumnName implements ColumnName {
+
+    private final int xSlot;
+    private final int elapsedSlot;
+    private final boolean error;
+    private final String agentId;
+
+    // WARNING - cached hash value should not be included for equals/hashCode
+    private int hash;
+
+    private long callCount;
+
+    public ScatterRollupColumnName(int xSlot, int elapsedSlot, boolean error, String agentId) {
+        this.xSlot = xSlot;
+        this.elapsedSlot = elapsedSlot;
+        this.error = error;
+        this.agentId = Objects.requireNonNull(agentId, "agentId");
+    }
+
+    @Override
+    public long getCallCount() {
+        return callCount;
+    }
+
+    @Override
+    public void setCallCount(long callCount) {
+        this.callCount = callCount;
+    }
+
+    @Override
+    public byte[] getColumnName() {
+        return ScatterRollupUtils.makeColumnName(xSlot, elapsedSlot, error, agentId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScatterRollupColumnName that = (ScatterRollupColumnName) o;
+
+        if (xSlot != that.xSlot) return false;
+        if (elapsedSlot != that.elapsedSlot) return false;
+        if (error != that.error) return false;
+        return agentId.equals(that.agentId);
+    }
+
+    @Override
+    public int hashCode() {
+        // take care when modifying this method - contains hashCodes for hbasekeys
+        if (hash != 0) {
+            return hash;
+        }
+        int result = xSlot;
+        result = 31 * result + elapsedSlot;
+        result = 31 * result + (error ? 1 : 0);
+        result = 31 * result + agentId.hashCode();
+        hash = result;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterRollupColumnName{" +
+                "xSlot=" + xSlot +
+                ", elapsedSlot=" + elapsedSlot +
+                ", error=" + error +
+                ", agentId='" + agentId + '\'' +
+                ", callCount=" + callCount +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+
+import java.util.Objects;
+
+public class ScatterRollupRowKey implements RowKey {
+    private final String applicationName;
+    private final long rowTimeSlot;
+
+    // WARNING - cached hash value should not be included for equals/hashCode
+    private int hash;
+
+    public ScatterRollupRowKey(String applicationName, long rowTimeSlot) {
+        this.applicationName = Objects.requireNonNull(applicationName, "applicationName");
+        this.rowTimeSlot = rowTimeSlot;
+    }
+
+    @Override
+    public byte[] getRowKey() {
+        return ScatterRollupUtils.makeRowKey(applicationName, rowTimeSlot);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScatterRollupRowKey that = (ScatterRollupRowKey) o;
+
+        if (rowTimeSlot != that.rowTimeSlot) return false;
+        return applicationName.equals(that.applicationName);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash != 0) {
+            return hash;
+        }
+        int result = applicationName.hashCode();
+        result = 31 * result + (int) (rowTimeSlot ^ (rowTimeSlot >>> 32));
+        hash = result;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterRollupRowKey{" +
+                "applicationName='" + applicationName + '\'' +
+                ", rowTimeSlot=" + rowTimeSlot +
+                '}';
+    }
+}
@@ -18,7 +18,7 @@ package com.navercorp.pinpoint.collector.handler.grpc;
 
 import com.google.protobuf.GeneratedMessageV3;
 import com.navercorp.pinpoint.collector.handler.SimpleHandler;
-import com.navercorp.pinpoint.collector.service.TraceService;
+import com.navercorp.pinpoint.collector.service.SpanBatchWriter;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanFactory;
 import com.navercorp.pinpoint.grpc.Header;
@@ -48,13 +48,13 @@ public class GrpcSpanHandler implements SimpleHandler<GeneratedMessageV3> {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final boolean isDebug = logger.isDebugEnabled();
 
-    private final TraceService traceService;
+    private final SpanBatchWriter spanBatchWriter;
 
     private final GrpcSpanFactory spanFactory;
 
     @Autowired
-    public GrpcSpanHandler(TraceService traceService, GrpcSpanFactory spanFactory) {
-        this.traceService = Objects.requireNonNull(traceService, "traceService");
+    public GrpcSpanHandler(SpanBatchWriter spanBatchWriter, GrpcSpanFactory spanFactory) {
+        this.spanBatchWriter = Objects.requireNonNull(spanBatchWriter, "spanBatchWriter");
         this.spanFactory = Objects.requireNonNull(spanFactory, "spanFactory");
     }
 
@@ -77,7 +77,7 @@ public class GrpcSpanHandler implements SimpleHandler<GeneratedMessageV3> {
         try {
             Header agentInfo = ServerContext.getAgentInfo();
             final SpanBo spanBo = spanFactory.buildSpanBo(span, agentInfo);
-            traceService.insertSpan(spanBo);
+            spanBatchWriter.insertSpan(spanBo);
         } catch (Exception e) {
             logger.warn("Failed to handle span={}", MessageFormatUtils.debugLog(span), e);
         }
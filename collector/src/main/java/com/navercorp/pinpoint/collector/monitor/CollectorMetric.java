@@ -58,6 +58,7 @@ public class CollectorMetric {
 
     private final HBaseAsyncOperationMetrics hBaseAsyncOperationMetrics;
     private final BulkOperationMetrics bulkOperationMetrics;
+    private final SpanBatchMetrics spanBatchMetrics;
 
     private List<Reporter> reporterList = new ArrayList<Reporter>(2);
 
@@ -66,10 +67,12 @@ public class CollectorMetric {
     @Autowired
     private CollectorConfiguration collectorConfiguration;
 
-    public CollectorMetric(MetricRegistry metricRegistry, Optional<HBaseAsyncOperationMetrics> hBaseAsyncOperationMetrics, Optional<BulkOperationMetrics> cachedStatisticsDaoMetrics) {
+    public CollectorMetric(MetricRegistry metricRegistry, Optional<HBaseAsyncOperationMetrics> hBaseAsyncOperationMetrics, Optional<BulkOperationMetrics> cachedStatisticsDaoMetrics,
+                           Optional<SpanBatchMetrics> spanBatchMetrics) {
         this.metricRegistry = metricRegistry;
         this.hBaseAsyncOperationMetrics = hBaseAsyncOperationMetrics.orElse(null);
         this.bulkOperationMetrics = cachedStatisticsDaoMetrics.orElse(null);
+        this.spanBatchMetrics = spanBatchMetrics.orElse(null);
     }
 
     @PostConstruct
@@ -111,6 +114,13 @@ public class CollectorMetric {
                 metricRegistry.register(metric.getKey(), metric.getValue());
             }
         }
+
+        if (spanBatchMetrics != null) {
+            Map<String, Metric> metrics = spanBatchMetrics.getMetrics();
+            for (Map.Entry<String, Metric> metric : metrics.entrySet()) {
+                metricRegistry.register(metric.getKey(), metric.getValue());
+            }
+        }
     }
 
     private void initReporters() {
@@ -21,6 +21,7 @@ import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricSet;
 import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import com.navercorp.pinpoint.common.hbase.spill.SpillHBaseAsyncOperation;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,6 +40,14 @@ public class HBaseAsyncOperationMetrics implements MetricSet {
     private static final String WAITING_COUNT = HBASE_ASYNC_OPS + ".waiting.count";
     private static final String AVERAGE_LATENCY = HBASE_ASYNC_OPS + ".latency.value";
 
+    private static final String HBASE_ASYNC_SPILL = "hbase.async.spill";
+    private static final String SPILL_COUNT = HBASE_ASYNC_SPILL + ".count";
+    private static final String SPILL_DROPPED_COUNT = HBASE_ASYNC_SPILL + ".dropped.count";
+    private static final String SPILL_CORRUPTED_COUNT = HBASE_ASYNC_SPILL + ".corrupted.count";
+    private static final String SPILL_PENDING_BYTES = HBASE_ASYNC_SPILL + ".pending.bytes";
+    private static final String REPLAY_COUNT = HBASE_ASYNC_SPILL + ".replay.count";
+    private static final String REPLAY_LAG = HBASE_ASYNC_SPILL + ".replay.lag.millis";
+
     private final HBaseAsyncOperation hBaseAsyncOperation;
 
     public HBaseAsyncOperationMetrics(HBaseAsyncOperation hBaseAsyncOperation) {
@@ -83,7 +92,50 @@ public class HBaseAsyncOperationMetrics implements MetricSet {
             }
         });
 
+        if (hBaseAsyncOperation instanceof SpillHBaseAsyncOperation) {
+            addSpillGauges(gauges, (SpillHBaseAsyncOperation) hBaseAsyncOperation);
+        }
+
         return Collections.unmodifiableMap(gauges);
     }
 
+    private void addSpillGauges(Map<String, Metric> gauges, final SpillHBaseAsyncOperation spillOperation) {
+        gauges.put(SPILL_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getSpillCount();
+            }
+        });
+        gauges.put(SPILL_DROPPED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getSpillDropCount();
+            }
+        });
+        gauges.put(SPILL_CORRUPTED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getSpillCorruptedCount();
+            }
+        });
+        gauges.put(SPILL_PENDING_BYTES, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getSpillPendingBytes();
+            }
+        });
+        gauges.put(REPLAY_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getReplayCount();
+            }
+        });
+        gauges.put(REPLAY_LAG, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return spillOperation.getReplayLagMillis();
+            }
+        });
+    }
+
 }
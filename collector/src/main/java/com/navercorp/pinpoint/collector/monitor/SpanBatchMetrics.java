@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the span write batches.
+ */
+public class SpanBatchMetrics implements MetricSet {
+
+    private static final String SPAN_BATCH = "span.batch";
+    private static final String LATENCY = SPAN_BATCH + ".latency";
+    private static final String SIZE = SPAN_BATCH + ".size";
+    private static final String REJECTED_COUNT = SPAN_BATCH + ".rejected.count";
+    private static final String ASYNC_PUT_REJECTED_COUNT = SPAN_BATCH + ".asyncput.rejected.count";
+
+    private final Timer latency = new Timer();
+    private final Histogram size = new Histogram(new UniformReservoir());
+    private final Counter rejected = new Counter();
+    private final Counter asyncPutRejected = new Counter();
+
+    public void update(int batchSize, long latencyNanos) {
+        this.size.update(batchSize);
+        this.latency.update(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void reject(int spanCount) {
+        this.rejected.inc(spanCount);
+    }
+
+    /**
+     * puts of a batch rejected by the async put queue, they are written with a synchronous put instead
+     */
+    public void asyncPutReject(int putCount) {
+        this.asyncPutRejected.inc(putCount);
+    }
+
+    public long getAsyncPutRejectedCount() {
+        return asyncPutRejected.getCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.getCount();
+    }
+
+    public long getBatchCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> metrics = new HashMap<>(4);
+        metrics.put(LATENCY, latency);
+        metrics.put(SIZE, size);
+        metrics.put(REJECTED_COUNT, rejected);
+        metrics.put(ASYNC_PUT_REJECTED_COUNT, asyncPutRejected);
+        return Collections.unmodifiableMap(metrics);
+    }
+}
@@ -43,7 +43,6 @@ import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Objects;
 
 /**
@@ -111,8 +110,8 @@ public class StatService extends StatGrpc.StatImplBase {
 
     private <T> Message<T> newMessage(T requestData, short serviceType) {
         final Header header = new HeaderV2(Header.SIGNATURE, HeaderV2.VERSION, serviceType);
-        final HeaderEntity headerEntity = new HeaderEntity(new HashMap<>());
-        return new DefaultMessage<>(header, headerEntity, requestData);
+        // HeaderEntity is immutable and grpc messages carry no entity, so share the empty one
+        return new DefaultMessage<>(header, HeaderEntity.EMPTY_HEADER_ENTITY, requestData);
     }
 
     private void send(final Message<? extends GeneratedMessageV3> message, StreamObserver<Empty> responseObserver) {
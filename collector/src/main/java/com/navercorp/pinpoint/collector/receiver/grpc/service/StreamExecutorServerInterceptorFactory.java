@@ -17,6 +17,8 @@
 package com.navercorp.pinpoint.collector.receiver.grpc.service;
 
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.grpc.server.flowcontrol.FairStreamExecutorServerInterceptor;
+import com.navercorp.pinpoint.grpc.server.flowcontrol.FairStreamScheduler;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.IdleTimeoutFactory;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.RejectedExecutionListenerFactory;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.ScheduledExecutor;
@@ -42,6 +44,7 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
     private final int periodMillis;
     private final int recoveryMessagesCount;
     private final long idleTimeout;
+    private FairStreamScheduler fairStreamScheduler;
 
     public StreamExecutorServerInterceptorFactory(Executor executor,
                                                   int initRequestCount,
@@ -60,6 +63,10 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
         this.idleTimeout = idleTimeout;
     }
 
+    public void setFairStreamScheduler(FairStreamScheduler fairStreamScheduler) {
+        this.fairStreamScheduler = fairStreamScheduler;
+    }
+
     @Override
     public ServerInterceptor getObject() throws Exception {
         ScheduledExecutor scheduledExecutor = new ScheduledExecutor() {
@@ -71,6 +78,10 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
         IdleTimeoutFactory idleTimeoutFactory = new IdleTimeoutFactory(this.idleTimeout);
         RejectedExecutionListenerFactory listenerFactory = new RejectedExecutionListenerFactory(this.beanName, recoveryMessagesCount, idleTimeoutFactory);
 
+        if (fairStreamScheduler != null) {
+            return new FairStreamExecutorServerInterceptor(this.beanName, fairStreamScheduler, initRequestCount,
+                    scheduledExecutor, listenerFactory);
+        }
         return new StreamExecutorServerInterceptor(this.beanName, this.executor, initRequestCount,
                 scheduledExecutor, listenerFactory);
     }
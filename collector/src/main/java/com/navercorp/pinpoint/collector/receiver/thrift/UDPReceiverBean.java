@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.collector.receiver.thrift;
 
 import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
 import com.navercorp.pinpoint.collector.receiver.thrift.udp.BaseUDPHandlerFactory;
+import com.navercorp.pinpoint.collector.receiver.thrift.udp.DatagramReceiver;
+import com.navercorp.pinpoint.collector.receiver.thrift.udp.EpollUDPReceiver;
 import com.navercorp.pinpoint.collector.receiver.thrift.udp.NetworkAvailabilityCheckPacketFilter;
 import com.navercorp.pinpoint.collector.receiver.thrift.udp.PacketHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.thrift.udp.ReusePortSocketOptionApplier;
@@ -29,7 +31,10 @@ import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
 import com.navercorp.pinpoint.collector.util.ObjectPool;
 import com.navercorp.pinpoint.collector.util.ObjectPoolFactory;
 import com.navercorp.pinpoint.common.server.util.AddressFilter;
+import com.navercorp.pinpoint.common.util.CpuUtils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
@@ -46,6 +51,8 @@ import java.util.concurrent.Executor;
  */
 public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNameAware {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private String beanName;
 
     private boolean enable = true;
@@ -55,8 +62,10 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
     private int udpBufferSize;
     private boolean reusePort = false;
     private int socketCount = -1;
+    private boolean epoll = false;
+    private int epollBatchSize = 16;
 
-    private UDPReceiver udpReceiver;
+    private DatagramReceiver udpReceiver;
     private Executor executor;
 
     private DispatchHandler dispatchHandler;
@@ -80,13 +89,25 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
     }
 
 
-    private UDPReceiver createUdpReceiver(String name, String bindIp, int port, int udpBufferSize, Executor executor, DispatchHandler dispatchHandler, AddressFilter ignoreAddressFilter) {
+    private DatagramReceiver createUdpReceiver(String name, String bindIp, int port, int udpBufferSize, Executor executor, DispatchHandler dispatchHandler, AddressFilter ignoreAddressFilter) {
         TBaseFilterChain filterChain = newTBaseFilterChain();
         @SuppressWarnings("unchecked")
         PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new BaseUDPHandlerFactory<DatagramPacket>(dispatchHandler, filterChain, ignoreAddressFilter);
 
         InetSocketAddress bindAddress = new InetSocketAddress(bindIp, port);
 
+        if (epoll) {
+            if (EpollUDPReceiver.isAvailable()) {
+                // several sockets can be bound to the same port only with SO_REUSEPORT
+                int epollSocketCount = 1;
+                if (reusePort) {
+                    epollSocketCount = socketCount == -1 ? CpuUtils.cpuCount() : socketCount;
+                }
+                return new EpollUDPReceiver(name, packetHandlerFactory, udpBufferSize, bindAddress, reusePort, epollSocketCount, epollBatchSize);
+            }
+            logger.warn("{} epoll transport is not available, fallback to DatagramSocket receiver", name);
+        }
+
         ObjectPoolFactory<DatagramPacket> packetFactory = new DatagramPacketFactory();
         ObjectPool<DatagramPacket> pool = new DefaultObjectPool<>(packetFactory, datagramPoolSize);
 
@@ -144,6 +165,14 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
         this.socketCount = socketCount;
     }
 
+    public void setEpoll(boolean epoll) {
+        this.epoll = epoll;
+    }
+
+    public void setEpollBatchSize(int epollBatchSize) {
+        this.epollBatchSize = epollBatchSize;
+    }
+
     public void setDatagramPoolSize(int datagramPoolSize) {
         this.datagramPoolSize = datagramPoolSize;
     }
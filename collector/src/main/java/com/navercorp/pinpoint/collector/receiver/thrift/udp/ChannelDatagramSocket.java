@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.thrift.udp;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Objects;
+
+/**
+ * {@link java.net.DatagramSocket} view of a netty datagram channel for the {@link PacketHandler} and {@link TBaseFilter}.
+ * Only {@link #send(DatagramPacket)} is supported, the response is written through the channel.
+ */
+class ChannelDatagramSocket extends java.net.DatagramSocket {
+
+    private final Channel channel;
+
+    ChannelDatagramSocket(Channel channel) throws SocketException {
+        // unbound socket, never used for io
+        super((SocketAddress) null);
+        this.channel = Objects.requireNonNull(channel, "channel");
+    }
+
+    @Override
+    public void send(DatagramPacket packet) throws IOException {
+        final InetSocketAddress recipient = (InetSocketAddress) packet.getSocketAddress();
+        final io.netty.channel.socket.DatagramPacket response =
+                new io.netty.channel.socket.DatagramPacket(Unpooled.copiedBuffer(packet.getData(), packet.getOffset(), packet.getLength()), recipient);
+        channel.writeAndFlush(response);
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return channel.localAddress();
+    }
+
+    @Override
+    public String toString() {
+        return "ChannelDatagramSocket{" +
+                "channel=" + channel +
+                '}';
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.thrift.udp;
+
+import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.util.Assert;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedRecvByteBufAllocator;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UDP receiver on the netty epoll transport.
+ * With reusePort, binds socketCount SO_REUSEPORT sockets, one per event loop, so that the kernel spreads the packets across the cores.
+ * Without it, a single socket is bound.
+ * Datagrams are read in batches (recvmmsg) into pooled direct buffers and handled on the event loop without executor hand-off.
+ */
+public class EpollUDPReceiver implements DatagramReceiver {
+
+    private static final int MAX_PACKET_LENGTH = DatagramPacketFactory.UDP_MAX_PACKET_LENGTH;
+
+    private final Logger logger;
+
+    private final String name;
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+    private final int receiveBufferSize;
+    private final InetSocketAddress bindAddress;
+    private final boolean reusePort;
+    private final int socketCount;
+    private final int batchSize;
+
+    private EpollEventLoopGroup eventLoopGroup;
+    private final List<Channel> channels = new ArrayList<>();
+
+    public EpollUDPReceiver(String name, PacketHandlerFactory<DatagramPacket> packetHandlerFactory,
+                            int receiveBufferSize, InetSocketAddress bindAddress, boolean reusePort, int socketCount, int batchSize) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.logger = LoggerFactory.getLogger(name);
+        this.packetHandlerFactory = Objects.requireNonNull(packetHandlerFactory, "packetHandlerFactory");
+        this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress");
+
+        Assert.isTrue(receiveBufferSize > 0, "receiveBufferSize must be greater than 0");
+        Assert.isTrue(socketCount > 0, "socketCount must be greater than 0");
+        Assert.isTrue(reusePort || socketCount == 1, "socketCount must be 1 without reusePort");
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+        this.receiveBufferSize = receiveBufferSize;
+        this.reusePort = reusePort;
+        this.socketCount = socketCount;
+        this.batchSize = batchSize;
+    }
+
+    public static boolean isAvailable() {
+        return Epoll.isAvailable();
+    }
+
+    @Override
+    public void start() {
+        logger.info("{} start() started", name);
+        Epoll.ensureAvailability();
+
+        this.eventLoopGroup = new EpollEventLoopGroup(socketCount, new PinpointThreadFactory(name + "-Epoll", true));
+
+        final Bootstrap bootstrap = new Bootstrap();
+        bootstrap.group(eventLoopGroup)
+                .channel(EpollDatagramChannel.class)
+                .option(EpollChannelOption.SO_REUSEPORT, reusePort)
+                .option(ChannelOption.SO_RCVBUF, receiveBufferSize)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                // recvmmsg : buffer of batchSize datagrams is split into MAX_DATAGRAM_PAYLOAD_SIZE slices
+                .option(EpollChannelOption.MAX_DATAGRAM_PAYLOAD_SIZE, MAX_PACKET_LENGTH)
+                .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(MAX_PACKET_LENGTH * batchSize))
+                .handler(new ChannelInitializer<EpollDatagramChannel>() {
+                    @Override
+                    protected void initChannel(EpollDatagramChannel ch) throws Exception {
+                        ch.pipeline().addLast(new DatagramHandler(ch));
+                    }
+                });
+
+        for (int i = 0; i < socketCount; i++) {
+            logger.info("EpollDatagramChannel.bind() {}/{}", bindAddress.getHostString(), bindAddress.getPort());
+            final ChannelFuture bindFuture = bootstrap.bind(bindAddress).awaitUninterruptibly();
+            if (!bindFuture.isSuccess()) {
+                shutdown();
+                throw new IllegalStateException("Socket bind Fail. port:" + bindAddress.getPort() + " Caused:" + bindFuture.cause().getMessage(), bindFuture.cause());
+            }
+            channels.add(bindFuture.channel());
+        }
+        logger.info("{} start() completed. reusePort:{} sockets:{} batchSize:{}", name, reusePort, socketCount, batchSize);
+    }
+
+    @Override
+    public void shutdown() {
+        logger.info("{} shutdown() started", name);
+        for (Channel channel : channels) {
+            channel.close().awaitUninterruptibly();
+        }
+        channels.clear();
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS).awaitUninterruptibly();
+            eventLoopGroup = null;
+        }
+        logger.info("{} shutdown() completed", name);
+    }
+
+    // not sharable, confined to the event loop of the channel
+    private class DatagramHandler extends SimpleChannelInboundHandler<io.netty.channel.socket.DatagramPacket> {
+
+        private final Channel channel;
+        private final byte[] buffer = new byte[MAX_PACKET_LENGTH];
+        private final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        private ChannelDatagramSocket localSocket;
+
+        private DatagramHandler(Channel channel) {
+            this.channel = Objects.requireNonNull(channel, "channel");
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            this.localSocket = newLocalSocket(channel);
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (localSocket != null) {
+                localSocket.close();
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, io.netty.channel.socket.DatagramPacket msg) {
+            final ByteBuf content = msg.content();
+            final int length = content.readableBytes();
+            // L4 health check packet
+            if (length == 0) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("length is 0 remoteAddress:{}", msg.sender());
+                }
+                return;
+            }
+            // thrift deserializer reads from byte[]
+            content.getBytes(content.readerIndex(), buffer, 0, length);
+            packet.setData(buffer, 0, length);
+            packet.setSocketAddress(msg.sender());
+
+            final PacketHandler<DatagramPacket> packetHandler = packetHandlerFactory.createPacketHandler();
+            packetHandler.receive(localSocket, packet);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.warn("udp packet handle error. channel:{} Caused:{}", ctx.channel(), cause.getMessage(), cause);
+        }
+    }
+
+    private ChannelDatagramSocket newLocalSocket(Channel channel) {
+        try {
+            return new ChannelDatagramSocket(channel);
+        } catch (SocketException ex) {
+            throw new RuntimeException("Socket create Fail. Caused:" + ex.getMessage(), ex);
+        }
+    }
+}
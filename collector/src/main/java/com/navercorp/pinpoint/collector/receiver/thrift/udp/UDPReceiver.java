@@ -48,7 +48,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author netspider
  * @author jaehong.kim
  */
-public class UDPReceiver {
+public class UDPReceiver implements DatagramReceiver {
 
     private final Logger logger;
 
@@ -247,6 +247,7 @@ public class UDPReceiver {
         return Executors.newCachedThreadPool(threadFactory);
     }
 
+    @Override
     public void start() {
         if (logger.isInfoEnabled()) {
             logger.info("{} start() started", name);
@@ -277,6 +278,7 @@ public class UDPReceiver {
         }
     }
 
+    @Override
     public void shutdown() {
         if (logger.isInfoEnabled()) {
             logger.info("{} shutdown() started", this.name);
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.collector.dao.AgentInfoDao;
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.common.server.bo.AgentInfoBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the jvm gc and cpu load stats to the per minute counters of the agent's application,
+ * so the alarm reads a few rows per application instead of the raw stats of every agent.
+ */
+@Service("agentStatRollupService")
+public class AgentStatRollupService implements AgentStatService {
+
+    static final int MAX_AGENT_SIZE = 1024 * 64;
+    // agents that are gone stop sending stats, their state is evicted after this idle time
+    static final long AGENT_STATE_EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    // the agent info may be written later than the first stats of the agent
+    static final long AGENT_INFO_NOT_FOUND_TTL_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final boolean enable;
+    private final AgentStatRollupDao agentStatRollupDao;
+    private final AgentInfoDao agentInfoDao;
+
+    private final Cache<String, AgentState> agentStateCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_AGENT_SIZE)
+            .expireAfterAccess(AGENT_STATE_EXPIRE_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
+    // agentId to the start timestamp without agent info
+    private final Cache<String, Long> agentInfoNotFoundCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_AGENT_SIZE)
+            .expireAfterWrite(AGENT_INFO_NOT_FOUND_TTL_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
+
+    public AgentStatRollupService(@Value("${collector.stat.rollup.enable:false}") boolean enable,
+                                  AgentStatRollupDao agentStatRollupDao,
+                                  AgentInfoDao agentInfoDao) {
+        this.enable = enable;
+        this.agentStatRollupDao = Objects.requireNonNull(agentStatRollupDao, "agentStatRollupDao");
+        this.agentInfoDao = Objects.requireNonNull(agentInfoDao, "agentInfoDao");
+    }
+
+    @Override
+    public void save(AgentStatBo agentStatBo) {
+        if (!enable) {
+            return;
+        }
+        final AgentState agentState = getAgentState(agentStatBo.getAgentId(), agentStatBo.getStartTimestamp());
+        if (agentState == null) {
+            return;
+        }
+
+        final List<JvmGcBo> jvmGcBos = agentStatBo.getJvmGcBos();
+        if (jvmGcBos != null) {
+            for (JvmGcBo jvmGcBo : jvmGcBos) {
+                final long timestamp = jvmGcBo.getTimestamp();
+                update(agentState, timestamp, AgentStatRollupField.HEAP_USED, jvmGcBo.getHeapUsed());
+                update(agentState, timestamp, AgentStatRollupField.HEAP_MAX, jvmGcBo.getHeapMax());
+                update(agentState, timestamp, AgentStatRollupField.JVM_GC_SAMPLE_COUNT, 1);
+
+                final long gcOldCount = agentState.nextGcOldCount(jvmGcBo.getGcOldCount());
+                if (gcOldCount > 0) {
+                    update(agentState, timestamp, AgentStatRollupField.GC_OLD_COUNT, gcOldCount);
+                }
+            }
+        }
+
+        final List<CpuLoadBo> cpuLoadBos = agentStatBo.getCpuLoadBos();
+        if (cpuLoadBos != null) {
+            for (CpuLoadBo cpuLoadBo : cpuLoadBos) {
+                final long timestamp = cpuLoadBo.getTimestamp();
+                update(agentState, timestamp, AgentStatRollupField.JVM_CPU_LOAD, AgentStatRollupField.toCpuLoadValue(cpuLoadBo.getJvmCpuLoad()));
+                update(agentState, timestamp, AgentStatRollupField.SYSTEM_CPU_LOAD, AgentStatRollupField.toCpuLoadValue(cpuLoadBo.getSystemCpuLoad()));
+                update(agentState, timestamp, AgentStatRollupField.CPU_LOAD_SAMPLE_COUNT, 1);
+            }
+        }
+    }
+
+    private void update(AgentState agentState, long timestamp, AgentStatRollupField field, long value) {
+        agentStatRollupDao.update(agentState.applicationName, agentState.serviceType, agentState.agentId, timestamp, field, value);
+    }
+
+    private AgentState getAgentState(String agentId, long startTimestamp) {
+        final AgentState agentState = agentStateCache.getIfPresent(agentId);
+        if (agentState != null && agentState.startTimestamp == startTimestamp) {
+            return agentState;
+        }
+        final Long notFoundStartTimestamp = agentInfoNotFoundCache.getIfPresent(agentId);
+        if (notFoundStartTimestamp != null && notFoundStartTimestamp == startTimestamp) {
+            return null;
+        }
+
+        final AgentInfoBo agentInfo = agentInfoDao.getAgentInfo(agentId, startTimestamp);
+        if (agentInfo == null) {
+            logger.debug("agentInfo not found. agentId:{} startTimestamp:{}", agentId, startTimestamp);
+            agentInfoNotFoundCache.put(agentId, startTimestamp);
+            return null;
+        }
+        agentInfoNotFoundCache.invalidate(agentId);
+        final AgentState newAgentState = new AgentState(agentId, startTimestamp, agentInfo.getApplicationName(), agentInfo.getServiceTypeCode());
+        agentStateCache.put(agentId, newAgentState);
+        return newAgentState;
+    }
+
+    private static class AgentState {
+        private final String agentId;
+        private final long startTimestamp;
+        private final String applicationName;
+        private final short serviceType;
+
+        private long lastGcOldCount = JvmGcBo.UNCOLLECTED_VALUE;
+
+        private AgentState(String agentId, long startTimestamp, String applicationName, short serviceType) {
+            this.agentId = Objects.requireNonNull(agentId, "agentId");
+            this.startTimestamp = startTimestamp;
+            this.applicationName = Objects.requireNonNull(applicationName, "applicationName");
+            this.serviceType = serviceType;
+        }
+
+        /**
+         * @return old gc count since the previous stat of the agent
+         */
+        private synchronized long nextGcOldCount(long gcOldCount) {
+            final long lastGcOldCount = this.lastGcOldCount;
+            this.lastGcOldCount = gcOldCount;
+            if (lastGcOldCount < 0 || gcOldCount < lastGcOldCount) {
+                return 0;
+            }
+            return gcOldCount - lastGcOldCount;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.common.profiler.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collapses the span event calls of the same link and histogram slot into one caller/callee update,
+ * so the statistics daos are called per link instead of per call.
+ * Not thread safe, one instance per span or span batch.
+ */
+class LinkStatisticsAggregator {
+
+    private final Map<Link, LinkValue> linkMap = new HashMap<>();
+
+    void add(String callerApplicationName, ServiceType callerServiceType, String callerAgentId, String callerHost,
+             String calleeApplicationName, ServiceType calleeServiceType, String calleeHost, int elapsed, boolean isError) {
+        final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        final Link link = new Link(callerApplicationName, callerServiceType, callerAgentId, callerHost,
+                calleeApplicationName, calleeServiceType, calleeHost, slotNumber);
+
+        LinkValue linkValue = linkMap.get(link);
+        if (linkValue == null) {
+            linkValue = new LinkValue();
+            linkMap.put(link, linkValue);
+        }
+        linkValue.add(elapsed);
+    }
+
+    int size() {
+        return linkMap.size();
+    }
+
+    void flush(StatisticsService statisticsService) {
+        for (Map.Entry<Link, LinkValue> entry : linkMap.entrySet()) {
+            final Link link = entry.getKey();
+            final LinkValue value = entry.getValue();
+            // save the information of caller (the spanevent that called span)
+            statisticsService.updateCaller(link.callerApplicationName, link.callerServiceType, link.callerAgentId,
+                    link.calleeApplicationName, link.calleeServiceType, link.calleeHost,
+                    link.slotNumber, value.count, value.elapsedSum, value.maxElapsed);
+            // save the information of callee (the span that spanevent called)
+            statisticsService.updateCallee(link.calleeApplicationName, link.calleeServiceType,
+                    link.callerApplicationName, link.callerServiceType, link.callerHost,
+                    link.slotNumber, value.count, value.elapsedSum, value.maxElapsed);
+        }
+        linkMap.clear();
+    }
+
+    private static class LinkValue {
+        private long count;
+        private long elapsedSum;
+        private long maxElapsed;
+
+        private void add(int elapsed) {
+            this.count++;
+            this.elapsedSum += elapsed;
+            this.maxElapsed = Math.max(maxElapsed, elapsed);
+        }
+    }
+
+    private static class Link {
+        private final String callerApplicationName;
+        private final ServiceType callerServiceType;
+        private final String callerAgentId;
+        private final String callerHost;
+        private final String calleeApplicationName;
+        private final ServiceType calleeServiceType;
+        private final String calleeHost;
+        private final short slotNumber;
+        private final int hashCode;
+
+        private Link(String callerApplicationName, ServiceType callerServiceType, String callerAgentId, String callerHost,
+                     String calleeApplicationName, ServiceType calleeServiceType, String calleeHost, short slotNumber) {
+            this.callerApplicationName = callerApplicationName;
+            this.callerServiceType = callerServiceType;
+            this.callerAgentId = callerAgentId;
+            this.callerHost = callerHost;
+            this.calleeApplicationName = calleeApplicationName;
+            this.calleeServiceType = calleeServiceType;
+            this.calleeHost = calleeHost;
+            this.slotNumber = slotNumber;
+            this.hashCode = computeHashCode();
+        }
+
+        private int computeHashCode() {
+            int result = Objects.hashCode(callerApplicationName);
+            result = 31 * result + callerServiceType.getCode();
+            result = 31 * result + Objects.hashCode(callerAgentId);
+            result = 31 * result + Objects.hashCode(callerHost);
+            result = 31 * result + Objects.hashCode(calleeApplicationName);
+            result = 31 * result + calleeServiceType.getCode();
+            result = 31 * result + Objects.hashCode(calleeHost);
+            result = 31 * result + slotNumber;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Link link = (Link) o;
+
+            if (slotNumber != link.slotNumber) return false;
+            if (callerServiceType.getCode() != link.callerServiceType.getCode()) return false;
+            if (calleeServiceType.getCode() != link.calleeServiceType.getCode()) return false;
+            if (!Objects.equals(callerApplicationName, link.callerApplicationName)) return false;
+            if (!Objects.equals(callerAgentId, link.callerAgentId)) return false;
+            if (!Objects.equals(callerHost, link.callerHost)) return false;
+            if (!Objects.equals(calleeApplicationName, link.calleeApplicationName)) return false;
+            return Objects.equals(calleeHost, link.calleeHost);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
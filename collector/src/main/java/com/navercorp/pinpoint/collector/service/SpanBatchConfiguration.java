@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+@Component
+public class SpanBatchConfiguration {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final boolean enable;
+
+    private final int batchSize;
+
+    private final long maxDelayMillis;
+
+    public SpanBatchConfiguration(@Value("${collector.span.batch.enable:false}") boolean enable,
+                                  @Value("${collector.span.batch.size:128}") int batchSize,
+                                  @Value("${collector.span.batch.maxDelayMillis:100}") long maxDelayMillis) {
+        this.enable = enable;
+        this.batchSize = batchSize;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    @PostConstruct
+    public void log() {
+        logger.info("{}", this);
+    }
+
+    @Override
+    public String toString() {
+        return "SpanBatchConfiguration{" +
+                "enable=" + enable +
+                ", batchSize=" + batchSize +
+                ", maxDelayMillis=" + maxDelayMillis +
+                '}';
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.collector.monitor.SpanBatchMetrics;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro batching stage in front of the {@link TraceService}.
+ * Spans are accumulated in a fixed pool of batches striped by the handler thread and written with
+ * {@link TraceService#insertSpans(List)} once the batch is full or its oldest span waited for maxDelayMillis.
+ * The pool is sized once, so short lived handler threads do not leave batches behind.
+ */
+@Service
+public class SpanBatchWriter {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TraceService traceService;
+    private final SpanBatchMetrics spanBatchMetrics;
+
+    private final boolean enable;
+    private final int batchSize;
+    private final long maxDelayMillis;
+
+    private final SpanBatch[] spanBatches;
+    private final int spanBatchMask;
+
+    private ScheduledExecutorService flushScheduler;
+
+    public SpanBatchWriter(TraceService traceService, SpanBatchConfiguration configuration, SpanBatchMetrics spanBatchMetrics) {
+        this.traceService = Objects.requireNonNull(traceService, "traceService");
+        Objects.requireNonNull(configuration, "configuration");
+        this.spanBatchMetrics = Objects.requireNonNull(spanBatchMetrics, "spanBatchMetrics");
+
+        this.enable = configuration.isEnable();
+        this.batchSize = configuration.getBatchSize();
+        this.maxDelayMillis = configuration.getMaxDelayMillis();
+        if (enable) {
+            Assert.isTrue(batchSize > 0, "batchSize must be positive");
+            Assert.isTrue(maxDelayMillis > 0, "maxDelayMillis must be positive");
+        }
+
+        final int spanBatchCount = spanBatchCount(Runtime.getRuntime().availableProcessors());
+        this.spanBatches = new SpanBatch[spanBatchCount];
+        for (int i = 0; i < spanBatchCount; i++) {
+            this.spanBatches[i] = new SpanBatch();
+        }
+        this.spanBatchMask = spanBatchCount - 1;
+    }
+
+    /**
+     * @return power of two greater than or equal to twice the processor count
+     */
+    static int spanBatchCount(int availableProcessors) {
+        final int count = Math.max(1, availableProcessors * 2);
+        final int powerOfTwo = Integer.highestOneBit(count);
+        if (powerOfTwo == count) {
+            return count;
+        }
+        return powerOfTwo << 1;
+    }
+
+    int getSpanBatchCount() {
+        return spanBatches.length;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enable) {
+            return;
+        }
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(new PinpointThreadFactory("Pinpoint-span-batch-flush", true));
+        final long period = Math.max(1, maxDelayMillis / 2);
+        this.flushScheduler.scheduleWithFixedDelay(this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushScheduler == null) {
+            return;
+        }
+        flushScheduler.shutdown();
+        try {
+            flushScheduler.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SpanBatch spanBatch : spanBatches) {
+            write(spanBatch.drain());
+        }
+    }
+
+    public void insertSpan(SpanBo spanBo) {
+        Objects.requireNonNull(spanBo, "spanBo");
+        if (!enable) {
+            traceService.insertSpan(spanBo);
+            return;
+        }
+
+        final SpanBatch spanBatch = spanBatches[(int) Thread.currentThread().getId() & spanBatchMask];
+        final List<SpanBo> fullBatch = spanBatch.add(spanBo, batchSize);
+        if (fullBatch != null) {
+            write(fullBatch);
+        }
+    }
+
+    void flushExpired() {
+        final long currentTimeMillis = System.currentTimeMillis();
+        for (SpanBatch spanBatch : spanBatches) {
+            final List<SpanBo> expired = spanBatch.drainExpired(currentTimeMillis, maxDelayMillis);
+            write(expired);
+        }
+    }
+
+    private void write(List<SpanBo> spanList) {
+        if (spanList == null || spanList.isEmpty()) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        try {
+            traceService.insertSpans(spanList);
+            spanBatchMetrics.update(spanList.size(), System.nanoTime() - startTime);
+        } catch (Exception e) {
+            spanBatchMetrics.reject(spanList.size());
+            logger.warn("Failed to insert span batch. size:{}", spanList.size(), e);
+        }
+    }
+
+    /**
+     * Filled by the handler threads of its stripe, drained by a handler thread or the flush scheduler.
+     */
+    private static class SpanBatch {
+        private List<SpanBo> spanList;
+        private long firstAddTimeMillis;
+
+        private synchronized List<SpanBo> add(SpanBo spanBo, int batchSize) {
+            if (spanList == null) {
+                this.spanList = new ArrayList<>(batchSize);
+                this.firstAddTimeMillis = System.currentTimeMillis();
+            }
+            spanList.add(spanBo);
+            if (spanList.size() >= batchSize) {
+                return drain();
+            }
+            return null;
+        }
+
+        private synchronized List<SpanBo> drainExpired(long currentTimeMillis, long maxDelayMillis) {
+            if (spanList == null) {
+                return null;
+            }
+            if (currentTimeMillis - firstAddTimeMillis < maxDelayMillis) {
+                return null;
+            }
+            return drain();
+        }
+
+        private synchronized List<SpanBo> drain() {
+            final List<SpanBo> spanList = this.spanList;
+            this.spanList = null;
+            return spanList;
+        }
+    }
+}
@@ -16,12 +16,16 @@
 
 package com.navercorp.pinpoint.collector.service;
 
+import com.navercorp.pinpoint.collector.config.ScatterConfiguration;
 import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.collector.dao.HostApplicationMapDao;
+import com.navercorp.pinpoint.collector.dao.ScatterRollupDao;
 import com.navercorp.pinpoint.collector.dao.TraceDao;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import com.navercorp.pinpoint.common.server.util.TimeSlot;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
 import org.apache.commons.collections4.CollectionUtils;
@@ -29,7 +33,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
@@ -46,13 +52,28 @@ public class TraceService {
 
     private final ServiceTypeRegistryService registry;
 
+    private final ScatterRollupDao scatterRollupDao;
+
+    private final boolean scatterRollupEnable;
+
+    private final AcceptedTimeService acceptedTimeService;
+
+    private final TimeSlot timeSlot;
+
     public TraceService(TraceDao traceDao, ApplicationTraceIndexDao applicationTraceIndexDao, HostApplicationMapDao hostApplicationMapDao,
-                        StatisticsService statisticsService, ServiceTypeRegistryService registry) {
+                        StatisticsService statisticsService, ServiceTypeRegistryService registry,
+                        ScatterRollupDao scatterRollupDao, ScatterConfiguration scatterConfiguration,
+                        AcceptedTimeService acceptedTimeService, TimeSlot timeSlot) {
         this.traceDao = Objects.requireNonNull(traceDao, "traceDao");
         this.applicationTraceIndexDao = Objects.requireNonNull(applicationTraceIndexDao, "applicationTraceIndexDao");
         this.hostApplicationMapDao = Objects.requireNonNull(hostApplicationMapDao, "hostApplicationMapDao");
         this.statisticsService = Objects.requireNonNull(statisticsService, "statisticsService");
         this.registry = Objects.requireNonNull(registry, "registry");
+        this.scatterRollupDao = Objects.requireNonNull(scatterRollupDao, "scatterRollupDao");
+        Objects.requireNonNull(scatterConfiguration, "scatterConfiguration");
+        this.scatterRollupEnable = scatterConfiguration.isRollupEnable();
+        this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+        this.timeSlot = Objects.requireNonNull(timeSlot, "timeSlot");
     }
 
     public void insertSpanChunk(final SpanChunkBo spanChunkBo) {
@@ -60,8 +81,9 @@ public class TraceService {
         final ServiceType applicationServiceType = getApplicationServiceType(spanChunkBo);
         final List<SpanEventBo> spanEventList = spanChunkBo.getSpanEventBoList();
         if (spanEventList != null) {
-            // TODO need to batch update later.
-            insertSpanEventList(spanEventList, applicationServiceType, spanChunkBo.getApplicationId(), spanChunkBo.getAgentId(), spanChunkBo.getEndPoint());
+            final LinkStatisticsAggregator aggregator = new LinkStatisticsAggregator();
+            insertSpanEventList(spanEventList, applicationServiceType, spanChunkBo.getApplicationId(), spanChunkBo.getAgentId(), spanChunkBo.getEndPoint(), aggregator);
+            aggregator.flush(statisticsService);
         }
     }
 
@@ -73,9 +95,88 @@ public class TraceService {
     public void insertSpan(final SpanBo spanBo) {
         traceDao.insert(spanBo);
         applicationTraceIndexDao.insert(spanBo);
+        insertScatterRollup(spanBo);
         insertAcceptorHost(spanBo);
         insertSpanStat(spanBo);
-        insertSpanEventStat(spanBo);
+        final LinkStatisticsAggregator aggregator = new LinkStatisticsAggregator();
+        insertSpanEventStat(spanBo, aggregator);
+        aggregator.flush(statisticsService);
+    }
+
+    /**
+     * Batched variant of {@link #insertSpan(SpanBo)}.
+     * the trace and the application trace index are written with one multi put per table.
+     */
+    public void insertSpans(final List<SpanBo> spanList) {
+        if (CollectionUtils.isEmpty(spanList)) {
+            return;
+        }
+        insertTraces(spanList);
+        insertApplicationTraceIndexes(spanList);
+
+        // the statistics daos take the accepted time of the current thread,
+        // while the spans of a batch are written some time after they were accepted
+        try {
+            // span event links are aggregated per time slot of the accepted time
+            final Map<Long, LinkStatisticsAggregator> aggregatorMap = new HashMap<>();
+            for (SpanBo spanBo : spanList) {
+                final long acceptedTime = spanBo.getCollectorAcceptTime();
+                acceptedTimeService.accept(acceptedTime);
+                try {
+                    // already cached and bulk updated by their daos
+                    insertScatterRollup(spanBo);
+                    insertAcceptorHost(spanBo);
+                    insertSpanStat(spanBo);
+                    final LinkStatisticsAggregator aggregator = aggregatorMap.computeIfAbsent(timeSlot.getTimeSlot(acceptedTime),
+                            slot -> new LinkStatisticsAggregator());
+                    insertSpanEventStat(spanBo, aggregator);
+                } catch (Exception e) {
+                    logger.warn("Failed to insert span statistics. span:{}", spanBo, e);
+                }
+            }
+            for (Map.Entry<Long, LinkStatisticsAggregator> entry : aggregatorMap.entrySet()) {
+                acceptedTimeService.accept(entry.getKey());
+                entry.getValue().flush(statisticsService);
+            }
+        } finally {
+            acceptedTimeService.clear();
+        }
+    }
+
+    private void insertTraces(List<SpanBo> spanList) {
+        try {
+            traceDao.insert(spanList);
+        } catch (Exception e) {
+            logger.warn("Failed to insert trace batch, retry per span. size:{}", spanList.size(), e);
+            for (SpanBo spanBo : spanList) {
+                try {
+                    traceDao.insert(spanBo);
+                } catch (Exception ex) {
+                    logger.warn("Failed to insert trace. span:{}", spanBo, ex);
+                }
+            }
+        }
+    }
+
+    private void insertApplicationTraceIndexes(List<SpanBo> spanList) {
+        try {
+            applicationTraceIndexDao.insert(spanList);
+        } catch (Exception e) {
+            logger.warn("Failed to insert ApplicationTraceIndex batch, retry per span. size:{}", spanList.size(), e);
+            for (SpanBo spanBo : spanList) {
+                try {
+                    applicationTraceIndexDao.insert(spanBo);
+                } catch (Exception ex) {
+                    logger.warn("Failed to insert ApplicationTraceIndex. span:{}", spanBo, ex);
+                }
+            }
+        }
+    }
+
+    private void insertScatterRollup(SpanBo span) {
+        if (scatterRollupEnable) {
+            scatterRollupDao.insert(span);
+        }
     }
 
     private void insertAcceptorHost(SpanEventBo spanEvent, String applicationId, ServiceType serviceType) {
@@ -181,7 +282,7 @@ public class TraceService {
         }
     }
 
-    private void insertSpanEventStat(SpanBo span) {
+    private void insertSpanEventStat(SpanBo span, LinkStatisticsAggregator aggregator) {
 
         final List<SpanEventBo> spanEventList = span.getSpanEventBoList();
         if (CollectionUtils.isEmpty(spanEventList)) {
@@ -192,11 +293,11 @@ public class TraceService {
         }
 
         final ServiceType applicationServiceType = getApplicationServiceType(span);
-        // TODO need to batch update later.
-        insertSpanEventList(spanEventList, applicationServiceType, span.getApplicationId(), span.getAgentId(), span.getEndPoint());
+        insertSpanEventList(spanEventList, applicationServiceType, span.getApplicationId(), span.getAgentId(), span.getEndPoint(), aggregator);
     }
 
-    private void insertSpanEventList(List<SpanEventBo> spanEventList, ServiceType applicationServiceType, String applicationId, String agentId, String endPoint) {
+    private void insertSpanEventList(List<SpanEventBo> spanEventList, ServiceType applicationServiceType, String applicationId, String agentId, String endPoint,
+                                     LinkStatisticsAggregator aggregator) {
 
         for (SpanEventBo spanEvent : spanEventList) {
             final ServiceType spanEventType = registry.findServiceType(spanEvent.getServiceType());
@@ -225,12 +326,9 @@ public class TraceService {
 
             /*
              * save information to draw a server map based on statistics
+             * calls of the same link are merged by the aggregator and written on flush
              */
-            // save the information of caller (the spanevent that called span)
-            statisticsService.updateCaller(applicationId, applicationServiceType, agentId, spanEventApplicationName, spanEventType, spanEventEndPoint, elapsed, hasException);
-
-            // save the information of callee (the span that spanevent called)
-            statisticsService.updateCallee(spanEventApplicationName, spanEventType, applicationId, applicationServiceType, endPoint, elapsed, hasException);
+            aggregator.add(applicationId, applicationServiceType, agentId, endPoint, spanEventApplicationName, spanEventType, spanEventEndPoint, elapsed, hasException);
         }
     }
 
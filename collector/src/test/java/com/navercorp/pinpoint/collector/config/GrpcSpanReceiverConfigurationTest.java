@@ -53,6 +53,8 @@ public class GrpcSpanReceiverConfigurationTest {
         assertEquals(3, configuration.getGrpcStreamSchedulerThreadSize());
         assertEquals(3, configuration.getGrpcStreamSchedulerPeriodMillis());
         assertEquals(3, configuration.getGrpcStreamCallInitRequestCount());
+        assertEquals(Integer.valueOf(3), configuration.getGrpcStreamFairWeightMap().get("agent1"));
+        assertEquals(Integer.valueOf(2), configuration.getGrpcStreamFairWeightMap().get("application"));
 
 
         assertEquals(3, configuration.getGrpcServerOption().getKeepAliveTime());
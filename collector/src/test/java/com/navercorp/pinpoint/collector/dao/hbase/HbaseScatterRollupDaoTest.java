@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkConfiguration;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkWriter;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableDescriptor;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HbaseScatterRollupDaoTest {
+
+    private final TableName tableName = TableName.valueOf("ApplicationScatterRollup");
+
+    private HbaseOperations2 hbaseTemplate;
+    private BulkWriter bulkWriter;
+    private HbaseScatterRollupDao scatterRollupDao;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        hbaseTemplate = mock(HbaseOperations2.class);
+        bulkWriter = mock(BulkWriter.class);
+
+        TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor = mock(TableDescriptor.class);
+        when(descriptor.getTableName()).thenReturn(tableName);
+        RowKeyDistributorByHashPrefix rowKeyDistributor = new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(0, 36, 16));
+        BulkConfiguration bulkConfiguration = new BulkConfiguration(-1, -1, -1, true, false);
+
+        scatterRollupDao = new HbaseScatterRollupDao(hbaseTemplate, descriptor, rowKeyDistributor, bulkWriter, bulkConfiguration);
+    }
+
+    @Test
+    public void flushSample() {
+        when(hbaseTemplate.asyncPut(eq(tableName), anyList())).thenReturn(Collections.emptyList());
+
+        scatterRollupDao.insert(newSpanBo(1));
+        scatterRollupDao.flushLink();
+
+        verify(bulkWriter).flushLink();
+        verify(hbaseTemplate).asyncPut(eq(tableName), anyList());
+        verify(hbaseTemplate, never()).put(eq(tableName), anyList());
+    }
+
+    @Test
+    public void flushSample_rejectedPut() {
+        List<Put> rejectedPutList = Collections.singletonList(new Put(new byte[]{1}));
+        when(hbaseTemplate.asyncPut(eq(tableName), anyList())).thenReturn(rejectedPutList);
+
+        scatterRollupDao.insert(newSpanBo(1));
+        scatterRollupDao.flushLink();
+
+        verify(hbaseTemplate).put(tableName, rejectedPutList);
+    }
+
+    @Test
+    public void flushSample_empty() {
+        scatterRollupDao.flushLink();
+
+        verify(hbaseTemplate, never()).asyncPut(eq(tableName), anyList());
+    }
+
+    private SpanBo newSpanBo(long sequence) {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setAgentId("agent");
+        spanBo.setApplicationId("application");
+        spanBo.setTransactionId(new TransactionId("agent", 1, sequence));
+        spanBo.setCollectorAcceptTime(System.currentTimeMillis());
+        spanBo.setElapsed(100);
+        return spanBo;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.monitor.SpanBatchMetrics;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableDescriptor;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanChunkSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HbaseTraceDaoV2Test {
+
+    private final TableName tableName = TableName.valueOf("TraceV2");
+
+    private HbaseOperations2 hbaseTemplate;
+    private SpanBatchMetrics spanBatchMetrics;
+    private HbaseTraceDaoV2 traceDao;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        hbaseTemplate = mock(HbaseOperations2.class);
+        spanBatchMetrics = new SpanBatchMetrics();
+
+        TableDescriptor<HbaseColumnFamily.Trace> descriptor = mock(TableDescriptor.class);
+        when(descriptor.getTableName()).thenReturn(tableName);
+        RowKeyEncoder<TransactionId> rowKeyEncoder = mock(RowKeyEncoder.class);
+        when(rowKeyEncoder.encodeRowKey(any())).thenReturn(new byte[]{1});
+
+        traceDao = new HbaseTraceDaoV2(hbaseTemplate, descriptor, rowKeyEncoder,
+                mock(SpanSerializerV2.class), mock(SpanChunkSerializerV2.class), spanBatchMetrics);
+    }
+
+    @Test
+    public void insertSpans() {
+        when(hbaseTemplate.asyncPut(eq(tableName), anyList())).thenReturn(Collections.emptyList());
+
+        traceDao.insert(Arrays.asList(newSpanBo(1), newSpanBo(2)));
+
+        verify(hbaseTemplate, never()).put(eq(tableName), anyList());
+        Assert.assertEquals(0, spanBatchMetrics.getAsyncPutRejectedCount());
+    }
+
+    @Test
+    public void insertSpans_rejectedPut() {
+        List<Put> rejectedPutList = Collections.singletonList(new Put(new byte[]{1}));
+        when(hbaseTemplate.asyncPut(eq(tableName), anyList())).thenReturn(rejectedPutList);
+
+        traceDao.insert(Arrays.asList(newSpanBo(1), newSpanBo(2)));
+
+        verify(hbaseTemplate).put(tableName, rejectedPutList);
+        Assert.assertEquals(1, spanBatchMetrics.getAsyncPutRejectedCount());
+    }
+
+    private SpanBo newSpanBo(long sequence) {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setAgentId("agent");
+        spanBo.setApplicationId("application");
+        spanBo.setTransactionId(new TransactionId("agent", 1, sequence));
+        spanBo.setCollectorAcceptTime(System.currentTimeMillis());
+        return spanBo;
+    }
+}
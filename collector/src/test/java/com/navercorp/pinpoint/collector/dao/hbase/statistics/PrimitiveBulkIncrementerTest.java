@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.dao.hbase.BulkOperationReporter;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkIncrementerTestClazz.Flusher;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkIncrementerTestClazz.Incrementer;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkIncrementerTestClazz.TestData;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkIncrementerTestClazz.TestDataSet;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.BulkIncrementerTestClazz.TestVerifier;
+
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrimitiveBulkIncrementerTest {
+
+    private static final byte[] CF = Bytes.toBytes("CF");
+
+    private final BulkOperationReporter reporter = new BulkOperationReporter();
+
+    @Mock
+    private RowKeyDistributorByHashPrefix rowKeyDistributor;
+
+    @Before
+    public void setUp() {
+        when(rowKeyDistributor.getDistributedKey(any(byte[].class))).then(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void multipleTables() {
+        // Given
+        BulkIncrementer bulkIncrementer = new PrimitiveBulkIncrementer(CF, 1000, reporter);
+        TableName tableA = TableName.valueOf("a", "A");
+        TableName tableB = TableName.valueOf("b", "A");
+        List<TestDataSet> testDataSets = new ArrayList<>();
+        testDataSets.add(new TestDataSet(tableA, 0, 0, 100));
+        testDataSets.add(new TestDataSet(tableA, 0, 1, 200));
+        testDataSets.add(new TestDataSet(tableA, 1, 0, 300));
+        testDataSets.add(new TestDataSet(tableB, 0, 0, 400));
+        testDataSets.add(new TestDataSet(tableB, 1, 1, 500));
+
+        List<TestData> testDatas = new ArrayList<>();
+        for (TestDataSet testDataSet : testDataSets) {
+            testDatas.addAll(testDataSet.getTestDatas());
+        }
+        Collections.shuffle(testDatas);
+
+        // When
+        for (TestData testData : testDatas) {
+            bulkIncrementer.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+        }
+        Assert.assertEquals(testDataSets.size(), bulkIncrementer.getSize());
+
+        // Then
+        Map<TableName, List<Increment>> incrementMap = bulkIncrementer.getIncrements(rowKeyDistributor);
+        Assert.assertEquals(2, incrementMap.get(tableA).size());
+        Assert.assertEquals(2, incrementMap.get(tableB).size());
+
+        TestVerifier verifier = new TestVerifier(incrementMap);
+        for (TestDataSet testDataSet : testDataSets) {
+            verifier.verify(testDataSet);
+        }
+        Assert.assertEquals(0, bulkIncrementer.getSize());
+        Assert.assertTrue(bulkIncrementer.getIncrements(rowKeyDistributor).isEmpty());
+        Assert.assertEquals(2, reporter.getFlushAllCount());
+        Assert.assertTrue(reporter.getMemoryUsage() > 0);
+    }
+
+    @Test
+    public void sameAsDefaultBulkIncrementer() {
+        // Given
+        BulkIncrementer primitive = new PrimitiveBulkIncrementer(CF, 100000, reporter);
+        BulkIncrementer bulkIncrementer = new DefaultBulkIncrementer(new RowKeyMerge(CF));
+        List<TestDataSet> testDataSets = BulkIncrementerTestClazz.createRandomTestDataSetList(3, 20, 10, 200);
+
+        // When
+        for (TestDataSet testDataSet : testDataSets) {
+            for (TestData testData : testDataSet.getTestDatas()) {
+                primitive.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+                bulkIncrementer.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+            }
+        }
+
+        // Then
+        TestVerifier expected = new TestVerifier(bulkIncrementer.getIncrements(rowKeyDistributor));
+        TestVerifier actual = new TestVerifier(primitive.getIncrements(rowKeyDistributor));
+        Assert.assertEquals(expected.getResultMap(), actual.getResultMap());
+    }
+
+    @Test
+    public void maxSize() {
+        // Given
+        final int maxSize = 10;
+        BulkIncrementer bulkIncrementer = new PrimitiveBulkIncrementer(CF, maxSize, 2, reporter);
+        List<TestDataSet> testDataSets = BulkIncrementerTestClazz.createRandomTestDataSetList(1, 4, 5, 200);
+
+        // When
+        for (TestDataSet testDataSet : testDataSets) {
+            TestData testData = testDataSet.getTestDatas().get(0);
+            bulkIncrementer.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+        }
+
+        // Then
+        Assert.assertEquals(maxSize, bulkIncrementer.getSize());
+        Assert.assertEquals(testDataSets.size() - maxSize, reporter.getRejectedCount());
+
+        bulkIncrementer.getIncrements(rowKeyDistributor);
+        Assert.assertEquals(0, bulkIncrementer.getSize());
+    }
+
+    @Test
+    public void singleTableConcurrent() throws Exception {
+        // Given
+        BulkIncrementer bulkIncrementer = new PrimitiveBulkIncrementer(CF, 1000, reporter);
+        TableName tableA = TableName.valueOf("A");
+        TestDataSet testDataSetA_0_0 = new TestDataSet(tableA, 0, 0, 1000000);
+        TestDataSet testDataSetA_0_1 = new TestDataSet(tableA, 0, 1, 1000001);
+
+        List<TestData> testDatas = new ArrayList<>();
+        testDatas.addAll(testDataSetA_0_0.getTestDatas());
+        testDatas.addAll(testDataSetA_0_1.getTestDatas());
+        Collections.shuffle(testDatas);
+
+        // When
+        final int numIncrementers = 16;
+        List<List<TestData>> testDataPartitions = ListUtils.partition(testDatas, testDatas.size() / (numIncrementers - 1));
+        final CountDownLatch completeLatch = new CountDownLatch(testDataPartitions.size());
+        final CountDownLatch flusherLatch = new CountDownLatch(1);
+
+        FutureTask<Map<TableName, List<Increment>>> flushTask = new FutureTask<>(new Flusher(bulkIncrementer, rowKeyDistributor, completeLatch, flusherLatch));
+        new Thread(flushTask, "Flusher").start();
+
+        int counter = 0;
+        for (List<TestData> testDataPartition : testDataPartitions) {
+            Incrementer incrementer = new Incrementer(bulkIncrementer, completeLatch, testDataPartition);
+            new Thread(incrementer, "Incrementer-" + counter++).start();
+        }
+
+        flusherLatch.await(30L, TimeUnit.SECONDS);
+
+        // Then
+        Map<TableName, List<Increment>> incrementMap = flushTask.get(5L, TimeUnit.SECONDS);
+        TestVerifier verifier = new TestVerifier(incrementMap);
+        verifier.verify(testDataSetA_0_0);
+        verifier.verify(testDataSetA_0_1);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.thrift.udp;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.SocketUtils;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EpollUDPReceiverTest {
+
+    private static final String ADDRESS = "127.0.0.1";
+
+    private int port;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(EpollUDPReceiver.isAvailable());
+        this.port = SocketUtils.findAvailableUdpPort(10999);
+    }
+
+    @Test
+    public void receive() throws Exception {
+        final int count = 100;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        final byte[] expected = new byte[]{1, 2, 3, 4};
+        PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+            @Override
+            public PacketHandler<DatagramPacket> createPacketHandler() {
+                return new PacketHandler<DatagramPacket>() {
+                    @Override
+                    public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                        byte[] data = Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getLength());
+                        if (Arrays.equals(expected, data)) {
+                            threadNames.add(Thread.currentThread().getName());
+                            latch.countDown();
+                        }
+                    }
+                };
+            }
+        };
+
+        InetSocketAddress bindAddress = new InetSocketAddress(ADDRESS, port);
+        EpollUDPReceiver receiver = new EpollUDPReceiver("test", packetHandlerFactory, 1024 * 64, bindAddress, true, 2, 4);
+        DatagramSocket sender = new DatagramSocket();
+        try {
+            receiver.start();
+            for (int i = 0; i < count; i++) {
+                sender.send(new DatagramPacket(expected, expected.length, bindAddress));
+            }
+            // health check packet is ignored
+            sender.send(new DatagramPacket(new byte[0], 0, bindAddress));
+
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (String threadName : threadNames) {
+                Assert.assertTrue(threadName, threadName.startsWith("test-Epoll"));
+            }
+        } finally {
+            sender.close();
+            receiver.shutdown();
+        }
+    }
+
+    @Test
+    public void response() throws Exception {
+        PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+            @Override
+            public PacketHandler<DatagramPacket> createPacketHandler() {
+                return new PacketHandler<DatagramPacket>() {
+                    @Override
+                    public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                        try {
+                            localSocket.send(new DatagramPacket(new byte[]{9}, 1, packet.getSocketAddress()));
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                };
+            }
+        };
+
+        InetSocketAddress bindAddress = new InetSocketAddress(ADDRESS, port);
+        EpollUDPReceiver receiver = new EpollUDPReceiver("test", packetHandlerFactory, 1024 * 64, bindAddress, false, 1, 4);
+        DatagramSocket sender = new DatagramSocket();
+        try {
+            receiver.start();
+            sender.setSoTimeout(5000);
+            sender.send(new DatagramPacket(new byte[]{1}, 1, bindAddress));
+
+            DatagramPacket response = new DatagramPacket(new byte[16], 16);
+            sender.receive(response);
+            Assert.assertEquals(1, response.getLength());
+            Assert.assertEquals(9, response.getData()[0]);
+            Assert.assertEquals(port, response.getPort());
+        } finally {
+            sender.close();
+            receiver.shutdown();
+        }
+    }
+}
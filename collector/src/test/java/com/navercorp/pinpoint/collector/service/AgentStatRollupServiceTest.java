@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.collector.dao.AgentInfoDao;
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.common.server.bo.AgentInfoBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AgentStatRollupServiceTest {
+
+    private static final String APPLICATION_NAME = "testApp";
+    private static final short SERVICE_TYPE = 1010;
+    private static final String AGENT_ID = "testAgent";
+    private static final long START_TIMESTAMP = 1000;
+
+    @Test
+    public void save_disable() {
+        AgentStatRollupDao rollupDao = mock(AgentStatRollupDao.class);
+        AgentInfoDao agentInfoDao = mock(AgentInfoDao.class);
+        AgentStatRollupService service = new AgentStatRollupService(false, rollupDao, agentInfoDao);
+
+        service.save(newAgentStatBo(START_TIMESTAMP, 10_000, 1));
+
+        verify(agentInfoDao, never()).getAgentInfo(anyString(), anyLong());
+        verify(rollupDao, never()).update(anyString(), anyShort(), anyString(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void save() {
+        AgentStatRollupDao rollupDao = mock(AgentStatRollupDao.class);
+        AgentInfoDao agentInfoDao = mock(AgentInfoDao.class);
+        when(agentInfoDao.getAgentInfo(AGENT_ID, START_TIMESTAMP)).thenReturn(newAgentInfoBo());
+        AgentStatRollupService service = new AgentStatRollupService(true, rollupDao, agentInfoDao);
+
+        service.save(newAgentStatBo(START_TIMESTAMP, 10_000, 3));
+        service.save(newAgentStatBo(START_TIMESTAMP, 15_000, 5));
+
+        verify(agentInfoDao, times(1)).getAgentInfo(AGENT_ID, START_TIMESTAMP);
+        verify(rollupDao).update(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, 10_000, AgentStatRollupField.HEAP_USED, 100);
+        verify(rollupDao).update(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, 10_000, AgentStatRollupField.HEAP_MAX, 200);
+        verify(rollupDao).update(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, 10_000, AgentStatRollupField.JVM_CPU_LOAD, 2500);
+        verify(rollupDao).update(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, 10_000, AgentStatRollupField.SYSTEM_CPU_LOAD, 5000);
+        verify(rollupDao, times(2)).update(eq(APPLICATION_NAME), eq(SERVICE_TYPE), eq(AGENT_ID), anyLong(), eq(AgentStatRollupField.CPU_LOAD_SAMPLE_COUNT), eq(1L));
+        // the first stat of an agent has no previous gc count
+        verify(rollupDao, times(1)).update(eq(APPLICATION_NAME), eq(SERVICE_TYPE), eq(AGENT_ID), anyLong(), eq(AgentStatRollupField.GC_OLD_COUNT), anyLong());
+        verify(rollupDao).update(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, 15_000, AgentStatRollupField.GC_OLD_COUNT, 2);
+    }
+
+    @Test
+    public void save_agentRestart() {
+        AgentStatRollupDao rollupDao = mock(AgentStatRollupDao.class);
+        AgentInfoDao agentInfoDao = mock(AgentInfoDao.class);
+        when(agentInfoDao.getAgentInfo(eq(AGENT_ID), anyLong())).thenReturn(newAgentInfoBo());
+        AgentStatRollupService service = new AgentStatRollupService(true, rollupDao, agentInfoDao);
+
+        service.save(newAgentStatBo(START_TIMESTAMP, 10_000, 30));
+        service.save(newAgentStatBo(START_TIMESTAMP + 1, 15_000, 1));
+
+        verify(agentInfoDao, times(2)).getAgentInfo(eq(AGENT_ID), anyLong());
+        verify(rollupDao, never()).update(anyString(), anyShort(), anyString(), anyLong(), eq(AgentStatRollupField.GC_OLD_COUNT), anyLong());
+    }
+
+    @Test
+    public void save_agentInfoNotFound() {
+        AgentStatRollupDao rollupDao = mock(AgentStatRollupDao.class);
+        AgentInfoDao agentInfoDao = mock(AgentInfoDao.class);
+        AgentStatRollupService service = new AgentStatRollupService(true, rollupDao, agentInfoDao);
+
+        service.save(newAgentStatBo(START_TIMESTAMP, 10_000, 1));
+        // not found is cached, the agent info is not read again for every stat
+        service.save(newAgentStatBo(START_TIMESTAMP, 15_000, 1));
+
+        verify(agentInfoDao, times(1)).getAgentInfo(AGENT_ID, START_TIMESTAMP);
+        verify(rollupDao, never()).update(anyString(), anyShort(), anyString(), anyLong(), any(), anyLong());
+
+        // a restarted agent is read again
+        service.save(newAgentStatBo(START_TIMESTAMP + 1, 20_000, 1));
+        verify(agentInfoDao, times(1)).getAgentInfo(AGENT_ID, START_TIMESTAMP + 1);
+    }
+
+    private AgentInfoBo newAgentInfoBo() {
+        AgentInfoBo.Builder builder = new AgentInfoBo.Builder();
+        builder.setAgentId(AGENT_ID);
+        builder.setApplicationName(APPLICATION_NAME);
+        builder.setServiceTypeCode(SERVICE_TYPE);
+        builder.setStartTime(START_TIMESTAMP);
+        return builder.build();
+    }
+
+    private AgentStatBo newAgentStatBo(long startTimestamp, long timestamp, long gcOldCount) {
+        AgentStatBo.Builder builder = AgentStatBo.newBuilder(AGENT_ID, startTimestamp);
+        AgentStatBo.Builder.StatBuilder statBuilder = builder.newStatBuilder(timestamp);
+
+        JvmGcBo jvmGcBo = new JvmGcBo();
+        jvmGcBo.setHeapUsed(100);
+        jvmGcBo.setHeapMax(200);
+        jvmGcBo.setGcOldCount(gcOldCount);
+        statBuilder.addJvmGc(jvmGcBo);
+
+        CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setJvmCpuLoad(0.25);
+        cpuLoadBo.setSystemCpuLoad(0.5);
+        statBuilder.addCpuLoad(cpuLoadBo);
+        return builder.build();
+    }
+}
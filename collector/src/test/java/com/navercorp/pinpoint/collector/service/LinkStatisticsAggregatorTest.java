@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.common.profiler.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LinkStatisticsAggregatorTest {
+
+    private static final ServiceType CALLER = ServiceType.STAND_ALONE;
+    private static final ServiceType CALLEE = ServiceType.UNKNOWN;
+
+    @Test
+    public void add_sameLink() {
+        StatisticsService statisticsService = mock(StatisticsService.class);
+        LinkStatisticsAggregator aggregator = new LinkStatisticsAggregator();
+
+        aggregator.add("app", CALLER, "agent", "host", "db", CALLEE, "db:3306", 10, false);
+        aggregator.add("app", CALLER, "agent", "host", "db", CALLEE, "db:3306", 20, false);
+        aggregator.add("app", CALLER, "agent", "host", "db", CALLEE, "db:3306", 30, false);
+        Assert.assertEquals(1, aggregator.size());
+
+        aggregator.flush(statisticsService);
+        Assert.assertEquals(0, aggregator.size());
+
+        final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(CALLEE, 10, false);
+        verify(statisticsService).updateCaller("app", CALLER, "agent", "db", CALLEE, "db:3306", slotNumber, 3, 60, 30);
+        verify(statisticsService).updateCallee("db", CALLEE, "app", CALLER, "host", slotNumber, 3, 60, 30);
+    }
+
+    @Test
+    public void add_differentSlot() {
+        StatisticsService statisticsService = mock(StatisticsService.class);
+        LinkStatisticsAggregator aggregator = new LinkStatisticsAggregator();
+
+        aggregator.add("app", CALLER, "agent", "host", "db", CALLEE, "db:3306", 10, false);
+        aggregator.add("app", CALLER, "agent", "host", "db", CALLEE, "db:3306", 10, true);
+        aggregator.add("app", CALLER, "agent", "host", "cache", CALLEE, "cache:6379", 10, false);
+        Assert.assertEquals(3, aggregator.size());
+
+        aggregator.flush(statisticsService);
+        verify(statisticsService, times(3)).updateCaller(anyString(), eq(CALLER), anyString(), anyString(), eq(CALLEE), anyString(), anyShort(), anyLong(), anyLong(), anyLong());
+    }
+}
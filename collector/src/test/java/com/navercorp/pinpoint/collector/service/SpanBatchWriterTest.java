@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.collector.monitor.SpanBatchMetrics;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SpanBatchWriterTest {
+
+    @Test
+    public void insertSpan_disable() {
+        TraceService traceService = mock(TraceService.class);
+        SpanBatchWriter writer = new SpanBatchWriter(traceService, new SpanBatchConfiguration(false, 2, 100), new SpanBatchMetrics());
+
+        SpanBo spanBo = new SpanBo();
+        writer.insertSpan(spanBo);
+
+        verify(traceService).insertSpan(spanBo);
+        verify(traceService, never()).insertSpans(anyList());
+    }
+
+    @Test
+    public void insertSpan_batchSize() {
+        TraceService traceService = mock(TraceService.class);
+        SpanBatchMetrics metrics = new SpanBatchMetrics();
+        SpanBatchWriter writer = new SpanBatchWriter(traceService, new SpanBatchConfiguration(true, 2, 60000), metrics);
+
+        writer.insertSpan(new SpanBo());
+        verify(traceService, never()).insertSpans(anyList());
+
+        writer.insertSpan(new SpanBo());
+        verify(traceService, times(1)).insertSpans(anyList());
+        Assert.assertEquals(1, metrics.getBatchCount());
+    }
+
+    @Test
+    public void flushExpired() throws InterruptedException {
+        TraceService traceService = mock(TraceService.class);
+        SpanBatchWriter writer = new SpanBatchWriter(traceService, new SpanBatchConfiguration(true, 100, 1), new SpanBatchMetrics());
+
+        writer.insertSpan(new SpanBo());
+        Thread.sleep(10);
+        writer.flushExpired();
+        verify(traceService, times(1)).insertSpans(anyList());
+
+        writer.flushExpired();
+        verify(traceService, times(1)).insertSpans(anyList());
+    }
+
+    @Test
+    public void insertSpans_reject() {
+        TraceService traceService = mock(TraceService.class);
+        doThrow(new IllegalStateException("test")).when(traceService).insertSpans(anyList());
+        SpanBatchMetrics metrics = new SpanBatchMetrics();
+        SpanBatchWriter writer = new SpanBatchWriter(traceService, new SpanBatchConfiguration(true, 1, 60000), metrics);
+
+        writer.insertSpan(new SpanBo());
+
+        Assert.assertEquals(1, metrics.getRejectedCount());
+        Assert.assertEquals(0, metrics.getBatchCount());
+    }
+
+    @Test
+    public void spanBatchCount() {
+        Assert.assertEquals(1, SpanBatchWriter.spanBatchCount(0));
+        Assert.assertEquals(2, SpanBatchWriter.spanBatchCount(1));
+        Assert.assertEquals(8, SpanBatchWriter.spanBatchCount(3));
+        Assert.assertEquals(8, SpanBatchWriter.spanBatchCount(4));
+    }
+
+    @Test
+    public void shortLivedThreads() throws InterruptedException {
+        List<SpanBo> written = new ArrayList<>();
+        TraceService traceService = mock(TraceService.class);
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(traceService).insertSpans(anyList());
+        SpanBatchWriter writer = new SpanBatchWriter(traceService, new SpanBatchConfiguration(true, 1000, 1), new SpanBatchMetrics());
+        final int spanBatchCount = writer.getSpanBatchCount();
+
+        final int threadCount = spanBatchCount * 4;
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> writer.insertSpan(new SpanBo()));
+            thread.start();
+            thread.join();
+        }
+        // dead handler threads share the fixed pool
+        Assert.assertEquals(spanBatchCount, writer.getSpanBatchCount());
+
+        Thread.sleep(10);
+        writer.flushExpired();
+        verify(traceService, atMost(spanBatchCount)).insertSpans(anyList());
+        Assert.assertEquals(threadCount, written.size());
+    }
+}
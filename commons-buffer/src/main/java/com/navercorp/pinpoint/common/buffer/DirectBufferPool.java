@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slab allocator of direct {@link ByteBuffer}s for the {@link PooledDirectBuffer}.
+ * Buffers are rounded up to a power of two size class between minBufferSize and maxBufferSize.
+ * A size class allocates a slab of slabSize bytes at once and slices it, released slices are cached for reuse.
+ * Larger buffers are not pooled.
+ */
+public class DirectBufferPool {
+
+    public static final int DEFAULT_MIN_BUFFER_SIZE = 64;
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_CACHED_BYTES_PER_CLASS = 8 * 1024 * 1024;
+
+    private static final DirectBufferPool DEFAULT = new DirectBufferPool();
+
+    private final int minBufferSize;
+    private final int maxBufferSize;
+    private final int slabSize;
+    private final int minShift;
+    private final SizeClass[] sizeClasses;
+
+    private final AtomicLong slabAllocatedBytes = new AtomicLong();
+    private final AtomicLong unpooledAllocateCount = new AtomicLong();
+
+    public static DirectBufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    public DirectBufferPool() {
+        this(DEFAULT_MIN_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE, DEFAULT_SLAB_SIZE, DEFAULT_MAX_CACHED_BYTES_PER_CLASS);
+    }
+
+    public DirectBufferPool(int minBufferSize, int maxBufferSize, int slabSize, int maxCachedBytesPerClass) {
+        if (!isPowerOfTwo(minBufferSize) || !isPowerOfTwo(maxBufferSize)) {
+            throw new IllegalArgumentException("buffer size must be a power of two. min:" + minBufferSize + " max:" + maxBufferSize);
+        }
+        if (minBufferSize > maxBufferSize) {
+            throw new IllegalArgumentException("minBufferSize > maxBufferSize");
+        }
+        if (slabSize < maxBufferSize) {
+            throw new IllegalArgumentException("slabSize must be greater than or equal to maxBufferSize");
+        }
+        this.minBufferSize = minBufferSize;
+        this.maxBufferSize = maxBufferSize;
+        this.slabSize = slabSize;
+        this.minShift = Integer.numberOfTrailingZeros(minBufferSize);
+
+        final int classCount = Integer.numberOfTrailingZeros(maxBufferSize) - minShift + 1;
+        this.sizeClasses = new SizeClass[classCount];
+        for (int i = 0; i < classCount; i++) {
+            final int bufferSize = minBufferSize << i;
+            this.sizeClasses[i] = new SizeClass(bufferSize, Math.max(1, maxCachedBytesPerClass / bufferSize));
+        }
+    }
+
+    private static boolean isPowerOfTwo(int value) {
+        return value > 0 && (value & (value - 1)) == 0;
+    }
+
+    /**
+     * @return cleared direct buffer, the capacity is greater than or equal to size
+     */
+    public ByteBuffer allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size:" + size);
+        }
+        final SizeClass sizeClass = sizeClass(size);
+        if (sizeClass == null) {
+            unpooledAllocateCount.incrementAndGet();
+            return ByteBuffer.allocateDirect(size);
+        }
+        return sizeClass.allocate();
+    }
+
+    /**
+     * Returns the buffer to the pool. The buffer must not be used after release.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        final int capacity = buffer.capacity();
+        if (!buffer.isDirect() || capacity > maxBufferSize || capacity < minBufferSize || !isPowerOfTwo(capacity)) {
+            // unpooled buffer, freed by gc
+            return;
+        }
+        final SizeClass sizeClass = sizeClass(capacity);
+        if (sizeClass != null) {
+            buffer.clear();
+            sizeClass.release(buffer);
+        }
+    }
+
+    /**
+     * @return the pooled buffer size for the size, size itself if the size is not pooled
+     */
+    public int capacityFor(int size) {
+        final SizeClass sizeClass = sizeClass(size);
+        if (sizeClass == null) {
+            return size;
+        }
+        return sizeClass.bufferSize;
+    }
+
+    private SizeClass sizeClass(int size) {
+        if (size > maxBufferSize) {
+            return null;
+        }
+        if (size <= minBufferSize) {
+            return sizeClasses[0];
+        }
+        final int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return sizeClasses[shift - minShift];
+    }
+
+    public long getSlabAllocatedBytes() {
+        return slabAllocatedBytes.get();
+    }
+
+    public long getUnpooledAllocateCount() {
+        return unpooledAllocateCount.get();
+    }
+
+    public int getCachedBufferCount() {
+        int count = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            count += sizeClass.cachedCount.get();
+        }
+        return count;
+    }
+
+    private class SizeClass {
+        private final int bufferSize;
+        private final int maxCachedCount;
+        private final Queue<ByteBuffer> freeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+        private final AtomicInteger cachedCount = new AtomicInteger();
+
+        private SizeClass(int bufferSize, int maxCachedCount) {
+            this.bufferSize = bufferSize;
+            this.maxCachedCount = maxCachedCount;
+        }
+
+        private ByteBuffer allocate() {
+            final ByteBuffer cached = freeQueue.poll();
+            if (cached != null) {
+                cachedCount.decrementAndGet();
+                return cached;
+            }
+            return allocateSlab();
+        }
+
+        private ByteBuffer allocateSlab() {
+            // the slab is freed by gc when all of its slices are unreachable
+            final ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+            slabAllocatedBytes.addAndGet(slabSize);
+
+            final int sliceCount = slabSize / bufferSize;
+            ByteBuffer first = null;
+            for (int i = 0; i < sliceCount; i++) {
+                slab.limit((i + 1) * bufferSize);
+                slab.position(i * bufferSize);
+                final ByteBuffer slice = slab.slice();
+                if (first == null) {
+                    first = slice;
+                } else {
+                    release(slice);
+                }
+            }
+            return first;
+        }
+
+        private void release(ByteBuffer buffer) {
+            if (cachedCount.incrementAndGet() > maxCachedCount) {
+                cachedCount.decrementAndGet();
+                return;
+            }
+            freeQueue.offer(buffer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DirectBufferPool{" +
+                "minBufferSize=" + minBufferSize +
+                ", maxBufferSize=" + maxBufferSize +
+                ", slabSize=" + slabSize +
+                ", slabAllocatedBytes=" + slabAllocatedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,613 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.buffer;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Buffer} backed by a direct {@link ByteBuffer} of the {@link DirectBufferPool}.
+ * The buffer expands automatically like the {@link AutomaticBuffer}.
+ * Variable-length values are encoded and decoded in place, {@link #wrapByteBuffer()} returns a view without copy.
+ * <p>
+ * The buffer must be released with {@link #release()}, it can not be used after release.
+ * Not thread safe.
+ */
+public class PooledDirectBuffer implements Buffer, AutoCloseable {
+
+    private final DirectBufferPool pool;
+    private ByteBuffer buffer;
+    private int offset;
+    // end of the readable bytes, written bytes for writing, length of the source bytes for reading
+    private int limit;
+
+    public PooledDirectBuffer() {
+        this(32);
+    }
+
+    public PooledDirectBuffer(int initialCapacity) {
+        this(DirectBufferPool.getDefault(), initialCapacity);
+    }
+
+    public PooledDirectBuffer(DirectBufferPool pool, int initialCapacity) {
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+        if (initialCapacity < 0) {
+            throw new IndexOutOfBoundsException("negative initialCapacity:" + initialCapacity);
+        }
+        this.pool = pool;
+        this.buffer = pool.allocate(initialCapacity);
+        this.offset = 0;
+        this.limit = 0;
+    }
+
+    /**
+     * copy of bytes for reading
+     */
+    public PooledDirectBuffer(DirectBufferPool pool, byte[] bytes) {
+        this(pool, bytes.length);
+        this.buffer.put(bytes);
+        this.buffer.clear();
+        this.limit = bytes.length;
+    }
+
+    private ByteBuffer buffer() {
+        final ByteBuffer buffer = this.buffer;
+        if (buffer == null) {
+            throw new IllegalStateException("already released");
+        }
+        return buffer;
+    }
+
+    /**
+     * the pooled memory may hold bytes of a previous tenant beyond the limit
+     */
+    private ByteBuffer checkRead(final int index, final int size) {
+        final ByteBuffer buffer = buffer();
+        if (index < 0 || size < 0 || index > limit - size) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + size + " limit:" + limit);
+        }
+        return buffer;
+    }
+
+    private byte readableByte(final ByteBuffer buffer, final int index) {
+        if (index >= limit) {
+            throw new IndexOutOfBoundsException("index:" + index + " limit:" + limit);
+        }
+        return buffer.get(index);
+    }
+
+    private void written(final int offset) {
+        this.offset = offset;
+        if (offset > limit) {
+            this.limit = offset;
+        }
+    }
+
+    private ByteBuffer checkExpand(final int size) {
+        final ByteBuffer buffer = buffer();
+        if (buffer.capacity() - offset >= size) {
+            return buffer;
+        }
+        int capacity = Math.max(buffer.capacity(), 1);
+        while (capacity - offset < size) {
+            capacity <<= 1;
+        }
+        final ByteBuffer expanded = pool.allocate(capacity);
+        final ByteBuffer source = buffer.duplicate();
+        source.position(0);
+        source.limit(offset);
+        expanded.put(source);
+        expanded.clear();
+
+        pool.release(buffer);
+        this.buffer = expanded;
+        return expanded;
+    }
+
+    /**
+     * Returns the memory to the pool, the buffer can not be used after release.
+     */
+    public void release() {
+        final ByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            this.buffer = null;
+            pool.release(buffer);
+        }
+    }
+
+    public boolean isReleased() {
+        return buffer == null;
+    }
+
+    /**
+     * same as {@link #release()}
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    public int capacity() {
+        return buffer().capacity();
+    }
+
+    @Override
+    public void putPadBytes(byte[] bytes, int totalLength) {
+        if (bytes == null) {
+            bytes = EMPTY;
+        }
+        if (bytes.length > totalLength) {
+            throw new IndexOutOfBoundsException("bytes too big:" + bytes.length + " totalLength:" + totalLength);
+        }
+        final ByteBuffer buffer = checkExpand(totalLength);
+        put(buffer, bytes);
+        int offset = this.offset;
+        for (int i = bytes.length; i < totalLength; i++) {
+            buffer.put(offset++, (byte) 0);
+        }
+        written(offset);
+    }
+
+    @Override
+    public void putPrefixedBytes(final byte[] bytes) {
+        if (bytes == null) {
+            putSVInt(NULL);
+        } else {
+            checkExpand(bytes.length + BytesUtils.VINT_MAX_SIZE);
+            putSVInt(bytes.length);
+            putBytes(bytes);
+        }
+    }
+
+    @Override
+    public void put2PrefixedBytes(final byte[] bytes) {
+        if (bytes == null) {
+            putShort((short) NULL);
+        } else {
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IndexOutOfBoundsException("too large bytes length:" + bytes.length);
+            }
+            checkExpand(bytes.length + BytesUtils.SHORT_BYTE_LENGTH);
+            putShort((short) bytes.length);
+            putBytes(bytes);
+        }
+    }
+
+    @Override
+    public void put4PrefixedBytes(final byte[] bytes) {
+        if (bytes == null) {
+            putInt(NULL);
+        } else {
+            checkExpand(bytes.length + BytesUtils.INT_BYTE_LENGTH);
+            putInt(bytes.length);
+            putBytes(bytes);
+        }
+    }
+
+    @Override
+    public void putPadString(String string, int totalLength) {
+        final byte[] bytes = BytesUtils.toBytes(string);
+        putPadBytes(bytes, totalLength);
+    }
+
+    @Override
+    public void putPrefixedString(final String string) {
+        final byte[] bytes = BytesUtils.toBytes(string);
+        putPrefixedBytes(bytes);
+    }
+
+    @Override
+    public void put2PrefixedString(final String string) {
+        final byte[] bytes = BytesUtils.toBytes(string);
+        if (bytes != null && bytes.length > Short.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("too large String size:" + bytes.length);
+        }
+        put2PrefixedBytes(bytes);
+    }
+
+    @Override
+    public void put4PrefixedString(final String string) {
+        final byte[] bytes = BytesUtils.toBytes(string);
+        put4PrefixedBytes(bytes);
+    }
+
+    @Override
+    public void putByte(final byte v) {
+        checkExpand(1).put(offset, v);
+        written(offset + 1);
+    }
+
+    @Override
+    public void putBoolean(final boolean v) {
+        putByte(v ? (byte) BOOLEAN_TRUE : (byte) BOOLEAN_FALSE);
+    }
+
+    @Override
+    public void putInt(final int v) {
+        checkExpand(BytesUtils.INT_BYTE_LENGTH).putInt(offset, v);
+        written(offset + BytesUtils.INT_BYTE_LENGTH);
+    }
+
+    @Override
+    public void putVInt(int v) {
+        if (v >= 0) {
+            putVar32(v);
+        } else {
+            putVar64((long) v);
+        }
+    }
+
+    @Override
+    public void putSVInt(int v) {
+        putVar32(BytesUtils.intToZigZag(v));
+    }
+
+    private void putVar32(int v) {
+        final ByteBuffer buffer = checkExpand(BytesUtils.VINT_MAX_SIZE);
+        int offset = this.offset;
+        while ((v & ~0x7F) != 0) {
+            buffer.put(offset++, (byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put(offset++, (byte) v);
+        written(offset);
+    }
+
+    @Override
+    public void putShort(final short v) {
+        checkExpand(BytesUtils.SHORT_BYTE_LENGTH).putShort(offset, v);
+        written(offset + BytesUtils.SHORT_BYTE_LENGTH);
+    }
+
+    @Override
+    public void putLong(final long v) {
+        checkExpand(BytesUtils.LONG_BYTE_LENGTH).putLong(offset, v);
+        written(offset + BytesUtils.LONG_BYTE_LENGTH);
+    }
+
+    @Override
+    public void putVLong(long v) {
+        putVar64(v);
+    }
+
+    @Override
+    public void putSVLong(long v) {
+        putVar64(BytesUtils.longToZigZag(v));
+    }
+
+    private void putVar64(long v) {
+        final ByteBuffer buffer = checkExpand(BytesUtils.VLONG_MAX_SIZE);
+        int offset = this.offset;
+        while ((v & ~0x7FL) != 0) {
+            buffer.put(offset++, (byte) (((int) v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put(offset++, (byte) v);
+        written(offset);
+    }
+
+    @Override
+    public void putDouble(double v) {
+        putLong(Double.doubleToRawLongBits(v));
+    }
+
+    @Override
+    public void putVDouble(double v) {
+        putVLong(Double.doubleToRawLongBits(v));
+    }
+
+    @Override
+    public void putSVDouble(double v) {
+        putSVLong(Double.doubleToRawLongBits(v));
+    }
+
+    @Override
+    public void putBytes(final byte[] v) {
+        if (v == null) {
+            throw new NullPointerException("v");
+        }
+        put(checkExpand(v.length), v);
+    }
+
+    private void put(ByteBuffer buffer, byte[] v) {
+        final ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(v);
+        written(offset + v.length);
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return checkRead(index, 1).get(index);
+    }
+
+    @Override
+    public byte readByte() {
+        final byte b = checkRead(offset, 1).get(offset);
+        offset++;
+        return b;
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return readByte() & 0xff;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return readByte() == BOOLEAN_TRUE;
+    }
+
+    @Override
+    public int readInt() {
+        final int i = checkRead(offset, BytesUtils.INT_BYTE_LENGTH).getInt(offset);
+        offset += BytesUtils.INT_BYTE_LENGTH;
+        return i;
+    }
+
+    @Override
+    public int readVInt() {
+        final ByteBuffer buffer = buffer();
+        int offset = this.offset;
+        byte b = readableByte(buffer, offset++);
+        if (b >= 0) {
+            this.offset = offset;
+            return b;
+        }
+        int result = b & 0x7F;
+        for (int shift = 7; shift < 32; shift += 7) {
+            b = readableByte(buffer, offset++);
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                this.offset = offset;
+                return result;
+            }
+        }
+        // negative value encoded by putVar64, the upper bytes are discarded
+        for (int i = 0; i < 5; i++) {
+            if (readableByte(buffer, offset++) >= 0) {
+                this.offset = offset;
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("invalid varInt. start offset:" + this.offset + " readOffset:" + offset);
+    }
+
+    @Override
+    public int readSVInt() {
+        return BytesUtils.zigzagToInt(readVInt());
+    }
+
+    @Override
+    public short readShort() {
+        final short s = checkRead(offset, BytesUtils.SHORT_BYTE_LENGTH).getShort(offset);
+        offset += BytesUtils.SHORT_BYTE_LENGTH;
+        return s;
+    }
+
+    @Override
+    public long readLong() {
+        final long l = checkRead(offset, BytesUtils.LONG_BYTE_LENGTH).getLong(offset);
+        offset += BytesUtils.LONG_BYTE_LENGTH;
+        return l;
+    }
+
+    @Override
+    public long readVLong() {
+        final ByteBuffer buffer = buffer();
+        int offset = this.offset;
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = readableByte(buffer, offset++);
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                this.offset = offset;
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("invalid varLong. start offset:" + this.offset + " readOffset:" + offset);
+    }
+
+    @Override
+    public long readSVLong() {
+        return BytesUtils.zigzagToLong(readVLong());
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public double readVDouble() {
+        return Double.longBitsToDouble(readVLong());
+    }
+
+    @Override
+    public double readSVDouble() {
+        return Double.longBitsToDouble(readSVLong());
+    }
+
+    @Override
+    public byte[] readPadBytes(int totalLength) {
+        return readBytes(totalLength);
+    }
+
+    @Override
+    public String readPadString(int totalLength) {
+        return readString(totalLength);
+    }
+
+    @Override
+    public String readPadStringAndRightTrim(int totalLength) {
+        final byte[] bytes = readBytes(totalLength);
+        return BytesUtils.toStringAndRightTrim(bytes, 0, totalLength);
+    }
+
+    @Override
+    public byte[] readPrefixedBytes() {
+        final int size = readSVInt();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return readBytes(size);
+    }
+
+    @Override
+    public byte[] read2PrefixedBytes() {
+        final int size = readShort();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return readBytes(size);
+    }
+
+    @Override
+    public byte[] read4PrefixedBytes() {
+        final int size = readInt();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return readBytes(size);
+    }
+
+    private byte[] readBytes(int size) {
+        final ByteBuffer source = checkRead(offset, size).duplicate();
+        final byte[] bytes = new byte[size];
+        source.position(offset);
+        source.get(bytes);
+        this.offset += size;
+        return bytes;
+    }
+
+    @Override
+    public String readPrefixedString() {
+        final int size = readSVInt();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return "";
+        }
+        return readString(size);
+    }
+
+    @Override
+    public String read2PrefixedString() {
+        final int size = readShort();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return "";
+        }
+        return readString(size);
+    }
+
+    @Override
+    public String read4PrefixedString() {
+        final int size = readInt();
+        if (size == NULL) {
+            return null;
+        }
+        if (size == 0) {
+            return "";
+        }
+        return readString(size);
+    }
+
+    private String readString(final int size) {
+        return new String(readBytes(size), UTF8_CHARSET);
+    }
+
+    /**
+     * heap copy of the written bytes
+     */
+    @Override
+    public byte[] getBuffer() {
+        return copyBuffer();
+    }
+
+    @Override
+    public byte[] copyBuffer() {
+        final byte[] copy = new byte[offset];
+        final ByteBuffer source = buffer().duplicate();
+        source.position(0);
+        source.get(copy);
+        return copy;
+    }
+
+    /**
+     * direct buffer has no heap array
+     * @throws UnsupportedOperationException
+     */
+    @Override
+    public byte[] getInternalBuffer() {
+        throw new UnsupportedOperationException("direct buffer");
+    }
+
+    /**
+     * view of the written bytes without copy, valid until {@link #release()}
+     */
+    @Override
+    public ByteBuffer wrapByteBuffer() {
+        final ByteBuffer view = buffer().duplicate();
+        view.position(0);
+        view.limit(offset);
+        return view.slice();
+    }
+
+    @Override
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int remaining() {
+        return limit - offset;
+    }
+
+    @Override
+    public boolean hasRemaining() {
+        return offset < limit;
+    }
+
+    @Override
+    public String toString() {
+        return "PooledDirectBuffer{" +
+                "offset=" + offset +
+                ", released=" + isReleased() +
+                '}';
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.buffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class PooledDirectBufferTest {
+
+    private final DirectBufferPool pool = new DirectBufferPool(64, 1024, 4096, 4096);
+
+    private static final int[] INTS = {0, 1, -1, 127, 128, -128, 16383, 16384, Integer.MAX_VALUE, Integer.MIN_VALUE};
+    private static final long[] LONGS = {0, 1, -1, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+
+    private void write(Buffer buffer) {
+        for (int v : INTS) {
+            buffer.putVInt(v);
+            buffer.putSVInt(v);
+            buffer.putInt(v);
+        }
+        for (long v : LONGS) {
+            buffer.putVLong(v);
+            buffer.putSVLong(v);
+            buffer.putLong(v);
+        }
+        buffer.putShort((short) -2);
+        buffer.putByte((byte) 7);
+        buffer.putBoolean(true);
+        buffer.putDouble(1.5);
+        buffer.putSVDouble(-2.5);
+        buffer.putPrefixedString("pinpoint");
+        buffer.put2PrefixedString(null);
+        buffer.put4PrefixedBytes(new byte[]{1, 2, 3});
+        buffer.putPadString("pad", 8);
+    }
+
+    private void assertRead(Buffer buffer) {
+        for (int v : INTS) {
+            Assert.assertEquals(v, buffer.readVInt());
+            Assert.assertEquals(v, buffer.readSVInt());
+            Assert.assertEquals(v, buffer.readInt());
+        }
+        for (long v : LONGS) {
+            Assert.assertEquals(v, buffer.readVLong());
+            Assert.assertEquals(v, buffer.readSVLong());
+            Assert.assertEquals(v, buffer.readLong());
+        }
+        Assert.assertEquals(-2, buffer.readShort());
+        Assert.assertEquals(7, buffer.readByte());
+        Assert.assertTrue(buffer.readBoolean());
+        Assert.assertEquals(1.5, buffer.readDouble(), 0);
+        Assert.assertEquals(-2.5, buffer.readSVDouble(), 0);
+        Assert.assertEquals("pinpoint", buffer.readPrefixedString());
+        Assert.assertNull(buffer.read2PrefixedString());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, buffer.read4PrefixedBytes());
+        Assert.assertEquals("pad", buffer.readPadStringAndRightTrim(8));
+    }
+
+    @Test
+    public void compatibleWithAutomaticBuffer() {
+        Buffer heap = new AutomaticBuffer(0);
+        write(heap);
+
+        PooledDirectBuffer direct = new PooledDirectBuffer(pool, 0);
+        try {
+            write(direct);
+            Assert.assertArrayEquals(heap.getBuffer(), direct.copyBuffer());
+
+            direct.setOffset(0);
+            assertRead(direct);
+        } finally {
+            direct.release();
+        }
+
+        PooledDirectBuffer read = new PooledDirectBuffer(pool, heap.getBuffer());
+        try {
+            assertRead(read);
+            Assert.assertFalse(read.hasRemaining());
+        } finally {
+            read.release();
+        }
+    }
+
+    @Test
+    public void wrapByteBuffer() {
+        PooledDirectBuffer buffer = new PooledDirectBuffer(pool, 8);
+        try {
+            buffer.putLong(10);
+            buffer.putInt(20);
+            ByteBuffer view = buffer.wrapByteBuffer();
+            Assert.assertTrue(view.isDirect());
+            Assert.assertEquals(12, view.remaining());
+            Assert.assertEquals(10, view.getLong());
+            Assert.assertEquals(20, view.getInt());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void expand() {
+        PooledDirectBuffer buffer = new PooledDirectBuffer(pool, 0);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                buffer.putInt(i);
+            }
+            Assert.assertTrue(buffer.capacity() >= 4000);
+            buffer.setOffset(0);
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(i, buffer.readInt());
+            }
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void readPastLimitOfRecycledBuffer() {
+        DirectBufferPool pool = new DirectBufferPool(64, 64, 64, 4096);
+        PooledDirectBuffer previous = new PooledDirectBuffer(pool, 64);
+        for (int i = 0; i < 16; i++) {
+            previous.putInt(-1);
+        }
+        previous.release();
+
+        PooledDirectBuffer recycled = new PooledDirectBuffer(pool, new byte[]{0, 0, 0, 1});
+        try {
+            Assert.assertEquals(64, recycled.capacity());
+            Assert.assertEquals(1, recycled.readInt());
+            Assert.assertFalse(recycled.hasRemaining());
+            try {
+                recycled.readInt();
+                Assert.fail("read past limit");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                recycled.readVLong();
+                Assert.fail("read past limit");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                recycled.readPadBytes(8);
+                Assert.fail("read past limit");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                recycled.getByte(4);
+                Assert.fail("read past limit");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            // failed reads do not move the offset
+            Assert.assertEquals(4, recycled.getOffset());
+        } finally {
+            recycled.release();
+        }
+
+        PooledDirectBuffer written = new PooledDirectBuffer(pool, 64);
+        try {
+            written.putShort((short) 3);
+            written.setOffset(0);
+            Assert.assertEquals(3, written.readShort());
+            try {
+                written.readShort();
+                Assert.fail("read past written bytes");
+            } catch (IndexOutOfBoundsException expected) {
+            }
+        } finally {
+            written.release();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release() {
+        PooledDirectBuffer buffer = new PooledDirectBuffer(pool, 8);
+        buffer.release();
+        Assert.assertTrue(buffer.isReleased());
+        // release twice is ignored
+        buffer.release();
+
+        buffer.putInt(1);
+    }
+
+    @Test
+    public void pool() {
+        DirectBufferPool pool = new DirectBufferPool(64, 1024, 4096, 4096);
+        Assert.assertEquals(64, pool.capacityFor(1));
+        Assert.assertEquals(128, pool.capacityFor(65));
+        Assert.assertEquals(1024, pool.capacityFor(1024));
+        Assert.assertEquals(2000, pool.capacityFor(2000));
+
+        ByteBuffer first = pool.allocate(100);
+        Assert.assertEquals(128, first.capacity());
+        Assert.assertTrue(first.isDirect());
+        Assert.assertEquals(4096, pool.getSlabAllocatedBytes());
+        // rest of the slab is cached
+        Assert.assertEquals(4096 / 128 - 1, pool.getCachedBufferCount());
+
+        first.putInt(1);
+        pool.release(first);
+        ByteBuffer reused = pool.allocate(128);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(128, reused.limit());
+        Assert.assertEquals(4096, pool.getSlabAllocatedBytes());
+
+        ByteBuffer large = pool.allocate(2000);
+        Assert.assertEquals(2000, large.capacity());
+        Assert.assertEquals(1, pool.getUnpooledAllocateCount());
+    }
+}
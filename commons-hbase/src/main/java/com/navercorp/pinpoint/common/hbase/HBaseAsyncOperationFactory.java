@@ -17,10 +17,13 @@
 
 package com.navercorp.pinpoint.common.hbase;
 
+import com.navercorp.pinpoint.common.hbase.spill.SpillHBaseAsyncOperation;
+import com.navercorp.pinpoint.common.util.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.HTableMultiplexer;
 
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -40,6 +43,21 @@ public class HBaseAsyncOperationFactory {
     public static final String ASYNC_MAX_RETRIES_IN_QUEUE = HTableMultiplexer.TABLE_MULTIPLEXER_MAX_RETRIES_IN_QUEUE;
     public static final int DEFAULT_ASYNC_RETRY_COUNT = 10000;
 
+    public static final String ENABLE_ASYNC_SPILL = "hbase.client.async.spill.enable";
+    public static final boolean DEFAULT_ENABLE_ASYNC_SPILL = false;
+
+    public static final String ASYNC_SPILL_DIR = "hbase.client.async.spill.dir";
+    public static final String DEFAULT_ASYNC_SPILL_DIR = new File(System.getProperty("java.io.tmpdir"), "pinpoint-hbase-spill").getPath();
+
+    public static final String ASYNC_SPILL_SEGMENT_SIZE = "hbase.client.async.spill.segment.size";
+    public static final int DEFAULT_ASYNC_SPILL_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    public static final String ASYNC_SPILL_MAX_SEGMENTS = "hbase.client.async.spill.max.segments";
+    public static final int DEFAULT_ASYNC_SPILL_MAX_SEGMENTS = 16;
+
+    public static final String ASYNC_SPILL_REPLAY_RATE = "hbase.client.async.spill.replay.rate";
+    public static final int DEFAULT_ASYNC_SPILL_REPLAY_RATE = 5000;
+
     public static HBaseAsyncOperation create(Configuration configuration) throws IOException {
         boolean enableAsyncMethod = configuration.getBoolean(ENABLE_ASYNC_METHOD, DEFAULT_ENABLE_ASYNC_METHOD);
         if (!enableAsyncMethod) {
@@ -56,7 +74,7 @@ public class HBaseAsyncOperationFactory {
             configuration.setInt(ASYNC_MAX_RETRIES_IN_QUEUE, DEFAULT_ASYNC_RETRY_COUNT);
         }
 
-        return new HBaseAsyncTemplate(configuration, queueSize);
+        return spill(new HBaseAsyncTemplate(configuration, queueSize), configuration);
     }
 
     public static HBaseAsyncOperation create(Connection connection, Configuration configuration) throws IOException {
@@ -75,7 +93,25 @@ public class HBaseAsyncOperationFactory {
             configuration.setInt(ASYNC_MAX_RETRIES_IN_QUEUE, DEFAULT_ASYNC_RETRY_COUNT);
         }
 
-        return new HBaseAsyncTemplate(connection, configuration, queueSize);
+        return spill(new HBaseAsyncTemplate(connection, configuration, queueSize), configuration);
+    }
+
+    private static HBaseAsyncOperation spill(HBaseAsyncOperation asyncOperation, Configuration configuration) throws IOException {
+        boolean enableSpill = configuration.getBoolean(ENABLE_ASYNC_SPILL, DEFAULT_ENABLE_ASYNC_SPILL);
+        if (!enableSpill) {
+            return asyncOperation;
+        }
+
+        String spillDirPath = configuration.getTrimmed(ASYNC_SPILL_DIR);
+        if (StringUtils.isEmpty(spillDirPath)) {
+            spillDirPath = DEFAULT_ASYNC_SPILL_DIR;
+        }
+        File spillDir = new File(spillDirPath);
+        int segmentSize = configuration.getInt(ASYNC_SPILL_SEGMENT_SIZE, DEFAULT_ASYNC_SPILL_SEGMENT_SIZE);
+        int maxSegments = configuration.getInt(ASYNC_SPILL_MAX_SEGMENTS, DEFAULT_ASYNC_SPILL_MAX_SEGMENTS);
+        int replayRate = configuration.getInt(ASYNC_SPILL_REPLAY_RATE, DEFAULT_ASYNC_SPILL_REPLAY_RATE);
+
+        return new SpillHBaseAsyncOperation(asyncOperation, spillDir, segmentSize, maxSegments, replayRate);
     }
 
 }
\ No newline at end of file
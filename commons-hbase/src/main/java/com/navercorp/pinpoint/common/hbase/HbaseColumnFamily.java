@@ -55,6 +55,7 @@ public class HbaseColumnFamily {
     }
 
     public static final AgentStatStatistics AGENT_STAT_STATISTICS = new AgentStatStatistics(HbaseTable.AGENT_STAT_VER2, Bytes.toBytes("S"));
+    public static final AgentStatStatistics AGENT_STAT_COLUMNS = new AgentStatStatistics(HbaseTable.AGENT_STAT_VER2, Bytes.toBytes("C"));
     public static class AgentStatStatistics extends HbaseColumnFamily {
         public final int TIMESPAN_MS = 5 * 60 * 1000;
 
@@ -63,6 +64,13 @@ public class HbaseColumnFamily {
         }
     }
 
+    public static final AgentStatRollup AGENT_STAT_ROLLUP_COUNTER = new AgentStatRollup(HbaseTable.AGENT_STAT_ROLLUP, Bytes.toBytes("C"));
+    public static class AgentStatRollup extends HbaseColumnFamily {
+        private AgentStatRollup(HbaseTable hBaseTable, byte[] columnFamilyName) {
+            super(hBaseTable, columnFamilyName);
+        }
+    }
+
     public static final AgentUriStatStatistics AGENT_URI_STAT_STATISTICS = new AgentUriStatStatistics(HbaseTable.AGENT_URI_STAT, Bytes.toBytes("Uri"));
     public static class AgentUriStatStatistics extends HbaseColumnFamily {
         public final int TIMESPAN_MS = 5 * 60 * 1000;
@@ -88,6 +96,14 @@ public class HbaseColumnFamily {
         }
     }
 
+    public static final ApplicationScatterRollup APPLICATION_SCATTER_ROLLUP_COUNTER = new ApplicationScatterRollup(HbaseTable.APPLICATION_SCATTER_ROLLUP, Bytes.toBytes("C"));
+    public static final ApplicationScatterRollup APPLICATION_SCATTER_ROLLUP_SAMPLE = new ApplicationScatterRollup(HbaseTable.APPLICATION_SCATTER_ROLLUP, Bytes.toBytes("S"));
+    public static class ApplicationScatterRollup extends HbaseColumnFamily {
+        private ApplicationScatterRollup(HbaseTable hBaseTable, byte[] columnFamilyName) {
+            super(hBaseTable, columnFamilyName);
+        }
+    }
+
     public static final ApplicationStatStatistics APPLICATION_STAT_STATISTICS = new ApplicationStatStatistics(HbaseTable.APPLICATION_STAT_AGGRE, Bytes.toBytes("S"));
     public static class ApplicationStatStatistics extends HbaseColumnFamily {
         public int TIMESPAN_MS = 5 * 60 * 1000;
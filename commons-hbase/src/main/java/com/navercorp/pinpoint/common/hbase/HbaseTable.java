@@ -26,9 +26,11 @@ public enum HbaseTable {
     AGENT_EVENT("AgentEvent"),
     AGENT_LIFECYCLE("AgentLifeCycle"),
     AGENT_STAT_VER2("AgentStatV2"),
+    AGENT_STAT_ROLLUP("AgentStatRollup", false),
     AGENT_URI_STAT("AgentUriStat", false),
     API_METADATA("ApiMetaData"),
     APPLICATION_INDEX("ApplicationIndex"),
+    APPLICATION_SCATTER_ROLLUP("ApplicationScatterRollup", false),
     APPLICATION_STAT_AGGRE("ApplicationStatAggre"),
     APPLICATION_TRACE_INDEX("ApplicationTraceIndex"),
     HOST_APPLICATION_MAP_VER2("HostApplicationMap_Ver2"),
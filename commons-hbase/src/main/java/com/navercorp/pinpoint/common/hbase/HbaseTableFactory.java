@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.hbase;
 
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Table;
 
 import java.io.IOException;
@@ -30,7 +31,7 @@ import java.util.concurrent.ExecutorService;
  * @author minwoo.jung
  * @author HyunGil Jeong
  */
-public class HbaseTableFactory implements TableFactory {
+public class HbaseTableFactory implements TableFactory, RegionLocatorFactory {
 
     private final Connection connection;
 
@@ -56,6 +57,15 @@ public class HbaseTableFactory implements TableFactory {
         }
     }
 
+    @Override
+    public RegionLocator getRegionLocator(TableName tableName) {
+        try {
+            return connection.getRegionLocator(tableName);
+        } catch (IOException e) {
+            throw new HbaseSystemException(e);
+        }
+    }
+
     @Override
     public void releaseTable(Table table) {
         if (table == null) {
@@ -16,7 +16,9 @@
 
 package com.navercorp.pinpoint.common.hbase;
 
+import com.navercorp.pinpoint.common.hbase.parallel.AdaptiveParallelResultScanner;
 import com.navercorp.pinpoint.common.hbase.parallel.ParallelResultScanner;
+import com.navercorp.pinpoint.common.hbase.parallel.RegionServerScanThrottle;
 import com.navercorp.pinpoint.common.hbase.parallel.ScanTaskException;
 import com.navercorp.pinpoint.common.profiler.concurrent.ExecutorFactory;
 import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
@@ -66,6 +68,8 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
 
     private static final int DEFAULT_MAX_THREADS_FOR_PARALLEL_SCANNER = 128;
     private static final int DEFAULT_MAX_THREADS_PER_PARALLEL_SCAN = 1;
+    private static final int DEFAULT_MAX_SCANS_PER_REGION_SERVER = 2;
+    private static final int DEFAULT_PARALLEL_SCAN_PREFETCH_SIZE = 256;
 
     private static final long DEFAULT_DESTORY_TIMEOUT = 2000;
 
@@ -79,6 +83,11 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
     private int maxThreads = DEFAULT_MAX_THREADS_FOR_PARALLEL_SCANNER;
     private int maxThreadsPerParallelScan = DEFAULT_MAX_THREADS_PER_PARALLEL_SCAN;
 
+    private boolean enableAdaptiveParallelScan = false;
+    private int maxScansPerRegionServer = DEFAULT_MAX_SCANS_PER_REGION_SERVER;
+    private int parallelScanPrefetchSize = 0;
+    private RegionServerScanThrottle regionServerScanThrottle;
+
     private HBaseAsyncOperation asyncOperation = DisabledHBaseAsyncOperation.INSTANCE;
 
     public HbaseTemplate2() {
@@ -100,6 +109,25 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         this.maxThreadsPerParallelScan = maxThreadsPerParallelScan;
     }
 
+    /**
+     * Schedules the parallel scans by region server instead of maxThreadsPerParallelScan.
+     * Requires a {@link TableFactory} that is also a {@link RegionLocatorFactory}.
+     */
+    public void setEnableAdaptiveParallelScan(boolean enableAdaptiveParallelScan) {
+        this.enableAdaptiveParallelScan = enableAdaptiveParallelScan;
+    }
+
+    public void setMaxScansPerRegionServer(int maxScansPerRegionServer) {
+        this.maxScansPerRegionServer = maxScansPerRegionServer;
+    }
+
+    /**
+     * @param parallelScanPrefetchSize rows fetched per rpc by each bucket of the adaptive parallel scan. 0 uses the caching of the scan
+     */
+    public void setParallelScanPrefetchSize(int parallelScanPrefetchSize) {
+        this.parallelScanPrefetchSize = parallelScanPrefetchSize;
+    }
+
     public void setAsyncOperation(HBaseAsyncOperation asyncOperation) {
         this.asyncOperation = Objects.requireNonNull(asyncOperation, "asyncOperation");
     }
@@ -116,6 +144,14 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         } else {
             this.executor = ExecutorFactory.newFixedThreadPool(this.maxThreads, 1024, parallelScannerThreadFactory);
         }
+        if (this.enableParallelScan && this.enableAdaptiveParallelScan) {
+            if (getTableFactory() instanceof RegionLocatorFactory) {
+                this.regionServerScanThrottle = new RegionServerScanThrottle(this.executor, this.maxScansPerRegionServer);
+                logger.info("adaptive parallel scan enabled. {}", regionServerScanThrottle);
+            } else {
+                logger.warn("adaptive parallel scan disabled. RegionLocatorFactory not found. tableFactory:{}", getTableFactory());
+            }
+        }
     }
 
     @Override
@@ -656,7 +692,7 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
                 watch = new StopWatch();
                 watch.start();
             }
-            ParallelResultScanner scanner = new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads);
+            ResultScanner scanner = newParallelResultScanner(tableName, scan, rowKeyDistributor, numParallelThreads);
             if (debugEnabled) {
                 logger.debug("ParallelDistributedScanner createTime: {}ms", watch.stop());
                 watch.start();
@@ -684,6 +720,26 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         }
     }
 
+    private ResultScanner newParallelResultScanner(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, int numParallelThreads) throws IOException {
+        final RegionServerScanThrottle regionServerScanThrottle = this.regionServerScanThrottle;
+        if (regionServerScanThrottle != null) {
+            final RegionLocatorFactory regionLocatorFactory = (RegionLocatorFactory) getTableFactory();
+            return new AdaptiveParallelResultScanner(tableName, getTableFactory(), regionLocatorFactory, regionServerScanThrottle,
+                    scan, rowKeyDistributor, getParallelScanPrefetchSize(scan));
+        }
+        return new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads);
+    }
+
+    private int getParallelScanPrefetchSize(Scan scan) {
+        if (this.parallelScanPrefetchSize > 0) {
+            return this.parallelScanPrefetchSize;
+        }
+        if (scan.getCaching() > 0) {
+            return scan.getCaching();
+        }
+        return DEFAULT_PARALLEL_SCAN_PREFETCH_SIZE;
+    }
+
     @Override
     public Result increment(TableName tableName, final Increment increment) {
         return execute(tableName, new TableCallback<Result>() {
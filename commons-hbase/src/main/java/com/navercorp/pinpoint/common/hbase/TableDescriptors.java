@@ -45,6 +45,10 @@ public class TableDescriptors {
         return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.AGENT_STAT_STATISTICS);
     }
 
+    public TableDescriptor<HbaseColumnFamily.AgentStatRollup> getAgentStatRollup() {
+        return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.AGENT_STAT_ROLLUP_COUNTER);
+    }
+
     public TableDescriptor<HbaseColumnFamily.AgentUriStatStatistics> getAgentUriStatStatus() {
         return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.AGENT_URI_STAT_STATISTICS);
     }
@@ -57,6 +61,10 @@ public class TableDescriptors {
         return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.APPLICATION_INDEX_AGENTS);
     }
 
+    public TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> getApplicationScatterRollup() {
+        return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER);
+    }
+
     public TableDescriptor<HbaseColumnFamily.ApplicationStatStatistics> getApplicationStatStatistics() {
         return new DefaultTableDescriptor<>(tableNameProvider, HbaseColumnFamily.APPLICATION_STAT_STATISTICS);
     }
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import com.navercorp.pinpoint.common.hbase.RegionLocatorFactory;
+import com.navercorp.pinpoint.common.hbase.TableFactory;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link ParallelResultScanner} that schedules the salt bucket scans by region server instead of a fixed number of threads.
+ * <ul>
+ *     <li>each bucket scan is mapped onto the region server hosting its start row</li>
+ *     <li>fetches are throttled per region server through the {@link RegionServerScanThrottle}</li>
+ *     <li>each bucket holds at most one batch of prefetchSize rows plus one batch in flight</li>
+ *     <li>buckets are merged in original row key order with a heap, and the next batch of a bucket is only requested
+ *     once the merge starts consuming the current one</li>
+ * </ul>
+ */
+public class AdaptiveParallelResultScanner implements ResultScanner {
+
+    static final String UNKNOWN_SERVER = "unknown";
+
+    private static final Result[] EMPTY_BATCH = new Result[0];
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TableName tableName;
+    private final TableFactory tableFactory;
+    private final AbstractRowKeyDistributor keyDistributor;
+    private final RegionServerScanThrottle throttle;
+    private final int prefetchSize;
+
+    private final List<BucketScanner> bucketScanners;
+    private final PriorityQueue<BucketScanner> mergeQueue;
+    private boolean initialized = false;
+    private volatile boolean closed = false;
+
+    public AdaptiveParallelResultScanner(TableName tableName, TableFactory tableFactory, RegionLocatorFactory regionLocatorFactory,
+                                         RegionServerScanThrottle throttle, Scan originalScan,
+                                         AbstractRowKeyDistributor keyDistributor, int prefetchSize) throws IOException {
+        this.tableName = Objects.requireNonNull(tableName, "tableName");
+        this.tableFactory = Objects.requireNonNull(tableFactory, "tableFactory");
+        Objects.requireNonNull(regionLocatorFactory, "regionLocatorFactory");
+        this.throttle = Objects.requireNonNull(throttle, "throttle");
+        Objects.requireNonNull(originalScan, "originalScan");
+        this.keyDistributor = Objects.requireNonNull(keyDistributor, "keyDistributor");
+        Assert.isTrue(prefetchSize > 0, "prefetchSize must be positive");
+        this.prefetchSize = prefetchSize;
+
+        final Scan[] splitScans = splitScans(originalScan);
+        this.bucketScanners = createBucketScanners(regionLocatorFactory, splitScans);
+
+        Comparator<BucketScanner> comparator = (o1, o2) -> Bytes.compareTo(o1.headKey, o2.headKey);
+        if (originalScan.isReversed()) {
+            comparator = comparator.reversed();
+        }
+        this.mergeQueue = new PriorityQueue<>(Math.max(1, bucketScanners.size()), comparator);
+    }
+
+    private Scan[] splitScans(Scan originalScan) throws IOException {
+        final Scan[] scans = this.keyDistributor.getDistributedScans(originalScan);
+        for (int i = 0; i < scans.length; i++) {
+            final Scan scan = scans[i];
+            scan.setId(originalScan.getId() + "-" + i);
+            // one rpc per prefetch
+            scan.setCaching(prefetchSize);
+        }
+        return scans;
+    }
+
+    private List<BucketScanner> createBucketScanners(RegionLocatorFactory regionLocatorFactory, Scan[] splitScans) throws IOException {
+        final List<BucketScanner> bucketScanners = new ArrayList<>(splitScans.length);
+        try (RegionLocator regionLocator = regionLocatorFactory.getRegionLocator(tableName)) {
+            for (Scan scan : splitScans) {
+                final String serverName = getServerName(regionLocator, scan.getStartRow());
+                bucketScanners.add(new BucketScanner(scan, serverName));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("bucket scans:{} servers:{}", bucketScanners.size(), bucketScanners.stream().map(bucket -> bucket.serverName).distinct().count());
+        }
+        return bucketScanners;
+    }
+
+    private String getServerName(RegionLocator regionLocator, byte[] row) {
+        try {
+            final HRegionLocation regionLocation = regionLocator.getRegionLocation(row);
+            if (regionLocation == null || regionLocation.getServerName() == null) {
+                return UNKNOWN_SERVER;
+            }
+            return regionLocation.getServerName().getHostAndPort();
+        } catch (IOException e) {
+            // the scan still works, it just loses the per server throttling
+            logger.info("region location not found. table:{} row:{}", tableName, Bytes.toStringBinary(row), e);
+            return UNKNOWN_SERVER;
+        }
+    }
+
+    @Override
+    public Result next() throws IOException {
+        if (closed) {
+            return null;
+        }
+        if (!initialized) {
+            initialize();
+        }
+        final BucketScanner bucketScanner = mergeQueue.poll();
+        if (bucketScanner == null) {
+            return null;
+        }
+        final Result result = bucketScanner.poll();
+        if (bucketScanner.hasHead()) {
+            mergeQueue.offer(bucketScanner);
+        }
+        return result;
+    }
+
+    private void initialize() throws IOException {
+        this.initialized = true;
+        for (BucketScanner bucketScanner : bucketScanners) {
+            bucketScanner.prefetch();
+        }
+        for (BucketScanner bucketScanner : bucketScanners) {
+            bucketScanner.awaitBatch();
+            if (bucketScanner.hasHead()) {
+                mergeQueue.offer(bucketScanner);
+            }
+        }
+    }
+
+    @Override
+    public Result[] next(int nbRows) throws IOException {
+        // Identical to HTable.ClientScanner implementation
+        ArrayList<Result> resultSets = new ArrayList<>(nbRows);
+        for (int i = 0; i < nbRows; i++) {
+            Result next = next();
+            if (next != null) {
+                resultSets.add(next);
+            } else {
+                break;
+            }
+        }
+        return resultSets.toArray(new Result[0]);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        this.mergeQueue.clear();
+        for (BucketScanner bucketScanner : bucketScanners) {
+            bucketScanner.close();
+        }
+    }
+
+    public boolean renewLease() {
+        return false;
+    }
+
+    public ScanMetrics getScanMetrics() {
+        return null;
+    }
+
+    @Override
+    public Iterator<Result> iterator() {
+        return new Iterator<Result>() {
+            private Result next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = AdaptiveParallelResultScanner.this.next();
+                        return next != null;
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Result next() {
+                if (!hasNext()) {
+                    return null;
+                }
+                Result temp = next;
+                next = null;
+                return temp;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Only one fetch of a bucket is in flight at a time.
+     * The fetch and the release are synchronized so that close() never closes a scanner in use.
+     */
+    private class BucketScanner {
+        private final Scan scan;
+        private final String serverName;
+
+        // guarded by this
+        private Table table;
+        private ResultScanner scanner;
+        private boolean released = false;
+
+        private CompletableFuture<Result[]> prefetch;
+        private boolean exhausted = false;
+
+        private Result[] batch = EMPTY_BATCH;
+        private int index = 0;
+        private byte[] headKey;
+
+        private BucketScanner(Scan scan, String serverName) {
+            this.scan = scan;
+            this.serverName = serverName;
+        }
+
+        private void prefetch() {
+            if (exhausted || closed) {
+                return;
+            }
+            this.prefetch = throttle.submit(serverName, this::fetch);
+        }
+
+        private synchronized Result[] fetch() throws IOException {
+            if (released) {
+                return EMPTY_BATCH;
+            }
+            if (scanner == null) {
+                this.table = tableFactory.getTable(tableName);
+                this.scanner = table.getScanner(scan);
+            }
+            return scanner.next(prefetchSize);
+        }
+
+        private void awaitBatch() throws IOException {
+            final CompletableFuture<Result[]> prefetch = this.prefetch;
+            this.prefetch = null;
+            if (prefetch == null) {
+                setBatch(EMPTY_BATCH);
+                return;
+            }
+            final Result[] batch = await(prefetch);
+            setBatch(batch);
+            if (batch.length < prefetchSize) {
+                // ResultScanner.next(int) only returns less than requested at the end of the scan
+                this.exhausted = true;
+            } else {
+                prefetch();
+            }
+        }
+
+        private Result[] await(CompletableFuture<Result[]> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ScanTaskException(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new ScanTaskException(cause);
+            }
+        }
+
+        private void setBatch(Result[] batch) {
+            this.batch = batch;
+            this.index = 0;
+            updateHead();
+        }
+
+        private void updateHead() {
+            if (index < batch.length) {
+                this.headKey = keyDistributor.getOriginalKey(batch[index].getRow());
+            } else {
+                this.headKey = null;
+            }
+        }
+
+        private boolean hasHead() {
+            return headKey != null;
+        }
+
+        private Result poll() throws IOException {
+            final Result result = batch[index];
+            batch[index] = null;
+            index++;
+            if (index < batch.length) {
+                updateHead();
+            } else {
+                awaitBatch();
+            }
+            return result;
+        }
+
+        private void close() {
+            final CompletableFuture<Result[]> prefetch = this.prefetch;
+            this.prefetch = null;
+            if (prefetch != null) {
+                // skips the fetch if it is still waiting in the throttle
+                prefetch.cancel(false);
+            }
+            release();
+        }
+
+        /**
+         * waits for the running fetch, if any.
+         */
+        private synchronized void release() {
+            if (released) {
+                return;
+            }
+            this.released = true;
+            final ResultScanner scanner = this.scanner;
+            if (scanner != null) {
+                scanner.close();
+            }
+            final Table table = this.table;
+            if (table != null) {
+                tableFactory.releaseTable(table);
+            }
+        }
+    }
+}
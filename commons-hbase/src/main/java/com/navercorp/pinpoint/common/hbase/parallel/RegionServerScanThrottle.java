@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs scan fetches on the executor with at most maxScansPerServer fetches in flight for each region server.
+ * Fetches over the limit wait in a per server queue instead of occupying an executor thread.
+ */
+public class RegionServerScanThrottle {
+
+    private final Executor executor;
+    private final int maxScansPerServer;
+
+    private final Map<String, ServerState> serverStateMap = new HashMap<>();
+
+    public RegionServerScanThrottle(Executor executor, int maxScansPerServer) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        Assert.isTrue(maxScansPerServer > 0, "maxScansPerServer must be positive");
+        this.maxScansPerServer = maxScansPerServer;
+    }
+
+    public <T> CompletableFuture<T> submit(String serverName, Callable<T> callable) {
+        Objects.requireNonNull(serverName, "serverName");
+        Objects.requireNonNull(callable, "callable");
+
+        final FetchTask<T> task = new FetchTask<>(serverName, callable);
+        synchronized (serverStateMap) {
+            final ServerState serverState = serverStateMap.computeIfAbsent(serverName, key -> new ServerState());
+            if (serverState.inFlight >= maxScansPerServer) {
+                serverState.pending.add(task);
+                return task.future;
+            }
+            serverState.inFlight++;
+        }
+        execute(task);
+        return task.future;
+    }
+
+    private void execute(FetchTask<?> task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(e);
+            complete(task.serverName);
+        }
+    }
+
+    private void complete(String serverName) {
+        final FetchTask<?> next;
+        synchronized (serverStateMap) {
+            final ServerState serverState = serverStateMap.get(serverName);
+            next = serverState.pending.poll();
+            if (next == null) {
+                serverState.inFlight--;
+                if (serverState.inFlight == 0) {
+                    serverStateMap.remove(serverName);
+                }
+                return;
+            }
+        }
+        execute(next);
+    }
+
+    int getInFlight(String serverName) {
+        synchronized (serverStateMap) {
+            final ServerState serverState = serverStateMap.get(serverName);
+            if (serverState == null) {
+                return 0;
+            }
+            return serverState.inFlight;
+        }
+    }
+
+    public int getMaxScansPerServer() {
+        return maxScansPerServer;
+    }
+
+    private static class ServerState {
+        private int inFlight;
+        private final Queue<FetchTask<?>> pending = new ArrayDeque<>();
+    }
+
+    private class FetchTask<T> implements Runnable {
+        private final String serverName;
+        private final Callable<T> callable;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private FetchTask(String serverName, Callable<T> callable) {
+            this.serverName = serverName;
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!future.isDone()) {
+                    future.complete(callable.call());
+                }
+            } catch (Throwable th) {
+                future.completeExceptionally(th);
+            } finally {
+                complete(serverName);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RegionServerScanThrottle{" +
+                "maxScansPerServer=" + maxScansPerServer +
+                '}';
+    }
+}
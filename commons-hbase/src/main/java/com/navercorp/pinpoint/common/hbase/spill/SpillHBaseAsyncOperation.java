@@ -0,0 +1,331 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HBaseAsyncOperation} which writes the puts rejected by the delegate to a local {@link SpillLog} per table
+ * and replays them at a fixed rate once the delegate accepts puts again.
+ * <p>
+ * Replay is at least once: the replay position is not persisted, so a partially replayed segment is replayed again after a restart.
+ * Replaying a put is not idempotent in general. A cell put without an explicit timestamp gets the time of the replay as its version,
+ * so a replayed put may add a version or shadow a value written after it was spilled.
+ */
+public class SpillHBaseAsyncOperation implements HBaseAsyncOperation, AutoCloseable {
+
+    static final long REPLAY_INTERVAL_MILLIS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HBaseAsyncOperation delegate;
+    private final File spillDirectory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int replayPerInterval;
+
+    private final ConcurrentMap<TableName, SpillLog> spillLogMap = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService replayScheduler;
+
+    public SpillHBaseAsyncOperation(HBaseAsyncOperation delegate, File spillDirectory,
+                                    int segmentSize, int maxSegments, int replayRatePerSecond) throws IOException {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.spillDirectory = Objects.requireNonNull(spillDirectory, "spillDirectory");
+        Assert.isTrue(replayRatePerSecond > 0, "replayRatePerSecond must be greater than 0");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.replayPerInterval = (int) Math.max(1, replayRatePerSecond * REPLAY_INTERVAL_MILLIS / 1000);
+
+        recover();
+
+        this.replayScheduler = Executors.newSingleThreadScheduledExecutor(new PinpointThreadFactory("Pinpoint-hbase-spill-replay", true));
+        this.replayScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                replay();
+            }
+        }, REPLAY_INTERVAL_MILLIS, REPLAY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void recover() throws IOException {
+        // spillDirectory/namespace/qualifier/segment-*.spill
+        final File[] namespaceDirs = spillDirectory.listFiles();
+        if (namespaceDirs == null) {
+            return;
+        }
+        for (File namespaceDir : namespaceDirs) {
+            final File[] tableDirs = namespaceDir.listFiles();
+            if (tableDirs == null) {
+                continue;
+            }
+            for (File tableDir : tableDirs) {
+                if (!tableDir.isDirectory()) {
+                    continue;
+                }
+                final TableName tableName;
+                try {
+                    tableName = TableName.valueOf(namespaceDir.getName(), tableDir.getName());
+                } catch (IllegalArgumentException e) {
+                    logger.warn("skip unknown spill directory {}", tableDir);
+                    continue;
+                }
+                spillLogMap.put(tableName, new SpillLog(tableDir, segmentSize, maxSegments));
+            }
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public boolean put(TableName tableName, Put put) {
+        if (delegate.put(tableName, put)) {
+            return true;
+        }
+        return spill(tableName, put);
+    }
+
+    @Override
+    public List<Put> put(TableName tableName, List<Put> puts) {
+        final List<Put> rejectedPuts = delegate.put(tableName, puts);
+        if (CollectionUtils.isEmpty(rejectedPuts)) {
+            return rejectedPuts;
+        }
+        List<Put> droppedPuts = null;
+        for (Put put : rejectedPuts) {
+            if (!spill(tableName, put)) {
+                if (droppedPuts == null) {
+                    droppedPuts = new ArrayList<>();
+                }
+                droppedPuts.add(put);
+            }
+        }
+        if (droppedPuts == null) {
+            return Collections.emptyList();
+        }
+        return droppedPuts;
+    }
+
+    private boolean spill(TableName tableName, Put put) {
+        final SpillLog spillLog = getSpillLog(tableName);
+        if (spillLog == null) {
+            return false;
+        }
+        return spillLog.append(System.currentTimeMillis(), SpillPutCodec.encode(put));
+    }
+
+    private SpillLog getSpillLog(TableName tableName) {
+        final SpillLog spillLog = spillLogMap.get(tableName);
+        if (spillLog != null) {
+            return spillLog;
+        }
+        synchronized (spillLogMap) {
+            final SpillLog exist = spillLogMap.get(tableName);
+            if (exist != null) {
+                return exist;
+            }
+            final File tableDir = new File(new File(spillDirectory, tableName.getNamespaceAsString()), tableName.getQualifierAsString());
+            try {
+                final SpillLog newSpillLog = new SpillLog(tableDir, segmentSize, maxSegments);
+                spillLogMap.put(tableName, newSpillLog);
+                return newSpillLog;
+            } catch (IOException e) {
+                logger.warn("can not create spill log. table:{}", tableName, e);
+                return null;
+            }
+        }
+    }
+
+    void replay() {
+        int budget = replayPerInterval;
+        try {
+            for (Map.Entry<TableName, SpillLog> entry : spillLogMap.entrySet()) {
+                if (budget <= 0) {
+                    return;
+                }
+                final int replayed = replay(entry.getKey(), entry.getValue(), budget);
+                if (replayed < 0) {
+                    // delegate is still full
+                    return;
+                }
+                budget -= replayed;
+            }
+        } catch (Throwable th) {
+            logger.warn("spill replay error", th);
+        }
+    }
+
+    /**
+     * @return the number of replayed puts, -1 if the delegate rejected a put
+     */
+    private int replay(TableName tableName, SpillLog spillLog, int budget) {
+        int replayed = 0;
+        while (replayed < budget) {
+            final SpillRecord record = spillLog.peek();
+            if (record == null) {
+                return replayed;
+            }
+            final Put put;
+            try {
+                put = SpillPutCodec.decode(record.getPayload());
+            } catch (IllegalArgumentException e) {
+                logger.warn("discard undecodable spill record. table:{}", tableName, e);
+                spillLog.commit(record);
+                continue;
+            }
+            if (!delegate.put(tableName, put)) {
+                return -1;
+            }
+            spillLog.commit(record);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    public long getSpillCount() {
+        long sum = 0;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            sum += spillLog.getAppendCount();
+        }
+        return sum;
+    }
+
+    public long getSpillDropCount() {
+        long sum = 0;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            sum += spillLog.getDropCount();
+        }
+        return sum;
+    }
+
+    public long getSpillCorruptedCount() {
+        long sum = 0;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            sum += spillLog.getCorruptedCount();
+        }
+        return sum;
+    }
+
+    public long getReplayCount() {
+        long sum = 0;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            sum += spillLog.getReplayCount();
+        }
+        return sum;
+    }
+
+    public long getSpillPendingBytes() {
+        long sum = 0;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            sum += spillLog.getPendingBytes();
+        }
+        return sum;
+    }
+
+    /**
+     * @return age of the oldest pending record in milliseconds, 0 if nothing is pending
+     */
+    public long getReplayLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (SpillLog spillLog : spillLogMap.values()) {
+            final long timestamp = spillLog.getOldestTimestamp();
+            if (timestamp >= 0 && timestamp < oldest) {
+                oldest = timestamp;
+            }
+        }
+        if (oldest == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    @Override
+    public Long getOpsCount() {
+        return delegate.getOpsCount();
+    }
+
+    @Override
+    public Long getOpsRejectedCount() {
+        return delegate.getOpsRejectedCount();
+    }
+
+    @Override
+    public Long getCurrentOpsCount() {
+        return delegate.getCurrentOpsCount();
+    }
+
+    @Override
+    public Long getOpsFailedCount() {
+        return delegate.getOpsFailedCount();
+    }
+
+    @Override
+    public Long getOpsAverageLatency() {
+        return delegate.getOpsAverageLatency();
+    }
+
+    @Override
+    public Map<String, Long> getCurrentOpsCountForEachRegionServer() {
+        return delegate.getCurrentOpsCountForEachRegionServer();
+    }
+
+    @Override
+    public Map<String, Long> getOpsFailedCountForEachRegionServer() {
+        return delegate.getOpsFailedCountForEachRegionServer();
+    }
+
+    @Override
+    public Map<String, Long> getOpsAverageLatencyForEachRegionServer() {
+        return delegate.getOpsAverageLatencyForEachRegionServer();
+    }
+
+    @Override
+    public void close() {
+        replayScheduler.shutdown();
+        try {
+            replayScheduler.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SpillLog spillLog : spillLogMap.values()) {
+            spillLog.close();
+        }
+        logger.info("spill log closed. pendingBytes:{}", getSpillPendingBytes());
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Append only log of the rejected puts of a single table.
+ * The log is split into fixed size {@link SpillSegment}s, at most maxSegments are kept on disk.
+ * Replayed segments are deleted, records spilled while the log is full are dropped.
+ */
+public class SpillLog {
+
+    private static final String SEGMENT_SUFFIX = ".spill";
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("segment-(\\d+)\\" + SEGMENT_SUFFIX);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // oldest first, the last one is the active segment
+    private final ArrayDeque<SpillSegment> segments = new ArrayDeque<>();
+    private long nextSequence;
+    private int readPosition = SpillSegment.SEGMENT_HEADER_SIZE;
+    private boolean closed;
+
+    private volatile long pendingBytes;
+    private final LongAdder appendCount = new LongAdder();
+    private final LongAdder dropCount = new LongAdder();
+    private final LongAdder replayCount = new LongAdder();
+    private final LongAdder corruptedCount = new LongAdder();
+
+    public SpillLog(File directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        Assert.isTrue(segmentSize > SpillSegment.SEGMENT_HEADER_SIZE + SpillSegment.RECORD_HEADER_SIZE, "segmentSize too small");
+        Assert.isTrue(maxSegments > 0, "maxSegments must be greater than 0");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("can not create spill directory " + directory);
+        }
+        recover();
+    }
+
+    private void recover() throws IOException {
+        final File[] files = directory.listFiles();
+        final List<SegmentFile> segmentFiles = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                final Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+                if (matcher.matches()) {
+                    segmentFiles.add(new SegmentFile(file, Long.parseLong(matcher.group(1))));
+                }
+            }
+        }
+        Collections.sort(segmentFiles);
+
+        for (SegmentFile segmentFile : segmentFiles) {
+            final SpillSegment segment;
+            try {
+                segment = SpillSegment.recover(segmentFile.file, segmentFile.sequence);
+            } catch (IOException e) {
+                logger.warn("discard unreadable spill segment {}", segmentFile.file, e);
+                corruptedCount.increment();
+                deleteSegment(segmentFile.file);
+                continue;
+            }
+            if (segment.isCorrupted()) {
+                logger.warn("spill segment is corrupted, the tail of the segment is discarded. {}", segment);
+                corruptedCount.increment();
+            }
+            segments.add(segment);
+            pendingBytes += segment.getLimit() - SpillSegment.SEGMENT_HEADER_SIZE;
+            nextSequence = segmentFile.sequence + 1;
+        }
+        if (!segments.isEmpty()) {
+            logger.info("recover spill log {} segments:{} pendingBytes:{}", directory, segments.size(), pendingBytes);
+        }
+    }
+
+    /**
+     * @return false if the log is full and the record is dropped
+     */
+    public synchronized boolean append(long timestamp, byte[] payload) {
+        Objects.requireNonNull(payload, "payload");
+        if (closed) {
+            dropCount.increment();
+            return false;
+        }
+        final int recordSize = SpillSegment.RECORD_HEADER_SIZE + payload.length;
+        if (SpillSegment.SEGMENT_HEADER_SIZE + recordSize + 4 > segmentSize) {
+            logger.warn("record too large for the spill segment. size:{}", recordSize);
+            dropCount.increment();
+            return false;
+        }
+
+        SpillSegment active = activeSegment();
+        if (active == null || !active.append(timestamp, payload)) {
+            if (active != null) {
+                active.seal();
+            }
+            if (segments.size() >= maxSegments) {
+                dropCount.increment();
+                return false;
+            }
+            try {
+                active = newSegment();
+            } catch (IOException e) {
+                logger.warn("can not create spill segment. directory:{}", directory, e);
+                dropCount.increment();
+                return false;
+            }
+            if (!active.append(timestamp, payload)) {
+                dropCount.increment();
+                return false;
+            }
+        }
+        pendingBytes += recordSize;
+        appendCount.increment();
+        return true;
+    }
+
+    private SpillSegment activeSegment() {
+        final SpillSegment last = segments.peekLast();
+        if (last == null || last.isSealed()) {
+            return null;
+        }
+        return last;
+    }
+
+    private SpillSegment newSegment() throws IOException {
+        final long sequence = nextSequence++;
+        final File file = new File(directory, String.format("segment-%020d%s", sequence, SEGMENT_SUFFIX));
+        final SpillSegment segment = SpillSegment.create(file, sequence, segmentSize);
+        if (segments.isEmpty()) {
+            readPosition = SpillSegment.SEGMENT_HEADER_SIZE;
+        }
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * @return the oldest record which is not replayed yet, null if the log is empty
+     */
+    public synchronized SpillRecord peek() {
+        if (closed) {
+            // the segments are unmapped
+            return null;
+        }
+        while (true) {
+            final SpillSegment head = segments.peekFirst();
+            if (head == null) {
+                return null;
+            }
+            final int limit = head.getLimit();
+            final SpillRecord record = head.read(readPosition);
+            if (record != null) {
+                return record;
+            }
+            if (head.getLimit() < limit) {
+                logger.warn("corrupted spill record. {} position:{}", head, readPosition);
+                corruptedCount.increment();
+                pendingBytes -= limit - readPosition;
+            }
+            if (!head.isSealed()) {
+                // everything is replayed, the active segment is reused
+                return null;
+            }
+            removeHead();
+        }
+    }
+
+    /**
+     * Marks the record returned by {@link #peek()} as replayed.
+     */
+    public synchronized void commit(SpillRecord record) {
+        Objects.requireNonNull(record, "record");
+        final SpillSegment head = segments.peekFirst();
+        if (head != record.getSegment()) {
+            throw new IllegalStateException("not the head record");
+        }
+        if (closed) {
+            return;
+        }
+        pendingBytes -= record.getNextPosition() - readPosition;
+        readPosition = record.getNextPosition();
+        replayCount.increment();
+
+        if (head.isSealed() && readPosition >= head.getLimit()) {
+            removeHead();
+        }
+    }
+
+    private void removeHead() {
+        final SpillSegment head = segments.pollFirst();
+        readPosition = SpillSegment.SEGMENT_HEADER_SIZE;
+        if (head != null) {
+            // unmap before delete, a mapped file can not be deleted on some platforms
+            head.close();
+            deleteSegment(head.getFile());
+        }
+    }
+
+    private void deleteSegment(File file) {
+        if (!file.delete()) {
+            logger.warn("can not delete spill segment {}", file);
+        }
+    }
+
+    /**
+     * @return timestamp of the oldest pending record, -1 if the log is empty
+     */
+    public synchronized long getOldestTimestamp() {
+        final SpillSegment head = segments.peekFirst();
+        if (head == null || closed) {
+            return -1;
+        }
+        return head.readTimestamp(readPosition);
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public long getAppendCount() {
+        return appendCount.sum();
+    }
+
+    public long getDropCount() {
+        return dropCount.sum();
+    }
+
+    public long getReplayCount() {
+        return replayCount.sum();
+    }
+
+    public long getCorruptedCount() {
+        return corruptedCount.sum();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        final SpillSegment active = activeSegment();
+        if (active != null) {
+            active.seal();
+        }
+        final SpillSegment head = segments.peekFirst();
+        if (segments.size() == 1 && head != null && readPosition >= head.getLimit()) {
+            removeHead();
+        }
+        // the remaining segments are recovered from their files on the next start
+        for (SpillSegment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private static class SegmentFile implements Comparable<SegmentFile> {
+        private final File file;
+        private final long sequence;
+
+        private SegmentFile(File file, long sequence) {
+            this.file = file;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(SegmentFile o) {
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillLog{" +
+                "directory=" + directory +
+                ", pendingBytes=" + pendingBytes +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+
+/**
+ * Compact binary form of a {@link Put} stored in the {@link SpillLog}.
+ * <pre>
+ * vint rowLength, row, vint familyCount
+ *   vint familyLength, family, vint cellCount
+ *     vint qualifierLength, qualifier, long timestamp, vint valueLength, value
+ * </pre>
+ * Only the cells are kept. The collector does not set attributes, ttl or durability on its puts.
+ */
+public final class SpillPutCodec {
+
+    private static final int MAX_VINT_SIZE = 5;
+
+    private SpillPutCodec() {
+    }
+
+    public static byte[] encode(Put put) {
+        Objects.requireNonNull(put, "put");
+
+        final NavigableMap<byte[], List<Cell>> familyCellMap = put.getFamilyCellMap();
+        final byte[] row = put.getRow();
+
+        final ByteBuffer buffer = ByteBuffer.allocate(estimateSize(row, familyCellMap));
+        writeBytes(buffer, row, 0, row.length);
+        writeVInt(buffer, familyCellMap.size());
+        for (Map.Entry<byte[], List<Cell>> entry : familyCellMap.entrySet()) {
+            final byte[] family = entry.getKey();
+            writeBytes(buffer, family, 0, family.length);
+
+            final List<Cell> cellList = entry.getValue();
+            writeVInt(buffer, cellList.size());
+            for (Cell cell : cellList) {
+                writeBytes(buffer, cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+                buffer.putLong(cell.getTimestamp());
+                writeBytes(buffer, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static int estimateSize(byte[] row, NavigableMap<byte[], List<Cell>> familyCellMap) {
+        int size = MAX_VINT_SIZE + row.length + MAX_VINT_SIZE;
+        for (Map.Entry<byte[], List<Cell>> entry : familyCellMap.entrySet()) {
+            size += MAX_VINT_SIZE + entry.getKey().length + MAX_VINT_SIZE;
+            for (Cell cell : entry.getValue()) {
+                size += MAX_VINT_SIZE + cell.getQualifierLength();
+                size += Long.BYTES;
+                size += MAX_VINT_SIZE + cell.getValueLength();
+            }
+        }
+        return size;
+    }
+
+    public static Put decode(byte[] payload) {
+        Objects.requireNonNull(payload, "payload");
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(payload);
+            final byte[] row = readBytes(buffer);
+            final Put put = new Put(row);
+
+            final int familyCount = readVInt(buffer);
+            for (int i = 0; i < familyCount; i++) {
+                final byte[] family = readBytes(buffer);
+                final int cellCount = readVInt(buffer);
+                for (int j = 0; j < cellCount; j++) {
+                    final byte[] qualifier = readBytes(buffer);
+                    final long timestamp = buffer.getLong();
+                    final byte[] value = readBytes(buffer);
+                    put.addColumn(family, qualifier, timestamp, value);
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("unexpected trailing bytes:" + buffer.remaining());
+            }
+            return put;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated payload", e);
+        }
+    }
+
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes, int offset, int length) {
+        writeVInt(buffer, length);
+        buffer.put(bytes, offset, length);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        final int length = readVInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid length:" + length);
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static void writeVInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("malformed vint");
+    }
+}
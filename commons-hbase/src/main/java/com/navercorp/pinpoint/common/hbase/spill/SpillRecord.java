@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import java.util.Objects;
+
+public class SpillRecord {
+
+    private final SpillSegment segment;
+    private final long timestamp;
+    private final byte[] payload;
+    private final int nextPosition;
+
+    SpillRecord(SpillSegment segment, long timestamp, byte[] payload, int nextPosition) {
+        this.segment = Objects.requireNonNull(segment, "segment");
+        this.timestamp = timestamp;
+        this.payload = Objects.requireNonNull(payload, "payload");
+        this.nextPosition = nextPosition;
+    }
+
+    SpillSegment getSegment() {
+        return segment;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    int getNextPosition() {
+        return nextPosition;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Memory mapped, append only segment file of the {@link SpillLog}.
+ * <pre>
+ * segment : int magic, int version, record*
+ * record  : int length, int crc32(timestamp, payload), long timestamp, payload
+ * </pre>
+ * The length is written last so that a torn record is never visible after a crash.
+ * A zero length marks the end of the segment.
+ */
+class SpillSegment {
+
+    static final int MAGIC = 0x50535031; // PSP1
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 4 + 4;
+    static final int RECORD_HEADER_SIZE = 4 + 4 + 8;
+
+    private final File file;
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+
+    // write position for the active segment, end of valid records for a recovered segment
+    private int limit;
+    private boolean sealed;
+    private boolean corrupted;
+
+    private SpillSegment(File file, long sequence, MappedByteBuffer buffer, int limit, boolean sealed) {
+        this.file = Objects.requireNonNull(file, "file");
+        this.sequence = sequence;
+        this.buffer = Objects.requireNonNull(buffer, "buffer");
+        this.limit = limit;
+        this.sealed = sealed;
+    }
+
+    static SpillSegment create(File file, long sequence, int segmentSize) throws IOException {
+        final MappedByteBuffer buffer = map(file, segmentSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        return new SpillSegment(file, sequence, buffer, SEGMENT_HEADER_SIZE, false);
+    }
+
+    static SpillSegment recover(File file, long sequence) throws IOException {
+        final long fileLength = file.length();
+        if (fileLength < SEGMENT_HEADER_SIZE || fileLength > Integer.MAX_VALUE) {
+            throw new IOException("invalid segment length:" + fileLength + " " + file);
+        }
+        final MappedByteBuffer buffer = map(file, (int) fileLength);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            unmap(buffer);
+            throw new IOException("invalid segment header " + file);
+        }
+        final SpillSegment segment = new SpillSegment(file, sequence, buffer, buffer.capacity(), true);
+        segment.limit = segment.scan();
+        return segment;
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            // the mapping stays valid after the channel is closed
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Releases the mapping, the segment must not be accessed afterwards.
+     * A mapped file can not be deleted on windows, and its pages stay mapped until the buffer is garbage collected.
+     */
+    void close() {
+        unmap(buffer);
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Unmapper.unmap(buffer);
+        } catch (Exception e) {
+            // the mapping is released by the garbage collector
+        }
+    }
+
+    /**
+     * @return the end of the last valid record
+     */
+    private int scan() {
+        int position = SEGMENT_HEADER_SIZE;
+        while (true) {
+            final int length = validLength(position);
+            if (length <= 0) {
+                return position;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * @return payload length, 0 at the end of the segment, -1 if the record is corrupted
+     */
+    private int validLength(int position) {
+        if (position + RECORD_HEADER_SIZE > limit) {
+            return 0;
+        }
+        final int length = buffer.getInt(position);
+        if (length == 0) {
+            return 0;
+        }
+        if (length < 0 || position + RECORD_HEADER_SIZE + length > limit) {
+            corrupted = true;
+            return -1;
+        }
+        final int crc = buffer.getInt(position + 4);
+        if (crc != crc32(position + 8, 8 + length)) {
+            corrupted = true;
+            return -1;
+        }
+        return length;
+    }
+
+    private int crc32(int offset, int length) {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.limit(offset + length);
+        final CRC32 crc32 = new CRC32();
+        crc32.update(slice);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * @return false if the record does not fit into this segment
+     */
+    boolean append(long timestamp, byte[] payload) {
+        if (sealed) {
+            throw new IllegalStateException("sealed segment " + file);
+        }
+        final int position = limit;
+        final int recordSize = RECORD_HEADER_SIZE + payload.length;
+        // keep room for the end marker
+        if ((long) position + recordSize + 4 > buffer.capacity()) {
+            return false;
+        }
+        buffer.putLong(position + 8, timestamp);
+        final ByteBuffer payloadBuffer = buffer.duplicate();
+        payloadBuffer.position(position + RECORD_HEADER_SIZE);
+        payloadBuffer.put(payload);
+        buffer.putInt(position + 4, crc32(position + 8, 8 + payload.length));
+        buffer.putInt(position, payload.length);
+
+        limit = position + recordSize;
+        return true;
+    }
+
+    /**
+     * @return null at the end of the segment or if the record is corrupted
+     */
+    SpillRecord read(int position) {
+        final int length = validLength(position);
+        if (length <= 0) {
+            if (length < 0) {
+                // drop everything after the corrupted record
+                limit = position;
+            }
+            return null;
+        }
+        final long timestamp = buffer.getLong(position + 8);
+        final byte[] payload = new byte[length];
+        final ByteBuffer payloadBuffer = buffer.duplicate();
+        payloadBuffer.position(position + RECORD_HEADER_SIZE);
+        payloadBuffer.get(payload);
+        return new SpillRecord(this, timestamp, payload, position + RECORD_HEADER_SIZE + length);
+    }
+
+    long readTimestamp(int position) {
+        if (position + RECORD_HEADER_SIZE > limit) {
+            return -1;
+        }
+        return buffer.getLong(position + 8);
+    }
+
+    void seal() {
+        if (!sealed) {
+            buffer.force();
+            sealed = true;
+        }
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * @return true if a corrupted record was found, the following records are discarded
+     */
+    boolean isCorrupted() {
+        return corrupted;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Unmaps a {@link MappedByteBuffer} without waiting for the garbage collector.
+     * sun.misc.Unsafe.invokeCleaner() on java 9 and later, DirectBuffer.cleaner() on java 8.
+     */
+    private static class Unmapper {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+            } catch (Exception e) {
+                // java 8
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        private static void unmap(MappedByteBuffer buffer) throws Exception {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                final Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillSegment{" +
+                "file=" + file +
+                ", limit=" + limit +
+                ", sealed=" + sealed +
+                '}';
+    }
+}
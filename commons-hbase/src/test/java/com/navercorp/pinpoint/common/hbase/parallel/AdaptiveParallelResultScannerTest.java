@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import com.navercorp.pinpoint.common.hbase.RegionLocatorFactory;
+import com.navercorp.pinpoint.common.hbase.TableFactory;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveParallelResultScannerTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("test");
+    private static final byte[] FAMILY = Bytes.toBytes("f");
+    private static final int ROW_SIZE = 50;
+
+    private final AbstractRowKeyDistributor keyDistributor = new RowKeyDistributorByHashPrefix(new RowKeyDistributorByHashPrefix.OneByteSimpleHash(8));
+    private final List<byte[]> tableRows = new ArrayList<>();
+
+    private ExecutorService executor;
+    private TableFactory tableFactory;
+    private RegionLocatorFactory regionLocatorFactory;
+
+    @Before
+    public void setUp() throws IOException {
+        for (int i = 0; i < ROW_SIZE; i++) {
+            tableRows.add(keyDistributor.getDistributedKey(originalKey(i)));
+        }
+        tableRows.sort(Bytes.BYTES_COMPARATOR);
+
+        executor = Executors.newFixedThreadPool(4);
+
+        Table table = mock(Table.class);
+        when(table.getScanner(any(Scan.class))).thenAnswer(invocation -> new ListResultScanner(invocation.getArgument(0)));
+        tableFactory = mock(TableFactory.class);
+        when(tableFactory.getTable(TABLE_NAME)).thenReturn(table);
+
+        RegionLocator regionLocator = mock(RegionLocator.class);
+        when(regionLocator.getRegionLocation(any(byte[].class))).thenAnswer(invocation -> {
+            byte[] row = invocation.getArgument(0);
+            // two region servers
+            ServerName serverName = ServerName.valueOf("server" + (row[0] % 2), 16020, 0);
+            return new HRegionLocation(new HRegionInfo(TABLE_NAME), serverName);
+        });
+        regionLocatorFactory = mock(RegionLocatorFactory.class);
+        when(regionLocatorFactory.getRegionLocator(TABLE_NAME)).thenReturn(regionLocator);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static byte[] originalKey(int i) {
+        return Bytes.toBytes(String.format("row-%03d", i));
+    }
+
+    @Test
+    public void mergeInRowKeyOrder() throws IOException {
+        Scan scan = new Scan().withStartRow(originalKey(0)).withStopRow(originalKey(ROW_SIZE));
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 1);
+
+        List<byte[]> rows = new ArrayList<>();
+        try (ResultScanner scanner = new AdaptiveParallelResultScanner(TABLE_NAME, tableFactory, regionLocatorFactory, throttle, scan, keyDistributor, 3)) {
+            for (Result result : scanner) {
+                rows.add(keyDistributor.getOriginalKey(result.getRow()));
+            }
+        }
+
+        Assert.assertEquals(ROW_SIZE, rows.size());
+        for (int i = 0; i < ROW_SIZE; i++) {
+            Assert.assertArrayEquals(originalKey(i), rows.get(i));
+        }
+    }
+
+    @Test
+    public void mergeInRowKeyOrder_reversed() throws IOException {
+        Scan scan = new Scan().withStartRow(originalKey(ROW_SIZE)).withStopRow(originalKey(0));
+        scan.setReversed(true);
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 2);
+
+        List<byte[]> rows = new ArrayList<>();
+        try (ResultScanner scanner = new AdaptiveParallelResultScanner(TABLE_NAME, tableFactory, regionLocatorFactory, throttle, scan, keyDistributor, 4)) {
+            Result result;
+            while ((result = scanner.next()) != null) {
+                rows.add(keyDistributor.getOriginalKey(result.getRow()));
+            }
+        }
+
+        Assert.assertEquals(ROW_SIZE - 1, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertArrayEquals(originalKey(ROW_SIZE - 1 - i), rows.get(i));
+        }
+    }
+
+    @Test
+    public void closeBeforeScan() throws IOException {
+        Scan scan = new Scan().withStartRow(originalKey(0)).withStopRow(originalKey(ROW_SIZE));
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 1);
+
+        ResultScanner scanner = new AdaptiveParallelResultScanner(TABLE_NAME, tableFactory, regionLocatorFactory, throttle, scan, keyDistributor, 3);
+        scanner.close();
+        Assert.assertNull(scanner.next());
+    }
+
+    /**
+     * scans {@link #tableRows} like a region server. start row inclusive, stop row exclusive.
+     */
+    private class ListResultScanner implements ResultScanner {
+        private final Iterator<byte[]> iterator;
+
+        private ListResultScanner(Scan scan) {
+            final List<byte[]> rows = new ArrayList<>();
+            for (byte[] row : tableRows) {
+                if (scan.isReversed()) {
+                    if (Bytes.compareTo(row, scan.getStartRow()) <= 0 && Bytes.compareTo(row, scan.getStopRow()) > 0) {
+                        rows.add(0, row);
+                    }
+                } else {
+                    if (Bytes.compareTo(row, scan.getStartRow()) >= 0 && Bytes.compareTo(row, scan.getStopRow()) < 0) {
+                        rows.add(row);
+                    }
+                }
+            }
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public Result next() {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            byte[] row = iterator.next();
+            return Result.create(new Cell[]{new KeyValue(row, FAMILY, FAMILY, row)});
+        }
+
+        @Override
+        public Result[] next(int nbRows) {
+            List<Result> results = new ArrayList<>(nbRows);
+            for (int i = 0; i < nbRows; i++) {
+                Result next = next();
+                if (next == null) {
+                    break;
+                }
+                results.add(next);
+            }
+            return results.toArray(new Result[0]);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        public boolean renewLease() {
+            return false;
+        }
+
+        public ScanMetrics getScanMetrics() {
+            return null;
+        }
+
+        @Override
+        public Iterator<Result> iterator() {
+            return Arrays.asList(next(Integer.MAX_VALUE)).iterator();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class RegionServerScanThrottleTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void maxScansPerServer() throws Exception {
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = throttle.submit("server1", () -> {
+            latch.await();
+            return 1;
+        });
+        CompletableFuture<Integer> second = throttle.submit("server1", () -> 2);
+        CompletableFuture<Integer> other = throttle.submit("server2", () -> 3);
+
+        Assert.assertEquals(3, (int) other.get(10, TimeUnit.SECONDS));
+        Assert.assertFalse(second.isDone());
+        Assert.assertEquals(1, throttle.getInFlight("server1"));
+
+        latch.countDown();
+        Assert.assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, (int) second.get(10, TimeUnit.SECONDS));
+        // the slot is released right after the future is completed
+        awaitInFlight(throttle, "server1", 0);
+    }
+
+    private void awaitInFlight(RegionServerScanThrottle throttle, String serverName, int expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (throttle.getInFlight(serverName) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(expected, throttle.getInFlight(serverName));
+    }
+
+    @Test
+    public void cancelPending() throws Exception {
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch called = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = throttle.submit("server1", () -> {
+            latch.await();
+            return 1;
+        });
+        CompletableFuture<Integer> second = throttle.submit("server1", () -> {
+            called.countDown();
+            return 2;
+        });
+        second.cancel(false);
+
+        latch.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        Assert.assertFalse(called.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void rejected() {
+        executor.shutdown();
+        RegionServerScanThrottle throttle = new RegionServerScanThrottle(executor, 1);
+
+        CompletableFuture<Integer> future = throttle.submit("server1", () -> 1);
+        Assert.assertTrue(future.isCompletedExceptionally());
+        try {
+            future.join();
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        Assert.assertEquals(0, throttle.getInFlight("server1"));
+    }
+}
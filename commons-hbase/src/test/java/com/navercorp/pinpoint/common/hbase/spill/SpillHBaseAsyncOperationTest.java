@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SpillHBaseAsyncOperationTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("pinpoint", "TraceV2");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void spillAndReplay() throws Exception {
+        HBaseAsyncOperation delegate = mock(HBaseAsyncOperation.class);
+        when(delegate.put(eq(TABLE_NAME), any(Put.class))).thenReturn(false);
+
+        File spillDir = temporaryFolder.newFolder();
+        SpillHBaseAsyncOperation operation = new SpillHBaseAsyncOperation(delegate, spillDir, 4096, 4, 10);
+        try {
+            Put put = new Put(Bytes.toBytes("row"));
+            put.addColumn(Bytes.toBytes("S"), Bytes.toBytes("q"), 1L, Bytes.toBytes("value"));
+
+            Assert.assertTrue(operation.put(TABLE_NAME, put));
+            Assert.assertEquals(1, operation.getSpillCount());
+            Assert.assertTrue(operation.getSpillPendingBytes() > 0);
+            Assert.assertTrue(new File(spillDir, "pinpoint/TraceV2").isDirectory());
+
+            // hbase is still full
+            operation.replay();
+            Assert.assertEquals(0, operation.getReplayCount());
+
+            when(delegate.put(eq(TABLE_NAME), any(Put.class))).thenReturn(true);
+            operation.replay();
+            Assert.assertEquals(1, operation.getReplayCount());
+            Assert.assertEquals(0, operation.getSpillPendingBytes());
+            Assert.assertEquals(0, operation.getReplayLagMillis());
+
+            ArgumentCaptor<Put> captor = ArgumentCaptor.forClass(Put.class);
+            verify(delegate, times(3)).put(eq(TABLE_NAME), captor.capture());
+            Assert.assertEquals(put.toMap(), captor.getValue().toMap());
+        } finally {
+            operation.close();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+public class SpillLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void putCodec() {
+        Put put = new Put(Bytes.toBytes("row"));
+        put.addColumn(Bytes.toBytes("S"), Bytes.toBytes("q1"), 10L, Bytes.toBytes("value1"));
+        put.addColumn(Bytes.toBytes("S"), Bytes.toBytes("q2"), 11L, new byte[0]);
+        put.addColumn(Bytes.toBytes("A"), Bytes.toBytes("q3"), 12L, Bytes.toBytes(1L));
+
+        Put decoded = SpillPutCodec.decode(SpillPutCodec.encode(put));
+
+        Assert.assertArrayEquals(put.getRow(), decoded.getRow());
+        Assert.assertEquals(put.size(), decoded.size());
+        Assert.assertEquals(put.toMap(), decoded.toMap());
+    }
+
+    @Test
+    public void appendAndReplay() throws Exception {
+        SpillLog spillLog = new SpillLog(temporaryFolder.newFolder(), SEGMENT_SIZE, 4);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(spillLog.append(i, payload(i)));
+        }
+        Assert.assertTrue(spillLog.getSegmentCount() > 1);
+        Assert.assertEquals(0, spillLog.getOldestTimestamp());
+
+        for (int i = 0; i < 20; i++) {
+            SpillRecord record = spillLog.peek();
+            Assert.assertNotNull(record);
+            Assert.assertEquals(i, record.getTimestamp());
+            Assert.assertArrayEquals(payload(i), record.getPayload());
+            spillLog.commit(record);
+        }
+        Assert.assertNull(spillLog.peek());
+        Assert.assertEquals(0, spillLog.getPendingBytes());
+        Assert.assertEquals(20, spillLog.getReplayCount());
+        Assert.assertEquals(1, spillLog.getSegmentCount());
+    }
+
+    @Test
+    public void replayedSegmentDeleted() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillLog spillLog = new SpillLog(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 20; i++) {
+            spillLog.append(i, payload(i));
+        }
+        Assert.assertEquals(spillLog.getSegmentCount(), directory.listFiles().length);
+
+        SpillRecord record;
+        while ((record = spillLog.peek()) != null) {
+            spillLog.commit(record);
+        }
+        Assert.assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void close() throws Exception {
+        SpillLog spillLog = new SpillLog(temporaryFolder.newFolder(), SEGMENT_SIZE, 4);
+        spillLog.append(1, payload(1));
+        spillLog.close();
+
+        // the segments are unmapped
+        Assert.assertNull(spillLog.peek());
+        Assert.assertEquals(-1, spillLog.getOldestTimestamp());
+        Assert.assertFalse(spillLog.append(2, payload(2)));
+    }
+
+    @Test
+    public void recover() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillLog spillLog = new SpillLog(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 10; i++) {
+            spillLog.append(i, payload(i));
+        }
+        spillLog.commit(spillLog.peek());
+        final long pendingBytes = spillLog.getPendingBytes();
+        spillLog.close();
+
+        SpillLog recovered = new SpillLog(directory, SEGMENT_SIZE, 4);
+        // replay position is not persisted, a partially replayed segment is replayed again
+        Assert.assertTrue(recovered.getPendingBytes() >= pendingBytes);
+        int count = 0;
+        SpillRecord record;
+        while ((record = recovered.peek()) != null) {
+            Assert.assertArrayEquals(payload((int) record.getTimestamp()), record.getPayload());
+            recovered.commit(record);
+            count++;
+        }
+        Assert.assertEquals(10, count);
+        Assert.assertEquals(0, recovered.getCorruptedCount());
+    }
+
+    @Test
+    public void corrupted() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillLog spillLog = new SpillLog(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 3; i++) {
+            spillLog.append(i, payload(i));
+        }
+        spillLog.close();
+
+        File[] files = directory.listFiles();
+        Assert.assertEquals(1, files.length);
+        // flip a payload byte of the second record
+        final int secondRecord = SpillSegment.SEGMENT_HEADER_SIZE + SpillSegment.RECORD_HEADER_SIZE + payload(0).length;
+        try (RandomAccessFile raf = new RandomAccessFile(files[0], "rw")) {
+            final long position = secondRecord + SpillSegment.RECORD_HEADER_SIZE;
+            raf.seek(position);
+            final int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+
+        SpillLog recovered = new SpillLog(directory, SEGMENT_SIZE, 4);
+        Assert.assertEquals(1, recovered.getCorruptedCount());
+
+        SpillRecord record = recovered.peek();
+        Assert.assertEquals(0, record.getTimestamp());
+        recovered.commit(record);
+        Assert.assertNull(recovered.peek());
+    }
+
+    @Test
+    public void bounded() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillLog spillLog = new SpillLog(directory, SEGMENT_SIZE, 2);
+        int appended = 0;
+        for (int i = 0; i < 100; i++) {
+            if (spillLog.append(i, payload(i))) {
+                appended++;
+            }
+        }
+        Assert.assertEquals(2, spillLog.getSegmentCount());
+        Assert.assertEquals(2, directory.listFiles().length);
+        Assert.assertEquals(appended, spillLog.getAppendCount());
+        Assert.assertEquals(100 - appended, spillLog.getDropCount());
+        Assert.assertTrue(spillLog.getPendingBytes() <= 2 * SEGMENT_SIZE);
+
+        Assert.assertFalse(spillLog.append(0, new byte[SEGMENT_SIZE]));
+    }
+
+    private static byte[] payload(int i) {
+        byte[] payload = new byte[100];
+        Arrays.fill(payload, (byte) i);
+        return payload;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Column oriented codec. Every field is encoded as a whole column by the {@link PackedColumnCodec}
+ * instead of the value by value {@link com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy}.
+ */
+public class AgentStatCodecV3<T extends AgentStatDataPoint> implements AgentStatCodec<T> {
+
+    private static final byte VERSION = 3;
+
+    private final ColumnCodec<T> columnCodec;
+
+    public AgentStatCodecV3(ColumnCodec<T> columnCodec) {
+        this.columnCodec = Objects.requireNonNull(columnCodec, "columnCodec");
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void encodeValues(Buffer valueBuffer, List<T> statDataPointList) {
+        Assert.isTrue(CollectionUtils.hasLength(statDataPointList), "statDataPointList must not be empty");
+
+        final int numValues = statDataPointList.size();
+        valueBuffer.putVInt(numValues);
+
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
+        // the first timestamp is encoded as the qualifier
+        final long initialTimestamp = statDataPointList.get(0).getTimestamp();
+        for (int i = 0; i < numValues; i++) {
+            final T statDataPoint = statDataPointList.get(i);
+            startTimestamps[i] = statDataPoint.getStartTimestamp();
+            timestamps[i] = statDataPoint.getTimestamp() - initialTimestamp;
+        }
+        PackedColumnCodec.encodeLongs(valueBuffer, startTimestamps, numValues);
+        PackedColumnCodec.encodeLongs(valueBuffer, timestamps, numValues);
+
+        columnCodec.encodeColumns(valueBuffer, statDataPointList);
+    }
+
+    @Override
+    public List<T> decodeValues(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        final String agentId = decodingContext.getAgentId();
+        final long initialTimestamp = decodingContext.getBaseTimestamp() + decodingContext.getTimestampDelta();
+
+        final int numValues = valueBuffer.readVInt();
+        final long[] startTimestamps = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+        final long[] timestamps = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+
+        final List<T> result = columnCodec.decodeColumns(valueBuffer, numValues);
+        for (int i = 0; i < numValues; i++) {
+            final T statDataPoint = result.get(i);
+            statDataPoint.setAgentId(agentId);
+            statDataPoint.setStartTimestamp(startTimestamps[i]);
+            statDataPoint.setTimestamp(initialTimestamp + timestamps[i]);
+        }
+        return result;
+    }
+
+    public interface ColumnCodec<T> {
+
+        void encodeColumns(Buffer valueBuffer, List<T> statDataPointList);
+
+        /**
+         * @return new data points without agentId and timestamps
+         */
+        List<T> decodeColumns(Buffer valueBuffer, int numValues);
+
+    }
+}
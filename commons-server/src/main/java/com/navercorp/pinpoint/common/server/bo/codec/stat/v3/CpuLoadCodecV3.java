@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component("cpuLoadCodecV3")
+public class CpuLoadCodecV3 extends AgentStatCodecV3<CpuLoadBo> {
+
+    public CpuLoadCodecV3() {
+        super(new CpuLoadColumnCodec());
+    }
+
+    private static class CpuLoadColumnCodec implements ColumnCodec<CpuLoadBo> {
+
+        @Override
+        public void encodeColumns(Buffer valueBuffer, List<CpuLoadBo> cpuLoadBos) {
+            final int numValues = cpuLoadBos.size();
+            final long[] jvmCpuLoads = new long[numValues];
+            final long[] systemCpuLoads = new long[numValues];
+            for (int i = 0; i < numValues; i++) {
+                final CpuLoadBo cpuLoadBo = cpuLoadBos.get(i);
+                jvmCpuLoads[i] = AgentStatUtils.convertDoubleToLong(cpuLoadBo.getJvmCpuLoad());
+                systemCpuLoads[i] = AgentStatUtils.convertDoubleToLong(cpuLoadBo.getSystemCpuLoad());
+            }
+            PackedColumnCodec.encodeLongs(valueBuffer, jvmCpuLoads, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, systemCpuLoads, numValues);
+        }
+
+        @Override
+        public List<CpuLoadBo> decodeColumns(Buffer valueBuffer, int numValues) {
+            final long[] jvmCpuLoads = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] systemCpuLoads = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+
+            final List<CpuLoadBo> cpuLoadBos = new ArrayList<>(numValues);
+            for (int i = 0; i < numValues; i++) {
+                final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+                cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(jvmCpuLoads[i]));
+                cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(systemCpuLoads[i]));
+                cpuLoadBos.add(cpuLoadBo);
+            }
+            return cpuLoadBos;
+        }
+    }
+}
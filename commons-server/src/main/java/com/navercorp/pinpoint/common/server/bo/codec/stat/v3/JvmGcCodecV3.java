@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component("jvmGcCodecV3")
+public class JvmGcCodecV3 extends AgentStatCodecV3<JvmGcBo> {
+
+    public JvmGcCodecV3() {
+        super(new JvmGcColumnCodec());
+    }
+
+    private static class JvmGcColumnCodec implements ColumnCodec<JvmGcBo> {
+
+        @Override
+        public void encodeColumns(Buffer valueBuffer, List<JvmGcBo> jvmGcBos) {
+            final int gcTypeCode = jvmGcBos.get(0).getGcType().getTypeCode();
+            valueBuffer.putVInt(gcTypeCode);
+
+            final int numValues = jvmGcBos.size();
+            final long[] heapUseds = new long[numValues];
+            final long[] heapMaxes = new long[numValues];
+            final long[] nonHeapUseds = new long[numValues];
+            final long[] nonHeapMaxes = new long[numValues];
+            final long[] gcOldCounts = new long[numValues];
+            final long[] gcOldTimes = new long[numValues];
+            for (int i = 0; i < numValues; i++) {
+                final JvmGcBo jvmGcBo = jvmGcBos.get(i);
+                heapUseds[i] = jvmGcBo.getHeapUsed();
+                heapMaxes[i] = jvmGcBo.getHeapMax();
+                nonHeapUseds[i] = jvmGcBo.getNonHeapUsed();
+                nonHeapMaxes[i] = jvmGcBo.getNonHeapMax();
+                gcOldCounts[i] = jvmGcBo.getGcOldCount();
+                gcOldTimes[i] = jvmGcBo.getGcOldTime();
+            }
+            PackedColumnCodec.encodeLongs(valueBuffer, heapUseds, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, heapMaxes, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, nonHeapUseds, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, nonHeapMaxes, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, gcOldCounts, numValues);
+            PackedColumnCodec.encodeLongs(valueBuffer, gcOldTimes, numValues);
+        }
+
+        @Override
+        public List<JvmGcBo> decodeColumns(Buffer valueBuffer, int numValues) {
+            final JvmGcType gcType = JvmGcType.getTypeByCode(valueBuffer.readVInt());
+
+            final long[] heapUseds = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] heapMaxes = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] nonHeapUseds = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] nonHeapMaxes = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] gcOldCounts = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] gcOldTimes = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+
+            final List<JvmGcBo> jvmGcBos = new ArrayList<>(numValues);
+            for (int i = 0; i < numValues; i++) {
+                final JvmGcBo jvmGcBo = new JvmGcBo();
+                jvmGcBo.setGcType(gcType);
+                jvmGcBo.setHeapUsed(heapUseds[i]);
+                jvmGcBo.setHeapMax(heapMaxes[i]);
+                jvmGcBo.setNonHeapUsed(nonHeapUseds[i]);
+                jvmGcBo.setNonHeapMax(nonHeapMaxes[i]);
+                jvmGcBo.setGcOldCount(gcOldCounts[i]);
+                jvmGcBo.setGcOldTime(gcOldTimes[i]);
+                jvmGcBos.add(jvmGcBo);
+            }
+            return jvmGcBos;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encodes a whole column of stat values at once.
+ * <p>
+ * Column layout (written as a single prefixed byte array):
+ * <pre>
+ * zigzag varint (first value)
+ * { varint (block min) | byte (bit width) | packed bits } * ceil((numValues - 1) / BLOCK_SIZE)
+ * </pre>
+ * Every block holds up to {@link #BLOCK_SIZE} zigzag encoded deltas, stored as little-endian
+ * bit-packed offsets from the block minimum (frame of reference).
+ * A constant delta series such as timestamps or counters that did not change is packed with bit width 0.
+ * The number of values is not written and must be known by the caller.
+ */
+public final class PackedColumnCodec {
+
+    static final int BLOCK_SIZE = 128;
+
+    private static final int MAX_VARINT64_SIZE = 10;
+
+    private PackedColumnCodec() {
+    }
+
+    public static void encodeLongs(Buffer buffer, long[] values, int numValues) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.requireNonNull(values, "values");
+        checkNumValues(values.length, numValues);
+
+        final byte[] column = new byte[maxColumnSize(numValues)];
+        int pos = 0;
+        if (numValues > 0) {
+            pos = writeVarLong(column, pos, BytesUtils.longToZigZag(values[0]));
+        }
+        final long[] block = new long[BLOCK_SIZE];
+        for (int blockStart = 1; blockStart < numValues; blockStart += BLOCK_SIZE) {
+            final int count = Math.min(BLOCK_SIZE, numValues - blockStart);
+            for (int i = 0; i < count; i++) {
+                final int index = blockStart + i;
+                block[i] = BytesUtils.longToZigZag(values[index] - values[index - 1]);
+            }
+            pos = packBlock(column, pos, block, count);
+        }
+        buffer.putPrefixedBytes(Arrays.copyOf(column, pos));
+    }
+
+    public static long[] decodeLongs(Buffer buffer, int numValues) {
+        Objects.requireNonNull(buffer, "buffer");
+        if (numValues < 0) {
+            throw new IllegalArgumentException("negative numValues:" + numValues);
+        }
+
+        final byte[] column = buffer.readPrefixedBytes();
+        final long[] values = new long[numValues];
+        if (numValues == 0) {
+            return values;
+        }
+        final int[] pos = {0};
+        long previous = BytesUtils.zigzagToLong(readVarLong(column, pos));
+        values[0] = previous;
+        for (int blockStart = 1; blockStart < numValues; blockStart += BLOCK_SIZE) {
+            final int count = Math.min(BLOCK_SIZE, numValues - blockStart);
+            unpackBlock(column, pos, values, blockStart, count);
+            for (int i = blockStart; i < blockStart + count; i++) {
+                previous += BytesUtils.zigzagToLong(values[i]);
+                values[i] = previous;
+            }
+        }
+        return values;
+    }
+
+    public static void encodeInts(Buffer buffer, int[] values, int numValues) {
+        Objects.requireNonNull(values, "values");
+        checkNumValues(values.length, numValues);
+
+        final long[] longValues = new long[numValues];
+        for (int i = 0; i < numValues; i++) {
+            longValues[i] = values[i];
+        }
+        encodeLongs(buffer, longValues, numValues);
+    }
+
+    public static int[] decodeInts(Buffer buffer, int numValues) {
+        final long[] longValues = decodeLongs(buffer, numValues);
+        final int[] values = new int[numValues];
+        for (int i = 0; i < numValues; i++) {
+            values[i] = (int) longValues[i];
+        }
+        return values;
+    }
+
+    private static void checkNumValues(int length, int numValues) {
+        if (numValues < 0 || numValues > length) {
+            throw new IllegalArgumentException("invalid numValues:" + numValues + " length:" + length);
+        }
+    }
+
+    static int maxColumnSize(int numValues) {
+        if (numValues == 0) {
+            return 0;
+        }
+        final int numBlocks = (numValues - 1 + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return MAX_VARINT64_SIZE + numBlocks * (MAX_VARINT64_SIZE + 1) + (numValues - 1) * 8;
+    }
+
+    private static int packBlock(byte[] column, int pos, long[] block, int count) {
+        long min = block[0];
+        long max = block[0];
+        for (int i = 1; i < count; i++) {
+            final long value = block[i];
+            if (Long.compareUnsigned(value, min) < 0) {
+                min = value;
+            }
+            if (Long.compareUnsigned(value, max) > 0) {
+                max = value;
+            }
+        }
+        final int bitWidth = 64 - Long.numberOfLeadingZeros(max - min);
+        pos = writeVarLong(column, pos, min);
+        column[pos++] = (byte) bitWidth;
+        if (bitWidth == 0) {
+            return pos;
+        }
+
+        long accumulator = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            final long value = block[i] - min;
+            accumulator |= value << bits;
+            final int total = bits + bitWidth;
+            if (total >= 64) {
+                writeLongLE(column, pos, accumulator, 8);
+                pos += 8;
+                accumulator = bits == 0 ? 0 : value >>> (64 - bits);
+                bits = total - 64;
+            } else {
+                bits = total;
+            }
+        }
+        final int remainBytes = (bits + 7) >>> 3;
+        writeLongLE(column, pos, accumulator, remainBytes);
+        return pos + remainBytes;
+    }
+
+    private static void unpackBlock(byte[] column, int[] posRef, long[] values, int offset, int count) {
+        final long min = readVarLong(column, posRef);
+        int pos = posRef[0];
+        final int bitWidth = column[pos++] & 0xFF;
+        if (bitWidth > 64) {
+            throw new IllegalArgumentException("invalid bitWidth:" + bitWidth);
+        }
+        if (bitWidth == 0) {
+            Arrays.fill(values, offset, offset + count, min);
+            posRef[0] = pos;
+            return;
+        }
+
+        final long mask = bitWidth == 64 ? -1L : (1L << bitWidth) - 1;
+        final int end = pos + ((count * bitWidth + 7) >>> 3);
+        long accumulator = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            final long value;
+            if (bits >= bitWidth) {
+                value = accumulator & mask;
+                accumulator >>>= bitWidth;
+                bits -= bitWidth;
+            } else {
+                final int readBytes = Math.min(8, end - pos);
+                final long next = readLongLE(column, pos, readBytes);
+                pos += readBytes;
+                value = (accumulator | (next << bits)) & mask;
+                final int used = bitWidth - bits;
+                accumulator = used == 64 ? 0 : next >>> used;
+                bits = readBytes * 8 - used;
+            }
+            values[offset + i] = min + value;
+        }
+        posRef[0] = end;
+    }
+
+    private static void writeLongLE(byte[] bytes, int pos, long value, int length) {
+        for (int i = 0; i < length; i++) {
+            bytes[pos + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    private static long readLongLE(byte[] bytes, int pos, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value |= (bytes[pos + i] & 0xFFL) << (i * 8);
+        }
+        return value;
+    }
+
+    private static int writeVarLong(byte[] bytes, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long readVarLong(byte[] bytes, int[] posRef) {
+        int pos = posRef[0];
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = bytes[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                posRef[0] = pos;
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("invalid varint");
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v3.PackedColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar agent stat layout. Every collected batch of data points is split into one cell per field.
+ * <pre>
+ * qualifier : byte (field id) | vlong (timestamp delta from the row base timestamp)
+ * field 0   : byte (version) | vint (numValues) | packed start timestamps | packed timestamp offsets
+ * field n   : byte (version) | vint (numValues) | packed values
+ * </pre>
+ * The field id prefix lets a scan project only the fields a chart needs with a column prefix filter.
+ */
+public class AgentStatColumnCodec<T extends AgentStatDataPoint> {
+
+    public static final int TIMESTAMP_FIELD_ID = 0;
+
+    private static final byte VERSION = 1;
+
+    private final AgentStatColumnSchema<T> schema;
+
+    public AgentStatColumnCodec(AgentStatColumnSchema<T> schema) {
+        this.schema = Objects.requireNonNull(schema, "schema");
+    }
+
+    public AgentStatColumnSchema<T> getSchema() {
+        return schema;
+    }
+
+    public static byte[] encodeQualifier(int fieldId, long timestampDelta) {
+        // field id + vlong of 5 minutes (300000 ms) takes up max 4 bytes
+        final Buffer qualifierBuffer = new AutomaticBuffer(4);
+        qualifierBuffer.putByte((byte) fieldId);
+        qualifierBuffer.putVLong(timestampDelta);
+        return qualifierBuffer.copyBuffer();
+    }
+
+    /**
+     * @return column qualifier prefixes of the timestamps and the given fields
+     */
+    public static byte[][] getQualifierPrefixes(Collection<? extends AgentStatField<?>> fields) {
+        final byte[][] prefixes = new byte[fields.size() + 1][];
+        prefixes[0] = new byte[]{TIMESTAMP_FIELD_ID};
+        int i = 1;
+        for (AgentStatField<?> field : fields) {
+            prefixes[i++] = new byte[]{(byte) field.getId()};
+        }
+        return prefixes;
+    }
+
+    public ByteBuffer encodeTimestamps(List<T> dataPoints) {
+        final int numValues = dataPoints.size();
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
+        // the first timestamp is encoded in the qualifier
+        final long initialTimestamp = dataPoints.get(0).getTimestamp();
+        for (int i = 0; i < numValues; i++) {
+            final T dataPoint = dataPoints.get(i);
+            startTimestamps[i] = dataPoint.getStartTimestamp();
+            timestamps[i] = dataPoint.getTimestamp() - initialTimestamp;
+        }
+        final Buffer valueBuffer = newValueBuffer(numValues);
+        PackedColumnCodec.encodeLongs(valueBuffer, startTimestamps, numValues);
+        PackedColumnCodec.encodeLongs(valueBuffer, timestamps, numValues);
+        return valueBuffer.wrapByteBuffer();
+    }
+
+    public ByteBuffer encodeField(AgentStatField<T> field, List<T> dataPoints) {
+        final int numValues = dataPoints.size();
+        final long[] values = new long[numValues];
+        for (int i = 0; i < numValues; i++) {
+            values[i] = field.getValue(dataPoints.get(i));
+        }
+        final Buffer valueBuffer = newValueBuffer(numValues);
+        PackedColumnCodec.encodeLongs(valueBuffer, values, numValues);
+        return valueBuffer.wrapByteBuffer();
+    }
+
+    private Buffer newValueBuffer(int numValues) {
+        final Buffer valueBuffer = new AutomaticBuffer(16 + numValues * 2);
+        valueBuffer.putByte(VERSION);
+        valueBuffer.putVInt(numValues);
+        return valueBuffer;
+    }
+
+    public RowDecoder newRowDecoder(String agentId, long baseTimestamp) {
+        return new RowDecoder(agentId, baseTimestamp);
+    }
+
+    /**
+     * Decodes the cells of a single row. The timestamp cells (field 0) must be added before the field cells,
+     * which is the qualifier order of HBase.
+     */
+    public class RowDecoder {
+        private final String agentId;
+        private final long baseTimestamp;
+        private final Map<Long, List<T>> batches = new LinkedHashMap<>();
+
+        private RowDecoder(String agentId, long baseTimestamp) {
+            this.agentId = agentId;
+            this.baseTimestamp = baseTimestamp;
+        }
+
+        public void addColumn(Buffer qualifierBuffer, Buffer valueBuffer) {
+            final int fieldId = qualifierBuffer.readByte() & 0xFF;
+            final long timestampDelta = qualifierBuffer.readVLong();
+
+            final byte version = valueBuffer.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unknown version : " + version);
+            }
+            final int numValues = valueBuffer.readVInt();
+            if (fieldId == TIMESTAMP_FIELD_ID) {
+                batches.put(timestampDelta, decodeTimestamps(valueBuffer, timestampDelta, numValues));
+                return;
+            }
+
+            final AgentStatField<T> field = schema.getField(fieldId);
+            final List<T> batch = batches.get(timestampDelta);
+            if (field == null || batch == null || batch.size() != numValues) {
+                // unknown field written by a newer collector or a broken batch
+                return;
+            }
+            final long[] values = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            for (int i = 0; i < numValues; i++) {
+                field.setValue(batch.get(i), values[i]);
+            }
+        }
+
+        private List<T> decodeTimestamps(Buffer valueBuffer, long timestampDelta, int numValues) {
+            final long initialTimestamp = baseTimestamp + timestampDelta;
+            final long[] startTimestamps = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+            final long[] timestamps = PackedColumnCodec.decodeLongs(valueBuffer, numValues);
+
+            final List<T> batch = new ArrayList<>(numValues);
+            for (int i = 0; i < numValues; i++) {
+                final T dataPoint = schema.newDataPoint();
+                dataPoint.setAgentId(agentId);
+                dataPoint.setStartTimestamp(startTimestamps[i]);
+                dataPoint.setTimestamp(initialTimestamp + timestamps[i]);
+                batch.add(dataPoint);
+            }
+            return batch;
+        }
+
+        public List<T> getDataPoints() {
+            final List<T> dataPoints = new ArrayList<>();
+            for (List<T> batch : batches.values()) {
+                dataPoints.addAll(batch);
+            }
+            return dataPoints;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Field layout of an {@link AgentStatType} stored in the columnar format.
+ * Field ids are persisted, never reuse or renumber them.
+ */
+public class AgentStatColumnSchema<T extends AgentStatDataPoint> {
+
+    private final AgentStatType agentStatType;
+    private final Supplier<T> factory;
+    private final List<AgentStatField<T>> fields;
+    private final AgentStatField<T>[] fieldIndex;
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public AgentStatColumnSchema(AgentStatType agentStatType, Supplier<T> factory, AgentStatField<T>... fields) {
+        this.agentStatType = Objects.requireNonNull(agentStatType, "agentStatType");
+        this.factory = Objects.requireNonNull(factory, "factory");
+        Objects.requireNonNull(fields, "fields");
+
+        this.fieldIndex = new AgentStatField[0x100];
+        for (AgentStatField<T> field : fields) {
+            if (fieldIndex[field.getId()] != null) {
+                throw new IllegalArgumentException("duplicated field id:" + field);
+            }
+            fieldIndex[field.getId()] = field;
+        }
+        this.fields = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(fields)));
+    }
+
+    public AgentStatType getAgentStatType() {
+        return agentStatType;
+    }
+
+    public T newDataPoint() {
+        return factory.get();
+    }
+
+    public List<AgentStatField<T>> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return null if the field id is unknown
+     */
+    public AgentStatField<T> getField(int fieldId) {
+        if (fieldId < 0 || fieldId >= fieldIndex.length) {
+            return null;
+        }
+        return fieldIndex[fieldId];
+    }
+
+    public AgentStatField<T> getField(String name) {
+        for (AgentStatField<T> field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("unknown field:" + name + " type:" + agentStatType);
+    }
+
+    public List<AgentStatField<T>> getFields(String... names) {
+        final List<AgentStatField<T>> result = new ArrayList<>(names.length);
+        for (String name : names) {
+            result.add(getField(name));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatColumnSchema{" +
+                "agentStatType=" + agentStatType +
+                ", fields=" + fields +
+                '}';
+    }
+}
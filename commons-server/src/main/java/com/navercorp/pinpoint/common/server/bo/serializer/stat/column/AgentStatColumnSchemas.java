@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+
+public final class AgentStatColumnSchemas {
+
+    public static final AgentStatColumnSchema<CpuLoadBo> CPU_LOAD = new AgentStatColumnSchema<>(AgentStatType.CPU_LOAD, CpuLoadBo::new,
+            new AgentStatField<>(1, "jvmCpuLoad",
+                    cpuLoadBo -> AgentStatUtils.convertDoubleToLong(cpuLoadBo.getJvmCpuLoad()),
+                    (cpuLoadBo, value) -> cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(value))),
+            new AgentStatField<>(2, "systemCpuLoad",
+                    cpuLoadBo -> AgentStatUtils.convertDoubleToLong(cpuLoadBo.getSystemCpuLoad()),
+                    (cpuLoadBo, value) -> cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(value)))
+    );
+
+    public static final AgentStatColumnSchema<JvmGcBo> JVM_GC = new AgentStatColumnSchema<>(AgentStatType.JVM_GC, JvmGcBo::new,
+            new AgentStatField<>(1, "gcType",
+                    jvmGcBo -> jvmGcBo.getGcType().getTypeCode(),
+                    (jvmGcBo, value) -> jvmGcBo.setGcType(JvmGcType.getTypeByCode((int) value))),
+            new AgentStatField<>(2, "heapUsed", JvmGcBo::getHeapUsed, JvmGcBo::setHeapUsed),
+            new AgentStatField<>(3, "heapMax", JvmGcBo::getHeapMax, JvmGcBo::setHeapMax),
+            new AgentStatField<>(4, "nonHeapUsed", JvmGcBo::getNonHeapUsed, JvmGcBo::setNonHeapUsed),
+            new AgentStatField<>(5, "nonHeapMax", JvmGcBo::getNonHeapMax, JvmGcBo::setNonHeapMax),
+            new AgentStatField<>(6, "gcOldCount", JvmGcBo::getGcOldCount, JvmGcBo::setGcOldCount),
+            new AgentStatField<>(7, "gcOldTime", JvmGcBo::getGcOldTime, JvmGcBo::setGcOldTime)
+    );
+
+    private AgentStatColumnSchemas() {
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.SerializationContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes the data points to the {@link HbaseColumnFamily#AGENT_STAT_COLUMNS} family, one cell per field.
+ */
+public class AgentStatColumnSerializer<T extends AgentStatDataPoint> implements HbaseSerializer<List<T>, Put> {
+
+    private final AgentStatColumnCodec<T> codec;
+
+    public AgentStatColumnSerializer(AgentStatColumnSchema<T> schema) {
+        this.codec = new AgentStatColumnCodec<>(schema);
+    }
+
+    @Override
+    public void serialize(List<T> agentStatBos, Put put, SerializationContext context) {
+        if (CollectionUtils.isEmpty(agentStatBos)) {
+            throw new IllegalArgumentException("agentStatBos should not be empty");
+        }
+        Objects.requireNonNull(put, "put");
+
+        final byte[] family = HbaseColumnFamily.AGENT_STAT_COLUMNS.getName();
+        final long initialTimestamp = agentStatBos.get(0).getTimestamp();
+        final long timestampDelta = initialTimestamp - AgentStatUtils.getBaseTimestamp(initialTimestamp);
+
+        final ByteBuffer timestampQualifier = ByteBuffer.wrap(AgentStatColumnCodec.encodeQualifier(AgentStatColumnCodec.TIMESTAMP_FIELD_ID, timestampDelta));
+        put.addColumn(family, timestampQualifier, HConstants.LATEST_TIMESTAMP, codec.encodeTimestamps(agentStatBos));
+        for (AgentStatField<T> field : codec.getSchema().getFields()) {
+            final ByteBuffer qualifier = ByteBuffer.wrap(AgentStatColumnCodec.encodeQualifier(field.getId(), timestampDelta));
+            put.addColumn(family, qualifier, HConstants.LATEST_TIMESTAMP, codec.encodeField(field, agentStatBos));
+        }
+    }
+}
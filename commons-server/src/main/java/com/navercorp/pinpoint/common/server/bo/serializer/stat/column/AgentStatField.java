@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * A single metric field of the agent stat, stored in its own column.
+ */
+public final class AgentStatField<T> {
+
+    private final int id;
+    private final String name;
+    private final ToLongFunction<T> getter;
+    private final ObjLongConsumer<T> setter;
+
+    public AgentStatField(int id, String name, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+        Assert.isTrue(id > AgentStatColumnCodec.TIMESTAMP_FIELD_ID && id <= 0xFF, "id out of range:" + id);
+        this.id = id;
+        this.name = Objects.requireNonNull(name, "name");
+        this.getter = Objects.requireNonNull(getter, "getter");
+        this.setter = Objects.requireNonNull(setter, "setter");
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue(T dataPoint) {
+        return getter.applyAsLong(dataPoint);
+    }
+
+    public void setValue(T dataPoint, long value) {
+        setter.accept(dataPoint, value);
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatField{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
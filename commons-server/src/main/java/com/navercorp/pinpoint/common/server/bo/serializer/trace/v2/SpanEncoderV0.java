@@ -29,6 +29,10 @@ public class SpanEncoderV0 implements SpanEncoder {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private static final AnnotationTranscoder transcoder = new AnnotationTranscoder();
 
+    private static final int DEFAULT_COLUMN_VALUE_SIZE = 256;
+    // average encoded size of a span event with a few annotations
+    private static final int ESTIMATED_SPAN_EVENT_SIZE = 48;
+
     @Override
     public ByteBuffer encodeSpanQualifier(SpanEncodingContext<SpanBo> encodingContext) {
         final SpanBo spanBo = encodingContext.getValue();
@@ -92,7 +96,8 @@ public class SpanEncoderV0 implements SpanEncoder {
     public ByteBuffer encodeSpanChunkColumnValue(SpanEncodingContext<SpanChunkBo> encodingContext) {
         final SpanChunkBo spanChunkBo = encodingContext.getValue();
 
-        final Buffer buffer = new AutomaticBuffer(256);
+        final List<SpanEventBo> spanEventBoList = spanChunkBo.getSpanEventBoList();
+        final Buffer buffer = new AutomaticBuffer(estimateColumnValueSize(spanEventBoList));
 
         final byte version = (byte) spanChunkBo.getVersion();
         buffer.putByte(version);
@@ -101,12 +106,22 @@ public class SpanEncoderV0 implements SpanEncoder {
             buffer.putVLong(keyTime);
         }
 
-        final List<SpanEventBo> spanEventBoList = spanChunkBo.getSpanEventBoList();
         writeSpanEventList(buffer, spanEventBoList, encodingContext);
 
         return buffer.wrapByteBuffer();
     }
 
+    /**
+     * Sizes the column value buffer up front so that large spans are not copied on every expansion.
+     */
+    static int estimateColumnValueSize(List<SpanEventBo> spanEventBoList) {
+        if (CollectionUtils.isEmpty(spanEventBoList)) {
+            return DEFAULT_COLUMN_VALUE_SIZE;
+        }
+        final long estimatedSize = DEFAULT_COLUMN_VALUE_SIZE + (long) spanEventBoList.size() * ESTIMATED_SPAN_EVENT_SIZE;
+        return (int) Math.min(estimatedSize, 1024 * 1024);
+    }
+
     private void writeSpanEventList(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEncodingContext<?> encodingContext) {
         if (CollectionUtils.isEmpty(spanEventBoList)) {
             buffer.putVInt(0);
@@ -131,7 +146,8 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         final SpanBitFiled bitField = SpanBitFiled.build(span);
 
-        final Buffer buffer = new AutomaticBuffer(256);
+        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
+        final Buffer buffer = new AutomaticBuffer(estimateColumnValueSize(spanEventBoList));
 
         final byte version = span.getRawVersion();
         buffer.putByte(version);
@@ -200,7 +216,6 @@ public class SpanEncoderV0 implements SpanEncoder {
             writeAnnotationList(buffer, annotationBoList, encodingContext);
         }
 
-        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
         writeSpanEventList(buffer, spanEventBoList, encodingContext);
 
         return buffer.wrapByteBuffer();
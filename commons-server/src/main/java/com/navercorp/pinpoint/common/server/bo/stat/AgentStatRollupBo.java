@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Summed {@link AgentStatRollupField} counters of an agent.
+ */
+public class AgentStatRollupBo {
+
+    private static final int FIELD_SIZE = AgentStatRollupField.values().length;
+
+    private final String agentId;
+    private final long[] values = new long[FIELD_SIZE];
+
+    public AgentStatRollupBo(String agentId) {
+        this.agentId = Objects.requireNonNull(agentId, "agentId");
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public void add(AgentStatRollupField field, long value) {
+        Objects.requireNonNull(field, "field");
+        values[field.ordinal()] += value;
+    }
+
+    public long get(AgentStatRollupField field) {
+        Objects.requireNonNull(field, "field");
+        return values[field.ordinal()];
+    }
+
+    public void merge(AgentStatRollupBo rollup) {
+        Objects.requireNonNull(rollup, "rollup");
+        if (!agentId.equals(rollup.agentId)) {
+            throw new IllegalArgumentException("agentId not matched. " + agentId + "!=" + rollup.agentId);
+        }
+        for (int i = 0; i < FIELD_SIZE; i++) {
+            values[i] += rollup.values[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatRollupBo{" +
+                "agentId='" + agentId + '\'' +
+                ", values=" + Arrays.toString(values) +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat;
+
+/**
+ * Counters of the AgentStatRollup table.
+ * Every field is an HBase counter of a one minute slot, so the rollups of several collectors add up.
+ */
+public enum AgentStatRollupField {
+    HEAP_USED((short) 1),
+    HEAP_MAX((short) 2),
+    JVM_GC_SAMPLE_COUNT((short) 3),
+    GC_OLD_COUNT((short) 4),
+    JVM_CPU_LOAD((short) 5),
+    SYSTEM_CPU_LOAD((short) 6),
+    CPU_LOAD_SAMPLE_COUNT((short) 7);
+
+    /**
+     * cpu loads are stored as fixed point values, 1.0 == CPU_LOAD_SCALE
+     */
+    public static final long CPU_LOAD_SCALE = 10000;
+
+    private static final AgentStatRollupField[] VALUES = values();
+
+    private final short code;
+
+    AgentStatRollupField(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static long toCpuLoadValue(double cpuLoad) {
+        return Math.round(cpuLoad * CPU_LOAD_SCALE);
+    }
+
+    public static AgentStatRollupField findByCode(short code) {
+        for (AgentStatRollupField field : VALUES) {
+            if (field.code == code) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
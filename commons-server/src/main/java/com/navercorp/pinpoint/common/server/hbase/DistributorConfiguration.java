@@ -72,6 +72,18 @@ public class DistributorConfiguration {
         return new RowKeyDistributorByHashPrefix(hasher);
     }
 
+    @Bean("agentStatRollupRowKeyDistributor")
+    public RowKeyDistributorByHashPrefix getAgentStatRollupRowKeyDistributor() {
+        RowKeyDistributorByHashPrefix.Hasher hasher = newRangeOneByteSimpleHash(0, 32, 8);
+        return new RowKeyDistributorByHashPrefix(hasher);
+    }
+
+    @Bean("scatterRollupRowKeyDistributor")
+    public RowKeyDistributorByHashPrefix getScatterRollupRowKeyDistributor() {
+        RowKeyDistributorByHashPrefix.Hasher hasher = newRangeOneByteSimpleHash(0, 32, 8);
+        return new RowKeyDistributorByHashPrefix(hasher);
+    }
+
     private RowKeyDistributorByHashPrefix.Hasher newRangeOneByteSimpleHash(int start, int end, int maxBuckets) {
         return new RangeOneByteSimpleHash(start, end, maxBuckets);
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.scatter;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.util.SpanUtils;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row, column and value layout of the ApplicationScatterRollup table.
+ * <pre>
+ * rowkey    = applicationName length(2byte) + applicationName + reverse row time slot(8byte)
+ * qualifier = x slot(1byte) + elapsed slot(4byte) + error(1byte) + agentId
+ * counter   = number of transactions in the cell
+ * sample    = elapsed(vint) + acceptedTime - row time slot(vlong) + var transactionId
+ * </pre>
+ * A row holds {@link #ROW_TIME_SLOT_MILLIS} of transactions split into {@link #X_SLOT_MILLIS} x slots.
+ */
+public final class ScatterRollupUtils {
+
+    public static final long ROW_TIME_SLOT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    public static final int X_SLOT_MILLIS = 5000;
+
+    private static final int COLUMN_PREFIX_SIZE = 1 + 4 + 1;
+
+    private ScatterRollupUtils() {
+    }
+
+    public static long getRowTimeSlot(long acceptedTime) {
+        return acceptedTime - (acceptedTime % ROW_TIME_SLOT_MILLIS);
+    }
+
+    public static int getXSlot(long acceptedTime) {
+        return (int) ((acceptedTime - getRowTimeSlot(acceptedTime)) / X_SLOT_MILLIS);
+    }
+
+    /**
+     * 10ms resolution up to 1s, 100ms up to 10s and 1s beyond.
+     */
+    public static int getElapsedSlot(int elapsed) {
+        if (elapsed <= 0) {
+            return 0;
+        }
+        if (elapsed < 1000) {
+            return elapsed - (elapsed % 10);
+        }
+        if (elapsed < 10000) {
+            return elapsed - (elapsed % 100);
+        }
+        return elapsed - (elapsed % 1000);
+    }
+
+    public static byte[] makeRowKey(String applicationName, long rowTimeSlot) {
+        Objects.requireNonNull(applicationName, "applicationName");
+
+        final byte[] applicationNameBytes = BytesUtils.toBytes(applicationName);
+        final byte[] rowKey = new byte[2 + applicationNameBytes.length + 8];
+        int offset = BytesUtils.writeShort((short) applicationNameBytes.length, rowKey, 0);
+        System.arraycopy(applicationNameBytes, 0, rowKey, offset, applicationNameBytes.length);
+        offset += applicationNameBytes.length;
+        BytesUtils.writeLong(TimeUtils.reverseTimeMillis(rowTimeSlot), rowKey, offset);
+        return rowKey;
+    }
+
+    public static long getRowTimeSlot(byte[] rowKey, int offset) {
+        Objects.requireNonNull(rowKey, "rowKey");
+        final short applicationNameLength = BytesUtils.bytesToShort(rowKey, offset);
+        final long reverseTimeSlot = BytesUtils.bytesToLong(rowKey, offset + 2 + applicationNameLength);
+        return TimeUtils.recoveryTimeMillis(reverseTimeSlot);
+    }
+
+    public static byte[] makeColumnName(int xSlot, int elapsedSlot, boolean error, String agentId) {
+        Objects.requireNonNull(agentId, "agentId");
+
+        final byte[] agentIdBytes = BytesUtils.toBytes(agentId);
+        final byte[] columnName = new byte[COLUMN_PREFIX_SIZE + agentIdBytes.length];
+        columnName[0] = (byte) xSlot;
+        BytesUtils.writeInt(elapsedSlot, columnName, 1);
+        columnName[5] = (byte) (error ? 1 : 0);
+        System.arraycopy(agentIdBytes, 0, columnName, COLUMN_PREFIX_SIZE, agentIdBytes.length);
+        return columnName;
+    }
+
+    public static int getXSlot(byte[] columnName, int offset) {
+        return columnName[offset];
+    }
+
+    public static int getElapsedSlot(byte[] columnName, int offset) {
+        return BytesUtils.bytesToInt(columnName, offset + 1);
+    }
+
+    public static boolean isError(byte[] columnName, int offset) {
+        return columnName[offset + 5] != 0;
+    }
+
+    public static String getAgentId(byte[] columnName, int offset, int length) {
+        return BytesUtils.toString(columnName, offset + COLUMN_PREFIX_SIZE, length - COLUMN_PREFIX_SIZE);
+    }
+
+    public static byte[] makeSampleValue(SpanBo span) {
+        Objects.requireNonNull(span, "span");
+
+        final long acceptedTime = span.getCollectorAcceptTime();
+        final byte[] transactionId = SpanUtils.getVarTransactionId(span);
+        final Buffer buffer = new AutomaticBuffer(16 + transactionId.length);
+        buffer.putVInt(span.getElapsed());
+        buffer.putVLong(acceptedTime - getRowTimeSlot(acceptedTime));
+        buffer.putBytes(transactionId);
+        return buffer.getBuffer();
+    }
+}
@@ -25,5 +25,10 @@ public interface AcceptedTimeService {
 
     void accept(long time);
 
+    /**
+     * Forgets the accepted time of the current thread.
+     */
+    void clear();
+
     long getAcceptedTime();
 }
\ No newline at end of file
@@ -22,6 +22,10 @@ public class EmptyAcceptedTimeService implements AcceptedTimeService{
 
     }
 
+    public void clear() {
+
+    }
+
     public long getAcceptedTime() {
         return acceptedTime;
     }
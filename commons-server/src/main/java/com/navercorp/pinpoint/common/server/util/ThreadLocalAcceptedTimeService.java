@@ -37,6 +37,11 @@ public class ThreadLocalAcceptedTimeService implements AcceptedTimeService {
         local.set(time);
     }
 
+    @Override
+    public void clear() {
+        local.remove();
+    }
+
     @Override
     public long getAcceptedTime() {
         Long acceptedTime = local.get();
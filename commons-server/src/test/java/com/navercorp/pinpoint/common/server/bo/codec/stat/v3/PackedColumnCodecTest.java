@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PackedColumnCodecTest {
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void longs_constantDelta() {
+        final long[] values = new long[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1600000000000L + i * 5000L;
+        }
+        final byte[] encoded = assertLongs(values);
+        // first value + 3 blocks of (min, bitWidth=0)
+        Assert.assertTrue("size:" + encoded.length, encoded.length < 32);
+    }
+
+    @Test
+    public void longs_boundary() {
+        assertLongs(new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, Long.MIN_VALUE, 1, Long.MAX_VALUE});
+        assertLongs(new long[]{-1, -1, -1});
+        assertLongs(new long[]{42});
+        assertLongs(new long[0]);
+    }
+
+    @Test
+    public void longs_random() {
+        for (int bitWidth = 1; bitWidth <= 64; bitWidth++) {
+            for (int size : new int[]{2, PackedColumnCodec.BLOCK_SIZE, PackedColumnCodec.BLOCK_SIZE + 1, 1000}) {
+                final long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    final long value = random.nextLong();
+                    values[i] = bitWidth == 64 ? value : value >> (64 - bitWidth);
+                }
+                assertLongs(values);
+            }
+        }
+    }
+
+    @Test
+    public void ints() {
+        final int[] values = new int[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt();
+        }
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+
+        Buffer buffer = new AutomaticBuffer();
+        PackedColumnCodec.encodeInts(buffer, values, values.length);
+        buffer.putInt(7);
+
+        Buffer readBuffer = new FixedBuffer(buffer.getBuffer());
+        Assert.assertArrayEquals(values, PackedColumnCodec.decodeInts(readBuffer, values.length));
+        Assert.assertEquals(7, readBuffer.readInt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encode_invalidNumValues() {
+        PackedColumnCodec.encodeLongs(new AutomaticBuffer(), new long[2], 3);
+    }
+
+    private byte[] assertLongs(long[] values) {
+        Buffer buffer = new AutomaticBuffer();
+        PackedColumnCodec.encodeLongs(buffer, values, values.length);
+        // trailing field must not be consumed by the column decoder
+        buffer.putInt(7);
+
+        Buffer readBuffer = new FixedBuffer(buffer.getBuffer());
+        final long[] decoded = PackedColumnCodec.decodeLongs(readBuffer, values.length);
+        Assert.assertArrayEquals(values, decoded);
+        Assert.assertEquals(7, readBuffer.readInt());
+        return buffer.getBuffer();
+    }
+}
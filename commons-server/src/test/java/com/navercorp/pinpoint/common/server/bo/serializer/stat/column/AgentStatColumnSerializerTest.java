@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat.column;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AgentStatColumnSerializerTest {
+
+    private static final String AGENT_ID = "testAgentId";
+    private static final double DOUBLE_COMPARISON_DELTA = (double) 1 / AgentStatUtils.CONVERT_VALUE;
+
+    @Test
+    public void serialize_cpuLoad() {
+        final long initialTimestamp = System.currentTimeMillis();
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        final List<CpuLoadBo> expected = TestAgentStatFactory.createCpuLoadBos(AGENT_ID, initialTimestamp - 10000, initialTimestamp, 6);
+
+        final Put put = new Put(Bytes.toBytes("row"));
+        new AgentStatColumnSerializer<>(AgentStatColumnSchemas.CPU_LOAD).serialize(expected, put, null);
+        // timestamps + jvmCpuLoad + systemCpuLoad
+        Assert.assertEquals(3, put.size());
+
+        final List<CpuLoadBo> actual = decode(AgentStatColumnSchemas.CPU_LOAD, put, baseTimestamp, null);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            CpuLoadBo expectedBo = expected.get(i);
+            CpuLoadBo actualBo = actual.get(i);
+            Assert.assertEquals(AGENT_ID, actualBo.getAgentId());
+            Assert.assertEquals(expectedBo.getStartTimestamp(), actualBo.getStartTimestamp());
+            Assert.assertEquals(expectedBo.getTimestamp(), actualBo.getTimestamp());
+            Assert.assertEquals(expectedBo.getJvmCpuLoad(), actualBo.getJvmCpuLoad(), DOUBLE_COMPARISON_DELTA);
+            Assert.assertEquals(expectedBo.getSystemCpuLoad(), actualBo.getSystemCpuLoad(), DOUBLE_COMPARISON_DELTA);
+        }
+    }
+
+    @Test
+    public void serialize_projection() {
+        final long initialTimestamp = System.currentTimeMillis();
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        final List<JvmGcBo> expected = TestAgentStatFactory.createJvmGcBos(AGENT_ID, initialTimestamp - 10000, initialTimestamp, 6);
+
+        final Put put = new Put(Bytes.toBytes("row"));
+        new AgentStatColumnSerializer<>(AgentStatColumnSchemas.JVM_GC).serialize(expected, put, null);
+
+        final List<AgentStatField<JvmGcBo>> projection = AgentStatColumnSchemas.JVM_GC.getFields("gcType", "heapUsed");
+        final List<JvmGcBo> actual = decode(AgentStatColumnSchemas.JVM_GC, put, baseTimestamp, projection);
+        Assert.assertEquals(expected.size(), actual.size());
+        final JvmGcBo defaultBo = new JvmGcBo();
+        for (int i = 0; i < expected.size(); i++) {
+            JvmGcBo expectedBo = expected.get(i);
+            JvmGcBo actualBo = actual.get(i);
+            Assert.assertEquals(expectedBo.getTimestamp(), actualBo.getTimestamp());
+            Assert.assertEquals(expectedBo.getGcType(), actualBo.getGcType());
+            Assert.assertEquals(expectedBo.getHeapUsed(), actualBo.getHeapUsed());
+            // not projected
+            Assert.assertEquals(defaultBo.getHeapMax(), actualBo.getHeapMax());
+            Assert.assertEquals(defaultBo.getGcOldTime(), actualBo.getGcOldTime());
+        }
+    }
+
+    @Test
+    public void getQualifierPrefixes() {
+        final List<AgentStatField<JvmGcBo>> fields = AgentStatColumnSchemas.JVM_GC.getFields("heapUsed");
+        final byte[][] prefixes = AgentStatColumnCodec.getQualifierPrefixes(fields);
+        Assert.assertEquals(2, prefixes.length);
+        Assert.assertArrayEquals(new byte[]{AgentStatColumnCodec.TIMESTAMP_FIELD_ID}, prefixes[0]);
+        Assert.assertArrayEquals(new byte[]{2}, prefixes[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void schema_duplicatedFieldId() {
+        new AgentStatColumnSchema<>(AgentStatColumnSchemas.JVM_GC.getAgentStatType(), JvmGcBo::new,
+                new AgentStatField<>(1, "a", JvmGcBo::getHeapUsed, JvmGcBo::setHeapUsed),
+                new AgentStatField<>(1, "b", JvmGcBo::getHeapMax, JvmGcBo::setHeapMax));
+    }
+
+    @Test
+    public void jvmGcType() {
+        final JvmGcBo jvmGcBo = new JvmGcBo();
+        final AgentStatField<JvmGcBo> gcType = AgentStatColumnSchemas.JVM_GC.getField("gcType");
+        gcType.setValue(jvmGcBo, JvmGcType.G1.getTypeCode());
+        Assert.assertEquals(JvmGcType.G1, jvmGcBo.getGcType());
+    }
+
+    /**
+     * decodes the cells in the HBase qualifier order, keeping only the projected fields like the column prefix filter
+     */
+    private <T extends AgentStatDataPoint> List<T> decode(
+            AgentStatColumnSchema<T> schema, Put put, long baseTimestamp, List<AgentStatField<T>> projection) {
+        final List<Cell> cells = new ArrayList<>(put.getFamilyCellMap().get(HbaseColumnFamily.AGENT_STAT_COLUMNS.getName()));
+        cells.sort((cell1, cell2) -> Bytes.compareTo(CellUtil.cloneQualifier(cell1), CellUtil.cloneQualifier(cell2)));
+
+        final Set<Integer> projected = new HashSet<>(Arrays.asList(AgentStatColumnCodec.TIMESTAMP_FIELD_ID));
+        for (AgentStatField<T> field : projection == null ? schema.getFields() : projection) {
+            projected.add(field.getId());
+        }
+
+        final AgentStatColumnCodec<T>.RowDecoder rowDecoder = new AgentStatColumnCodec<>(schema).newRowDecoder(AGENT_ID, baseTimestamp);
+        for (Cell cell : cells) {
+            final int fieldId = cell.getQualifierArray()[cell.getQualifierOffset()] & 0xFF;
+            if (!projected.contains(fieldId)) {
+                continue;
+            }
+            Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+            rowDecoder.addColumn(qualifierBuffer, valueBuffer);
+        }
+        return rowDecoder.getDataPoints();
+    }
+}
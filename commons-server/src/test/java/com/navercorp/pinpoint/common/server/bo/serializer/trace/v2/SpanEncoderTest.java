@@ -240,4 +240,15 @@ public class SpanEncoderTest {
 
         assertSpan(spanBo);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void estimateColumnValueSize() {
+        Assert.assertEquals(256, SpanEncoderV0.estimateColumnValueSize(Collections.emptyList()));
+
+        List<SpanEventBo> spanEventBoList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            spanEventBoList.add(new SpanEventBo());
+        }
+        Assert.assertTrue(SpanEncoderV0.estimateColumnValueSize(spanEventBoList) > 256);
+    }
+}
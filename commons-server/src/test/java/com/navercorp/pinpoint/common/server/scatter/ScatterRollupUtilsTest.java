@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.scatter;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScatterRollupUtilsTest {
+
+    @Test
+    public void rowKey() {
+        long rowTimeSlot = ScatterRollupUtils.getRowTimeSlot(1_600_000_012_345L);
+        Assert.assertEquals(1_599_999_960_000L, rowTimeSlot);
+
+        byte[] rowKey = ScatterRollupUtils.makeRowKey("applicationName", rowTimeSlot);
+        Assert.assertEquals(rowTimeSlot, ScatterRollupUtils.getRowTimeSlot(rowKey, 0));
+    }
+
+    @Test
+    public void xSlot() {
+        Assert.assertEquals(0, ScatterRollupUtils.getXSlot(1_599_999_960_000L));
+        Assert.assertEquals(10, ScatterRollupUtils.getXSlot(1_600_000_012_345L));
+        Assert.assertEquals(11, ScatterRollupUtils.getXSlot(1_600_000_019_999L));
+    }
+
+    @Test
+    public void elapsedSlot() {
+        Assert.assertEquals(0, ScatterRollupUtils.getElapsedSlot(-1));
+        Assert.assertEquals(120, ScatterRollupUtils.getElapsedSlot(123));
+        Assert.assertEquals(1200, ScatterRollupUtils.getElapsedSlot(1234));
+        Assert.assertEquals(12000, ScatterRollupUtils.getElapsedSlot(12345));
+    }
+
+    @Test
+    public void columnName() {
+        byte[] columnName = ScatterRollupUtils.makeColumnName(11, 1200, true, "agentId");
+
+        Assert.assertEquals(11, ScatterRollupUtils.getXSlot(columnName, 0));
+        Assert.assertEquals(1200, ScatterRollupUtils.getElapsedSlot(columnName, 0));
+        Assert.assertTrue(ScatterRollupUtils.isError(columnName, 0));
+        Assert.assertEquals("agentId", ScatterRollupUtils.getAgentId(columnName, 0, columnName.length));
+    }
+
+    @Test
+    public void sampleValue() {
+        SpanBo span = new SpanBo();
+        span.setAgentId("agentId");
+        span.setTransactionId(new TransactionId("agentId", 100, 200));
+        span.setCollectorAcceptTime(1_600_000_012_345L);
+        span.setElapsed(1234);
+
+        Buffer buffer = new FixedBuffer(ScatterRollupUtils.makeSampleValue(span));
+        Assert.assertEquals(1234, buffer.readVInt());
+        Assert.assertEquals(52_345L, buffer.readVLong());
+        Assert.assertEquals("agentId", buffer.readPrefixedString());
+        Assert.assertEquals(100, buffer.readSVLong());
+        Assert.assertEquals(200, buffer.readVLong());
+    }
+}
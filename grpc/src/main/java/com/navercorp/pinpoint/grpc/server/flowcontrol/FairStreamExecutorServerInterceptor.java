@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.grpc.Header;
+import io.grpc.Context;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream executor backed by the {@link FairStreamScheduler}.
+ * <p>
+ * The interceptor is the only caller of {@link ServerCall#request(int)}, the requests of the service stub
+ * (auto inbound flow control) are dropped. Each stream keeps at most {@code initNumMessages} messages in flight
+ * and is topped up as its messages are handled or shed. While the queue of the agent is over half of its max size,
+ * the credits are held back until the stream runs dry, so a busy agent is throttled by grpc flow control
+ * instead of being rejected.
+ */
+public class FairStreamExecutorServerInterceptor implements ServerInterceptor {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private static final String UNKNOWN_KEY = "UNKNOWN";
+
+    private final String name;
+    private final FairStreamScheduler fairStreamScheduler;
+    private final int initNumMessages;
+    private final StreamExecutorRejectedExecutionRequestScheduler scheduler;
+
+    public FairStreamExecutorServerInterceptor(String name, FairStreamScheduler fairStreamScheduler, final int initNumMessages,
+                                               final ScheduledExecutor scheduledExecutor, RejectedExecutionListenerFactory listenerFactory) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.fairStreamScheduler = Objects.requireNonNull(fairStreamScheduler, "fairStreamScheduler");
+        Assert.isTrue(initNumMessages > 0, "initNumMessages must be positive");
+        this.initNumMessages = initNumMessages;
+
+        Objects.requireNonNull(scheduledExecutor, "scheduledExecutor");
+        Objects.requireNonNull(listenerFactory, "listenerFactory");
+        // idle timeout only, messages are never rejected by the executor
+        this.scheduler = new StreamExecutorRejectedExecutionRequestScheduler(scheduledExecutor, listenerFactory);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(final ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        final String agentId = headers.get(Header.AGENT_ID_KEY);
+        final String applicationName = headers.get(Header.APPLICATION_NAME_KEY);
+        final ServerCallWrapper serverCall = new DefaultServerCallWrapper<>(call, applicationName, agentId);
+
+        final StreamExecutorRejectedExecutionRequestScheduler.Listener scheduleListener = this.scheduler.schedule(serverCall);
+        final FairStreamScheduler.StreamQueue streamQueue = fairStreamScheduler.register(getKey(agentId, applicationName), applicationName);
+        final StreamFlowControl flowControl = new StreamFlowControl(call, streamQueue, initNumMessages, fairStreamScheduler.getMaxQueueSize() / 2);
+        if (logger.isInfoEnabled()) {
+            logger.info("Initialize fair stream. {} {}, headers={}, initNumMessages={}, streamQueue={}",
+                    this.name, call.getMethodDescriptor().getFullMethodName(), headers, initNumMessages, streamQueue);
+        }
+
+        final ServerCall.Listener<ReqT> listener = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void request(int numMessages) {
+                // inbound flow control is owned by StreamFlowControl
+            }
+        }, headers);
+        flowControl.start();
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void onMessage(final ReqT message) {
+                final Context context = Context.current();
+                fairStreamScheduler.execute(streamQueue, new FairStreamScheduler.Task() {
+                    @Override
+                    public void run() {
+                        final Context previous = context.attach();
+                        try {
+                            scheduleListener.onMessage();
+                            delegate().onMessage(message);
+                        } finally {
+                            context.detach(previous);
+                            flowControl.onDone();
+                        }
+                    }
+
+                    @Override
+                    public void onShed() {
+                        flowControl.onDone();
+                    }
+                });
+            }
+
+            @Override
+            public void onCancel() {
+                close();
+                delegate().onCancel();
+            }
+
+            @Override
+            public void onComplete() {
+                close();
+                delegate().onComplete();
+            }
+
+            private void close() {
+                if (closed.compareAndSet(false, true)) {
+                    scheduleListener.onCancel();
+                    fairStreamScheduler.unregister(streamQueue);
+                }
+            }
+        };
+    }
+
+    static class StreamFlowControl {
+        private final ServerCall<?, ?> call;
+        private final FairStreamScheduler.StreamQueue streamQueue;
+        private final int maxInFlight;
+        private final int highWatermark;
+
+        // requested from the transport, not yet handled or shed
+        private int inFlight;
+
+        StreamFlowControl(ServerCall<?, ?> call, FairStreamScheduler.StreamQueue streamQueue, int maxInFlight, int highWatermark) {
+            this.call = Objects.requireNonNull(call, "call");
+            this.streamQueue = Objects.requireNonNull(streamQueue, "streamQueue");
+            this.maxInFlight = maxInFlight;
+            this.highWatermark = highWatermark;
+        }
+
+        void start() {
+            request(maxInFlight);
+        }
+
+        void onDone() {
+            final int numMessages;
+            synchronized (this) {
+                inFlight--;
+                numMessages = getCredit();
+                inFlight += numMessages;
+            }
+            if (numMessages > 0) {
+                call.request(numMessages);
+            }
+        }
+
+        // guarded by this
+        private int getCredit() {
+            if (inFlight > 0 && streamQueue.getQueueSize() >= highWatermark) {
+                // the stream still has messages queued, they top it up when the agent drains
+                return 0;
+            }
+            return maxInFlight - inFlight;
+        }
+
+        private void request(int numMessages) {
+            synchronized (this) {
+                inFlight += numMessages;
+            }
+            call.request(numMessages);
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+    }
+
+    private String getKey(String agentId, String applicationName) {
+        if (agentId != null) {
+            return agentId;
+        }
+        if (applicationName != null) {
+            return applicationName;
+        }
+        return UNKNOWN_KEY;
+    }
+}
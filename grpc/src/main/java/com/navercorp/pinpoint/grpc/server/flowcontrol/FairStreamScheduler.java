@@ -0,0 +1,274 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches stream messages to the worker executor through one queue per agent.
+ * <p>
+ * Each queue has at most one drain task in the executor. A drain task runs up to {@code quantum * weight} messages
+ * and then resubmits itself behind the other agents, so a chatty agent can not starve the others.
+ * The weight of a queue is looked up by its key and then by its group key (the application name), the default is 1.
+ * Messages over {@code maxQueueSize} of an agent are shed.
+ */
+public class FairStreamScheduler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String name;
+    private final Executor executor;
+    private final int quantum;
+    private final int maxQueueSize;
+    private final Map<String, Integer> weightMap;
+
+    private final Map<String, StreamQueue> streamQueueMap = new HashMap<>();
+
+    public FairStreamScheduler(String name, Executor executor, int quantum, int maxQueueSize) {
+        this(name, executor, quantum, maxQueueSize, Collections.<String, Integer>emptyMap());
+    }
+
+    public FairStreamScheduler(String name, Executor executor, int quantum, int maxQueueSize, Map<String, Integer> weightMap) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        Assert.isTrue(quantum > 0, "quantum must be positive");
+        this.quantum = quantum;
+        Assert.isTrue(maxQueueSize > 0, "maxQueueSize must be positive");
+        this.maxQueueSize = maxQueueSize;
+
+        Objects.requireNonNull(weightMap, "weightMap");
+        for (Map.Entry<String, Integer> entry : weightMap.entrySet()) {
+            Assert.isTrue(entry.getValue() > 0, "weight must be positive. key:" + entry.getKey());
+        }
+        this.weightMap = new HashMap<>(weightMap);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public StreamQueue register(String key) {
+        return register(key, null);
+    }
+
+    /**
+     * @param groupKey fallback key of the weight, nullable
+     */
+    public StreamQueue register(String key, String groupKey) {
+        Objects.requireNonNull(key, "key");
+        synchronized (streamQueueMap) {
+            StreamQueue streamQueue = streamQueueMap.get(key);
+            if (streamQueue == null) {
+                streamQueue = new StreamQueue(key, getWeight(key, groupKey));
+                streamQueueMap.put(key, streamQueue);
+            }
+            streamQueue.streamCount++;
+            return streamQueue;
+        }
+    }
+
+    private int getWeight(String key, String groupKey) {
+        Integer weight = weightMap.get(key);
+        if (weight == null && groupKey != null) {
+            weight = weightMap.get(groupKey);
+        }
+        if (weight == null) {
+            return 1;
+        }
+        return weight;
+    }
+
+    public void unregister(StreamQueue streamQueue) {
+        Objects.requireNonNull(streamQueue, "streamQueue");
+        synchronized (streamQueueMap) {
+            streamQueue.streamCount--;
+            if (streamQueue.streamCount <= 0) {
+                streamQueueMap.remove(streamQueue.getKey());
+            }
+        }
+    }
+
+    public List<StreamQueue> getStreamQueueList() {
+        synchronized (streamQueueMap) {
+            return new ArrayList<>(streamQueueMap.values());
+        }
+    }
+
+    /**
+     * @return false if the task was shed
+     */
+    public boolean execute(StreamQueue streamQueue, Task task) {
+        Objects.requireNonNull(streamQueue, "streamQueue");
+        Objects.requireNonNull(task, "task");
+
+        if (streamQueue.queueSize.incrementAndGet() > maxQueueSize) {
+            streamQueue.queueSize.decrementAndGet();
+            shed(streamQueue, task);
+            return false;
+        }
+        streamQueue.queue.offer(task);
+        schedule(streamQueue);
+        return true;
+    }
+
+    private void schedule(StreamQueue streamQueue) {
+        if (!streamQueue.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new DrainJob(streamQueue));
+        } catch (RejectedExecutionException ree) {
+            streamQueue.scheduled.set(false);
+            final int shedCount = shedAll(streamQueue);
+            logger.warn("{} worker executor rejected. key:{} shed:{}", name, streamQueue.getKey(), shedCount);
+        }
+    }
+
+    private int shedAll(StreamQueue streamQueue) {
+        int count = 0;
+        Task task;
+        while ((task = streamQueue.queue.poll()) != null) {
+            streamQueue.queueSize.decrementAndGet();
+            shed(streamQueue, task);
+            count++;
+        }
+        return count;
+    }
+
+    private void shed(StreamQueue streamQueue, Task task) {
+        streamQueue.shedCount.incrementAndGet();
+        try {
+            task.onShed();
+        } catch (Throwable th) {
+            logger.warn("{} onShed error. key:{}", name, streamQueue.getKey(), th);
+        }
+    }
+
+    private class DrainJob implements Runnable {
+        private final StreamQueue streamQueue;
+
+        private DrainJob(StreamQueue streamQueue) {
+            this.streamQueue = streamQueue;
+        }
+
+        @Override
+        public void run() {
+            final int turn = quantum * streamQueue.getWeight();
+            for (int i = 0; i < turn; i++) {
+                final Task task = streamQueue.queue.poll();
+                if (task == null) {
+                    break;
+                }
+                streamQueue.queueSize.decrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable th) {
+                    logger.warn("{} task error. key:{}", name, streamQueue.getKey(), th);
+                }
+                streamQueue.processedCount.incrementAndGet();
+            }
+            streamQueue.scheduled.set(false);
+            if (!streamQueue.queue.isEmpty()) {
+                // go to the back of the executor queue
+                schedule(streamQueue);
+            }
+        }
+    }
+
+    public interface Task extends Runnable {
+        void onShed();
+    }
+
+    public static class StreamQueue {
+        private final String key;
+        private final int weight;
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicLong processedCount = new AtomicLong();
+        private final AtomicLong shedCount = new AtomicLong();
+        // guarded by streamQueueMap
+        private int streamCount;
+
+        private StreamQueue(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getQueueSize() {
+            return queueSize.get();
+        }
+
+        public long getProcessedCount() {
+            return processedCount.get();
+        }
+
+        public long getShedCount() {
+            return shedCount.get();
+        }
+
+        @Override
+        public String toString() {
+            return "StreamQueue{" +
+                    "key='" + key + '\'' +
+                    ", weight=" + weight +
+                    ", queueSize=" + queueSize +
+                    ", processedCount=" + processedCount +
+                    ", shedCount=" + shedCount +
+                    '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FairStreamScheduler{" +
+                "name='" + name + '\'' +
+                ", quantum=" + quantum +
+                ", maxQueueSize=" + maxQueueSize +
+                ", weightMap=" + weightMap +
+                '}';
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FairStreamExecutorServerInterceptorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void interceptCall_ownsFlowControl() {
+        final ServerCall<String, String> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(newMethodDescriptor());
+        final ServerCall.Listener<String> delegate = mock(ServerCall.Listener.class);
+        ServerCallHandler<String, String> handler = new ServerCallHandler<String, String>() {
+            @Override
+            public ServerCall.Listener<String> startCall(ServerCall<String, String> serverCall, Metadata headers) {
+                // auto inbound flow control of the stub
+                serverCall.request(1);
+                return delegate;
+            }
+        };
+
+        Executor directExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", directExecutor, 10, 100);
+        FairStreamExecutorServerInterceptor interceptor = new FairStreamExecutorServerInterceptor("test", scheduler, 5,
+                newScheduledExecutor(), new RejectedExecutionListenerFactory("test", 10, new IdleTimeoutFactory(5000)));
+
+        ServerCall.Listener<String> listener = interceptor.interceptCall(call, new Metadata(), handler);
+        verify(call).request(5);
+        verify(call, times(1)).request(anyInt());
+
+        listener.onMessage("span");
+        verify(delegate).onMessage("span");
+        verify(call, times(1)).request(1);
+        verify(call, times(2)).request(anyInt());
+
+        listener.onComplete();
+        Assert.assertTrue(scheduler.getStreamQueueList().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamFlowControl_holdBack() {
+        ServerCall<String, String> call = mock(ServerCall.class);
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", new QueueExecutor(), 10, 4);
+        FairStreamScheduler.StreamQueue streamQueue = scheduler.register("agent");
+        for (int i = 0; i < 3; i++) {
+            scheduler.execute(streamQueue, new NoopTask());
+        }
+
+        FairStreamExecutorServerInterceptor.StreamFlowControl flowControl = new FairStreamExecutorServerInterceptor.StreamFlowControl(call, streamQueue, 3, 2);
+        flowControl.start();
+        verify(call, times(1)).request(3);
+
+        // the agent queue is over the high watermark
+        flowControl.onDone();
+        flowControl.onDone();
+        Assert.assertEquals(1, flowControl.getInFlight());
+        verify(call, times(1)).request(anyInt());
+
+        // the stream ran dry
+        flowControl.onDone();
+        verify(call, times(2)).request(3);
+        Assert.assertEquals(3, flowControl.getInFlight());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamFlowControl_topUp() {
+        ServerCall<String, String> call = mock(ServerCall.class);
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", new QueueExecutor(), 10, 4);
+        FairStreamScheduler.StreamQueue streamQueue = scheduler.register("agent");
+
+        FairStreamExecutorServerInterceptor.StreamFlowControl flowControl = new FairStreamExecutorServerInterceptor.StreamFlowControl(call, streamQueue, 3, 2);
+        flowControl.start();
+        flowControl.onDone();
+        flowControl.onDone();
+
+        verify(call, times(1)).request(3);
+        verify(call, times(2)).request(1);
+        Assert.assertEquals(3, flowControl.getInFlight());
+    }
+
+    private MethodDescriptor<String, String> newMethodDescriptor() {
+        MethodDescriptor.Marshaller<String> marshaller = mock(MethodDescriptor.Marshaller.class);
+        return MethodDescriptor.<String, String>newBuilder()
+                .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+                .setFullMethodName("test/stream")
+                .setRequestMarshaller(marshaller)
+                .setResponseMarshaller(marshaller)
+                .build();
+    }
+
+    private ScheduledExecutor newScheduledExecutor() {
+        return new ScheduledExecutor() {
+            @Override
+            public Future<?> schedule(Runnable command) {
+                return new FutureTask<>(command, null);
+            }
+        };
+    }
+
+    private static class QueueExecutor implements Executor {
+        private final Queue<Runnable> queue = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+    }
+
+    private static class NoopTask implements FairStreamScheduler.Task {
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public void onShed() {
+        }
+    }
+}
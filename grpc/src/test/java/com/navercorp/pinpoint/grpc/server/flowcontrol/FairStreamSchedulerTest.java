@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class FairStreamSchedulerTest {
+
+    @Test
+    public void execute_fair() {
+        QueueExecutor executor = new QueueExecutor();
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", executor, 2, 100);
+        FairStreamScheduler.StreamQueue chatty = scheduler.register("chatty");
+        FairStreamScheduler.StreamQueue normal = scheduler.register("normal");
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            scheduler.execute(chatty, new RecordTask(result, "chatty"));
+        }
+        scheduler.execute(normal, new RecordTask(result, "normal"));
+
+        executor.runAll();
+
+        Assert.assertEquals(7, result.size());
+        Assert.assertEquals("normal", result.get(2));
+        Assert.assertEquals(6, chatty.getProcessedCount());
+        Assert.assertEquals(1, normal.getProcessedCount());
+        Assert.assertEquals(0, chatty.getQueueSize());
+    }
+
+    @Test
+    public void execute_weighted() {
+        QueueExecutor executor = new QueueExecutor();
+        Map<String, Integer> weightMap = new HashMap<>();
+        weightMap.put("heavy", 2);
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", executor, 1, 100, weightMap);
+        FairStreamScheduler.StreamQueue heavy = scheduler.register("heavy");
+        FairStreamScheduler.StreamQueue normal = scheduler.register("normal");
+        Assert.assertEquals(2, heavy.getWeight());
+        Assert.assertEquals(1, normal.getWeight());
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            scheduler.execute(heavy, new RecordTask(result, "heavy"));
+        }
+        for (int i = 0; i < 2; i++) {
+            scheduler.execute(normal, new RecordTask(result, "normal"));
+        }
+
+        executor.runAll();
+
+        Assert.assertEquals(Arrays.asList("heavy", "heavy", "normal", "heavy", "heavy", "normal"), result);
+    }
+
+    @Test
+    public void register_groupWeight() {
+        Map<String, Integer> weightMap = new HashMap<>();
+        weightMap.put("application", 3);
+        weightMap.put("agent2", 5);
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", new QueueExecutor(), 1, 100, weightMap);
+
+        Assert.assertEquals(3, scheduler.register("agent1", "application").getWeight());
+        Assert.assertEquals(5, scheduler.register("agent2", "application").getWeight());
+        Assert.assertEquals(1, scheduler.register("agent3", null).getWeight());
+    }
+
+    @Test
+    public void execute_shed() {
+        QueueExecutor executor = new QueueExecutor();
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", executor, 10, 2);
+        FairStreamScheduler.StreamQueue streamQueue = scheduler.register("agent");
+
+        List<String> result = new ArrayList<>();
+        RecordTask shedTask = new RecordTask(result, "agent");
+        Assert.assertTrue(scheduler.execute(streamQueue, new RecordTask(result, "agent")));
+        Assert.assertTrue(scheduler.execute(streamQueue, new RecordTask(result, "agent")));
+        Assert.assertFalse(scheduler.execute(streamQueue, shedTask));
+
+        Assert.assertTrue(shedTask.shed);
+        Assert.assertEquals(1, streamQueue.getShedCount());
+
+        executor.runAll();
+        Assert.assertEquals(2, result.size());
+    }
+
+    @Test
+    public void execute_rejected() {
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException("test");
+            }
+        };
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", executor, 10, 10);
+        FairStreamScheduler.StreamQueue streamQueue = scheduler.register("agent");
+
+        RecordTask task = new RecordTask(new ArrayList<String>(), "agent");
+        scheduler.execute(streamQueue, task);
+
+        Assert.assertTrue(task.shed);
+        Assert.assertEquals(1, streamQueue.getShedCount());
+        Assert.assertEquals(0, streamQueue.getQueueSize());
+    }
+
+    @Test
+    public void unregister() {
+        FairStreamScheduler scheduler = new FairStreamScheduler("test", new QueueExecutor(), 10, 10);
+        FairStreamScheduler.StreamQueue stream1 = scheduler.register("agent");
+        FairStreamScheduler.StreamQueue stream2 = scheduler.register("agent");
+        Assert.assertSame(stream1, stream2);
+
+        scheduler.unregister(stream1);
+        Assert.assertEquals(1, scheduler.getStreamQueueList().size());
+        scheduler.unregister(stream2);
+        Assert.assertTrue(scheduler.getStreamQueueList().isEmpty());
+    }
+
+    private static class QueueExecutor implements Executor {
+        private final Queue<Runnable> queue = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runAll() {
+            Runnable command;
+            while ((command = queue.poll()) != null) {
+                command.run();
+            }
+        }
+    }
+
+    private static class RecordTask implements FairStreamScheduler.Task {
+        private final List<String> result;
+        private final String key;
+        private boolean shed;
+
+        RecordTask(List<String> result, String key) {
+            this.result = result;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            result.add(key);
+        }
+
+        @Override
+        public void onShed() {
+            shed = true;
+        }
+    }
+}
@@ -28,9 +28,17 @@ import com.navercorp.pinpoint.profiler.util.AnnotationValueMapper;
  */
 public class Annotation {
 
+    private static final byte OBJECT_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+
     private int key;
     private Object value;
 
+    // primitive slot, avoid boxing of int/long value
+    private byte valueType = OBJECT_VALUE;
+    private long primitiveValue;
+
     public Annotation(int key) {
         this.key = key;
     }
@@ -63,25 +71,81 @@ public class Annotation {
 
 
     public Annotation(int key, int value) {
-        this.key = key;
-        this.value = value;
+        set(key, value);
     }
 
     public Annotation(int key, long value) {
+        set(key, value);
+    }
+
+    public Annotation(int key, LongIntIntByteByteStringValue value) {
         this.key = key;
         this.value = value;
     }
 
-    public Annotation(int key, LongIntIntByteByteStringValue value) {
+    void set(int key, Object value) {
+        this.key = key;
+        this.value = AnnotationValueMapper.checkValueType(value);
+        this.valueType = OBJECT_VALUE;
+    }
+
+    void set(int key, String value) {
         this.key = key;
         this.value = value;
+        this.valueType = OBJECT_VALUE;
+    }
+
+    void set(int key, int value) {
+        this.key = key;
+        this.value = null;
+        this.primitiveValue = value;
+        this.valueType = INT_VALUE;
+    }
+
+    void set(int key, long value) {
+        this.key = key;
+        this.value = null;
+        this.primitiveValue = value;
+        this.valueType = LONG_VALUE;
+    }
+
+    void clear() {
+        this.key = 0;
+        this.value = null;
+        this.primitiveValue = 0;
+        this.valueType = OBJECT_VALUE;
     }
 
     public int getAnnotationKey() {
         return key;
     }
 
+    public boolean isIntValue() {
+        return valueType == INT_VALUE;
+    }
+
+    public boolean isLongValue() {
+        return valueType == LONG_VALUE;
+    }
+
+    public int getIntValue() {
+        return (int) primitiveValue;
+    }
+
+    public long getLongValue() {
+        return primitiveValue;
+    }
+
+    /**
+     * primitive value is boxed on every call. use {@link #isIntValue()}, {@link #isLongValue()} on the hot path.
+     */
     public Object getValue() {
+        if (valueType == INT_VALUE) {
+            return (int) primitiveValue;
+        }
+        if (valueType == LONG_VALUE) {
+            return primitiveValue;
+        }
         return value;
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * SpanEvent pool of two levels.
+ * <p>
+ * Each thread owns a small local pool, so a traced thread takes a SpanEvent without synchronization.
+ * SpanEvents are recycled by the sender thread after serialization,
+ * they overflow from the local pool of the sender thread to the shared pool
+ * and are moved in batches to the local pool of the traced thread.
+ */
+public class PooledSpanEventRecycler implements SpanEventRecycler {
+
+    public static final int DEFAULT_LOCAL_POOL_SIZE = 64;
+    public static final int DEFAULT_SHARED_POOL_SIZE = 4096;
+
+    private final int localPoolSize;
+    private final int transferSize;
+    private final BlockingQueue<SpanEvent> sharedPool;
+
+    private final ThreadLocal<List<SpanEvent>> localPool = new ThreadLocal<List<SpanEvent>>() {
+        @Override
+        protected List<SpanEvent> initialValue() {
+            return new ArrayList<SpanEvent>(localPoolSize);
+        }
+    };
+
+    public PooledSpanEventRecycler() {
+        this(DEFAULT_LOCAL_POOL_SIZE, DEFAULT_SHARED_POOL_SIZE);
+    }
+
+    public PooledSpanEventRecycler(int localPoolSize, int sharedPoolSize) {
+        Assert.isTrue(localPoolSize > 0, "localPoolSize must be greater than 0");
+        Assert.isTrue(sharedPoolSize > 0, "sharedPoolSize must be greater than 0");
+        this.localPoolSize = localPoolSize;
+        this.transferSize = Math.max(1, localPoolSize / 2);
+        this.sharedPool = new ArrayBlockingQueue<SpanEvent>(sharedPoolSize);
+    }
+
+    @Override
+    public SpanEvent newSpanEvent() {
+        final List<SpanEvent> local = localPool.get();
+        if (local.isEmpty()) {
+            sharedPool.drainTo(local, transferSize);
+            if (local.isEmpty()) {
+                return new SpanEvent();
+            }
+        }
+        return local.remove(local.size() - 1);
+    }
+
+    @Override
+    public void recycle(List<SpanEvent> spanEventList) {
+        if (spanEventList == null) {
+            return;
+        }
+        final List<SpanEvent> local = localPool.get();
+        for (int i = 0; i < spanEventList.size(); i++) {
+            final SpanEvent spanEvent = spanEventList.get(i);
+            if (spanEvent.getClass() != SpanEvent.class) {
+                // dummy or unknown SpanEvent
+                continue;
+            }
+            spanEvent.reset();
+            if (local.size() >= localPoolSize) {
+                transferToShared(local);
+            }
+            local.add(spanEvent);
+        }
+    }
+
+    private void transferToShared(List<SpanEvent> local) {
+        for (int i = 0; i < transferSize; i++) {
+            final SpanEvent spanEvent = local.remove(local.size() - 1);
+            if (!sharedPool.offer(spanEvent)) {
+                // shared pool is full, leave it to GC
+                return;
+            }
+        }
+    }
+
+    int getSharedPoolSize() {
+        return sharedPool.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledSpanEventRecycler{" +
+                "localPoolSize=" + localPoolSize +
+                ", sharedPoolSize=" + (sharedPool.size() + sharedPool.remainingCapacity()) +
+                '}';
+    }
+}
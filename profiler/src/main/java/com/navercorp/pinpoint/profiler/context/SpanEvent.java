@@ -29,6 +29,8 @@ import java.util.List;
  */
 public class SpanEvent extends DefaultFrameAttachment {
 
+    private static final int MAX_RECYCLED_ANNOTATION_SIZE = 16;
+
     private boolean timeRecording = true;
     private int stackId;
 
@@ -52,6 +54,9 @@ public class SpanEvent extends DefaultFrameAttachment {
 
     private AsyncId asyncIdObject;
 
+    // annotations of the previous use, reused when this SpanEvent is recycled
+    private List<Annotation> recycledAnnotations;
+
     public SpanEvent() {
     }
 
@@ -62,6 +67,38 @@ public class SpanEvent extends DefaultFrameAttachment {
         this.annotations.add(annotation);
     }
 
+    public void addAnnotation(int key, String value) {
+        final Annotation annotation = nextAnnotation();
+        annotation.set(key, value);
+        addAnnotation(annotation);
+    }
+
+    public void addAnnotation(int key, int value) {
+        final Annotation annotation = nextAnnotation();
+        annotation.set(key, value);
+        addAnnotation(annotation);
+    }
+
+    public void addAnnotation(int key, long value) {
+        final Annotation annotation = nextAnnotation();
+        annotation.set(key, value);
+        addAnnotation(annotation);
+    }
+
+    public void addAnnotation(int key, Object value) {
+        final Annotation annotation = nextAnnotation();
+        annotation.set(key, value);
+        addAnnotation(annotation);
+    }
+
+    private Annotation nextAnnotation() {
+        final List<Annotation> recycled = this.recycledAnnotations;
+        if (recycled == null || recycled.isEmpty()) {
+            return new Annotation(0);
+        }
+        return recycled.remove(recycled.size() - 1);
+    }
+
     public void setExceptionInfo(int exceptionClassId, String exceptionMessage) {
         final IntStringValue exceptionInfo = new IntStringValue(exceptionClassId, exceptionMessage);
         this.exceptionInfo = exceptionInfo;
@@ -205,6 +242,42 @@ public class SpanEvent extends DefaultFrameAttachment {
         return asyncIdObject;
     }
 
+    /**
+     * Restore the initial state so that the instance can be reused by {@link SpanEventRecycler}.
+     * Annotations are kept and reused by {@link #addAnnotation(int, Object)}.
+     */
+    void reset() {
+        this.timeRecording = true;
+        this.stackId = 0;
+        this.startTime = 0;
+        this.elapsedTime = 0;
+        this.sequence = 0;
+        this.serviceType = 0;
+        this.endPoint = null;
+        this.depth = -1;
+        this.nextSpanId = -1;
+        this.destinationId = null;
+        this.apiId = 0;
+        this.exceptionInfo = null;
+        this.asyncIdObject = null;
+        detachFrameObject();
+
+        final List<Annotation> annotations = this.annotations;
+        if (annotations != null) {
+            if (this.recycledAnnotations == null) {
+                this.recycledAnnotations = new ArrayList<Annotation>(Math.min(annotations.size(), MAX_RECYCLED_ANNOTATION_SIZE));
+            }
+            final List<Annotation> recycledAnnotations = this.recycledAnnotations;
+            final int recycleSize = Math.min(annotations.size(), MAX_RECYCLED_ANNOTATION_SIZE - recycledAnnotations.size());
+            for (int i = 0; i < recycleSize; i++) {
+                final Annotation annotation = annotations.get(i);
+                annotation.clear();
+                recycledAnnotations.add(annotation);
+            }
+            annotations.clear();
+        }
+    }
+
     @Override
     public String toString() {
         return "SpanEvent{" +
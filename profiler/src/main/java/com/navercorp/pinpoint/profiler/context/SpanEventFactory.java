@@ -16,10 +16,23 @@
 
 package com.navercorp.pinpoint.profiler.context;
 
+import java.util.Objects;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
 public class SpanEventFactory implements CallStack.Factory<SpanEvent> {
+
+    private final SpanEventRecycler spanEventRecycler;
+
+    public SpanEventFactory() {
+        this(EmptySpanEventRecycler.INSTANCE);
+    }
+
+    public SpanEventFactory(SpanEventRecycler spanEventRecycler) {
+        this.spanEventRecycler = Objects.requireNonNull(spanEventRecycler, "spanEventRecycler");
+    }
+
     @Override
     public Class<SpanEvent> getType() {
         return SpanEvent.class;
@@ -27,7 +40,7 @@ public class SpanEventFactory implements CallStack.Factory<SpanEvent> {
 
     @Override
     public SpanEvent newInstance() {
-        return new SpanEvent();
+        return spanEventRecycler.newSpanEvent();
     }
 
     @Override
@@ -56,7 +69,9 @@ public class SpanEventFactory implements CallStack.Factory<SpanEvent> {
 
     @Override
     public String toString() {
-        return "SpanEventFactory{}";
+        return "SpanEventFactory{" +
+                "spanEventRecycler=" + spanEventRecycler +
+                '}';
     }
 
     private static class DummySpanEvent extends SpanEvent {
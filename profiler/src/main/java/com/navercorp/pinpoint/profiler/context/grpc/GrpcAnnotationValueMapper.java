@@ -42,6 +42,18 @@ public class GrpcAnnotationValueMapper {
     private final PAnnotationValue.Builder annotationBuilder = PAnnotationValue.newBuilder();
     private final StringValue.Builder stringValueBuilder = StringValue.newBuilder();
 
+    public PAnnotationValue buildPAnnotationValue(int value) {
+        PAnnotationValue.Builder builder = getAnnotationBuilder();
+        builder.setIntValue(value);
+        return builder.build();
+    }
+
+    public PAnnotationValue buildPAnnotationValue(long value) {
+        PAnnotationValue.Builder builder = getAnnotationBuilder();
+        builder.setLongValue(value);
+        return builder.build();
+    }
+
     public PAnnotationValue buildPAnnotationValue(Object value) {
         if (value == null) {
             return null;
@@ -38,10 +38,12 @@ import com.navercorp.pinpoint.io.SpanVersion;
 import com.navercorp.pinpoint.profiler.context.Annotation;
 import com.navercorp.pinpoint.profiler.context.AsyncId;
 import com.navercorp.pinpoint.profiler.context.AsyncSpanChunk;
+import com.navercorp.pinpoint.profiler.context.EmptySpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.LocalAsyncId;
 import com.navercorp.pinpoint.profiler.context.Span;
 import com.navercorp.pinpoint.profiler.context.SpanChunk;
 import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.compress.SpanProcessor;
 import com.navercorp.pinpoint.profiler.context.id.Shared;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
@@ -69,12 +71,20 @@ public class GrpcSpanMessageConverter implements MessageConverter<GeneratedMessa
 
     private final PAnnotation.Builder pAnnotationBuilder = PAnnotation.newBuilder();
 
+    private final SpanEventRecycler spanEventRecycler;
+
     public GrpcSpanMessageConverter(String agentId, short applicationServiceType,
                                     SpanProcessor<PSpan.Builder, PSpanChunk.Builder> spanProcessor) {
+        this(agentId, applicationServiceType, spanProcessor, EmptySpanEventRecycler.INSTANCE);
+    }
+
+    public GrpcSpanMessageConverter(String agentId, short applicationServiceType,
+                                    SpanProcessor<PSpan.Builder, PSpanChunk.Builder> spanProcessor,
+                                    SpanEventRecycler spanEventRecycler) {
         this.agentId = Objects.requireNonNull(agentId, "agentId");
         this.applicationServiceType = applicationServiceType;
         this.spanProcessor = Objects.requireNonNull(spanProcessor, "spanProcessor");
-
+        this.spanEventRecycler = Objects.requireNonNull(spanEventRecycler, "spanEventRecycler");
     }
 
     @Override
@@ -82,11 +92,15 @@ public class GrpcSpanMessageConverter implements MessageConverter<GeneratedMessa
         if (message instanceof SpanChunk) {
             final SpanChunk spanChunk = (SpanChunk) message;
             final PSpanChunk pSpanChunk = buildPSpanChunk(spanChunk);
+            // SpanEvents are not used after serialization
+            spanEventRecycler.recycle(spanChunk.getSpanEventList());
             return pSpanChunk;
         }
         if (message instanceof Span) {
             final Span span = (Span) message;
-            return buildPSpan(span);
+            final PSpan pSpan = buildPSpan(span);
+            spanEventRecycler.recycle(span.getSpanEventList());
+            return pSpan;
         }
         return null;
     }
@@ -361,7 +375,7 @@ public class GrpcSpanMessageConverter implements MessageConverter<GeneratedMessa
         for (Annotation annotation : annotations) {
             final PAnnotation.Builder builder = getAnnotationBuilder();
             builder.setKey(annotation.getAnnotationKey());
-            final PAnnotationValue pAnnotationValue = grpcAnnotationValueMapper.buildPAnnotationValue(annotation.getValue());
+            final PAnnotationValue pAnnotationValue = buildPAnnotationValue(annotation);
             if (pAnnotationValue != null) {
                 builder.setValue(pAnnotationValue);
             }
@@ -371,6 +385,16 @@ public class GrpcSpanMessageConverter implements MessageConverter<GeneratedMessa
         return tAnnotationList;
     }
 
+    private PAnnotationValue buildPAnnotationValue(Annotation annotation) {
+        if (annotation.isIntValue()) {
+            return grpcAnnotationValueMapper.buildPAnnotationValue(annotation.getIntValue());
+        }
+        if (annotation.isLongValue()) {
+            return grpcAnnotationValueMapper.buildPAnnotationValue(annotation.getLongValue());
+        }
+        return grpcAnnotationValueMapper.buildPAnnotationValue(annotation.getValue());
+    }
+
     private PAnnotation.Builder getAnnotationBuilder() {
         this.pAnnotationBuilder.clear();
         return pAnnotationBuilder;
@@ -387,6 +411,7 @@ public class GrpcSpanMessageConverter implements MessageConverter<GeneratedMessa
                 "agentId='" + agentId + '\'' +
                 ", applicationServiceType=" + applicationServiceType +
                 ", spanProcessor=" + spanProcessor +
+                ", spanEventRecycler=" + spanEventRecycler +
                 '}';
     }
 }
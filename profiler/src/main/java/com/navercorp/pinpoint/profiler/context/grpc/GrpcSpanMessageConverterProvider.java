@@ -20,6 +20,7 @@ import com.google.protobuf.GeneratedMessageV3;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.grpc.trace.PSpan;
 import com.navercorp.pinpoint.grpc.trace.PSpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.compress.SpanProcessor;
 import com.navercorp.pinpoint.profiler.context.module.AgentId;
 import com.navercorp.pinpoint.profiler.context.module.ApplicationServerType;
@@ -38,17 +39,20 @@ public class GrpcSpanMessageConverterProvider implements Provider<MessageConvert
     private final short applicationServiceTypeCode;
 
     private final SpanProcessor<PSpan.Builder, PSpanChunk.Builder> spanPostProcessor;
+    private final SpanEventRecycler spanEventRecycler;
 
     @Inject
     public GrpcSpanMessageConverterProvider(@AgentId String agentId, @ApplicationServerType ServiceType applicationServiceType,
-                                            SpanProcessor<PSpan.Builder, PSpanChunk.Builder> spanPostProcessor) {
+                                            SpanProcessor<PSpan.Builder, PSpanChunk.Builder> spanPostProcessor,
+                                            SpanEventRecycler spanEventRecycler) {
         this.agentId = Objects.requireNonNull(agentId, "agentId");
         this.applicationServiceTypeCode = applicationServiceType.getCode();
         this.spanPostProcessor = Objects.requireNonNull(spanPostProcessor, "spanPostProcessor");
+        this.spanEventRecycler = Objects.requireNonNull(spanEventRecycler, "spanEventRecycler");
     }
 
     @Override
     public MessageConverter<GeneratedMessageV3> get() {
-        return new GrpcSpanMessageConverter(agentId, applicationServiceTypeCode, spanPostProcessor);
+        return new GrpcSpanMessageConverter(agentId, applicationServiceTypeCode, spanPostProcessor, spanEventRecycler);
     }
 }
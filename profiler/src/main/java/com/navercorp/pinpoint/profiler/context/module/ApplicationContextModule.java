@@ -46,6 +46,7 @@ import com.navercorp.pinpoint.profiler.context.CallStackFactory;
 import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
 import com.navercorp.pinpoint.profiler.context.ServerMetaDataRegistryService;
 import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.SpanFactory;
 import com.navercorp.pinpoint.profiler.context.ThreadLocalBinder;
 import com.navercorp.pinpoint.profiler.context.TraceFactory;
@@ -76,7 +77,9 @@ import com.navercorp.pinpoint.profiler.context.provider.ApplicationServerTypePro
 import com.navercorp.pinpoint.profiler.context.provider.AsyncContextFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.AsyncTraceContextProvider;
 import com.navercorp.pinpoint.profiler.context.provider.BaseTraceFactoryProvider;
+import com.navercorp.pinpoint.profiler.context.provider.BufferedStorageFlusherProvider;
 import com.navercorp.pinpoint.profiler.context.provider.CallStackFactoryProvider;
+import com.navercorp.pinpoint.profiler.context.provider.SpanEventRecyclerProvider;
 import com.navercorp.pinpoint.profiler.context.provider.ClassFileTransformerProvider;
 import com.navercorp.pinpoint.profiler.context.provider.DataSourceMonitorRegistryServiceProvider;
 import com.navercorp.pinpoint.profiler.context.provider.DeadlockMonitorProvider;
@@ -109,6 +112,7 @@ import com.navercorp.pinpoint.profiler.context.recorder.DefaultRecorderFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.DefaultRequestRecorderFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.RecorderFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.proxy.ProxyRequestParserLoaderService;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFlusher;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
 import com.navercorp.pinpoint.profiler.interceptor.factory.ExceptionHandlerFactory;
@@ -158,6 +162,7 @@ public class ApplicationContextModule extends AbstractModule {
 
         bind(ServerMetaDataRegistryService.class).toProvider(ServerMetaDataRegistryServiceProvider.class).in(Scopes.SINGLETON);
         bind(ServerMetaDataHolder.class).toProvider(ServerMetaDataHolderProvider.class).in(Scopes.SINGLETON);
+        bind(BufferedStorageFlusher.class).toProvider(BufferedStorageFlusherProvider.class).in(Scopes.SINGLETON);
         bind(StorageFactory.class).toProvider(StorageFactoryProvider.class).in(Scopes.SINGLETON);
 
         bindServiceComponent();
@@ -226,6 +231,7 @@ public class ApplicationContextModule extends AbstractModule {
         bind(TraceRootFactory.class).to(DefaultTraceRootFactory.class).in(Scopes.SINGLETON);
         bind(TraceIdFactory.class).to(DefaultTraceIdFactory.class).in(Scopes.SINGLETON);
 
+        bind(SpanEventRecycler.class).toProvider(SpanEventRecyclerProvider.class).in(Scopes.SINGLETON);
         TypeLiteral<CallStackFactory<SpanEvent>> callStackFactoryKey = new TypeLiteral<CallStackFactory<SpanEvent>>() {};
         bind(callStackFactoryKey).toProvider(CallStackFactoryProvider.class).in(Scopes.SINGLETON);
 
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.profiler.context.CallStackFactory;
 import com.navercorp.pinpoint.profiler.context.CallStackFactoryV1;
 import com.navercorp.pinpoint.profiler.context.CallStackFactoryV2;
 import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.TraceDataFormatVersion;
 
 import java.util.Objects;
@@ -34,22 +35,24 @@ public class CallStackFactoryProvider implements Provider<CallStackFactory<SpanE
 
     private final TraceDataFormatVersion version;
     private final int callStackMaxDepth;
-
+    private final SpanEventRecycler spanEventRecycler;
 
     @Inject
     public CallStackFactoryProvider(@Named("profiler.callstack.max.depth") int callStackMaxDepth,
-                                    TraceDataFormatVersion version) {
+                                    TraceDataFormatVersion version,
+                                    SpanEventRecycler spanEventRecycler) {
         this.version = Objects.requireNonNull(version, "version");
         this.callStackMaxDepth = callStackMaxDepth;
+        this.spanEventRecycler = Objects.requireNonNull(spanEventRecycler, "spanEventRecycler");
     }
 
     @Override
     public CallStackFactory<SpanEvent> get() {
         if (version == TraceDataFormatVersion.V2) {
-            return new CallStackFactoryV2(callStackMaxDepth);
+            return new CallStackFactoryV2(callStackMaxDepth, spanEventRecycler);
         }
         if (version == TraceDataFormatVersion.V1) {
-            return new CallStackFactoryV1(callStackMaxDepth);
+            return new CallStackFactoryV1(callStackMaxDepth, spanEventRecycler);
         }
         throw new UnsupportedOperationException("unknown version :" + version);
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.config.TransportModule;
+import com.navercorp.pinpoint.profiler.context.EmptySpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.PooledSpanEventRecycler;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+public class SpanEventRecyclerProvider implements Provider<SpanEventRecycler> {
+
+    public static final String SPAN_EVENT_RECYCLE_ENABLE = "profiler.span.event.recycle.enable";
+    public static final String SPAN_EVENT_RECYCLE_LOCAL_POOL_SIZE = "profiler.span.event.recycle.local.pool.size";
+    public static final String SPAN_EVENT_RECYCLE_SHARED_POOL_SIZE = "profiler.span.event.recycle.shared.pool.size";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ProfilerConfig profilerConfig;
+
+    @Inject
+    public SpanEventRecyclerProvider(ProfilerConfig profilerConfig) {
+        this.profilerConfig = Objects.requireNonNull(profilerConfig, "profilerConfig");
+    }
+
+    @Override
+    public SpanEventRecycler get() {
+        final boolean enable = profilerConfig.readBoolean(SPAN_EVENT_RECYCLE_ENABLE, false);
+        if (!enable) {
+            return EmptySpanEventRecycler.INSTANCE;
+        }
+        // only the grpc span converter recycles SpanEvent
+        final TransportModule transportModule = profilerConfig.getTransportModule();
+        if (TransportModule.GRPC != transportModule) {
+            logger.info("{} is not supported. TransportModule:{}", SPAN_EVENT_RECYCLE_ENABLE, transportModule);
+            return EmptySpanEventRecycler.INSTANCE;
+        }
+        final int localPoolSize = profilerConfig.readInt(SPAN_EVENT_RECYCLE_LOCAL_POOL_SIZE, PooledSpanEventRecycler.DEFAULT_LOCAL_POOL_SIZE);
+        final int sharedPoolSize = profilerConfig.readInt(SPAN_EVENT_RECYCLE_SHARED_POOL_SIZE, PooledSpanEventRecycler.DEFAULT_SHARED_POOL_SIZE);
+        final SpanEventRecycler spanEventRecycler = new PooledSpanEventRecycler(localPoolSize, sharedPoolSize);
+        logger.info("{}", spanEventRecycler);
+        return spanEventRecycler;
+    }
+}
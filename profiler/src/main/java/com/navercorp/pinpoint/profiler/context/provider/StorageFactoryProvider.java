@@ -21,7 +21,9 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import java.util.Objects;
 import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageConfig;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFlusher;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorage;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorageFactory;
@@ -34,13 +36,18 @@ import org.slf4j.LoggerFactory;
  */
 public class StorageFactoryProvider implements Provider<StorageFactory> {
 
+    public static final String IO_BUFFERING_MAX_BYTES = "profiler.io.buffering.max.bytes";
+    public static final String IO_BUFFERING_MAX_AGE = "profiler.io.buffering.max.age";
+
     private final ProfilerConfig profilerConfig;
     private final DataSender spanDataSender;
+    private final BufferedStorageFlusher flusher;
 
     @Inject
-    public StorageFactoryProvider(ProfilerConfig profilerConfig, @SpanDataSender DataSender spanDataSender) {
+    public StorageFactoryProvider(ProfilerConfig profilerConfig, @SpanDataSender DataSender spanDataSender, BufferedStorageFlusher flusher) {
         this.profilerConfig = Objects.requireNonNull(profilerConfig, "profilerConfig");
         this.spanDataSender = Objects.requireNonNull(spanDataSender, "spanDataSender");
+        this.flusher = Objects.requireNonNull(flusher, "flusher");
     }
 
     @Override
@@ -55,12 +62,22 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
     private StorageFactory newStorageFactory() {
         if (profilerConfig.isIoBufferingEnable()) {
             int ioBufferingBufferSize = this.profilerConfig.getIoBufferingBufferSize();
-            return new BufferedStorageFactory(ioBufferingBufferSize, this.spanDataSender);
+            int maxBufferBytes = this.profilerConfig.readInt(IO_BUFFERING_MAX_BYTES, BufferedStorageConfig.DISABLED);
+            long maxBufferAge = getMaxBufferAge(profilerConfig);
+            BufferedStorageConfig config = new BufferedStorageConfig(ioBufferingBufferSize, maxBufferBytes, maxBufferAge);
+            return new BufferedStorageFactory(config, this.spanDataSender, this.flusher);
         } else {
             return new BufferedStorageFactory(Integer.MAX_VALUE, this.spanDataSender);
         }
     }
 
+    static long getMaxBufferAge(ProfilerConfig profilerConfig) {
+        if (!profilerConfig.isIoBufferingEnable()) {
+            return BufferedStorageConfig.DISABLED;
+        }
+        return profilerConfig.readLong(IO_BUFFERING_MAX_AGE, BufferedStorageConfig.DISABLED);
+    }
+
     @Override
     public String toString() {
         return "StorageFactoryProvider{" +
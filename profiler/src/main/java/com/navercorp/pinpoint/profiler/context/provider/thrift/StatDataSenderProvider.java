@@ -21,11 +21,14 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.profiler.context.module.StatDataSender;
 import com.navercorp.pinpoint.profiler.context.thrift.MessageConverter;
 import com.navercorp.pinpoint.profiler.context.thrift.config.ThriftTransportConfig;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueType;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutorConfig;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.MessageSerializer;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.ThriftMessageSerializer;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
+import com.navercorp.pinpoint.profiler.sender.WaitStrategy;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
 import org.apache.thrift.TBase;
 import org.slf4j.Logger;
@@ -47,6 +50,7 @@ public class StatDataSenderProvider implements Provider<DataSender> {
     private final String ip;
     private final int port;
     private final int writeQueueSize;
+    private final AsyncQueueingExecutorConfig executorConfig;
     private final int timeout;
     private final int sendBufferSize;
     private final String ioType;
@@ -63,6 +67,7 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         this.ip = thriftTransportConfig.getCollectorStatServerIp();
         this.port = thriftTransportConfig.getCollectorStatServerPort();
         this.writeQueueSize = thriftTransportConfig.getStatDataSenderWriteQueueSize();
+        this.executorConfig = newExecutorConfig(thriftTransportConfig);
         this.timeout = thriftTransportConfig.getStatDataSenderSocketTimeout();
         this.sendBufferSize = thriftTransportConfig.getStatDataSenderSocketSendBufferSize();
         this.ioType = thriftTransportConfig.getStatDataSenderSocketType();
@@ -70,6 +75,13 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         this.messageConverter = messageConverter;
     }
 
+    private AsyncQueueingExecutorConfig newExecutorConfig(ThriftTransportConfig thriftTransportConfig) {
+        final AsyncQueueType queueType = AsyncQueueType.getValue(thriftTransportConfig.getStatDataSenderWriteQueueType(), AsyncQueueType.BLOCKING);
+        final int drainSize = thriftTransportConfig.getStatDataSenderWriteQueueDrainSize();
+        final WaitStrategy waitStrategy = WaitStrategy.getValue(thriftTransportConfig.getStatDataSenderWriteQueueWaitStrategy(), WaitStrategy.PARK);
+        return new AsyncQueueingExecutorConfig(queueType, drainSize, waitStrategy);
+    }
+
     @Override
     public DataSender get() {
         if ("TCP".equalsIgnoreCase(transportType)) {
@@ -79,9 +91,9 @@ public class StatDataSenderProvider implements Provider<DataSender> {
 
             PinpointClientFactory pinpointClientFactory = clientFactoryProvider.get();
             MessageSerializer<byte[]> messageSerializer = new ThriftMessageSerializer(messageConverter);
-            return new TcpDataSender("StatDataSender", ip, port, pinpointClientFactory, messageSerializer, writeQueueSize);
+            return new TcpDataSender("StatDataSender", ip, port, pinpointClientFactory, messageSerializer, writeQueueSize, executorConfig);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, messageConverter);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, messageConverter, executorConfig);
             return factory.create(ioType);
         }
     }
@@ -92,6 +104,7 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         sb.append("ip='").append(ip).append('\'');
         sb.append(", port=").append(port);
         sb.append(", writeQueueSize=").append(writeQueueSize);
+        sb.append(", executorConfig=").append(executorConfig);
         sb.append(", timeout=").append(timeout);
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
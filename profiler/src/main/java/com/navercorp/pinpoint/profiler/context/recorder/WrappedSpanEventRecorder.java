@@ -107,8 +107,7 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
     }
 
     private void recordSqlParam(IntStringStringValue intStringStringValue) {
-        Annotation annotation = new Annotation(AnnotationKey.SQL_ID.getCode(), intStringStringValue);
-        spanEvent.addAnnotation(annotation);
+        spanEvent.addAnnotation(AnnotationKey.SQL_ID.getCode(), intStringStringValue);
     }
 
     @Override
@@ -161,6 +160,22 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
         spanEvent.addAnnotation(annotation);
     }
 
+    // SpanEvent reuses the Annotation when recycled
+    @Override
+    public void recordAttribute(AnnotationKey key, String value) {
+        spanEvent.addAnnotation(key.getCode(), value);
+    }
+
+    @Override
+    public void recordAttribute(AnnotationKey key, int value) {
+        spanEvent.addAnnotation(key.getCode(), value);
+    }
+
+    @Override
+    public void recordAttribute(AnnotationKey key, Object value) {
+        spanEvent.addAnnotation(key.getCode(), value);
+    }
+
     @Override
     public void recordServiceType(ServiceType serviceType) {
         spanEvent.setServiceType(serviceType.getCode());
@@ -35,41 +35,109 @@ public class BufferedStorage implements Storage {
     private static final Logger logger = LoggerFactory.getLogger(BufferedStorage.class);
     private static final boolean isDebug = logger.isDebugEnabled();
 
-    private static final int DEFAULT_BUFFER_SIZE = 20;
-
     private final int bufferSize;
+    private final int maxBufferBytes;
+    private final long maxBufferAge;
 
     private final SpanChunkFactory spanChunkFactory;
     private List<SpanEvent> storage;
     private final DataSender<Object> dataSender;
+    // flushes the buffer by age when no more SpanEvent is stored, null if disabled
+    private final BufferedStorageFlusher flusher;
 
+    // estimated serialized bytes of the buffer
+    private int bufferBytes;
+    // time of the first buffered SpanEvent
+    private long bufferStartTime;
+    // registered to the flusher
+    private boolean flushScheduled;
 
 
     public BufferedStorage(SpanChunkFactory spanChunkFactory, DataSender<Object> dataSender, int bufferSize) {
+        this(spanChunkFactory, dataSender, new BufferedStorageConfig(bufferSize, BufferedStorageConfig.DISABLED, BufferedStorageConfig.DISABLED));
+    }
+
+    public BufferedStorage(SpanChunkFactory spanChunkFactory, DataSender<Object> dataSender, BufferedStorageConfig config) {
+        this(spanChunkFactory, dataSender, config, null);
+    }
+
+    /**
+     * @param flusher flushes the buffer older than the max buffer age of the config, nullable
+     */
+    public BufferedStorage(SpanChunkFactory spanChunkFactory, DataSender<Object> dataSender, BufferedStorageConfig config, BufferedStorageFlusher flusher) {
         this.spanChunkFactory = Objects.requireNonNull(spanChunkFactory, "spanChunkFactory");
         this.dataSender = Objects.requireNonNull(dataSender, "dataSender");
-        this.bufferSize = bufferSize;
+        Objects.requireNonNull(config, "config");
+        this.bufferSize = config.getBufferSize();
+        this.maxBufferBytes = config.getMaxBufferBytes();
+        this.maxBufferAge = config.getMaxBufferAge();
+        this.flusher = config.isMaxBufferAgeEnabled() ? flusher : null;
         this.storage = allocateBuffer();
     }
 
+    // synchronized with the flusher thread
     @Override
-    public void store(SpanEvent spanEvent) {
+    public synchronized void store(SpanEvent spanEvent) {
         final List<SpanEvent> storage = getBuffer();
         storage.add(spanEvent);
 
-        if (overflow(storage)) {
+        if (overflow(storage, spanEvent)) {
             final List<SpanEvent> flushData = clearBuffer();
             sendSpanChunk(flushData);
         }
     }
 
-    private boolean overflow(List<SpanEvent> storage) {
-        return storage.size() >= bufferSize;
+    private boolean overflow(List<SpanEvent> storage, SpanEvent spanEvent) {
+        if (storage.size() >= bufferSize) {
+            return true;
+        }
+        if (maxBufferBytes > 0) {
+            this.bufferBytes += SpanEventSizeEstimator.estimate(spanEvent);
+            if (bufferBytes >= maxBufferBytes) {
+                return true;
+            }
+        }
+        if (maxBufferAge > 0) {
+            final long currentTime = System.currentTimeMillis();
+            if (storage.size() == 1) {
+                this.bufferStartTime = currentTime;
+                scheduleFlush();
+                return false;
+            }
+            return currentTime - bufferStartTime >= maxBufferAge;
+        }
+        return false;
+    }
+
+
+    private void scheduleFlush() {
+        if (flusher != null && !flushScheduled) {
+            this.flushScheduled = true;
+            flusher.register(this);
+        }
     }
 
+    /**
+     * Flushes the buffer if the first buffered SpanEvent is older than the max buffer age.
+     * @return true if nothing is buffered after the call, the storage does not need to be checked again
+     */
+    synchronized boolean flushIfExpired(long currentTime) {
+        final List<SpanEvent> storage = this.storage;
+        if (storage == null || storage.isEmpty()) {
+            this.flushScheduled = false;
+            return true;
+        }
+        if (currentTime - bufferStartTime < maxBufferAge) {
+            return false;
+        }
+        this.flushScheduled = false;
+        sendSpanChunk(clearBuffer());
+        return true;
+    }
 
     private List<SpanEvent> allocateBuffer() {
-        return new ArrayList<SpanEvent>(this.bufferSize);
+        // do not pre-allocate a huge buffer. e.g. bufferSize=Integer.MAX_VALUE when io buffering is disabled
+        return new ArrayList<SpanEvent>(Math.min(this.bufferSize, BufferedStorageConfig.DEFAULT_BUFFER_SIZE));
     }
 
     private List<SpanEvent> getBuffer() {
@@ -84,11 +152,12 @@ public class BufferedStorage implements Storage {
     private List<SpanEvent> clearBuffer() {
         final List<SpanEvent> copy = this.storage;
         this.storage = null;
+        this.bufferBytes = 0;
         return copy;
     }
 
     @Override
-    public void store(Span span) {
+    public synchronized void store(Span span) {
         final List<SpanEvent> spanEventList = clearBuffer();
         span.setSpanEventList(spanEventList);
         span.finish();
@@ -104,7 +173,7 @@ public class BufferedStorage implements Storage {
         }
     }
 
-    public void flush() {
+    public synchronized void flush() {
         final List<SpanEvent> spanEventList = clearBuffer();
         if (CollectionUtils.hasLength(spanEventList)) {
             sendSpanChunk(spanEventList);
@@ -128,10 +197,18 @@ public class BufferedStorage implements Storage {
 
     @Override
     public void close() {
+        if (flusher != null) {
+            flushIfExpired(System.currentTimeMillis());
+        }
     }
 
     @Override
     public String toString() {
-        return "BufferedStorage{" + "bufferSize=" + bufferSize + ", dataSender=" + dataSender + '}';
+        return "BufferedStorage{" +
+                "bufferSize=" + bufferSize +
+                ", maxBufferBytes=" + maxBufferBytes +
+                ", maxBufferAge=" + maxBufferAge +
+                ", dataSender=" + dataSender +
+                '}';
     }
 }
\ No newline at end of file
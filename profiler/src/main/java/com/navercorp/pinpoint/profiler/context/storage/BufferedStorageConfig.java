@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+/**
+ * Flush policy of {@link BufferedStorage}.
+ * A SpanChunk is flushed when any of the limits is reached. a limit less than or equal to 0 is disabled.
+ */
+public final class BufferedStorageConfig {
+
+    public static final int DEFAULT_BUFFER_SIZE = 20;
+    public static final int DISABLED = -1;
+
+    public static final BufferedStorageConfig DEFAULT = new BufferedStorageConfig(DEFAULT_BUFFER_SIZE, DISABLED, DISABLED);
+
+    private final int bufferSize;
+    private final int maxBufferBytes;
+    private final long maxBufferAge;
+
+    /**
+     * @param bufferSize     max SpanEvent count of a SpanChunk
+     * @param maxBufferBytes max estimated serialized bytes of a SpanChunk
+     * @param maxBufferAge   max millis since the first buffered SpanEvent
+     */
+    public BufferedStorageConfig(int bufferSize, int maxBufferBytes, long maxBufferAge) {
+        Assert.isTrue(bufferSize > 0, "bufferSize must be 'bufferSize > 0'");
+        this.bufferSize = bufferSize;
+        this.maxBufferBytes = maxBufferBytes;
+        this.maxBufferAge = maxBufferAge;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaxBufferBytes() {
+        return maxBufferBytes;
+    }
+
+    public boolean isMaxBufferBytesEnabled() {
+        return maxBufferBytes > 0;
+    }
+
+    public long getMaxBufferAge() {
+        return maxBufferAge;
+    }
+
+    public boolean isMaxBufferAgeEnabled() {
+        return maxBufferAge > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedStorageConfig{" +
+                "bufferSize=" + bufferSize +
+                ", maxBufferBytes=" + maxBufferBytes +
+                ", maxBufferAge=" + maxBufferAge +
+                '}';
+    }
+}
@@ -26,17 +26,26 @@ import com.navercorp.pinpoint.profiler.sender.DataSender;
 public class BufferedStorageFactory implements StorageFactory {
 
     private final DataSender dataSender;
-    private final int ioBufferingBufferSize;
+    private final BufferedStorageConfig config;
+    private final BufferedStorageFlusher flusher;
 
     public BufferedStorageFactory(int ioBufferingBufferSize, DataSender dataSender) {
+        this(new BufferedStorageConfig(ioBufferingBufferSize, BufferedStorageConfig.DISABLED, BufferedStorageConfig.DISABLED), dataSender, null);
+    }
+
+    /**
+     * @param flusher flushes the buffer older than the max buffer age of the config, nullable. started and stopped by the agent
+     */
+    public BufferedStorageFactory(BufferedStorageConfig config, DataSender dataSender, BufferedStorageFlusher flusher) {
         this.dataSender = Objects.requireNonNull(dataSender, "dataSender");
-        this.ioBufferingBufferSize = ioBufferingBufferSize;
+        this.config = Objects.requireNonNull(config, "config");
+        this.flusher = flusher;
     }
 
 
     @Override
     public Storage createStorage(SpanChunkFactory spanChunkFactory) {
-        Storage storage = new BufferedStorage(spanChunkFactory, this.dataSender, this.ioBufferingBufferSize);
+        Storage storage = new BufferedStorage(spanChunkFactory, this.dataSender, this.config, this.flusher);
         return storage;
     }
 
@@ -44,7 +53,7 @@ public class BufferedStorageFactory implements StorageFactory {
     public String toString() {
         return "BufferedStorageFactory{" +
                 "dataSender=" + dataSender +
-                ", ioBufferingBufferSize=" + ioBufferingBufferSize +
+                ", config=" + config +
                 '}';
     }
 }
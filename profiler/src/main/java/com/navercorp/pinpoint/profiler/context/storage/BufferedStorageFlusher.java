@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flushes the {@link BufferedStorage} whose first buffered SpanEvent is older than the max buffer age,
+ * e.g. an idle async trace that does not store SpanEvents any more.
+ * A storage is registered when its first SpanEvent is buffered and removed when its buffer is flushed.
+ * Started and stopped with the agent, {@link #stop()} flushes the rest before the span sender is closed.
+ */
+public class BufferedStorageFlusher {
+
+    private static final long MIN_CHECK_INTERVAL = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final long maxBufferAge;
+    private final long checkInterval;
+    private final Queue<BufferedStorage> storageQueue = new ConcurrentLinkedQueue<BufferedStorage>();
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param maxBufferAge max millis since the first buffered SpanEvent, the flusher thread is not started if less than or equal to 0
+     */
+    public BufferedStorageFlusher(long maxBufferAge) {
+        this.maxBufferAge = maxBufferAge;
+        // a buffer is flushed at most maxBufferAge + checkInterval after its first SpanEvent
+        this.checkInterval = Math.max(maxBufferAge / 2, MIN_CHECK_INTERVAL);
+    }
+
+    public synchronized void start() {
+        if (maxBufferAge <= 0) {
+            return;
+        }
+        if (executor != null) {
+            return;
+        }
+        this.executor = new ScheduledThreadPoolExecutor(1, new PinpointThreadFactory("Pinpoint-storage-flusher", true));
+        this.executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flushExpired(System.currentTimeMillis());
+            }
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        logger.info("BufferedStorageFlusher started. maxBufferAge:{}", maxBufferAge);
+    }
+
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor = null;
+        // flush the rest regardless of the age
+        flushExpired(Long.MAX_VALUE);
+        logger.info("BufferedStorageFlusher stopped");
+    }
+
+    void register(BufferedStorage storage) {
+        storageQueue.offer(storage);
+    }
+
+    void flushExpired(long currentTime) {
+        final Iterator<BufferedStorage> iterator = storageQueue.iterator();
+        while (iterator.hasNext()) {
+            final BufferedStorage storage = iterator.next();
+            try {
+                if (storage.flushIfExpired(currentTime)) {
+                    iterator.remove();
+                }
+            } catch (Throwable th) {
+                iterator.remove();
+                logger.warn("flush failed. {}", storage, th);
+            }
+        }
+    }
+
+    int getRegisteredCount() {
+        return storageQueue.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedStorageFlusher{" +
+                "maxBufferAge=" + maxBufferAge +
+                ", checkInterval=" + checkInterval +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.common.util.IntStringValue;
+import com.navercorp.pinpoint.common.util.LongIntIntByteByteStringValue;
+import com.navercorp.pinpoint.common.util.StringStringValue;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+
+import java.util.List;
+
+/**
+ * Rough estimate of the serialized size of a SpanEvent. does not have to be exact, it is cheap instead.
+ * String length is used as the byte length.
+ */
+final class SpanEventSizeEstimator {
+
+    // sequence, depth, startElapsed, endElapsed, serviceType, apiId and tags
+    static final int SPAN_EVENT_BASE_SIZE = 24;
+    // key, tag and length prefix
+    static final int ANNOTATION_BASE_SIZE = 6;
+    // tag and length prefix of a string field
+    static final int FIELD_OVERHEAD = 3;
+    static final int VARINT_SIZE = 10;
+    static final int UNKNOWN_VALUE_SIZE = 16;
+
+    private SpanEventSizeEstimator() {
+    }
+
+    static int estimate(SpanEvent spanEvent) {
+        int size = SPAN_EVENT_BASE_SIZE;
+        size += stringSize(spanEvent.getEndPoint());
+        size += stringSize(spanEvent.getDestinationId());
+        if (spanEvent.getNextSpanId() != -1) {
+            size += VARINT_SIZE;
+        }
+        if (spanEvent.getAsyncIdObject() != null) {
+            size += VARINT_SIZE;
+        }
+        final IntStringValue exceptionInfo = spanEvent.getExceptionInfo();
+        if (exceptionInfo != null) {
+            size += VARINT_SIZE + stringSize(exceptionInfo.getStringValue());
+        }
+
+        final List<Annotation> annotations = spanEvent.getAnnotations();
+        if (annotations != null) {
+            for (int i = 0; i < annotations.size(); i++) {
+                size += annotationSize(annotations.get(i));
+            }
+        }
+        return size;
+    }
+
+    static int annotationSize(Annotation annotation) {
+        if (annotation.isIntValue() || annotation.isLongValue()) {
+            return ANNOTATION_BASE_SIZE + VARINT_SIZE;
+        }
+        return ANNOTATION_BASE_SIZE + valueSize(annotation.getValue());
+    }
+
+    private static int valueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return stringSize((String) value);
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return VARINT_SIZE;
+        }
+        if (value instanceof byte[]) {
+            return FIELD_OVERHEAD + ((byte[]) value).length;
+        }
+        if (value instanceof IntStringStringValue) {
+            final IntStringStringValue v = (IntStringStringValue) value;
+            return VARINT_SIZE + stringSize(v.getStringValue1()) + stringSize(v.getStringValue2());
+        }
+        if (value instanceof IntStringValue) {
+            final IntStringValue v = (IntStringValue) value;
+            return VARINT_SIZE + stringSize(v.getStringValue());
+        }
+        if (value instanceof StringStringValue) {
+            final StringStringValue v = (StringStringValue) value;
+            return stringSize(v.getStringValue1()) + stringSize(v.getStringValue2());
+        }
+        if (value instanceof LongIntIntByteByteStringValue) {
+            final LongIntIntByteByteStringValue v = (LongIntIntByteByteStringValue) value;
+            return VARINT_SIZE * 3 + stringSize(v.getStringValue());
+        }
+        return UNKNOWN_VALUE_SIZE;
+    }
+
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        return FIELD_OVERHEAD + value.length();
+    }
+}
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.profiler.context.thrift.config;
 
 import com.navercorp.pinpoint.bootstrap.config.Value;
 import com.navercorp.pinpoint.bootstrap.config.util.ValueAnnotationProcessor;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutorConfig;
 
 import java.util.Properties;
 
@@ -45,6 +46,12 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
 
     @Value("${profiler.spandatasender.write.queue.size}")
     private int spanDataSenderWriteQueueSize = 1024 * 5;
+    @Value("${profiler.spandatasender.write.queue.type}")
+    private String spanDataSenderWriteQueueType = "BLOCKING";
+    @Value("${profiler.spandatasender.write.queue.drain.size}")
+    private int spanDataSenderWriteQueueDrainSize = AsyncQueueingExecutorConfig.DEFAULT_MAX_DRAIN_SIZE;
+    @Value("${profiler.spandatasender.write.queue.wait.strategy}")
+    private String spanDataSenderWriteQueueWaitStrategy = "PARK";
     @Value("${profiler.spandatasender.socket.sendbuffersize}")
     private int spanDataSenderSocketSendBufferSize = 1024 * 64 * 16;
     @Value("${profiler.spandatasender.socket.timeout}")
@@ -64,6 +71,12 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
 
     @Value("${profiler.statdatasender.write.queue.size}")
     private int statDataSenderWriteQueueSize = 1024 * 5;
+    @Value("${profiler.statdatasender.write.queue.type}")
+    private String statDataSenderWriteQueueType = "BLOCKING";
+    @Value("${profiler.statdatasender.write.queue.drain.size}")
+    private int statDataSenderWriteQueueDrainSize = AsyncQueueingExecutorConfig.DEFAULT_MAX_DRAIN_SIZE;
+    @Value("${profiler.statdatasender.write.queue.wait.strategy}")
+    private String statDataSenderWriteQueueWaitStrategy = "PARK";
     @Value("${profiler.statdatasender.socket.sendbuffersize}")
     private int statDataSenderSocketSendBufferSize = 1024 * 64 * 16;
     @Value("${profiler.statdatasender.socket.timeout}")
@@ -165,6 +178,21 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
         return statDataSenderWriteQueueSize;
     }
 
+    @Override
+    public String getStatDataSenderWriteQueueType() {
+        return statDataSenderWriteQueueType;
+    }
+
+    @Override
+    public int getStatDataSenderWriteQueueDrainSize() {
+        return statDataSenderWriteQueueDrainSize;
+    }
+
+    @Override
+    public String getStatDataSenderWriteQueueWaitStrategy() {
+        return statDataSenderWriteQueueWaitStrategy;
+    }
+
     @Override
     public int getStatDataSenderSocketSendBufferSize() {
         return statDataSenderSocketSendBufferSize;
@@ -200,6 +228,21 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
         return spanDataSenderWriteQueueSize;
     }
 
+    @Override
+    public String getSpanDataSenderWriteQueueType() {
+        return spanDataSenderWriteQueueType;
+    }
+
+    @Override
+    public int getSpanDataSenderWriteQueueDrainSize() {
+        return spanDataSenderWriteQueueDrainSize;
+    }
+
+    @Override
+    public String getSpanDataSenderWriteQueueWaitStrategy() {
+        return spanDataSenderWriteQueueWaitStrategy;
+    }
+
     @Override
     public int getSpanDataSenderSocketSendBufferSize() {
         return spanDataSenderSocketSendBufferSize;
@@ -310,6 +353,9 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
                 ", collectorTcpServerIp='" + collectorTcpServerIp + '\'' +
                 ", collectorTcpServerPort=" + collectorTcpServerPort +
                 ", spanDataSenderWriteQueueSize=" + spanDataSenderWriteQueueSize +
+                ", spanDataSenderWriteQueueType='" + spanDataSenderWriteQueueType + '\'' +
+                ", spanDataSenderWriteQueueDrainSize=" + spanDataSenderWriteQueueDrainSize +
+                ", spanDataSenderWriteQueueWaitStrategy='" + spanDataSenderWriteQueueWaitStrategy + '\'' +
                 ", spanDataSenderSocketSendBufferSize=" + spanDataSenderSocketSendBufferSize +
                 ", spanDataSenderSocketTimeout=" + spanDataSenderSocketTimeout +
                 ", spanDataSenderChunkSize=" + spanDataSenderChunkSize +
@@ -318,6 +364,9 @@ public class DefaultThriftTransportConfig implements ThriftTransportConfig {
                 ", spanDataSenderTransportType='" + spanDataSenderTransportType + '\'' +
                 ", spanDataSenderSocketType='" + spanDataSenderSocketType + '\'' +
                 ", statDataSenderWriteQueueSize=" + statDataSenderWriteQueueSize +
+                ", statDataSenderWriteQueueType='" + statDataSenderWriteQueueType + '\'' +
+                ", statDataSenderWriteQueueDrainSize=" + statDataSenderWriteQueueDrainSize +
+                ", statDataSenderWriteQueueWaitStrategy='" + statDataSenderWriteQueueWaitStrategy + '\'' +
                 ", statDataSenderSocketSendBufferSize=" + statDataSenderSocketSendBufferSize +
                 ", statDataSenderSocketTimeout=" + statDataSenderSocketTimeout +
                 ", statDataSenderChunkSize=" + statDataSenderChunkSize +
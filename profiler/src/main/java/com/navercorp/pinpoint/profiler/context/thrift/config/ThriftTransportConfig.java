@@ -35,6 +35,12 @@ public interface ThriftTransportConfig {
 
     int getStatDataSenderWriteQueueSize();
 
+    String getStatDataSenderWriteQueueType();
+
+    int getStatDataSenderWriteQueueDrainSize();
+
+    String getStatDataSenderWriteQueueWaitStrategy();
+
     int getStatDataSenderSocketSendBufferSize();
 
     int getStatDataSenderSocketTimeout();
@@ -50,6 +56,12 @@ public interface ThriftTransportConfig {
 
     int getSpanDataSenderWriteQueueSize();
 
+    String getSpanDataSenderWriteQueueType();
+
+    int getSpanDataSenderWriteQueueDrainSize();
+
+    String getSpanDataSenderWriteQueueWaitStrategy();
+
     int getSpanDataSenderSocketSendBufferSize();
 
     boolean isTcpDataSenderCommandAcceptEnable();
@@ -22,10 +22,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author emeroad
@@ -35,7 +34,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     private final Logger logger;
     private final boolean isWarn;
 
-    private final LinkedBlockingQueue<T> queue;
+    private final ExecutorQueue<T> queue;
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
@@ -46,17 +45,29 @@ public class AsyncQueueingExecutor<T> implements Runnable {
 
     private final AsyncQueueingExecutorListener<T> listener;
 
+    private final AtomicLong dropCount = new AtomicLong();
+
+    private static final long DROP_REPORT_INTERVAL_MILLIS = 60 * 1000;
+    // executeThread only
+    private long lastReportedDropCount = 0;
+    private long lastDropReportTime = System.currentTimeMillis();
+
 
     public AsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingExecutorListener<T> listener) {
+        this(queueSize, executorName, listener, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public AsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingExecutorListener<T> listener, AsyncQueueingExecutorConfig config) {
         Objects.requireNonNull(executorName, "executorName");
+        Objects.requireNonNull(config, "config");
 
         this.logger = LoggerFactory.getLogger(this.getClass().getName() + "@" + executorName);
         this.isWarn = logger.isWarnEnabled();
 
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = config.getMaxDrainSize();
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = ExecutorQueue.newQueue(queueSize, config);
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -86,6 +97,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
                 final int drainSize = takeN(dtoList, this.maxDrainSize);
                 if (drainSize > 0) {
                     doExecute(dtoList);
+                    reportDrop();
                     continue;
                 }
 
@@ -93,9 +105,11 @@ public class AsyncQueueingExecutor<T> implements Runnable {
                     final T dto = takeOne(timeout);
                     if (dto != null) {
                         doExecute(dto);
+                        reportDrop();
                         continue drainStartEntry;
                     } else {
                         pollTimeout(timeout);
+                        reportDrop();
                     }
                 }
             } catch (Throwable th) {
@@ -123,9 +137,28 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
     }
 
+    /**
+     * Summarizes the drops periodically, a full queue is not always visible from the per data warn log
+     * (e.g. warn log is throttled or a ring buffer overflows in bursts).
+     */
+    private void reportDrop() {
+        final long currentTime = System.currentTimeMillis();
+        if (currentTime - lastDropReportTime < DROP_REPORT_INTERVAL_MILLIS) {
+            return;
+        }
+        final long dropCount = this.dropCount.get();
+        final long newDropCount = dropCount - lastReportedDropCount;
+        if (newDropCount > 0 && isWarn) {
+            logger.warn("{} Dropped {} data in the last {}ms. queueSize:{} dropCount:{}",
+                    executorName, newDropCount, currentTime - lastDropReportTime, queue.size(), dropCount);
+        }
+        this.lastReportedDropCount = dropCount;
+        this.lastDropReportTime = currentTime;
+    }
+
     private T takeOne(long timeout) {
         try {
-            return queue.poll(timeout, TimeUnit.MILLISECONDS);
+            return queue.poll(timeout);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return null;
@@ -155,8 +188,9 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
         boolean offer = queue.offer(data);
         if (!offer) {
+            final long dropCount = this.dropCount.incrementAndGet();
             if (isWarn) {
-                logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
+                logger.warn("{} Drop data. queue is full. size:{} dropCount:{}", executorName, queue.size(), dropCount);
             }
         }
         return offer;
@@ -175,6 +209,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    /**
+     * @return the number of queued data (queue depth)
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of data discarded because the queue was full
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
@@ -193,7 +241,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
             logger.warn("{} stopped incompletely.", executorName);
         }
 
-        logger.info("{} stopped.", executorName);
+        logger.info("{} stopped. dropCount:{}", executorName, getDropCount());
     }
 
     Collection<T> getDrainQueue() {
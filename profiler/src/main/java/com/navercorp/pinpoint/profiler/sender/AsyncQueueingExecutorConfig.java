@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.Objects;
+
+public final class AsyncQueueingExecutorConfig {
+
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
+    public static final AsyncQueueingExecutorConfig DEFAULT = new AsyncQueueingExecutorConfig(AsyncQueueType.BLOCKING, DEFAULT_MAX_DRAIN_SIZE, WaitStrategy.PARK);
+
+    private final AsyncQueueType queueType;
+    private final int maxDrainSize;
+    private final WaitStrategy waitStrategy;
+
+    public AsyncQueueingExecutorConfig(AsyncQueueType queueType, int maxDrainSize, WaitStrategy waitStrategy) {
+        this.queueType = Objects.requireNonNull(queueType, "queueType");
+        Assert.isTrue(maxDrainSize > 0, "maxDrainSize must be 'maxDrainSize > 0'");
+        this.maxDrainSize = maxDrainSize;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+    }
+
+    public AsyncQueueType getQueueType() {
+        return queueType;
+    }
+
+    public int getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncQueueingExecutorConfig{" +
+                "queueType=" + queueType +
+                ", maxDrainSize=" + maxDrainSize +
+                ", waitStrategy=" + waitStrategy +
+                '}';
+    }
+}
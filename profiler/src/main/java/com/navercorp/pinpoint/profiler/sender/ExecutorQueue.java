@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of the {@link AsyncQueueingExecutor}. multi producer, single consumer.
+ */
+abstract class ExecutorQueue<T> {
+
+    static <T> ExecutorQueue<T> newQueue(int queueSize, AsyncQueueingExecutorConfig config) {
+        final AsyncQueueType queueType = config.getQueueType();
+        if (queueType == AsyncQueueType.RING_BUFFER) {
+            return new RingBufferQueue<T>(queueSize, config.getWaitStrategy());
+        }
+        return new BlockingQueue<T>(queueSize);
+    }
+
+    abstract boolean offer(T data);
+
+    /**
+     * @return null if timeout
+     */
+    abstract T poll(long timeout) throws InterruptedException;
+
+    abstract int drainTo(Collection<T> drain, int maxDrainSize);
+
+    abstract int size();
+
+    abstract boolean isEmpty();
+
+
+    static class BlockingQueue<T> extends ExecutorQueue<T> {
+
+        private final LinkedBlockingQueue<T> queue;
+
+        BlockingQueue(int queueSize) {
+            this.queue = new LinkedBlockingQueue<T>(queueSize);
+        }
+
+        @Override
+        boolean offer(T data) {
+            return queue.offer(data);
+        }
+
+        @Override
+        T poll(long timeout) throws InterruptedException {
+            return queue.poll(timeout, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        int drainTo(Collection<T> drain, int maxDrainSize) {
+            return queue.drainTo(drain, maxDrainSize);
+        }
+
+        @Override
+        int size() {
+            return queue.size();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+
+    static class RingBufferQueue<T> extends ExecutorQueue<T> {
+
+        private final MpscRingBuffer<T> ringBuffer;
+        private final WaitStrategy waitStrategy;
+
+        RingBufferQueue(int queueSize, WaitStrategy waitStrategy) {
+            this.ringBuffer = new MpscRingBuffer<T>(queueSize);
+            this.waitStrategy = waitStrategy;
+        }
+
+        @Override
+        boolean offer(T data) {
+            return ringBuffer.offer(data);
+        }
+
+        @Override
+        T poll(long timeout) throws InterruptedException {
+            T data = ringBuffer.poll();
+            if (data != null) {
+                return data;
+            }
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            int idleCount = 0;
+            while (true) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                waitStrategy.idle(idleCount++);
+                data = ringBuffer.poll();
+                if (data != null) {
+                    return data;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    return null;
+                }
+            }
+        }
+
+        @Override
+        int drainTo(Collection<T> drain, int maxDrainSize) {
+            return ringBuffer.drainTo(drain, maxDrainSize);
+        }
+
+        @Override
+        int size() {
+            return ringBuffer.size();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return ringBuffer.isEmpty();
+        }
+    }
+}
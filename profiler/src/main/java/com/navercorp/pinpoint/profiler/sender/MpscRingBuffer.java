@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring buffer.
+ * Slots are preallocated and every slot carries a sequence number (D. Vyukov's bounded queue),
+ * so {@link #offer(Object)} neither locks nor allocates.
+ * <p>
+ * Caution. {@link #poll()} and {@link #drainTo(Collection, int)} must be called by a single consumer thread.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        Assert.isTrue(capacity > 0, "capacity must be 'capacity > 0'");
+        this.capacity = capacity;
+
+        final int slotSize = roundToPowerOfTwo(capacity);
+        this.mask = slotSize - 1;
+        this.buffer = new AtomicReferenceArray<E>(slotSize);
+        this.sequences = new AtomicLongArray(slotSize);
+        for (int i = 0; i < slotSize; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        Assert.isTrue(value <= (1 << 30), "value must be 'value <= 2^30'");
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e");
+        }
+        while (true) {
+            final long index = producerIndex.get();
+            // capacity is not always power of two, check the bound explicitly
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            final int offset = (int) index & mask;
+            final long sequence = sequences.get(offset);
+            final long diff = sequence - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    buffer.lazySet(offset, e);
+                    // publish
+                    sequences.lazySet(offset, index + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // full
+                return false;
+            }
+            // another producer claimed the slot. retry
+        }
+    }
+
+    /**
+     * single consumer only
+     * @return null if the buffer is empty
+     */
+    public E poll() {
+        final long index = consumerIndex.get();
+        final int offset = (int) index & mask;
+        final long sequence = sequences.get(offset);
+        if (sequence != index + 1) {
+            // empty or the producer has not published yet
+            return null;
+        }
+        final E e = buffer.get(offset);
+        buffer.lazySet(offset, null);
+        sequences.lazySet(offset, index + mask + 1);
+        consumerIndex.lazySet(index + 1);
+        return e;
+    }
+
+    /**
+     * single consumer only
+     */
+    public int drainTo(Collection<? super E> drain, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final E e = poll();
+            if (e == null) {
+                break;
+            }
+            drain.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        // read consumer first. the producer index only grows
+        final long consumer = consumerIndex.get();
+        final long producer = producerIndex.get();
+        final long size = producer - consumer;
+        if (size < 0) {
+            return 0;
+        }
+        if (size > capacity) {
+            return capacity;
+        }
+        return (int) size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "MpscRingBuffer{" +
+                "capacity=" + capacity +
+                ", size=" + size() +
+                '}';
+    }
+}
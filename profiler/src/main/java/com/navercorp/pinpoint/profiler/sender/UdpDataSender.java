@@ -57,6 +57,12 @@ public class UdpDataSender implements DataSender {
     public UdpDataSender(String host, int port, String threadName,
                          int queueSize, int timeout, int sendBufferSize,
                          MessageSerializer<ByteMessage> messageSerializer) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, messageSerializer, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public UdpDataSender(String host, int port, String threadName,
+                         int queueSize, int timeout, int sendBufferSize,
+                         MessageSerializer<ByteMessage> messageSerializer, AsyncQueueingExecutorConfig executorConfig) {
         Objects.requireNonNull(host, "host");
         if (!HostAndPort.isValidPort(port)) {
             throw new IllegalArgumentException("port out of range:" + port);
@@ -75,7 +81,8 @@ public class UdpDataSender implements DataSender {
         // TODO If fail to create socket, stop agent start
         this.udpSocket = createSocket(timeout, sendBufferSize);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        Objects.requireNonNull(executorConfig, "executorConfig");
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, executorConfig);
 
     }
 
@@ -84,14 +91,14 @@ public class UdpDataSender implements DataSender {
         return executor.execute(data);
     }
 
-    private AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
+    private AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingExecutorConfig executorConfig) {
         AsyncQueueingExecutorListener<Object> listener = new DefaultAsyncQueueingExecutorListener() {
             @Override
             public void execute(Object message) {
                 UdpDataSender.this.sendPacket(message);
             }
         };
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName, listener);
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName, listener, executorConfig);
         return executor;
     }
 
@@ -33,8 +33,14 @@ public final class UdpDataSenderFactory {
     private final int timeout;
     private final int sendBufferSize;
     private final MessageConverter<TBase<?, ?>> messageConverter;
+    private final AsyncQueueingExecutorConfig executorConfig;
 
     public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, MessageConverter<TBase<?, ?>> messageConverter) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, messageConverter, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize,
+                                MessageConverter<TBase<?, ?>> messageConverter, AsyncQueueingExecutorConfig executorConfig) {
         this.host = host;
         this.port = port;
         this.threadName = threadName;
@@ -43,6 +49,7 @@ public final class UdpDataSenderFactory {
         this.sendBufferSize = sendBufferSize;
 
         this.messageConverter = Objects.requireNonNull(messageConverter, "messageConverter");
+        this.executorConfig = Objects.requireNonNull(executorConfig, "executorConfig");
     }
 
     public DataSender create(String typeName) {
@@ -51,10 +58,10 @@ public final class UdpDataSenderFactory {
 
     public DataSender create(UdpDataSenderType type) {
         if (type == UdpDataSenderType.NIO) {
-            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, messageConverter);
+            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, messageConverter, executorConfig);
         } else if (type == UdpDataSenderType.OIO) {
             final MessageSerializer<ByteMessage> thriftMessageSerializer = new ThriftUdpMessageSerializer(messageConverter, ThriftUdpMessageSerializer.UDP_MAX_PACKET_LENGTH);
-            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, thriftMessageSerializer);
+            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, thriftMessageSerializer, executorConfig);
         } else {
             throw new IllegalArgumentException("Unknown type.");
         }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy of the consumer thread when the {@link AsyncQueueType#RING_BUFFER} queue is empty.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Low cpu usage. the consumer spins, then yields, then parks with increasing delays up to {@link #MAX_PARK_NANOS}.
+     */
+    PARK {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                // busy spin
+                return;
+            }
+            if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                return;
+            }
+            LockSupport.parkNanos(parkNanos(idleCount - SPIN_TRIES - YIELD_TRIES));
+        }
+    },
+    /**
+     * Lowest latency. Caution. burns one cpu core while idle.
+     */
+    SPIN {
+        @Override
+        void idle(int idleCount) {
+            // busy spin
+        }
+    },
+    YIELD {
+        @Override
+        void idle(int idleCount) {
+            Thread.yield();
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    static long parkNanos(int parkCount) {
+        // MIN_PARK_NANOS << 10 exceeds MAX_PARK_NANOS
+        final int shift = Math.min(parkCount, 10);
+        return Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS);
+    }
+
+    /**
+     * @param idleCount number of consecutive empty polls, 0 for the first one
+     */
+    abstract void idle(int idleCount);
+
+    public static WaitStrategy getValue(String name, WaitStrategy defaultValue) {
+        if (name == null) {
+            return defaultValue;
+        }
+        for (WaitStrategy waitStrategy : values()) {
+            if (waitStrategy.name().equalsIgnoreCase(name.trim())) {
+                return waitStrategy;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PooledSpanEventRecyclerTest {
+
+    @Test
+    public void recycle_sameThread() {
+        PooledSpanEventRecycler recycler = new PooledSpanEventRecycler(4, 16);
+        SpanEvent spanEvent = recycler.newSpanEvent();
+        spanEvent.setApiId(10);
+        spanEvent.setDepth(3);
+        spanEvent.setNextSpanId(100);
+        spanEvent.setDestinationId("destination");
+        spanEvent.setExceptionInfo(1, "error");
+        spanEvent.attachFrameObject("frame");
+        spanEvent.markStartTime();
+
+        recycler.recycle(Collections.singletonList(spanEvent));
+
+        SpanEvent reuse = recycler.newSpanEvent();
+        Assert.assertSame(spanEvent, reuse);
+        Assert.assertEquals(0, reuse.getApiId());
+        Assert.assertEquals(-1, reuse.getDepth());
+        Assert.assertEquals(-1, reuse.getNextSpanId());
+        Assert.assertNull(reuse.getDestinationId());
+        Assert.assertNull(reuse.getExceptionInfo());
+        Assert.assertNull(reuse.getFrameObject());
+        Assert.assertEquals(0, reuse.getStartTime());
+        Assert.assertTrue(reuse.isTimeRecording());
+    }
+
+    @Test
+    public void recycle_annotation() {
+        PooledSpanEventRecycler recycler = new PooledSpanEventRecycler(4, 16);
+        SpanEvent spanEvent = recycler.newSpanEvent();
+        spanEvent.addAnnotation(1, 10);
+        spanEvent.addAnnotation(2, "value");
+        Annotation intAnnotation = spanEvent.getAnnotations().get(0);
+        Assert.assertTrue(intAnnotation.isIntValue());
+        Assert.assertEquals(10, intAnnotation.getIntValue());
+        Assert.assertEquals(10, intAnnotation.getValue());
+        Annotation stringAnnotation = spanEvent.getAnnotations().get(1);
+
+        recycler.recycle(Collections.singletonList(spanEvent));
+        Assert.assertTrue(spanEvent.getAnnotations().isEmpty());
+
+        SpanEvent reuse = recycler.newSpanEvent();
+        reuse.addAnnotation(3, 100L);
+        Annotation longAnnotation = reuse.getAnnotations().get(0);
+        Assert.assertTrue(longAnnotation.isLongValue());
+        Assert.assertFalse(longAnnotation.isIntValue());
+        Assert.assertEquals(3, longAnnotation.getAnnotationKey());
+        Assert.assertEquals(100L, longAnnotation.getLongValue());
+        Assert.assertSame(stringAnnotation, longAnnotation);
+    }
+
+    @Test
+    public void recycle_dummy() {
+        PooledSpanEventRecycler recycler = new PooledSpanEventRecycler(4, 16);
+        SpanEvent dummy = new SpanEventFactory(recycler).dummyInstance();
+        recycler.recycle(Collections.singletonList(dummy));
+
+        Assert.assertNotSame(dummy, recycler.newSpanEvent());
+    }
+
+    @Test
+    public void recycle_otherThread() throws Exception {
+        final PooledSpanEventRecycler recycler = new PooledSpanEventRecycler(4, 16);
+        final List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        for (int i = 0; i < 8; i++) {
+            spanEventList.add(recycler.newSpanEvent());
+        }
+
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = sender.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    recycler.recycle(spanEventList);
+                    return null;
+                }
+            });
+            future.get(10, TimeUnit.SECONDS);
+        } finally {
+            sender.shutdown();
+        }
+        // local pool of the sender thread overflows to the shared pool
+        Assert.assertEquals(4, recycler.getSharedPoolSize());
+
+        SpanEvent reuse = recycler.newSpanEvent();
+        Assert.assertTrue(spanEventList.contains(reuse));
+        Assert.assertEquals(2, recycler.getSharedPoolSize());
+    }
+
+    @Test
+    public void recycle_sharedPoolFull() {
+        PooledSpanEventRecycler recycler = new PooledSpanEventRecycler(2, 1);
+        List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        for (int i = 0; i < 10; i++) {
+            spanEventList.add(new SpanEvent());
+        }
+        recycler.recycle(spanEventList);
+        Assert.assertEquals(1, recycler.getSharedPoolSize());
+    }
+}
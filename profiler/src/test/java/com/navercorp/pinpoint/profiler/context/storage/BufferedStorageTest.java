@@ -128,6 +128,114 @@ public class BufferedStorageTest {
         Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
     }
 
+    @Test
+    public void testStore_unlimitedBufferSize() throws Exception {
+        BufferedStorage bufferedStorage = newBufferedStorage(Integer.MAX_VALUE);
+
+        bufferedStorage.store(new SpanEvent());
+        bufferedStorage.store(new SpanEvent());
+
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+    }
+
+    @Test
+    public void testStore_maxBufferBytes() throws Exception {
+        BufferedStorageConfig config = new BufferedStorageConfig(100, 200, BufferedStorageConfig.DISABLED);
+        BufferedStorage bufferedStorage = newBufferedStorage(config);
+
+        SpanEvent spanEvent = new SpanEvent();
+        spanEvent.addAnnotation(1, "value");
+        bufferedStorage.store(spanEvent);
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+
+        SpanEvent largeSpanEvent = new SpanEvent();
+        largeSpanEvent.addAnnotation(1, new String(new char[200]));
+        bufferedStorage.store(largeSpanEvent);
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+
+        bufferedStorage.store(spanEvent);
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+    }
+
+    @Test
+    public void testStore_maxBufferAge() throws Exception {
+        BufferedStorageConfig config = new BufferedStorageConfig(100, BufferedStorageConfig.DISABLED, 10);
+        BufferedStorage bufferedStorage = newBufferedStorage(config);
+
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+
+        Thread.sleep(20);
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+    }
+
+    @Test
+    public void testStore_maxBufferAge_idle() throws Exception {
+        BufferedStorageConfig config = new BufferedStorageConfig(100, BufferedStorageConfig.DISABLED, 10);
+        BufferedStorageFlusher flusher = new BufferedStorageFlusher(config.getMaxBufferAge());
+        SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
+        BufferedStorage bufferedStorage = new BufferedStorage(spanChunkFactory, countingDataSender, config, flusher);
+
+        bufferedStorage.store(new SpanEvent());
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(1, flusher.getRegisteredCount());
+
+        flusher.flushExpired(System.currentTimeMillis() - 1000);
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+        Assert.assertEquals(1, flusher.getRegisteredCount());
+
+        // no more SpanEvent is stored
+        flusher.flushExpired(System.currentTimeMillis() + 1000);
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(0, flusher.getRegisteredCount());
+
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(1, flusher.getRegisteredCount());
+        bufferedStorage.flush();
+        flusher.flushExpired(System.currentTimeMillis() + 1000);
+        Assert.assertEquals(2, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(0, flusher.getRegisteredCount());
+    }
+
+    @Test
+    public void testClose_maxBufferAge() throws Exception {
+        BufferedStorageConfig config = new BufferedStorageConfig(100, BufferedStorageConfig.DISABLED, 10);
+        BufferedStorageFlusher flusher = new BufferedStorageFlusher(config.getMaxBufferAge());
+        SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
+        BufferedStorage bufferedStorage = new BufferedStorage(spanChunkFactory, countingDataSender, config, flusher);
+
+        bufferedStorage.store(new SpanEvent());
+        Thread.sleep(20);
+        bufferedStorage.close();
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+    }
+
+    @Test
+    public void testFlusherStop() throws Exception {
+        BufferedStorageConfig config = new BufferedStorageConfig(100, BufferedStorageConfig.DISABLED, 60000);
+        BufferedStorageFlusher flusher = new BufferedStorageFlusher(config.getMaxBufferAge());
+        SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
+        BufferedStorage bufferedStorage = new BufferedStorage(spanChunkFactory, countingDataSender, config, flusher);
+
+        flusher.start();
+        bufferedStorage.store(new SpanEvent());
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+
+        // flushes the buffer before its max age on agent shutdown
+        flusher.stop();
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(0, flusher.getRegisteredCount());
+    }
+
+    private BufferedStorage newBufferedStorage(BufferedStorageConfig config) {
+        SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
+        return new BufferedStorage(spanChunkFactory, countingDataSender, config);
+    }
+
     private BufferedStorage newBufferedStorage(int bufferSize) {
         SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
         return new BufferedStorage(spanChunkFactory, countingDataSender, bufferSize);
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpanEventSizeEstimatorTest {
+
+    @Test
+    public void estimate_empty() {
+        SpanEvent spanEvent = new SpanEvent();
+        Assert.assertEquals(SpanEventSizeEstimator.SPAN_EVENT_BASE_SIZE, SpanEventSizeEstimator.estimate(spanEvent));
+    }
+
+    @Test
+    public void estimate_annotation() {
+        SpanEvent spanEvent = new SpanEvent();
+        spanEvent.addAnnotation(1, 10);
+        spanEvent.addAnnotation(2, "12345");
+        spanEvent.addAnnotation(3, new IntStringStringValue(1, "select 1", null));
+
+        int expected = SpanEventSizeEstimator.SPAN_EVENT_BASE_SIZE
+                + SpanEventSizeEstimator.ANNOTATION_BASE_SIZE + SpanEventSizeEstimator.VARINT_SIZE
+                + SpanEventSizeEstimator.ANNOTATION_BASE_SIZE + SpanEventSizeEstimator.FIELD_OVERHEAD + 5
+                + SpanEventSizeEstimator.ANNOTATION_BASE_SIZE + SpanEventSizeEstimator.VARINT_SIZE + SpanEventSizeEstimator.FIELD_OVERHEAD + 8;
+        Assert.assertEquals(expected, SpanEventSizeEstimator.estimate(spanEvent));
+    }
+
+    @Test
+    public void estimate_sqlBindValue() {
+        SpanEvent small = new SpanEvent();
+        small.addAnnotation(1, new IntStringStringValue(1, null, "1"));
+
+        SpanEvent large = new SpanEvent();
+        large.addAnnotation(1, new IntStringStringValue(1, null, new String(new char[1000])));
+
+        Assert.assertTrue(SpanEventSizeEstimator.estimate(large) - SpanEventSizeEstimator.estimate(small) >= 999);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncQueueingExecutorTest {
+
+    @Test
+    public void execute_blocking() throws Exception {
+        assertExecute(AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    @Test
+    public void execute_ringBuffer_park() throws Exception {
+        assertExecute(new AsyncQueueingExecutorConfig(AsyncQueueType.RING_BUFFER, 32, WaitStrategy.PARK));
+    }
+
+    @Test
+    public void execute_ringBuffer_yield() throws Exception {
+        assertExecute(new AsyncQueueingExecutorConfig(AsyncQueueType.RING_BUFFER, 1, WaitStrategy.YIELD));
+    }
+
+    private void assertExecute(AsyncQueueingExecutorConfig config) throws InterruptedException {
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicInteger sum = new AtomicInteger();
+        AsyncQueueingExecutorListener<Integer> listener = new AsyncQueueingExecutorListener<Integer>() {
+            @Override
+            public void execute(Collection<Integer> messageList) {
+                Object[] array = messageList.toArray();
+                for (int i = 0; i < messageList.size(); i++) {
+                    execute((Integer) array[i]);
+                }
+            }
+
+            @Override
+            public void execute(Integer message) {
+                sum.addAndGet(message);
+                latch.countDown();
+            }
+        };
+        AsyncQueueingExecutor<Integer> executor = new AsyncQueueingExecutor<Integer>(count, "test", listener, config);
+        try {
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(executor.execute(i));
+            }
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(count * (count - 1) / 2, sum.get());
+            Assert.assertEquals(0, executor.getDropCount());
+        } finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void dropCount() throws Exception {
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch executeLatch = new CountDownLatch(1);
+        AsyncQueueingExecutorListener<Integer> listener = new AsyncQueueingExecutorListener<Integer>() {
+            @Override
+            public void execute(Collection<Integer> messageList) {
+                Object[] array = messageList.toArray();
+                for (int i = 0; i < messageList.size(); i++) {
+                    execute((Integer) array[i]);
+                }
+            }
+
+            @Override
+            public void execute(Integer message) {
+                executeLatch.countDown();
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AsyncQueueingExecutorConfig config = new AsyncQueueingExecutorConfig(AsyncQueueType.RING_BUFFER, 1, WaitStrategy.PARK);
+        AsyncQueueingExecutor<Integer> executor = new AsyncQueueingExecutor<Integer>(2, "test", listener, config);
+        try {
+            executor.execute(0);
+            Assert.assertTrue(executeLatch.await(10, TimeUnit.SECONDS));
+
+            Assert.assertTrue(executor.execute(1));
+            Assert.assertTrue(executor.execute(2));
+            Assert.assertFalse(executor.execute(3));
+            Assert.assertEquals(2, executor.getQueueSize());
+            Assert.assertEquals(1, executor.getDropCount());
+        } finally {
+            blockLatch.countDown();
+            executor.stop();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void roundToPowerOfTwo() {
+        Assert.assertEquals(1, MpscRingBuffer.roundToPowerOfTwo(1));
+        Assert.assertEquals(8, MpscRingBuffer.roundToPowerOfTwo(5));
+        Assert.assertEquals(8, MpscRingBuffer.roundToPowerOfTwo(8));
+        Assert.assertEquals(8192, MpscRingBuffer.roundToPowerOfTwo(5120));
+    }
+
+    @Test
+    public void offer_full() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(3);
+        Assert.assertTrue(buffer.offer(1));
+        Assert.assertTrue(buffer.offer(2));
+        Assert.assertTrue(buffer.offer(3));
+        Assert.assertFalse(buffer.offer(4));
+        Assert.assertEquals(3, buffer.size());
+
+        Assert.assertEquals(Integer.valueOf(1), buffer.poll());
+        Assert.assertTrue(buffer.offer(4));
+        Assert.assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    public void poll_empty() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(4);
+        Assert.assertNull(buffer.poll());
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void drainTo() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(4, buffer.drainTo(drain, 4));
+        Assert.assertEquals(6, buffer.size());
+        Assert.assertEquals(6, buffer.drainTo(drain, 100));
+        Assert.assertEquals(10, drain.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(Integer.valueOf(i), drain.get(i));
+        }
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void wrapAround() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(4);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(buffer.offer(i));
+            Assert.assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void multiProducer() throws Exception {
+        final int producers = 4;
+        final int count = 10000;
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<Integer>(128);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int i = 0; i < producers; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        for (int j = 0; j < count; j++) {
+                            while (!buffer.offer(j)) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            long sum = 0;
+            int received = 0;
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (received < producers * count && System.currentTimeMillis() < deadline) {
+                Integer value = buffer.poll();
+                if (value == null) {
+                    Thread.yield();
+                    continue;
+                }
+                sum += value;
+                received++;
+            }
+            Assert.assertEquals(producers * count, received);
+            Assert.assertEquals((long) producers * count * (count - 1) / 2, sum);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
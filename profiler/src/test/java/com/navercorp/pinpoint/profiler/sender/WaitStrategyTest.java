@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class WaitStrategyTest {
+
+    @Test
+    public void parkNanos() {
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(10), WaitStrategy.parkNanos(0));
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(20), WaitStrategy.parkNanos(1));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), WaitStrategy.parkNanos(10));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), WaitStrategy.parkNanos(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void getValue() {
+        Assert.assertSame(WaitStrategy.YIELD, WaitStrategy.getValue(" yield ", WaitStrategy.PARK));
+        Assert.assertSame(WaitStrategy.PARK, WaitStrategy.getValue("unknown", WaitStrategy.PARK));
+        Assert.assertSame(WaitStrategy.PARK, WaitStrategy.getValue(null, WaitStrategy.PARK));
+    }
+}
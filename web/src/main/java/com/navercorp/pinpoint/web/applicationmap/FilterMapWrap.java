@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.applicationmap;
 
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.navercorp.pinpoint.web.view.FilterMapWrapSerializer;
+import com.navercorp.pinpoint.web.vo.SpanSelectStatistics;
 
 /**
  * @author emeroad
@@ -26,6 +27,7 @@ import com.navercorp.pinpoint.web.view.FilterMapWrapSerializer;
 public class FilterMapWrap {
     private final ApplicationMap applicationMap;
     private Long lastFetchedTimestamp;
+    private SpanSelectStatistics spanSelectStatistics;
 
     public FilterMapWrap(ApplicationMap applicationMap) {
         this.applicationMap = applicationMap;
@@ -44,4 +46,12 @@ public class FilterMapWrap {
         return lastFetchedTimestamp;
     }
 
+    public void setSpanSelectStatistics(SpanSelectStatistics spanSelectStatistics) {
+        this.spanSelectStatistics = spanSelectStatistics;
+    }
+
+    public SpanSelectStatistics getSpanSelectStatistics() {
+        return spanSelectStatistics;
+    }
+
 }
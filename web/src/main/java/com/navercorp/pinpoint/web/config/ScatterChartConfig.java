@@ -9,7 +9,14 @@ public class ScatterChartConfig {
     @Value("${web.scatter.serverside-scan.use-fuzzyrowfilter:false}")
     private boolean enableFuzzyRowFilter;
 
+    @Value("${web.scatter.rollup.enable:false}")
+    private boolean enableRollup;
+
     public boolean isEnableFuzzyRowFilter() {
         return enableFuzzyRowFilter;
     }
+
+    public boolean isEnableRollup() {
+        return enableRollup;
+    }
 }
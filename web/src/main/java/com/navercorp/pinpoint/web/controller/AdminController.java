@@ -26,8 +26,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.navercorp.pinpoint.web.dao.cache.MetaDataCache;
+import com.navercorp.pinpoint.web.dao.cache.MetaDataCacheStats;
 import com.navercorp.pinpoint.web.service.AdminService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +49,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private List<MetaDataCache<?>> metaDataCacheList;
+
     @RequestMapping(value = "/removeApplicationName")
     @ResponseBody
     public String removeApplicationName(@RequestParam("applicationName") String applicationName) {
@@ -108,4 +114,14 @@ public class AdminController {
         return this.adminService.getInactiveAgents(applicationName, durationDays);
     }
 
+    @RequestMapping(value = "/metaDataCacheStats")
+    @ResponseBody
+    public List<MetaDataCacheStats> metaDataCacheStats() {
+        final List<MetaDataCacheStats> statsList = new ArrayList<>(metaDataCacheList.size());
+        for (MetaDataCache<?> metaDataCache : metaDataCacheList) {
+            statsList.add(metaDataCache.getStats());
+        }
+        return statsList;
+    }
+
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
 import com.navercorp.pinpoint.web.applicationmap.FilterMapWrap;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.filter.FilterBuilder;
+import com.navercorp.pinpoint.web.service.FilteredMapProgress;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.FilteredMapServiceOption;
 import com.navercorp.pinpoint.web.util.LimitUtils;
@@ -32,13 +33,19 @@ import com.navercorp.pinpoint.web.vo.Range;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  *
@@ -56,10 +63,16 @@ public class FilteredMapController {
     private FilterBuilder<List<SpanBo>> filterBuilder;
     @Autowired
     private ServiceTypeRegistryService registry;
+    @Autowired
+    @Qualifier("filteredMapBuildExecutor")
+    private AsyncTaskExecutor filteredMapBuildExecutor;
+
+    @Value("${web.servermap.build.timeout:600000}")
+    private long buildTimeoutMillis;
 
     @RequestMapping(value = "/getFilteredServerMapDataMadeOfDotGroup", method = RequestMethod.GET, params="serviceTypeCode")
     @ResponseBody
-    public FilterMapWrap getFilteredServerMapDataMadeOfDotGroup(
+    public WebAsyncTask<FilterMapWrap> getFilteredServerMapDataMadeOfDotGroup(
             @RequestParam("applicationName") String applicationName,
             @RequestParam("serviceTypeCode") short serviceTypeCode,
             @RequestParam("from") long from,
@@ -77,7 +90,7 @@ public class FilteredMapController {
 
     @RequestMapping(value = "/getFilteredServerMapDataMadeOfDotGroupV2", method = RequestMethod.GET, params="serviceTypeCode")
     @ResponseBody
-    public FilterMapWrap getFilteredServerMapDataMadeOfDotGroupV2(
+    public WebAsyncTask<FilterMapWrap> getFilteredServerMapDataMadeOfDotGroupV2(
             @RequestParam("applicationName") String applicationName,
             @RequestParam("serviceTypeCode") short serviceTypeCode,
             @RequestParam("from") long from,
@@ -95,7 +108,7 @@ public class FilteredMapController {
 
     @RequestMapping(value = "/getFilteredServerMapDataMadeOfDotGroup", method = RequestMethod.GET, params="serviceTypeName")
     @ResponseBody
-    public FilterMapWrap getFilteredServerMapDataMadeOfDotGroup(
+    public WebAsyncTask<FilterMapWrap> getFilteredServerMapDataMadeOfDotGroup(
             @RequestParam("applicationName") String applicationName,
             @RequestParam("serviceTypeName") String serviceTypeName,
             @RequestParam("from") long from,
@@ -125,21 +138,28 @@ public class FilteredMapController {
         // needed to figure out already scanned ranged
         final Range scannerRange = Range.newRange(lastScanTime, to);
         logger.debug("originalRange:{} scannerRange:{} ", originalRange, scannerRange);
-        final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(limitedScanResult.getScanData(), originalRange, scannerRange, xGroupUnit, yGroupUnit, filter, viewVersion).build();
-        final ApplicationMap map = filteredMapService.selectApplicationMapWithScatterData(option);
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("getFilteredServerMapData range scan(limit:{}) range:{} lastFetchedTimestamp:{}", limit, range.prettyToString(), DateTimeFormatUtils.format(lastScanTime));
-        }
-
-        FilterMapWrap mapWrap = new FilterMapWrap(map);
-        mapWrap.setLastFetchedTimestamp(lastScanTime);
-        return mapWrap;
+        final FilteredMapProgress progress = newProgress(limitedScanResult);
+        final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(limitedScanResult.getScanData(), originalRange, scannerRange, xGroupUnit, yGroupUnit, filter, viewVersion)
+                .setProgress(progress)
+                .build();
+        final int scanLimit = limit;
+        return newWebAsyncTask(progress, () -> {
+            final ApplicationMap map = filteredMapService.selectApplicationMapWithScatterData(option);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("getFilteredServerMapData range scan(limit:{}) range:{} lastFetchedTimestamp:{}", scanLimit, range.prettyToString(), DateTimeFormatUtils.format(lastScanTime));
+            }
+
+            FilterMapWrap mapWrap = new FilterMapWrap(map);
+            mapWrap.setLastFetchedTimestamp(lastScanTime);
+            mapWrap.setSpanSelectStatistics(progress.getSelectStatistics());
+            return mapWrap;
+        });
     }
 
     @RequestMapping(value = "/getFilteredServerMapDataMadeOfDotGroupV2", method = RequestMethod.GET, params="serviceTypeName")
     @ResponseBody
-    public FilterMapWrap getFilteredServerMapDataMadeOfDotGroupV2(
+    public WebAsyncTask<FilterMapWrap> getFilteredServerMapDataMadeOfDotGroupV2(
             @RequestParam("applicationName") String applicationName,
             @RequestParam("serviceTypeName") String serviceTypeName,
             @RequestParam("from") long from,
@@ -169,14 +189,41 @@ public class FilteredMapController {
         // needed to figure out already scanned ranged
         final Range scannerRange = Range.newRange(lastScanTime, to);
         logger.debug("originalRange:{} scannerRange:{} ", originalRange, scannerRange);
-        final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(limitedScanResult.getScanData(), originalRange, scannerRange, xGroupUnit, yGroupUnit, filter, viewVersion).setUseStatisticsServerInstanceList(true).build();
-        final ApplicationMap map = filteredMapService.selectApplicationMapWithScatterData(option);
-        if (logger.isDebugEnabled()) {
-            logger.debug("getFilteredServerMapData range scan(limit:{}) range:{} lastFetchedTimestamp:{}", limit, range.prettyToString(), DateTimeFormatUtils.format(lastScanTime));
-        }
+        final FilteredMapProgress progress = newProgress(limitedScanResult);
+        final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(limitedScanResult.getScanData(), originalRange, scannerRange, xGroupUnit, yGroupUnit, filter, viewVersion)
+                .setUseStatisticsServerInstanceList(true)
+                .setProgress(progress)
+                .build();
+        final int scanLimit = limit;
+        return newWebAsyncTask(progress, () -> {
+            final ApplicationMap map = filteredMapService.selectApplicationMapWithScatterData(option);
+            if (logger.isDebugEnabled()) {
+                logger.debug("getFilteredServerMapData range scan(limit:{}) range:{} lastFetchedTimestamp:{}", scanLimit, range.prettyToString(), DateTimeFormatUtils.format(lastScanTime));
+            }
+
+            final FilterMapWrap mapWrap = new FilterMapWrap(map);
+            mapWrap.setLastFetchedTimestamp(lastScanTime);
+            mapWrap.setSpanSelectStatistics(progress.getSelectStatistics());
+            return mapWrap;
+        });
+    }
+
+    private FilteredMapProgress newProgress(LimitedScanResult<List<TransactionId>> limitedScanResult) {
+        return new FilteredMapProgress(limitedScanResult.getScanData().size(), buildTimeoutMillis);
+    }
 
-        final FilterMapWrap mapWrap = new FilterMapWrap(map);
-        mapWrap.setLastFetchedTimestamp(lastScanTime);
-        return mapWrap;
+    /**
+     * Builds the map on the bounded filteredMapBuildExecutor and ties the progress to the request,
+     * the span selects are cancelled when the request times out or fails, e.g. the client went away.
+     */
+    private <T> WebAsyncTask<T> newWebAsyncTask(FilteredMapProgress progress, Callable<T> callable) {
+        final WebAsyncTask<T> task = new WebAsyncTask<>(buildTimeoutMillis, filteredMapBuildExecutor, callable);
+        task.onTimeout(() -> {
+            progress.cancel();
+            throw new AsyncRequestTimeoutException();
+        });
+        // completion after an error, e.g. the client went away. nothing is left to cancel after a normal completion
+        task.onCompletion(progress::cancel);
+        return task;
     }
 }
@@ -2,14 +2,15 @@ package com.navercorp.pinpoint.web.controller;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.web.scatter.DragArea;
 import com.navercorp.pinpoint.web.scatter.DragAreaQuery;
 import com.navercorp.pinpoint.web.scatter.Status;
 import com.navercorp.pinpoint.web.scatter.heatmap.HeatMap;
-import com.navercorp.pinpoint.web.scatter.heatmap.Point;
 import com.navercorp.pinpoint.web.service.HeatMapService;
 import com.navercorp.pinpoint.web.util.LimitUtils;
+import com.navercorp.pinpoint.web.view.HeatMapDataSerializer;
 import com.navercorp.pinpoint.web.view.TransactionMetaDataViewModel;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -23,7 +24,6 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +32,9 @@ import java.util.concurrent.TimeUnit;
 @Controller
 public class HeatMapController {
 
+    // dots are counted into a fixed size grid, so the heatmap can afford a much larger scan than the scatter chart
+    static final int HEATMAP_LIMIT = LimitUtils.MAX * 10;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
@@ -132,33 +135,35 @@ public class HeatMapController {
         final Range range = Range.newUncheckedRange(from, to);
         logger.debug("fetch getHeatMapData. RANGE={}, ", range);
 
-        LimitedScanResult<HeatMap> scanResult = this.heatMap.getHeatMap(applicationName, range, TimeUnit.SECONDS.toMillis(10), LimitUtils.MAX);
+        LimitedScanResult<HeatMap> scanResult = this.heatMap.getHeatMap(applicationName, range, TimeUnit.SECONDS.toMillis(10), HEATMAP_LIMIT);
         Status status = new Status(System.currentTimeMillis(), range);
 
 
-        return new HeatMapController.HeatMapViewModel(scanResult.getScanData(), status);
+        final HeatMap heatMap = scanResult.getScanData();
+        // a limited scan is complete only back to the time at which it was cut off
+        final boolean limited = scanResult.getLimitedTime() > range.getFrom();
+        final long resultFrom = limited ? scanResult.getLimitedTime() : heatMap.getOldestAcceptedTime();
+
+        return new HeatMapController.HeatMapViewModel(heatMap, resultFrom, status);
     }
 
 
     public static class HeatMapViewModel {
         private final HeatMap heatMap;
+        private final long resultFrom;
         private final Status status;
 
-        public HeatMapViewModel(HeatMap heatMap, Status status) {
+        public HeatMapViewModel(HeatMap heatMap, long resultFrom, Status status) {
             this.heatMap = Objects.requireNonNull(heatMap, "heatMap");
+            this.resultFrom = resultFrom;
             this.status = Objects.requireNonNull(status, "status");
         }
 
 
         @JsonProperty("data")
-        public List<long[]> getData() {
-            List<Point> pointList = heatMap.getData();
-            final List<long[]> list = new ArrayList<>(pointList.size());
-            for (Point point : pointList) {
-                long[] longs = {point.getX(), point.getY(), point.getSuccess(), point.getFail()};
-                list.add(longs);
-            }
-            return list;
+        @JsonSerialize(using = HeatMapDataSerializer.class)
+        public HeatMap getData() {
+            return heatMap;
         }
 
         public long getSuccess() {
@@ -171,7 +176,7 @@ public class HeatMapController {
 
 
         public long getResultFrom() {
-            return heatMap.getOldestAcceptedTime();
+            return resultFrom;
         }
 
         public long getResultTo() {
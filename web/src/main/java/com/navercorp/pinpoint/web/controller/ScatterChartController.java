@@ -135,7 +135,8 @@ public class ScatterChartController {
     private ScatterView.DotView selectScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection) {
 
         final ScatterData scatterData = scatter.selectScatterData(applicationName, range, xGroupUnit, yGroupUnit, limit, backwardDirection);
-        final boolean requestComplete = scatterData.getDotSize() < limit;
+        // the rollup is not truncated by the limit
+        final boolean requestComplete = scatterData.isRollup() || scatterData.getDotSize() < limit;
 
         return new ScatterView.DotView(scatterData, requestComplete);
     }
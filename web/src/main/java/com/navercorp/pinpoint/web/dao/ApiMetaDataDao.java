@@ -17,12 +17,20 @@
 package com.navercorp.pinpoint.web.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    /**
+     * Selects the metadata of all keys with a single multi-get.
+     * Keys that are not found are mapped to an empty list.
+     */
+    Map<MetaDataKey, List<ApiMetaDataBo>> getApiMetaData(List<MetaDataKey> keys);
 }
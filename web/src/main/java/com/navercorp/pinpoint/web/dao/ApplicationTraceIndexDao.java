@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.web.dao;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.web.scatter.DragArea;
 import com.navercorp.pinpoint.web.scatter.DragAreaQuery;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMap;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMapBuilder;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
@@ -40,5 +42,10 @@ public interface ApplicationTraceIndexDao {
 
     LimitedScanResult<List<Dot>> scanScatterData(String applicationName, DragAreaQuery dragAreaQuery, int limit);
 
+    /**
+     * Scans every salt bucket in parallel into its own copy of {@code builder} and merges them.
+     */
+    LimitedScanResult<HeatMap> scanHeatMap(String applicationName, Range range, HeatMapBuilder builder, int limit);
+
 
 }
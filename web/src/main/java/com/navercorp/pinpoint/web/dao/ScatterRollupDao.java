@@ -0,0 +1,35 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao;
+
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
+
+import java.util.List;
+
+public interface ScatterRollupDao {
+    /**
+     * @return one dot per rollup cell whose sample transaction was accepted in the range
+     */
+    List<RollupDot> selectScatterRollup(String applicationName, Range range);
+
+    /**
+     * @return true if a rollup row of the application exists at or before the row time slot of the timestamp.
+     * The rollup may have started after the timestamp otherwise, and does not cover the older transactions.
+     */
+    boolean isRollupStarted(String applicationName, long timestamp);
+}
@@ -17,12 +17,20 @@
 package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author emeroad
  */
 public interface SqlMetaDataDao {
     List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int sqlId);
+
+    /**
+     * Selects the metadata of all keys with a single multi-get.
+     * Keys that are not found are mapped to an empty list.
+     */
+    Map<MetaDataKey, List<SqlMetaDataBo>> getSqlMetaData(List<MetaDataKey> keys);
 }
@@ -21,8 +21,10 @@ import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.web.vo.GetTraceInfo;
+import com.navercorp.pinpoint.web.vo.SpanSelectStatistics;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author emeroad
@@ -39,5 +41,15 @@ public interface TraceDao {
 
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount);
 
+    /**
+     * Streaming variant of {@link #selectAllSpans(List, ColumnGetCount)}.
+     * Each transaction is handed to the consumer on the calling thread as soon as its batch is decoded,
+     * so the whole result set is never materialized at once.
+     * The order of the transactions is not guaranteed.
+     * A RuntimeException thrown by the consumer stops the select and cancels the pending partitions.
+     * The select and stream timings are recorded to the statistics.
+     */
+    void selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount, Consumer<List<SpanBo>> transactionConsumer, SpanSelectStatistics statistics);
+
 
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Common part of the metadata daos in front of the hbase daos.
+ * Missing keys of a bulk lookup are loaded with one multi-get.
+ */
+public abstract class AbstractCachedMetaDataDao<V> {
+
+    private final MetaDataCache<V> cache;
+
+    protected AbstractCachedMetaDataDao(MetaDataCache<V> cache) {
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    protected List<V> getMetaData(String agentId, long time, int id) {
+        Objects.requireNonNull(agentId, "agentId");
+
+        MetaDataKey key = new MetaDataKey(agentId, time, id);
+        return cache.get(key, k -> load(k.getAgentId(), k.getAgentStartTime(), k.getId()));
+    }
+
+    protected Map<MetaDataKey, List<V>> getMetaData(List<MetaDataKey> keys) {
+        return cache.getAll(keys, this::loadAll);
+    }
+
+    protected abstract List<V> load(String agentId, long time, int id);
+
+    protected abstract Map<MetaDataKey, List<V>> loadAll(List<MetaDataKey> keys);
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.web.vo.AgentStatus;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size bounded LRU cache of {@link AgentStatus}, keyed by (agentId, agentStartTime).
+ * <p>
+ * The agent list of the web UI is refreshed every few seconds by every open page, and each refresh looks up the status of every agent.
+ * An entry is served for less than {@code ttlMillis} after it was loaded, and only to queries whose timestamp is within {@code ttlMillis}
+ * of the timestamp it was loaded for.
+ */
+public class AgentStatusCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Cache<StatusKey, Entry> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public AgentStatusCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    AgentStatusCache(int maxSize, long ttlMillis, LongSupplier currentTimeMillis) {
+        Objects.requireNonNull(currentTimeMillis, "currentTimeMillis");
+        this.maxSize = Math.max(maxSize, 0);
+        this.ttlMillis = Math.max(ttlMillis, 0);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maxSize)
+                .expireAfterWrite(this.ttlMillis, TimeUnit.MILLISECONDS)
+                .ticker(newTicker(currentTimeMillis))
+                .build();
+    }
+
+    private static Ticker newTicker(LongSupplier currentTimeMillis) {
+        return new Ticker() {
+            @Override
+            public long read() {
+                return TimeUnit.MILLISECONDS.toNanos(currentTimeMillis.getAsLong());
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    /**
+     * @return cached status, null if not cached or expired
+     */
+    public AgentStatus get(String agentId, long agentStartTime, long queryTimestamp) {
+        Objects.requireNonNull(agentId, "agentId");
+        if (!isEnabled()) {
+            return null;
+        }
+
+        final Entry entry = cache.getIfPresent(new StatusKey(agentId, agentStartTime));
+        if (entry == null || Math.abs(queryTimestamp - entry.queryTimestamp) > ttlMillis) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.status;
+    }
+
+    public void put(String agentId, long agentStartTime, long queryTimestamp, AgentStatus status) {
+        Objects.requireNonNull(agentId, "agentId");
+        Objects.requireNonNull(status, "status");
+        if (!isEnabled()) {
+            return;
+        }
+
+        cache.put(new StatusKey(agentId, agentStartTime), new Entry(status, queryTimestamp));
+    }
+
+    public int size() {
+        cache.cleanUp();
+        return Math.toIntExact(cache.size());
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private static class Entry {
+        private final AgentStatus status;
+        private final long queryTimestamp;
+
+        private Entry(AgentStatus status, long queryTimestamp) {
+            this.status = status;
+            this.queryTimestamp = queryTimestamp;
+        }
+    }
+
+    private static class StatusKey {
+        private final String agentId;
+        private final long agentStartTime;
+
+        private StatusKey(String agentId, long agentStartTime) {
+            this.agentId = agentId;
+            this.agentStartTime = agentStartTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            StatusKey statusKey = (StatusKey) o;
+
+            if (agentStartTime != statusKey.agentStartTime) return false;
+            return agentId.equals(statusKey.agentId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = agentId.hashCode();
+            result = 31 * result + (int) (agentStartTime ^ (agentStartTime >>> 32));
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatusCache{" +
+                "maxSize=" + maxSize +
+                ", ttlMillis=" + ttlMillis +
+                '}';
+    }
+}
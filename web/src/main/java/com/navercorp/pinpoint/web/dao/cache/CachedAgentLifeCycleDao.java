@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.bo.SimpleAgentKey;
+import com.navercorp.pinpoint.web.dao.AgentLifeCycleDao;
+import com.navercorp.pinpoint.web.vo.AgentStatus;
+import com.navercorp.pinpoint.web.vo.AgentStatusQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link AgentLifeCycleDao} in front of the hbase dao. Only the agents whose status is not cached are scanned, in a single parallel query.
+ */
+@Repository
+@Primary
+public class CachedAgentLifeCycleDao implements AgentLifeCycleDao {
+
+    private final AgentLifeCycleDao delegate;
+
+    private final AgentStatusCache cache;
+
+    public CachedAgentLifeCycleDao(@Qualifier("hbaseAgentLifeCycleDao") AgentLifeCycleDao delegate,
+                                   AgentStatusCache cache) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    @Override
+    public AgentStatus getAgentStatus(String agentId, long timestamp) {
+        return delegate.getAgentStatus(agentId, timestamp);
+    }
+
+    @Override
+    public Optional<AgentStatus> getAgentStatus(String agentId, long agentStartTimestamp, long timestamp) {
+        if (agentId == null) {
+            return delegate.getAgentStatus(null, agentStartTimestamp, timestamp);
+        }
+        final AgentStatus cached = cache.get(agentId, agentStartTimestamp, timestamp);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final Optional<AgentStatus> agentStatus = delegate.getAgentStatus(agentId, agentStartTimestamp, timestamp);
+        agentStatus.ifPresent(status -> cache.put(agentId, agentStartTimestamp, timestamp, status));
+        return agentStatus;
+    }
+
+    @Override
+    public List<Optional<AgentStatus>> getAgentStatus(AgentStatusQuery agentStatusQuery) {
+        Objects.requireNonNull(agentStatusQuery, "agentStatusQuery");
+
+        final long queryTimestamp = agentStatusQuery.getQueryTimestamp();
+        final List<SimpleAgentKey> agentKeyList = agentStatusQuery.getAgentKeys();
+        final List<Optional<AgentStatus>> agentStatusResult = new ArrayList<>(agentKeyList.size());
+        final List<Integer> missIndexList = new ArrayList<>();
+        final AgentStatusQuery.Builder missQueryBuilder = AgentStatusQuery.newBuilder();
+        for (SimpleAgentKey agentKey : agentKeyList) {
+            if (agentKey == null) {
+                agentStatusResult.add(Optional.empty());
+                continue;
+            }
+            final AgentStatus cached = cache.get(agentKey.getAgentId(), agentKey.getAgentStartTime(), queryTimestamp);
+            if (cached != null) {
+                agentStatusResult.add(Optional.of(cached));
+            } else {
+                missIndexList.add(agentStatusResult.size());
+                missQueryBuilder.addAgentKey(agentKey);
+                agentStatusResult.add(Optional.empty());
+            }
+        }
+        if (missIndexList.isEmpty()) {
+            return agentStatusResult;
+        }
+
+        final List<Optional<AgentStatus>> loaded = delegate.getAgentStatus(missQueryBuilder.build(queryTimestamp));
+        for (int i = 0; i < missIndexList.size(); i++) {
+            final int index = missIndexList.get(i);
+            final Optional<AgentStatus> agentStatus = loaded.get(i);
+            agentStatusResult.set(index, agentStatus);
+
+            final SimpleAgentKey agentKey = agentKeyList.get(index);
+            agentStatus.ifPresent(status -> cache.put(agentKey.getAgentId(), agentKey.getAgentStartTime(), queryTimestamp, status));
+        }
+        return agentStatusResult;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link ApiMetaDataDao} in front of the hbase dao.
+ */
+@Repository
+@Primary
+public class CachedApiMetaDataDao extends AbstractCachedMetaDataDao<ApiMetaDataBo> implements ApiMetaDataDao {
+
+    private final ApiMetaDataDao delegate;
+
+    public CachedApiMetaDataDao(@Qualifier("hbaseApiMetaDataDao") ApiMetaDataDao delegate,
+                                @Qualifier("apiMetaDataCache") MetaDataCache<ApiMetaDataBo> cache) {
+        super(cache);
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId) {
+        return getMetaData(agentId, time, apiId);
+    }
+
+    @Override
+    public Map<MetaDataKey, List<ApiMetaDataBo>> getApiMetaData(List<MetaDataKey> keys) {
+        return getMetaData(keys);
+    }
+
+    @Override
+    protected List<ApiMetaDataBo> load(String agentId, long time, int id) {
+        return delegate.getApiMetaData(agentId, time, id);
+    }
+
+    @Override
+    protected Map<MetaDataKey, List<ApiMetaDataBo>> loadAll(List<MetaDataKey> keys) {
+        return delegate.getApiMetaData(keys);
+    }
+}
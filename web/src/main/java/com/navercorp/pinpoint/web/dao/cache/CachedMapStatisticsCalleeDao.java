@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+
+/**
+ * {@link MapStatisticsCalleeDao} in front of the hbase dao. Only the minute slots that are not cached yet are scanned.
+ */
+@Repository
+@Primary
+public class CachedMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
+
+    private final MapStatisticsCalleeDao delegate;
+
+    private final LinkDataMapSlotCache cache;
+
+    public CachedMapStatisticsCalleeDao(@Qualifier("hbaseMapStatisticsCalleeDao") MapStatisticsCalleeDao delegate,
+                                        @Qualifier("calleeLinkDataMapSlotCache") LinkDataMapSlotCache cache) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    @Override
+    public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+        return cache.select(calleeApplication, range, delegate::selectCallee);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+
+/**
+ * {@link MapStatisticsCallerDao} in front of the hbase dao. Only the minute slots that are not cached yet are scanned.
+ */
+@Repository
+@Primary
+public class CachedMapStatisticsCallerDao implements MapStatisticsCallerDao {
+
+    private final MapStatisticsCallerDao delegate;
+
+    private final LinkDataMapSlotCache cache;
+
+    public CachedMapStatisticsCallerDao(@Qualifier("hbaseMapStatisticsCallerDao") MapStatisticsCallerDao delegate,
+                                        @Qualifier("callerLinkDataMapSlotCache") LinkDataMapSlotCache cache) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    @Override
+    public LinkDataMap selectCaller(Application callerApplication, Range range) {
+        return cache.select(callerApplication, range, delegate::selectCaller);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link SqlMetaDataDao} in front of the hbase dao.
+ */
+@Repository
+@Primary
+public class CachedSqlMetaDataDao extends AbstractCachedMetaDataDao<SqlMetaDataBo> implements SqlMetaDataDao {
+
+    private final SqlMetaDataDao delegate;
+
+    public CachedSqlMetaDataDao(@Qualifier("hbaseSqlMetaDataDao") SqlMetaDataDao delegate,
+                                @Qualifier("sqlMetaDataCache") MetaDataCache<SqlMetaDataBo> cache) {
+        super(cache);
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int sqlId) {
+        return getMetaData(agentId, time, sqlId);
+    }
+
+    @Override
+    public Map<MetaDataKey, List<SqlMetaDataBo>> getSqlMetaData(List<MetaDataKey> keys) {
+        return getMetaData(keys);
+    }
+
+    @Override
+    protected List<SqlMetaDataBo> load(String agentId, long time, int id) {
+        return delegate.getSqlMetaData(agentId, time, id);
+    }
+
+    @Override
+    protected Map<MetaDataKey, List<SqlMetaDataBo>> loadAll(List<MetaDataKey> keys) {
+        return delegate.getSqlMetaData(keys);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Size bounded LRU cache of {@link LinkDataMap} fragments, one per (application, minute slot).
+ * <p>
+ * Map statistics are stored in one minute slots, so a link data map of a range is the sum of the link data maps of its slots.
+ * A select merges the cached slots and loads only the missing ones, one load per contiguous run of missing slots.
+ * Slots newer than {@code stableDelayMillis} may still receive statistics from the collector,
+ * so they are always loaded and never cached.
+ * <p>
+ * Only ranges that are sampled by one minute windows ({@link TimeWindowDownSampler}) are served from the cache;
+ * longer ranges are passed to the loader as is.
+ */
+public class LinkDataMapSlotCache {
+
+    static final long SLOT_SIZE = TimeUnit.MINUTES.toMillis(1);
+    static final long MAX_CACHED_RANGE = TimeUnit.HOURS.toMillis(1);
+
+    private static final LinkDataMap EMPTY = new LinkDataMap();
+
+    private final String name;
+    private final int maxSize;
+    private final long stableDelayMillis;
+    private final LongSupplier currentTimeMillis;
+
+    private final Cache<SlotKey, LinkDataMap> cache;
+
+    private final LongAdder loadCount = new LongAdder();
+
+    public LinkDataMapSlotCache(String name, int maxSize, long stableDelayMillis) {
+        this(name, maxSize, stableDelayMillis, System::currentTimeMillis);
+    }
+
+    LinkDataMapSlotCache(String name, int maxSize, long stableDelayMillis, LongSupplier currentTimeMillis) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.maxSize = Math.max(maxSize, 0);
+        this.stableDelayMillis = stableDelayMillis;
+        this.currentTimeMillis = Objects.requireNonNull(currentTimeMillis, "currentTimeMillis");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public LinkDataMap select(Application application, Range range, BiFunction<Application, Range, LinkDataMap> loader) {
+        Objects.requireNonNull(application, "application");
+        Objects.requireNonNull(range, "range");
+        Objects.requireNonNull(loader, "loader");
+
+        if (!isEnabled() || range.getRange() > MAX_CACHED_RANGE) {
+            return loader.apply(application, range);
+        }
+
+        final long firstSlot = toSlot(range.getFrom());
+        final long lastSlot = toSlot(range.getTo());
+        final long lastStableSlot = toSlot(currentTimeMillis.getAsLong() - stableDelayMillis) - SLOT_SIZE;
+
+        final List<LinkDataMap> fragments = new ArrayList<>();
+        long missingFrom = -1;
+        for (long slot = firstSlot; slot <= lastSlot; slot += SLOT_SIZE) {
+            final LinkDataMap cached = slot <= lastStableSlot ? getIfPresent(new SlotKey(application, slot)) : null;
+            if (cached != null) {
+                if (missingFrom != -1) {
+                    fragments.add(load(application, missingFrom, slot - SLOT_SIZE, lastStableSlot, loader));
+                    missingFrom = -1;
+                }
+                fragments.add(cached);
+            } else if (missingFrom == -1) {
+                missingFrom = slot;
+            }
+        }
+        if (missingFrom != -1) {
+            fragments.add(load(application, missingFrom, lastSlot, lastStableSlot, loader));
+        }
+
+        final LinkDataMap result = new LinkDataMap(new TimeWindow(range, TimeWindowDownSampler.SAMPLER));
+        for (LinkDataMap fragment : fragments) {
+            result.addLinkDataMap(fragment);
+        }
+        return result;
+    }
+
+    private LinkDataMap load(Application application, long fromSlot, long toSlot, long lastStableSlot,
+                             BiFunction<Application, Range, LinkDataMap> loader) {
+        loadCount.increment();
+        final LinkDataMap loaded = loader.apply(application, Range.newRange(fromSlot, toSlot));
+        if (fromSlot > lastStableSlot) {
+            return loaded;
+        }
+
+        final Map<Long, LinkDataMap> slotMap = splitBySlot(loaded);
+        final long lastCacheSlot = Math.min(toSlot, lastStableSlot);
+        for (long slot = fromSlot; slot <= lastCacheSlot; slot += SLOT_SIZE) {
+            // an empty slot is cached as well, it will not be filled later
+            final LinkDataMap fragment = slotMap.getOrDefault(slot, EMPTY);
+            cache.put(new SlotKey(application, slot), fragment);
+        }
+        return loaded;
+    }
+
+    static Map<Long, LinkDataMap> splitBySlot(LinkDataMap linkDataMap) {
+        final Map<Long, LinkDataMap> slotMap = new HashMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            final Map<Long, LinkData> slotLinkDataMap = new HashMap<>();
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    final long slot = toSlot(timeHistogram.getTimeStamp());
+                    final LinkData slotLinkData = slotLinkDataMap.computeIfAbsent(slot,
+                            k -> new LinkData(linkData.getFromApplication(), linkData.getToApplication()));
+                    slotLinkData.getLinkCallDataMap().addCallData(linkCallData.getSource(), linkCallData.getSourceServiceType(),
+                            linkCallData.getTarget(), linkCallData.getTargetServiceType(), Collections.singletonList(timeHistogram));
+                }
+            }
+            for (Map.Entry<Long, LinkData> entry : slotLinkDataMap.entrySet()) {
+                slotMap.computeIfAbsent(entry.getKey(), k -> new LinkDataMap()).addLinkData(entry.getValue());
+            }
+        }
+        return slotMap;
+    }
+
+    private LinkDataMap getIfPresent(SlotKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    static long toSlot(long timestamp) {
+        return (timestamp / SLOT_SIZE) * SLOT_SIZE;
+    }
+
+    public int size() {
+        return Math.toIntExact(cache.size());
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    private static class SlotKey {
+        private final Application application;
+        private final long slot;
+
+        private SlotKey(Application application, long slot) {
+            this.application = application;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SlotKey slotKey = (SlotKey) o;
+
+            if (slot != slotKey.slot) return false;
+            return application.equals(slotKey.application);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = application.hashCode();
+            result = 31 * result + (int) (slot ^ (slot >>> 32));
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LinkDataMapSlotCache{" +
+                "name='" + name + '\'' +
+                ", maxSize=" + maxSize +
+                ", stableDelayMillis=" + stableDelayMillis +
+                '}';
+    }
+}
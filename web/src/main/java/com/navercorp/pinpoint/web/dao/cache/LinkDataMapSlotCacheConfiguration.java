@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LinkDataMapSlotCacheConfiguration {
+
+    @Value("${web.servermap.slotCache.size:10000}")
+    private int slotCacheSize;
+
+    @Value("${web.servermap.slotCache.stableDelay:120000}")
+    private long stableDelayMillis;
+
+    @Bean
+    public LinkDataMapSlotCache callerLinkDataMapSlotCache() {
+        return new LinkDataMapSlotCache("callerLinkDataMap", slotCacheSize, stableDelayMillis);
+    }
+
+    @Bean
+    public LinkDataMapSlotCache calleeLinkDataMapSlotCache() {
+        return new LinkDataMapSlotCache("calleeLinkDataMap", slotCacheSize, stableDelayMillis);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size bounded LRU cache of metadata.
+ * <p>
+ * Metadata of an agent never changes once written, so found entries live until evicted.
+ * Ids that are not found yet are cached as an empty list (negative entry) for {@code negativeTtlMillis},
+ * because the metadata may arrive later than the span that refers to it.
+ * Found and negative entries are kept in separate caches of {@code maxSize} each.
+ */
+public class MetaDataCache<V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long negativeTtlMillis;
+
+    private final Cache<MetaDataKey, List<V>> cache;
+    private final Cache<MetaDataKey, Boolean> negativeCache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+
+    public MetaDataCache(String name, int maxSize, long negativeTtlMillis) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.maxSize = Math.max(maxSize, 0);
+        this.negativeTtlMillis = Math.max(negativeTtlMillis, 0);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.maxSize)
+                .recordStats()
+                .build();
+        this.negativeCache = CacheBuilder.newBuilder()
+                .maximumSize(this.maxSize)
+                .expireAfterWrite(this.negativeTtlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public List<V> get(MetaDataKey key, Function<MetaDataKey, List<V>> loader) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(loader, "loader");
+
+        final List<V> cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        loadCount.increment();
+        final List<V> value = loader.apply(key);
+        return put(key, value);
+    }
+
+    /**
+     * Resolves all keys, loading the missing ones with a single call of the loader.
+     * Keys the loader does not return are cached as negative entries.
+     */
+    public Map<MetaDataKey, List<V>> getAll(Collection<MetaDataKey> keys, Function<List<MetaDataKey>, Map<MetaDataKey, List<V>>> loader) {
+        Objects.requireNonNull(keys, "keys");
+        Objects.requireNonNull(loader, "loader");
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<MetaDataKey, List<V>> result = new HashMap<>(keys.size());
+        final List<MetaDataKey> missingKeys = new ArrayList<>();
+        for (MetaDataKey key : keys) {
+            if (result.containsKey(key)) {
+                continue;
+            }
+            final List<V> cached = getIfPresent(key);
+            result.put(key, cached);
+            if (cached == null) {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        loadCount.increment();
+        final Map<MetaDataKey, List<V>> loaded = loader.apply(missingKeys);
+        for (MetaDataKey key : missingKeys) {
+            result.put(key, put(key, loaded.get(key)));
+        }
+        return result;
+    }
+
+    private List<V> getIfPresent(MetaDataKey key) {
+        if (!isEnabled()) {
+            missCount.increment();
+            return null;
+        }
+        final List<V> value = cache.getIfPresent(key);
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        if (negativeCache.getIfPresent(key) != null) {
+            negativeHitCount.increment();
+            return Collections.emptyList();
+        }
+        missCount.increment();
+        return null;
+    }
+
+    private List<V> put(MetaDataKey key, List<V> value) {
+        if (value == null || value.isEmpty()) {
+            if (isEnabled()) {
+                negativeCache.put(key, Boolean.TRUE);
+            }
+            return Collections.emptyList();
+        }
+        if (isEnabled()) {
+            cache.put(key, value);
+            negativeCache.invalidate(key);
+        }
+        return value;
+    }
+
+    public int size() {
+        return Math.toIntExact(cache.size() + negativeCache.size());
+    }
+
+    public MetaDataCacheStats getStats() {
+        final long evictionCount = cache.stats().evictionCount() + negativeCache.stats().evictionCount();
+        return new MetaDataCacheStats(name, size(), maxSize, hitCount.sum(), negativeHitCount.sum(),
+                missCount.sum(), loadCount.sum(), evictionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataCache{" +
+                "name='" + name + '\'' +
+                ", maxSize=" + maxSize +
+                ", negativeTtlMillis=" + negativeTtlMillis +
+                '}';
+    }
+}
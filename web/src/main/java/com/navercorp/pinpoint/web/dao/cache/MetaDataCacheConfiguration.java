@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetaDataCacheConfiguration {
+
+    @Value("${web.metadata.cache.api.size:10000}")
+    private int apiCacheSize;
+
+    @Value("${web.metadata.cache.sql.size:10000}")
+    private int sqlCacheSize;
+
+    @Value("${web.metadata.cache.string.size:10000}")
+    private int stringCacheSize;
+
+    @Value("${web.metadata.cache.negative.ttl:60000}")
+    private long negativeTtlMillis;
+
+    @Bean
+    public MetaDataCache<ApiMetaDataBo> apiMetaDataCache() {
+        return new MetaDataCache<>("apiMetaData", apiCacheSize, negativeTtlMillis);
+    }
+
+    @Bean
+    public MetaDataCache<SqlMetaDataBo> sqlMetaDataCache() {
+        return new MetaDataCache<>("sqlMetaData", sqlCacheSize, negativeTtlMillis);
+    }
+
+    @Bean
+    public MetaDataCache<StringMetaDataBo> stringMetaDataCache() {
+        return new MetaDataCache<>("stringMetaData", stringCacheSize, negativeTtlMillis);
+    }
+}
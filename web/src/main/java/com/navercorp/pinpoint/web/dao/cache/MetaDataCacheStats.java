@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+public class MetaDataCacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long negativeHitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+
+    public MetaDataCacheStats(String name, int size, int maxSize, long hitCount, long negativeHitCount,
+                              long missCount, long loadCount, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.negativeHitCount = negativeHitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of round trips to the storage
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getHitRatio() {
+        final long requestCount = hitCount + negativeHitCount + missCount;
+        if (requestCount == 0) {
+            return 0;
+        }
+        return (double) (hitCount + negativeHitCount) / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataCacheStats{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", maxSize=" + maxSize +
+                ", hitCount=" + hitCount +
+                ", negativeHitCount=" + negativeHitCount +
+                ", missCount=" + missCount +
+                ", loadCount=" + loadCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
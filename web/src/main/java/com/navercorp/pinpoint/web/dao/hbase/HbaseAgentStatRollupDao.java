@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.TableDescriptor;
+import com.navercorp.pinpoint.common.profiler.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupBo;
+import com.navercorp.pinpoint.web.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Scan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Repository
+public class HbaseAgentStatRollupDao implements AgentStatRollupDao {
+
+    private static final int AGENT_STAT_ROLLUP_NUM_PARTITIONS = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private int scanCacheSize = 40;
+
+    private final HbaseOperations2 hbaseOperations2;
+
+    private final TableDescriptor<HbaseColumnFamily.AgentStatRollup> descriptor;
+
+    private final RowMapper<List<AgentStatRollupBo>> agentStatRollupMapper;
+
+    private final RangeFactory rangeFactory;
+
+    private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    public HbaseAgentStatRollupDao(HbaseOperations2 hbaseOperations2,
+                                   TableDescriptor<HbaseColumnFamily.AgentStatRollup> descriptor,
+                                   @Qualifier("agentStatRollupMapper") RowMapper<List<AgentStatRollupBo>> agentStatRollupMapper,
+                                   RangeFactory rangeFactory,
+                                   @Qualifier("agentStatRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        this.hbaseOperations2 = Objects.requireNonNull(hbaseOperations2, "hbaseOperations2");
+        this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
+        this.agentStatRollupMapper = Objects.requireNonNull(agentStatRollupMapper, "agentStatRollupMapper");
+        this.rangeFactory = Objects.requireNonNull(rangeFactory, "rangeFactory");
+        this.rowKeyDistributorByHashPrefix = Objects.requireNonNull(rowKeyDistributorByHashPrefix, "rowKeyDistributorByHashPrefix");
+    }
+
+    @Override
+    public Map<String, AgentStatRollupBo> selectAgentStatRollup(Application application, Range range) {
+        Objects.requireNonNull(application, "application");
+        Objects.requireNonNull(range, "range");
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("selectAgentStatRollup applicationName:{}, {}", application, range);
+        }
+
+        final Scan scan = createScan(application, range, descriptor.getColumnFamilyName());
+        final TableName tableName = descriptor.getTableName();
+        final List<List<AgentStatRollupBo>> rowList = hbaseOperations2.findParallel(tableName, scan, rowKeyDistributorByHashPrefix, agentStatRollupMapper, AGENT_STAT_ROLLUP_NUM_PARTITIONS);
+
+        final Map<String, AgentStatRollupBo> rollupMap = new HashMap<>();
+        for (List<AgentStatRollupBo> row : rowList) {
+            for (AgentStatRollupBo rollup : row) {
+                final AgentStatRollupBo prev = rollupMap.putIfAbsent(rollup.getAgentId(), rollup);
+                if (prev != null) {
+                    prev.merge(rollup);
+                }
+            }
+        }
+        return rollupMap;
+    }
+
+    private Scan createScan(Application application, Range range, byte[] family) {
+        range = rangeFactory.createStatisticsRange(range);
+        if (logger.isDebugEnabled()) {
+            logger.debug("scan time:{} ", range.prettyToString());
+        }
+
+        // start key is replaced by end key because timestamp has been reversed
+        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getTo());
+        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getFrom());
+
+        final Scan scan = new Scan();
+        scan.setCaching(this.scanCacheSize);
+        scan.withStartRow(startKey);
+        scan.withStopRow(endKey);
+        scan.addFamily(family);
+        scan.setId("AgentStatRollupScan");
+
+        return scan;
+    }
+}
@@ -26,15 +26,19 @@ import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDa
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetadataEncoder;
 import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -43,8 +47,6 @@ import java.util.Objects;
  */
 @Repository
 public class HbaseApiMetaDataDao implements ApiMetaDataDao {
-    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #apiId.toString()";
-
     private final HbaseOperations2 hbaseOperations2;
 
     private final RowMapper<List<ApiMetaDataBo>> apiMetaDataMapper;
@@ -66,7 +68,6 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
     }
 
     @Override
-    @Cacheable(value="apiMetaData", key=SPEL_KEY)
     public List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId) {
         Objects.requireNonNull(agentId, "agentId");
 
@@ -80,6 +81,33 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
         return hbaseOperations2.get(apiMetaDataTableName, get, apiMetaDataMapper);
     }
 
+    @Override
+    public Map<MetaDataKey, List<ApiMetaDataBo>> getApiMetaData(List<MetaDataKey> keys) {
+        Objects.requireNonNull(keys, "keys");
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Get> getList = new ArrayList<>(keys.size());
+        for (MetaDataKey key : keys) {
+            MetaDataRowKey metaDataRowKey = new DefaultMetaDataRowKey(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+
+            Get get = new Get(rowKey);
+            get.addFamily(descriptor.getColumnFamilyName());
+            getList.add(get);
+        }
+
+        TableName apiMetaDataTableName = descriptor.getTableName();
+        final List<List<ApiMetaDataBo>> resultList = hbaseOperations2.get(apiMetaDataTableName, getList, apiMetaDataMapper);
+
+        final Map<MetaDataKey, List<ApiMetaDataBo>> metaDataMap = new HashMap<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            metaDataMap.put(keys.get(i), resultList.get(i));
+        }
+        return metaDataMap;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
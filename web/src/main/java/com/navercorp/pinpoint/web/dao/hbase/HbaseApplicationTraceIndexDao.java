@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.web.dao.hbase;
 import com.navercorp.pinpoint.common.PinpointConstants;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.HbaseSystemException;
 import com.navercorp.pinpoint.common.hbase.LimitEventHandler;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableDescriptor;
@@ -30,11 +31,14 @@ import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.web.config.ScatterChartConfig;
 import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.mapper.HeatMapResultsExtractor;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper;
 import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
 import com.navercorp.pinpoint.web.scatter.DragArea;
 import com.navercorp.pinpoint.web.scatter.DragAreaQuery;
 import com.navercorp.pinpoint.web.scatter.ElpasedTimeDotPredicate;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMap;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMapBuilder;
 import com.navercorp.pinpoint.web.util.ListListUtils;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -51,6 +55,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
@@ -284,6 +290,46 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return new LimitedScanResult<>(lastTime, dots);
     }
 
+    @Override
+    public LimitedScanResult<HeatMap> scanHeatMap(String applicationName, Range range, HeatMapBuilder builder, int limit) {
+        Objects.requireNonNull(applicationName, "applicationName");
+        Objects.requireNonNull(range, "range");
+        Objects.requireNonNull(builder, "builder");
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        logger.debug("scanHeatMap range:{}", range);
+
+        final Scan scan = createScan(applicationName, range, true);
+        final List<Scan> scans = getDistributedScans(scan);
+        // dots are spread evenly over the salt buckets
+        final int bucketLimit = (limit + scans.size() - 1) / scans.size();
+        final HeatMapResultsExtractor extractor = new HeatMapResultsExtractor(builder, range.getFrom(), bucketLimit);
+
+        TableName applicationTraceIndexTableName = descriptor.getTableName();
+        List<LimitedScanResult<HeatMapBuilder>> bucketResults = hbaseOperations2.findParallel(applicationTraceIndexTableName, scans, extractor);
+
+        // the range is complete from the most recent time at which any bucket was cut off
+        long lastTime = range.getFrom();
+        for (LimitedScanResult<HeatMapBuilder> bucketResult : bucketResults) {
+            builder.merge(bucketResult.getScanData());
+            lastTime = Math.max(lastTime, bucketResult.getLimitedTime());
+        }
+        return new LimitedScanResult<>(lastTime, builder.build());
+    }
+
+    private List<Scan> getDistributedScans(Scan scan) {
+        try {
+            Scan[] scans = traceIdRowKeyDistributor.getDistributedScans(scan);
+            for (int i = 0; i < scans.length; i++) {
+                scans[i].setId(scan.getId() + "-" + i);
+            }
+            return Arrays.asList(scans);
+        } catch (IOException e) {
+            throw new HbaseSystemException(e);
+        }
+    }
+
     private Predicate<Dot> buildDotStatusFilter(DragAreaQuery dragAreaQuery) {
         if (dragAreaQuery.getAgentId() != null || dragAreaQuery.getDotStatus() != null) {
             return new DotStatusFilter(dragAreaQuery.getAgentId(), dragAreaQuery.getDotStatus());
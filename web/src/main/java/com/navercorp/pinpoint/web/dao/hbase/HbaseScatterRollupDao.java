@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.TableDescriptor;
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+import com.navercorp.pinpoint.web.dao.ScatterRollupDao;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Repository
+public class HbaseScatterRollupDao implements ScatterRollupDao {
+
+    private static final int SCATTER_ROLLUP_NUM_PARTITIONS = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private int scanCacheSize = 40;
+
+    private final HbaseOperations2 hbaseOperations2;
+
+    private final TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor;
+
+    private final RowMapper<List<RollupDot>> scatterRollupMapper;
+
+    private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    public HbaseScatterRollupDao(HbaseOperations2 hbaseOperations2,
+                                 TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> descriptor,
+                                 @Qualifier("scatterRollupMapper") RowMapper<List<RollupDot>> scatterRollupMapper,
+                                 @Qualifier("scatterRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        this.hbaseOperations2 = Objects.requireNonNull(hbaseOperations2, "hbaseOperations2");
+        this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
+        this.scatterRollupMapper = Objects.requireNonNull(scatterRollupMapper, "scatterRollupMapper");
+        this.rowKeyDistributorByHashPrefix = Objects.requireNonNull(rowKeyDistributorByHashPrefix, "rowKeyDistributorByHashPrefix");
+    }
+
+    @Override
+    public List<RollupDot> selectScatterRollup(String applicationName, Range range) {
+        Objects.requireNonNull(applicationName, "applicationName");
+        Objects.requireNonNull(range, "range");
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("selectScatterRollup applicationName:{}, {}", applicationName, range);
+        }
+
+        final Scan scan = createScan(applicationName, range);
+        final TableName tableName = descriptor.getTableName();
+        final List<List<RollupDot>> rowList = hbaseOperations2.findParallel(tableName, scan, rowKeyDistributorByHashPrefix, scatterRollupMapper, SCATTER_ROLLUP_NUM_PARTITIONS);
+
+        final List<RollupDot> dotList = new ArrayList<>();
+        for (List<RollupDot> row : rowList) {
+            for (RollupDot rollupDot : row) {
+                final long acceptedTime = rollupDot.getDot().getAcceptedTime();
+                if (range.getFrom() <= acceptedTime && acceptedTime <= range.getTo()) {
+                    dotList.add(rollupDot);
+                }
+            }
+        }
+        return dotList;
+    }
+
+    @Override
+    public boolean isRollupStarted(String applicationName, long timestamp) {
+        Objects.requireNonNull(applicationName, "applicationName");
+
+        // older time slots have greater row keys
+        final byte[] startKey = ScatterRollupUtils.makeRowKey(applicationName, ScatterRollupUtils.getRowTimeSlot(timestamp));
+        final byte[] endKey = ScatterRollupUtils.makeRowKey(applicationName, 0);
+
+        final Scan scan = new Scan();
+        scan.setCaching(1);
+        scan.withStartRow(startKey);
+        scan.withStopRow(endKey);
+        scan.addFamily(HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER.getName());
+        scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        scan.setId("ScatterRollupStartScan");
+
+        final TableName tableName = descriptor.getTableName();
+        final ResultsExtractor<Boolean> rowExists = results -> results.next() != null;
+        final boolean started = hbaseOperations2.findParallel(tableName, scan, rowKeyDistributorByHashPrefix, rowExists, SCATTER_ROLLUP_NUM_PARTITIONS);
+        if (logger.isDebugEnabled()) {
+            logger.debug("isRollupStarted applicationName:{}, timestamp:{}, started:{}", applicationName, timestamp, started);
+        }
+        return started;
+    }
+
+    private Scan createScan(String applicationName, Range range) {
+        // start key is replaced by end key because timestamp has been reversed
+        final long fromTimeSlot = ScatterRollupUtils.getRowTimeSlot(range.getFrom());
+        final long toTimeSlot = ScatterRollupUtils.getRowTimeSlot(range.getTo());
+        final byte[] startKey = ScatterRollupUtils.makeRowKey(applicationName, toTimeSlot);
+        // the stop row is exclusive
+        final byte[] endKey = ScatterRollupUtils.makeRowKey(applicationName, fromTimeSlot - 1);
+
+        final Scan scan = new Scan();
+        scan.setCaching(this.scanCacheSize);
+        scan.withStartRow(startKey);
+        scan.withStopRow(endKey);
+        scan.addFamily(HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER.getName());
+        scan.addFamily(HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_SAMPLE.getName());
+        scan.setId("ScatterRollupScan");
+
+        return scan;
+    }
+}
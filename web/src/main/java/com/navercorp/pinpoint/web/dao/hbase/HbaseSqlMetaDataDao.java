@@ -26,13 +26,18 @@ import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDa
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetadataEncoder;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -76,6 +81,33 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
         return hbaseOperations2.get(sqlMetaDataTableName, get, sqlMetaDataMapper);
     }
 
+    @Override
+    public Map<MetaDataKey, List<SqlMetaDataBo>> getSqlMetaData(List<MetaDataKey> keys) {
+        Objects.requireNonNull(keys, "keys");
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Get> getList = new ArrayList<>(keys.size());
+        for (MetaDataKey key : keys) {
+            MetaDataRowKey metaDataRowKey = new DefaultMetaDataRowKey(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+
+            Get get = new Get(rowKey);
+            get.addFamily(descriptor.getColumnFamilyName());
+            getList.add(get);
+        }
+
+        TableName sqlMetaDataTableName = descriptor.getTableName();
+        final List<List<SqlMetaDataBo>> resultList = hbaseOperations2.get(sqlMetaDataTableName, getList, sqlMetaDataMapper);
+
+        final Map<MetaDataKey, List<SqlMetaDataBo>> metaDataMap = new HashMap<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            metaDataMap.put(keys.get(i), resultList.get(i));
+        }
+        return metaDataMap;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDa
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetadataEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
@@ -33,7 +34,11 @@ import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -76,6 +81,33 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
         return hbaseOperations2.get(stringMetaDataTableName, get, stringMetaDataMapper);
     }
 
+    @Override
+    public Map<MetaDataKey, List<StringMetaDataBo>> getStringMetaData(List<MetaDataKey> keys) {
+        Objects.requireNonNull(keys, "keys");
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Get> getList = new ArrayList<>(keys.size());
+        for (MetaDataKey key : keys) {
+            MetaDataRowKey metaDataRowKey = new DefaultMetaDataRowKey(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+
+            Get get = new Get(rowKey);
+            get.addFamily(descriptor.getColumnFamilyName());
+            getList.add(get);
+        }
+
+        TableName stringMetaDataTableName = descriptor.getTableName();
+        final List<List<StringMetaDataBo>> resultList = hbaseOperations2.get(stringMetaDataTableName, getList, stringMetaDataMapper);
+
+        final Map<MetaDataKey, List<StringMetaDataBo>> metaDataMap = new HashMap<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            metaDataMap.put(keys.get(i), resultList.get(i));
+        }
+        return metaDataMap;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -38,6 +38,7 @@ import com.navercorp.pinpoint.web.mapper.CellTraceMapper;
 import com.navercorp.pinpoint.web.mapper.SpanMapperV2;
 import com.navercorp.pinpoint.web.mapper.FilteringSpanDecoder;
 import com.navercorp.pinpoint.web.vo.GetTraceInfo;
+import com.navercorp.pinpoint.web.vo.SpanSelectStatistics;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
@@ -50,6 +51,7 @@ import org.apache.hadoop.hbase.filter.ColumnCountGetFilter;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.QualifierFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -57,10 +59,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -87,6 +98,9 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Value("${web.hbase.selectAllSpans.limit:500}")
     private int selectAllSpansLimit;
 
+    @Value("${web.hbase.selectAllSpans.concurrency:4}")
+    private int selectConcurrency;
+
     @Value("${web.hbase.mapper.cache.string.size:-1}")
     private int stringCacheSize;
 
@@ -94,11 +108,17 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private final TableDescriptor<HbaseColumnFamily.Trace> descriptor;
 
-    public HbaseTraceDaoV2(HbaseOperations2 template2, TableDescriptor<HbaseColumnFamily.Trace> descriptor, @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder, @Qualifier("traceRowKeyDecoderV2") RowKeyDecoder<TransactionId> rowKeyDecoder) {
+    private final Executor executor;
+
+    public HbaseTraceDaoV2(HbaseOperations2 template2, TableDescriptor<HbaseColumnFamily.Trace> descriptor,
+                           @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
+                           @Qualifier("traceRowKeyDecoderV2") RowKeyDecoder<TransactionId> rowKeyDecoder,
+                           @Qualifier("traceSelectExecutor") Executor executor) {
         this.template2 = Objects.requireNonNull(template2, "template2");
         this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
         this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
         this.rowKeyDecoder = Objects.requireNonNull(rowKeyDecoder, "rowKeyDecoder");
+        this.executor = Objects.requireNonNull(executor, "executor");
     }
 
     @PostConstruct
@@ -192,6 +212,44 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return partitionSelect(partitionGetTraceInfoList, descriptor.getColumnFamilyName(), filter);
     }
 
+    @Override
+    public void selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount, Consumer<List<SpanBo>> transactionConsumer, SpanSelectStatistics statistics) {
+        if (columnGetCount == null || columnGetCount == ColumnGetCount.UNLIMITED_COLUMN_GET_COUNT) {
+            selectAllSpans(transactionIdList, selectAllSpansLimit, null, transactionConsumer, statistics);
+        } else {
+            Filter columnCountGetFilter = new ColumnCountGetFilter(columnGetCount.getLimit());
+            selectAllSpans(transactionIdList, selectAllSpansLimit, columnCountGetFilter, transactionConsumer, statistics);
+        }
+    }
+
+    void selectAllSpans(List<TransactionId> transactionIdList, int eachPartitionSize, Filter filter, Consumer<List<SpanBo>> transactionConsumer, SpanSelectStatistics statistics) {
+        Objects.requireNonNull(transactionConsumer, "transactionConsumer");
+        Objects.requireNonNull(statistics, "statistics");
+        if (CollectionUtils.isEmpty(transactionIdList)) {
+            return;
+        }
+
+        // sort by rowKey so that each partition hits as few regions as possible
+        List<SpanQuery> getTraceInfoList = sortByRowKey(transactionIdList);
+
+        List<List<SpanQuery>> partitionGetTraceInfoList = partition(getTraceInfoList, eachPartitionSize);
+        partitionSelect(partitionGetTraceInfoList, descriptor.getColumnFamilyName(), filter, (partitionIndex, result) -> {
+            for (int i = 0; i < result.size(); i++) {
+                // release each transaction as soon as it has been consumed
+                final List<SpanBo> transaction = result.set(i, null);
+                transactionConsumer.accept(transaction);
+            }
+        }, statistics);
+    }
+
+    private List<SpanQuery> sortByRowKey(List<TransactionId> transactionIdList) {
+        return transactionIdList.stream()
+                .map(transactionId -> new AbstractMap.SimpleImmutableEntry<>(rowKeyEncoder.encodeRowKey(transactionId), transactionId))
+                .sorted(Map.Entry.comparingByKey(Bytes.BYTES_COMPARATOR))
+                .map(entry -> new SpanQuery(entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
     private List<List<SpanQuery>> partition(List<SpanQuery> getTraceInfoList, int maxTransactionIdListSize) {
         return ListUtils.partition(getTraceInfoList, maxTransactionIdListSize);
     }
@@ -200,16 +258,109 @@ public class HbaseTraceDaoV2 implements TraceDao {
         if (CollectionUtils.isEmpty(partitionGetTraceInfoList)) {
             return Collections.emptyList();
         }
-        Objects.requireNonNull(columnFamily, "columnFamily");
+
+        // keep the order of the request
+        final List<List<List<SpanBo>>> partitionResult = new ArrayList<>(Collections.nCopies(partitionGetTraceInfoList.size(), null));
+        partitionSelect(partitionGetTraceInfoList, columnFamily, filter, partitionResult::set, new SpanSelectStatistics());
 
         List<List<SpanBo>> spanBoList = new ArrayList<>();
-        for (List<SpanQuery> getTraceInfoList : partitionGetTraceInfoList) {
-            List<List<SpanBo>> result = bulkSelect(getTraceInfoList, columnFamily, filter);
+        for (List<List<SpanBo>> result : partitionResult) {
             spanBoList.addAll(result);
         }
         return spanBoList;
     }
 
+    /**
+     * Selects the partitions on the {@link #executor} with at most {@link #selectConcurrency} partitions in flight.
+     * Each result is handed to the partitionConsumer on the calling thread in completion order.
+     * The timings are recorded to the statistics.
+     */
+    private void partitionSelect(List<List<SpanQuery>> partitionGetTraceInfoList, byte[] columnFamily, Filter filter,
+                                 PartitionConsumer partitionConsumer, SpanSelectStatistics statistics) {
+        Objects.requireNonNull(columnFamily, "columnFamily");
+
+        final long startTime = System.nanoTime();
+        try {
+            partitionSelect0(partitionGetTraceInfoList, columnFamily, filter, partitionConsumer, statistics);
+        } finally {
+            statistics.recordSelect(System.nanoTime() - startTime);
+            if (logger.isDebugEnabled()) {
+                logger.debug("partitionSelect concurrency:{} {}", selectConcurrency, statistics);
+            }
+        }
+    }
+
+    private void partitionSelect0(List<List<SpanQuery>> partitionGetTraceInfoList, byte[] columnFamily, Filter filter,
+                                  PartitionConsumer partitionConsumer, SpanSelectStatistics statistics) {
+        final int partitionSize = partitionGetTraceInfoList.size();
+        if (partitionSize == 1) {
+            PartitionResult result = bulkSelect(0, partitionGetTraceInfoList.get(0), columnFamily, filter);
+            consume(result, partitionConsumer, statistics);
+            return;
+        }
+
+        final int concurrency = Math.max(1, selectConcurrency);
+        final CompletionService<PartitionResult> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<PartitionResult>> futureList = new ArrayList<>(partitionSize);
+        int submitted = 0;
+        int completed = 0;
+        try {
+            while (completed < partitionSize) {
+                while (submitted < partitionSize && submitted - completed < concurrency) {
+                    final int partitionIndex = submitted++;
+                    final List<SpanQuery> spanQueryList = partitionGetTraceInfoList.get(partitionIndex);
+                    try {
+                        futureList.add(completionService.submit(() -> bulkSelect(partitionIndex, spanQueryList, columnFamily, filter)));
+                    } catch (RejectedExecutionException e) {
+                        logger.debug("partitionSelect rejected, select on the caller thread. partition:{}", partitionIndex);
+                        PartitionResult result = bulkSelect(partitionIndex, spanQueryList, columnFamily, filter);
+                        completed++;
+                        consume(result, partitionConsumer, statistics);
+                    }
+                }
+                if (completed == partitionSize) {
+                    break;
+                }
+                final PartitionResult result = completionService.take().get();
+                completed++;
+                consume(result, partitionConsumer, statistics);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("partitionSelect interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("partitionSelect failed", cause);
+        } finally {
+            if (completed < partitionSize) {
+                for (Future<PartitionResult> future : futureList) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private void consume(PartitionResult result, PartitionConsumer partitionConsumer, SpanSelectStatistics statistics) {
+        final List<List<SpanBo>> spanBoList = result.getSpanBoList();
+        final int transactionCount = spanBoList.size();
+        final long startTime = System.nanoTime();
+        try {
+            partitionConsumer.accept(result.getPartitionIndex(), spanBoList);
+        } finally {
+            statistics.recordPartition(transactionCount, result.getElapsedNanos(), System.nanoTime() - startTime);
+        }
+    }
+
+    private PartitionResult bulkSelect(int partitionIndex, List<SpanQuery> getTraceInfoList, byte[] columnFamily, Filter filter) {
+        final long startTime = System.nanoTime();
+        final List<List<SpanBo>> spanBoList = bulkSelect(getTraceInfoList, columnFamily, filter);
+        final long elapsedNanos = System.nanoTime() - startTime;
+        return new PartitionResult(partitionIndex, spanBoList, elapsedNanos);
+    }
+
     private List<List<SpanBo>> bulkSelect(List<SpanQuery> getTraceInfoList, byte[] columnFamily, Filter filter) {
         if (CollectionUtils.isEmpty(getTraceInfoList)) {
             return Collections.emptyList();
@@ -280,5 +431,33 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return qualifierPrefixFilter;
     }
 
+    @FunctionalInterface
+    private interface PartitionConsumer {
+        void accept(int partitionIndex, List<List<SpanBo>> spanBoList);
+    }
+
+    private static class PartitionResult {
+        private final int partitionIndex;
+        private final List<List<SpanBo>> spanBoList;
+        private final long elapsedNanos;
+
+        private PartitionResult(int partitionIndex, List<List<SpanBo>> spanBoList, long elapsedNanos) {
+            this.partitionIndex = partitionIndex;
+            this.spanBoList = Objects.requireNonNull(spanBoList, "spanBoList");
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getPartitionIndex() {
+            return partitionIndex;
+        }
+
+        public List<List<SpanBo>> getSpanBoList() {
+            return spanBoList;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
 
 }
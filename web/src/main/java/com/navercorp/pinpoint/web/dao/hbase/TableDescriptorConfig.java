@@ -58,6 +58,12 @@ public class TableDescriptorConfig extends TableDescriptors {
         return super.getAgentStatStatus();
     }
 
+    @Bean
+    @Override
+    public TableDescriptor<HbaseColumnFamily.AgentStatRollup> getAgentStatRollup() {
+        return super.getAgentStatRollup();
+    }
+
     @Bean
     @Override
     public TableDescriptor<HbaseColumnFamily.AgentUriStatStatistics> getAgentUriStatStatus() {
@@ -76,6 +82,12 @@ public class TableDescriptorConfig extends TableDescriptors {
         return super.getApplicationIndex();
     }
 
+    @Bean
+    @Override
+    public TableDescriptor<HbaseColumnFamily.ApplicationScatterRollup> getApplicationScatterRollup() {
+        return super.getApplicationScatterRollup();
+    }
+
     @Bean
     @Override
     public TableDescriptor<HbaseColumnFamily.ApplicationStatStatistics> getApplicationStatStatistics() {
@@ -23,23 +23,48 @@ import com.navercorp.pinpoint.common.hbase.TableDescriptor;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchema;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatField;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
 import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatColumnMapper;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
 import com.navercorp.pinpoint.web.util.ListListUtils;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
 
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.FamilyFilter;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultipleColumnPrefixFilter;
+import org.apache.hadoop.hbase.util.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * @author HyunGil Jeong
@@ -58,18 +83,35 @@ public class HbaseAgentStatDaoOperationsV2 {
 
     private final TableDescriptor<HbaseColumnFamily.AgentStatStatistics> descriptor;
 
+    // the columnar family may not exist in the table
+    private final boolean columnarEnable;
+    // every collector writes the columnar family from this timestamp, -1 if the row family may still be written
+    private final long columnarSince;
+
     public HbaseAgentStatDaoOperationsV2(HbaseOperations2 hbaseOperations2,
-                                         TableDescriptor<HbaseColumnFamily.AgentStatStatistics> descriptor, AgentStatHbaseOperationFactory operationFactory) {
+                                         TableDescriptor<HbaseColumnFamily.AgentStatStatistics> descriptor, AgentStatHbaseOperationFactory operationFactory,
+                                         @Value("${web.stat.columnar.enable:false}") boolean columnarEnable,
+                                         @Value("${web.stat.columnar.since:-1}") long columnarSince) {
         this.hbaseOperations2 = Objects.requireNonNull(hbaseOperations2, "hbaseOperations2");
         this.operationFactory = Objects.requireNonNull(operationFactory, "operationFactory");
         this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
+        this.columnarEnable = columnarEnable;
+        this.columnarSince = columnarSince;
     }
 
     <T extends AgentStatDataPoint> List<T> getAgentStatList(AgentStatType agentStatType, AgentStatMapperV2<T> mapper, String agentId, Range range) {
+        return getAgentStatList(agentStatType, mapper, agentId, range, null);
+    }
+
+    /**
+     * @param projection fields read from the columnar family, empty to read only the timestamps, null if the agent stat type is not stored in the columnar layout
+     */
+    <T extends AgentStatDataPoint> List<T> getAgentStatList(AgentStatType agentStatType, AgentStatMapper<T> mapper, String agentId, Range range,
+                                                            Collection<? extends AgentStatField<?>> projection) {
         Objects.requireNonNull(agentId, "agentId");
         Objects.requireNonNull(range, "range");
 
-        Scan scan = this.createScan(agentStatType, agentId, range);
+        Scan scan = this.createScan(agentStatType, agentId, range, projection);
 
         TableName agentStatTableName = descriptor.getTableName();
         List<List<T>> intermediate = hbaseOperations2.findParallel(agentStatTableName, scan, this.operationFactory.getRowKeyDistributor(), mapper, AGENT_STAT_VER2_NUM_PARTITIONS);
@@ -78,7 +120,50 @@ public class HbaseAgentStatDaoOperationsV2 {
         return ListListUtils.toList(intermediate, expectedSize);
     }
 
+    /**
+     * Reads the stats of several agents with one scan per salt bucket.
+     * The row ranges of every agent in a bucket are combined by a {@link MultiRowRangeFilter}, and the buckets are scanned in parallel.
+     *
+     * @param projection fields read from the columnar family, empty to read only the timestamps, null if the agent stat type is not stored in the columnar layout
+     * @return stats in the reverse timestamp order, keyed by agentId. Agents without stats are not included.
+     */
+    <T extends AgentStatDataPoint> Map<String, List<T>> getAgentStatList(AgentStatType agentStatType, AgentStatMapper<T> mapper, List<String> agentIds, Range range,
+                                                                         Collection<? extends AgentStatField<?>> projection) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+        if (agentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Scan> scans = createMultiAgentScans(agentStatType, agentIds, range, projection);
+
+        TableName agentStatTableName = descriptor.getTableName();
+        List<List<List<T>>> intermediate = hbaseOperations2.findParallel(agentStatTableName, scans, mapper);
+
+        final Map<String, List<T>> agentStatMap = new HashMap<>();
+        for (List<List<T>> bucketResult : intermediate) {
+            for (List<T> rowResult : bucketResult) {
+                for (T dataPoint : rowResult) {
+                    agentStatMap.computeIfAbsent(dataPoint.getAgentId(), k -> new ArrayList<>()).add(dataPoint);
+                }
+            }
+        }
+        for (List<T> dataPoints : agentStatMap.values()) {
+            // buckets are not merged in the row key order
+            dataPoints.sort(AgentStatMapperV2.REVERSE_TIMESTAMP_COMPARATOR);
+        }
+        return agentStatMap;
+    }
+
     <T extends AgentStatDataPoint> boolean agentStatExists(AgentStatType agentStatType, AgentStatMapperV2<T> mapper, String agentId, Range range) {
+        return agentStatExists(agentStatType, mapper, agentId, range, null);
+    }
+
+    /**
+     * @param projection fields read from the columnar family, empty to read only the timestamps, null if the agent stat type is not stored in the columnar layout
+     */
+    <T extends AgentStatDataPoint> boolean agentStatExists(AgentStatType agentStatType, AgentStatMapper<T> mapper, String agentId, Range range,
+                                                           Collection<? extends AgentStatField<?>> projection) {
         Objects.requireNonNull(agentId, "agentId");
         Objects.requireNonNull(range, "range");
 
@@ -87,7 +172,7 @@ public class HbaseAgentStatDaoOperationsV2 {
         }
 
         int resultLimit = 20;
-        Scan scan = this.createScan(agentStatType, agentId, range, resultLimit);
+        Scan scan = this.createScan(agentStatType, agentId, range, resultLimit, projection);
 
         TableName agentStatTableName = descriptor.getTableName();
         List<List<T>> result = hbaseOperations2.findParallel(agentStatTableName, scan, this.operationFactory.getRowKeyDistributor(), resultLimit, mapper, AGENT_STAT_VER2_NUM_PARTITIONS);
@@ -98,12 +183,66 @@ public class HbaseAgentStatDaoOperationsV2 {
         }
     }
 
+    /**
+     * Checks the stat existence of several agents with one scan per salt bucket, see {@link #getAgentStatList(AgentStatType, AgentStatMapper, List, Range, Collection)}.
+     * Only the first key of each row is returned, without its value, and a bucket scan is closed once every agent has been found in it.
+     *
+     * @param projection fields read from the columnar family, empty to read only the timestamps, null if the agent stat type is not stored in the columnar layout
+     * @return agentIds having stats in the range
+     */
+    Set<String> agentStatExists(AgentStatType agentStatType, List<String> agentIds, Range range,
+                                Collection<? extends AgentStatField<?>> projection) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+        if (agentIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("checking for stat data existence : agentIds={}, {}", agentIds.size(), range);
+        }
+
+        final List<Scan> scans = createMultiAgentScans(agentStatType, agentIds, range, projection);
+        for (Scan scan : scans) {
+            // the row key is enough to check the existence
+            scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, scan.getFilter(), new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        }
+        final int numAgents = new HashSet<>(agentIds).size();
+        final ResultsExtractor<Set<String>> agentIdExtractor = results -> {
+            final Set<String> bucketAgentIds = new HashSet<>();
+            for (Result result : results) {
+                bucketAgentIds.add(this.operationFactory.getAgentId(result.getRow()));
+                if (bucketAgentIds.size() == numAgents) {
+                    // the remaining rows of the bucket can not add an agent
+                    break;
+                }
+            }
+            return bucketAgentIds;
+        };
+
+        TableName agentStatTableName = descriptor.getTableName();
+        List<Set<String>> intermediate = hbaseOperations2.findParallel(agentStatTableName, scans, agentIdExtractor);
+
+        final Set<String> existAgentIds = new HashSet<>();
+        for (Set<String> bucketAgentIds : intermediate) {
+            existAgentIds.addAll(bucketAgentIds);
+        }
+        return existAgentIds;
+    }
+
     <S extends SampledAgentStatDataPoint> List<S> getSampledAgentStatList(AgentStatType agentStatType, ResultsExtractor<List<S>> resultExtractor, String agentId, Range range) {
+        return getSampledAgentStatList(agentStatType, resultExtractor, agentId, range, null);
+    }
+
+    /**
+     * @param projection fields read from the columnar family, empty to read only the timestamps, null if the agent stat type is not stored in the columnar layout
+     */
+    <S extends SampledAgentStatDataPoint> List<S> getSampledAgentStatList(AgentStatType agentStatType, ResultsExtractor<List<S>> resultExtractor, String agentId, Range range,
+                                                                          Collection<? extends AgentStatField<?>> projection) {
         Objects.requireNonNull(agentId, "agentId");
         Objects.requireNonNull(range, "range");
         Objects.requireNonNull(resultExtractor, "resultExtractor");
 
-        Scan scan = this.createScan(agentStatType, agentId, range);
+        Scan scan = this.createScan(agentStatType, agentId, range, projection);
 
         TableName agentStatTableName = descriptor.getTableName();
         return hbaseOperations2.findParallel(agentStatTableName, scan, this.operationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
@@ -114,27 +253,121 @@ public class HbaseAgentStatDaoOperationsV2 {
         return new AgentStatMapperV2<>(this.operationFactory, decoder, filter);
     }
 
-    private Scan createScan(AgentStatType agentStatType, String agentId, Range range) {
+    /**
+     * Maps the columnar layout together with the row layout written by the decoder, the row layout only if the columnar layout is disabled.
+     */
+    <T extends AgentStatDataPoint> AgentStatMapper<T> createRowMapper(AgentStatDecoder<T> decoder, AgentStatColumnSchema<T> schema, Range range) {
+        TimestampFilter filter = new RangeTimestampFilter(range);
+        AgentStatMapperV2<T> rowMapper = new AgentStatMapperV2<>(this.operationFactory, decoder, filter);
+        if (!columnarEnable) {
+            return rowMapper;
+        }
+        return new AgentStatColumnMapper<>(this.operationFactory, new AgentStatColumnCodec<>(schema), filter, rowMapper);
+    }
+
+    private long expectedNumRows(Range range) {
         long scanRange = range.getTo() - range.getFrom();
         long expectedNumRows = ((scanRange - 1) / descriptor.getColumnFamily().TIMESPAN_MS) + 1;
         if (range.getFrom() != AgentStatUtils.getBaseTimestamp(range.getFrom())) {
             expectedNumRows++;
         }
+        return expectedNumRows;
+    }
+
+    // for test
+    Scan createScan(AgentStatType agentStatType, String agentId, Range range, Collection<? extends AgentStatField<?>> projection) {
+        long expectedNumRows = expectedNumRows(range);
         if (expectedNumRows > MAX_SCAN_CACHE_SIZE) {
-            return this.createScan(agentStatType, agentId, range, MAX_SCAN_CACHE_SIZE);
+            return this.createScan(agentStatType, agentId, range, MAX_SCAN_CACHE_SIZE, projection);
         } else {
             // expectedNumRows guaranteed to be within integer range at this point
-            return this.createScan(agentStatType, agentId, range, (int) expectedNumRows);
+            return this.createScan(agentStatType, agentId, range, (int) expectedNumRows, projection);
         }
     }
 
-    private Scan createScan(AgentStatType agentStatType, String agentId, Range range, int scanCacheSize) {
+    private Scan createScan(AgentStatType agentStatType, String agentId, Range range, int scanCacheSize, Collection<? extends AgentStatField<?>> projection) {
         Scan scan = this.operationFactory.createScan(agentId, agentStatType, range.getFrom(), range.getTo());
         scan.setCaching(scanCacheSize);
         scan.setId("AgentStat_" + agentStatType);
-        scan.addFamily(descriptor.getColumnFamilyName());
+        if (columnarEnable && projection != null) {
+            final byte[] columnFamily = HbaseColumnFamily.AGENT_STAT_COLUMNS.getName();
+            final byte[][] prefixes = AgentStatColumnCodec.getQualifierPrefixes(projection);
+            scan.addFamily(columnFamily);
+            if (isColumnarRange(range)) {
+                // the row family holds nothing of the range
+                scan.setFilter(new MultipleColumnPrefixFilter(prefixes));
+            } else {
+                scan.addFamily(descriptor.getColumnFamilyName());
+                scan.setFilter(createProjectionFilter(columnFamily, prefixes));
+            }
+        } else {
+            scan.addFamily(descriptor.getColumnFamilyName());
+        }
         return scan;
     }
 
+    private boolean isColumnarRange(Range range) {
+        return columnarSince >= 0 && range.getFrom() >= columnarSince;
+    }
+
+    private List<Scan> createMultiAgentScans(AgentStatType agentStatType, List<String> agentIds, Range range,
+                                             Collection<? extends AgentStatField<?>> projection) {
+        final AbstractRowKeyDistributor rowKeyDistributor = this.operationFactory.getRowKeyDistributor();
+        final List<List<MultiRowRangeFilter.RowRange>> bucketRanges = new ArrayList<>();
+        for (String agentId : agentIds) {
+            final Scan agentScan = this.operationFactory.createScan(agentId, agentStatType, range.getFrom(), range.getTo());
+            final Pair<byte[], byte[]>[] intervals = rowKeyDistributor.getDistributedIntervals(agentScan.getStartRow(), agentScan.getStopRow());
+            for (int bucket = 0; bucket < intervals.length; bucket++) {
+                if (bucketRanges.size() <= bucket) {
+                    bucketRanges.add(new ArrayList<>(agentIds.size()));
+                }
+                final Pair<byte[], byte[]> interval = intervals[bucket];
+                bucketRanges.get(bucket).add(new MultiRowRangeFilter.RowRange(interval.getFirst(), true, interval.getSecond(), false));
+            }
+        }
+
+        final int scanCacheSize = (int) Math.min(MAX_SCAN_CACHE_SIZE, expectedNumRows(range) * agentIds.size());
+        final List<Scan> scans = new ArrayList<>(bucketRanges.size());
+        for (List<MultiRowRangeFilter.RowRange> rowRanges : bucketRanges) {
+            final MultiRowRangeFilter rowRangeFilter = newMultiRowRangeFilter(rowRanges);
+            // the ranges are sorted by the filter
+            final List<MultiRowRangeFilter.RowRange> sortedRanges = rowRangeFilter.getRowRanges();
+
+            final Scan scan = createScan(agentStatType, agentIds.get(0), range, scanCacheSize, projection);
+            scan.withStartRow(sortedRanges.get(0).getStartRow());
+            scan.withStopRow(sortedRanges.get(sortedRanges.size() - 1).getStopRow());
+            scan.setId("AgentStatMulti_" + agentStatType);
+            final Filter projectionFilter = scan.getFilter();
+            if (projectionFilter == null) {
+                scan.setFilter(rowRangeFilter);
+            } else {
+                scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, rowRangeFilter, projectionFilter));
+            }
+            scans.add(scan);
+        }
+        return scans;
+    }
+
+    private static MultiRowRangeFilter newMultiRowRangeFilter(List<MultiRowRangeFilter.RowRange> rowRanges) {
+        try {
+            return new MultiRowRangeFilter(rowRanges);
+        } catch (Exception e) {
+            // hbase 1.x declares IOException for overlapping ranges
+            throw new IllegalArgumentException("invalid row ranges", e);
+        }
+    }
+
+    /**
+     * Passes every cell of the row family, and only the projected field cells of the columnar family.
+     */
+    private Filter createProjectionFilter(byte[] columnFamily, byte[][] prefixes) {
+        final FilterList columnFilter = new FilterList(FilterList.Operator.MUST_PASS_ALL,
+                new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(columnFamily)),
+                new MultipleColumnPrefixFilter(prefixes));
+        return new FilterList(FilterList.Operator.MUST_PASS_ONE,
+                new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(descriptor.getColumnFamilyName())),
+                columnFilter);
+    }
+
 
 }
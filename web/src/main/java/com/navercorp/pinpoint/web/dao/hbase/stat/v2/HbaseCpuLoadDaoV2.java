@@ -17,14 +17,18 @@
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CpuLoadDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatField;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.web.dao.stat.CpuLoadDao;
-import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -33,6 +37,9 @@ import java.util.Objects;
 @Repository("cpuLoadDaoV2")
 public class HbaseCpuLoadDaoV2 implements CpuLoadDao {
 
+    // jvm and system cpu usage of the alarm
+    private static final List<AgentStatField<CpuLoadBo>> ALARM_FIELDS = AgentStatColumnSchemas.CPU_LOAD.getFields("jvmCpuLoad", "systemCpuLoad");
+
     private final HbaseAgentStatDaoOperationsV2 operations;
 
     private final CpuLoadDecoder cpuLoadDecoder;
@@ -44,13 +51,19 @@ public class HbaseCpuLoadDaoV2 implements CpuLoadDao {
 
     @Override
     public List<CpuLoadBo> getAgentStatList(String agentId, Range range) {
-        AgentStatMapperV2<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, range);
-        return operations.getAgentStatList(AgentStatType.CPU_LOAD, mapper, agentId, range);
+        AgentStatMapper<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, AgentStatColumnSchemas.CPU_LOAD, range);
+        return operations.getAgentStatList(AgentStatType.CPU_LOAD, mapper, agentId, range, AgentStatColumnSchemas.CPU_LOAD.getFields());
+    }
+
+    @Override
+    public Map<String, List<CpuLoadBo>> getAgentStatList(List<String> agentIds, Range range) {
+        AgentStatMapper<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, AgentStatColumnSchemas.CPU_LOAD, range);
+        return operations.getAgentStatList(AgentStatType.CPU_LOAD, mapper, agentIds, range, ALARM_FIELDS);
     }
 
     @Override
     public boolean agentStatExists(String agentId, Range range) {
-        AgentStatMapperV2<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, range);
-        return operations.agentStatExists(AgentStatType.CPU_LOAD, mapper, agentId, range);
+        AgentStatMapper<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, AgentStatColumnSchemas.CPU_LOAD, range);
+        return operations.agentStatExists(AgentStatType.CPU_LOAD, mapper, agentId, range, Collections.emptyList());
     }
 }
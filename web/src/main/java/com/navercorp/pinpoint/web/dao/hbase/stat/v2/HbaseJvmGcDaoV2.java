@@ -17,15 +17,20 @@
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.JvmGcDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatField;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.web.dao.stat.JvmGcDao;
-import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * @author HyunGil Jeong
@@ -33,6 +38,9 @@ import java.util.Objects;
 @Repository("jvmGcDaoV2")
 public class HbaseJvmGcDaoV2 implements JvmGcDao {
 
+    // heap usage and old gc count of the alarm
+    private static final List<AgentStatField<JvmGcBo>> ALARM_FIELDS = AgentStatColumnSchemas.JVM_GC.getFields("heapUsed", "heapMax", "gcOldCount");
+
     private final HbaseAgentStatDaoOperationsV2 operations;
 
     private final JvmGcDecoder jvmGcDecoder;
@@ -44,13 +52,27 @@ public class HbaseJvmGcDaoV2 implements JvmGcDao {
 
     @Override
     public List<JvmGcBo> getAgentStatList(String agentId, Range range) {
-        AgentStatMapperV2<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, range);
-        return operations.getAgentStatList(AgentStatType.JVM_GC, mapper, agentId, range);
+        AgentStatMapper<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, AgentStatColumnSchemas.JVM_GC, range);
+        return operations.getAgentStatList(AgentStatType.JVM_GC, mapper, agentId, range, AgentStatColumnSchemas.JVM_GC.getFields());
+    }
+
+    /**
+     * Read by the alarm, only the heap usage and the old gc count are projected from the columnar layout.
+     */
+    @Override
+    public Map<String, List<JvmGcBo>> getAgentStatList(List<String> agentIds, Range range) {
+        AgentStatMapper<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, AgentStatColumnSchemas.JVM_GC, range);
+        return operations.getAgentStatList(AgentStatType.JVM_GC, mapper, agentIds, range, ALARM_FIELDS);
     }
 
     @Override
     public boolean agentStatExists(String agentId, Range range) {
-        AgentStatMapperV2<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, range);
-        return operations.agentStatExists(AgentStatType.JVM_GC, mapper, agentId, range);
+        AgentStatMapper<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, AgentStatColumnSchemas.JVM_GC, range);
+        return operations.agentStatExists(AgentStatType.JVM_GC, mapper, agentId, range, Collections.emptyList());
+    }
+
+    @Override
+    public Set<String> agentStatExists(List<String> agentIds, Range range) {
+        return operations.agentStatExists(AgentStatType.JVM_GC, agentIds, range, Collections.emptyList());
     }
 }
\ No newline at end of file
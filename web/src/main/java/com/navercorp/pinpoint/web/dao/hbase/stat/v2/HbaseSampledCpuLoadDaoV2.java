@@ -17,10 +17,12 @@
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CpuLoadDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatField;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.web.dao.stat.SampledCpuLoadDao;
-import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadSampler;
 import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
 import com.navercorp.pinpoint.web.util.TimeWindow;
@@ -37,6 +39,9 @@ import java.util.Objects;
 @Repository("sampledCpuLoadDaoV2")
 public class HbaseSampledCpuLoadDaoV2 implements SampledCpuLoadDao {
 
+    // plotted by the cpu load chart
+    private static final List<AgentStatField<CpuLoadBo>> CHART_FIELDS = AgentStatColumnSchemas.CPU_LOAD.getFields("jvmCpuLoad", "systemCpuLoad");
+
     private final HbaseAgentStatDaoOperationsV2 operations;
 
     private final CpuLoadDecoder cpuLoadDecoder;
@@ -53,8 +58,8 @@ public class HbaseSampledCpuLoadDaoV2 implements SampledCpuLoadDao {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = Range.newRange(scanFrom, scanTo);
-        AgentStatMapperV2<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, range);
+        AgentStatMapper<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, AgentStatColumnSchemas.CPU_LOAD, range);
         SampledAgentStatResultExtractor<CpuLoadBo, SampledCpuLoad> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, cpuLoadSampler);
-        return operations.getSampledAgentStatList(AgentStatType.CPU_LOAD, resultExtractor, agentId, range);
+        return operations.getSampledAgentStatList(AgentStatType.CPU_LOAD, resultExtractor, agentId, range, CHART_FIELDS);
     }
 }
@@ -17,10 +17,12 @@
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.JvmGcDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatField;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.web.dao.stat.SampledJvmGcDao;
-import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.JvmGcSampler;
 import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
 import com.navercorp.pinpoint.web.util.TimeWindow;
@@ -37,6 +39,10 @@ import java.util.Objects;
 @Repository("sampledJvmGcDaoV2")
 public class HbaseSampledJvmGcDaoV2 implements SampledJvmGcDao {
 
+    // plotted by the heap, non heap and gc charts, the gc type names the collector of the chart
+    private static final List<AgentStatField<JvmGcBo>> CHART_FIELDS = AgentStatColumnSchemas.JVM_GC.getFields("gcType",
+            "heapUsed", "heapMax", "nonHeapUsed", "nonHeapMax", "gcOldCount", "gcOldTime");
+
     private final HbaseAgentStatDaoOperationsV2 operations;
 
     private final JvmGcDecoder jvmGcDecoder;
@@ -53,8 +59,8 @@ public class HbaseSampledJvmGcDaoV2 implements SampledJvmGcDao {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = Range.newRange(scanFrom, scanTo);
-        AgentStatMapperV2<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, range);
+        AgentStatMapper<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, AgentStatColumnSchemas.JVM_GC, range);
         SampledAgentStatResultExtractor<JvmGcBo, SampledJvmGc> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, jvmGcSampler);
-        return operations.getSampledAgentStatList(AgentStatType.JVM_GC, resultExtractor, agentId, range);
+        return operations.getSampledAgentStatList(AgentStatType.JVM_GC, resultExtractor, agentId, range, CHART_FIELDS);
     }
 }
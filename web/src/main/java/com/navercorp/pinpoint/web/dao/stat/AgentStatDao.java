@@ -16,7 +16,12 @@
 
 package com.navercorp.pinpoint.web.dao.stat;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -28,5 +33,36 @@ public interface AgentStatDao<T extends AgentStatDataPoint> {
 
     List<T> getAgentStatList(String agentId, Range range);
 
+    /**
+     * @return stats keyed by agentId. Agents without stats are not included.
+     */
+    default Map<String, List<T>> getAgentStatList(List<String> agentIds, Range range) {
+        Objects.requireNonNull(agentIds, "agentIds");
+
+        final Map<String, List<T>> agentStatMap = new HashMap<>();
+        for (String agentId : agentIds) {
+            final List<T> agentStatList = getAgentStatList(agentId, range);
+            if (!agentStatList.isEmpty()) {
+                agentStatMap.put(agentId, agentStatList);
+            }
+        }
+        return agentStatMap;
+    }
+
     boolean agentStatExists(String agentId, Range range);
+
+    /**
+     * @return agentIds having stats in the range
+     */
+    default Set<String> agentStatExists(List<String> agentIds, Range range) {
+        Objects.requireNonNull(agentIds, "agentIds");
+
+        final Set<String> existAgentIds = new HashSet<>();
+        for (String agentId : agentIds) {
+            if (agentStatExists(agentId, range)) {
+                existAgentIds.add(agentId);
+            }
+        }
+        return existAgentIds;
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a minute row of the AgentStatRollup table, qualifier: [field code][agentId], value: counter
+ */
+@Component
+public class AgentStatRollupMapper implements RowMapper<List<AgentStatRollupBo>> {
+
+    @Override
+    public List<AgentStatRollupBo> mapRow(Result result, int rowNum) throws Exception {
+        if (result.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final byte[] family = HbaseColumnFamily.AGENT_STAT_ROLLUP_COUNTER.getName();
+        final Map<String, AgentStatRollupBo> rollupMap = new HashMap<>();
+        for (Cell cell : result.rawCells()) {
+            if (!CellUtil.matchingFamily(cell, family)) {
+                continue;
+            }
+            final byte[] qArray = cell.getQualifierArray();
+            final int qOffset = cell.getQualifierOffset();
+            final AgentStatRollupField field = AgentStatRollupField.findByCode(Bytes.toShort(qArray, qOffset));
+            if (field == null) {
+                continue;
+            }
+            final String agentId = Bytes.toString(qArray, qOffset + BytesUtils.SHORT_BYTE_LENGTH, cell.getQualifierLength() - BytesUtils.SHORT_BYTE_LENGTH);
+            final long value = Bytes.toLong(cell.getValueArray(), cell.getValueOffset());
+
+            final AgentStatRollupBo rollup = rollupMap.computeIfAbsent(agentId, AgentStatRollupBo::new);
+            rollup.add(field, value);
+        }
+        return new ArrayList<>(rollupMap.values());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseTableConstants;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMapBuilder;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+import java.util.Objects;
+
+/**
+ * Counts the ApplicationTraceIndex cells of a single scanner into its own {@link HeatMapBuilder}
+ * without materializing a {@link Dot} per cell.
+ * Stops after the row on which {@code limit} cells were reached, and reports that row's accepted time as the limited time.
+ */
+public class HeatMapResultsExtractor implements ResultsExtractor<LimitedScanResult<HeatMapBuilder>> {
+
+    private static final int ACCEPTED_TIME_OFFSET = HbaseTableConstants.APPLICATION_NAME_MAX_LEN + HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE.ROW_DISTRIBUTE_SIZE;
+
+    private final HeatMapBuilder prototype;
+    private final long scanFrom;
+    private final int limit;
+
+    public HeatMapResultsExtractor(HeatMapBuilder prototype, long scanFrom, int limit) {
+        this.prototype = Objects.requireNonNull(prototype, "prototype");
+        this.scanFrom = scanFrom;
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public LimitedScanResult<HeatMapBuilder> extractData(ResultScanner results) throws Exception {
+        final HeatMapBuilder builder = prototype.newEmptyBuilder();
+        int count = 0;
+        for (Result result : results) {
+            if (result.isEmpty()) {
+                continue;
+            }
+            final Cell[] rawCells = result.rawCells();
+            final long acceptedTime = getAcceptedTime(rawCells[0]);
+            for (Cell cell : rawCells) {
+                addDataPoint(builder, acceptedTime, cell);
+            }
+            count += rawCells.length;
+            if (count >= limit) {
+                return new LimitedScanResult<>(acceptedTime, builder);
+            }
+        }
+        return new LimitedScanResult<>(scanFrom, builder);
+    }
+
+    private void addDataPoint(HeatMapBuilder builder, long acceptedTime, Cell cell) {
+        final Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+        final int elapsed = valueBuffer.readVInt();
+        final int exceptionCode = valueBuffer.readSVInt();
+        builder.addDataPoint(acceptedTime, elapsed, exceptionCode == Dot.EXCEPTION_NONE);
+    }
+
+    static long getAcceptedTime(Cell cell) {
+        final long reverseAcceptedTime = BytesUtils.bytesToLong(cell.getRowArray(), cell.getRowOffset() + ACCEPTED_TIME_OFFSET);
+        return TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+    }
+}
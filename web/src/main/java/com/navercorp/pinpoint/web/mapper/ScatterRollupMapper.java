@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps a minute row of the ApplicationScatterRollup table to a dot per cell.
+ * The counter and the sample of a cell share the qualifier, cells without a sample are skipped.
+ */
+@Component
+public class ScatterRollupMapper implements RowMapper<List<RollupDot>> {
+
+    private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    public ScatterRollupMapper(@Qualifier("scatterRollupRowKeyDistributor") RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        this.rowKeyDistributorByHashPrefix = Objects.requireNonNull(rowKeyDistributorByHashPrefix, "rowKeyDistributorByHashPrefix");
+    }
+
+    @Override
+    public List<RollupDot> mapRow(Result result, int rowNum) throws Exception {
+        if (result.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final byte[] rowKey = rowKeyDistributorByHashPrefix.getOriginalKey(result.getRow());
+        final long rowTimeSlot = ScatterRollupUtils.getRowTimeSlot(rowKey, 0);
+
+        final byte[] counterFamily = HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER.getName();
+        final byte[] sampleFamily = HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_SAMPLE.getName();
+        final List<Cell> counterList = new ArrayList<>();
+        final List<Cell> sampleList = new ArrayList<>();
+        for (Cell cell : result.rawCells()) {
+            if (CellUtil.matchingFamily(cell, counterFamily)) {
+                counterList.add(cell);
+            } else if (CellUtil.matchingFamily(cell, sampleFamily)) {
+                sampleList.add(cell);
+            }
+        }
+
+        // cells of a family are sorted by qualifier
+        final List<RollupDot> dotList = new ArrayList<>(counterList.size());
+        int sampleIndex = 0;
+        for (Cell counter : counterList) {
+            int compare = -1;
+            while (sampleIndex < sampleList.size()) {
+                compare = compareQualifier(sampleList.get(sampleIndex), counter);
+                if (compare >= 0) {
+                    break;
+                }
+                sampleIndex++;
+            }
+            if (compare == 0) {
+                dotList.add(newRollupDot(rowTimeSlot, counter, sampleList.get(sampleIndex)));
+            }
+        }
+        return dotList;
+    }
+
+    private static int compareQualifier(Cell left, Cell right) {
+        return Bytes.compareTo(left.getQualifierArray(), left.getQualifierOffset(), left.getQualifierLength(),
+                right.getQualifierArray(), right.getQualifierOffset(), right.getQualifierLength());
+    }
+
+    private RollupDot newRollupDot(long rowTimeSlot, Cell counter, Cell sample) {
+        final byte[] qArray = counter.getQualifierArray();
+        final int qOffset = counter.getQualifierOffset();
+        final String agentId = ScatterRollupUtils.getAgentId(qArray, qOffset, counter.getQualifierLength());
+        final boolean error = ScatterRollupUtils.isError(qArray, qOffset);
+
+        final Buffer buffer = new OffsetFixedBuffer(sample.getValueArray(), sample.getValueOffset(), sample.getValueLength());
+        final int elapsed = buffer.readVInt();
+        final long acceptedTime = rowTimeSlot + buffer.readVLong();
+        final String transactionAgentId = buffer.readPrefixedString();
+        final long agentStartTime = buffer.readSVLong();
+        final long transactionSequence = buffer.readVLong();
+        final TransactionId transactionId = new TransactionId(transactionAgentId, agentStartTime, transactionSequence);
+
+        final Dot dot = new Dot(transactionId, acceptedTime, elapsed, error ? 1 : Dot.EXCEPTION_NONE, agentId);
+        final long count = Bytes.toLong(counter.getValueArray(), counter.getValueOffset());
+        return new RollupDot(dot, (int) Math.min(count, Integer.MAX_VALUE));
+    }
+}
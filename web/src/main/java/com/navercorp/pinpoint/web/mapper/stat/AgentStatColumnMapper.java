@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps the columnar {@link HbaseColumnFamily#AGENT_STAT_COLUMNS} cells of a row,
+ * together with the {@link HbaseColumnFamily#AGENT_STAT_STATISTICS} cells mapped by the {@link AgentStatMapperV2}.
+ * A row written while the columnar layout was being enabled holds both.
+ */
+public class AgentStatColumnMapper<T extends AgentStatDataPoint> implements AgentStatMapper<T> {
+
+    private final AgentStatHbaseOperationFactory hbaseOperationFactory;
+    private final AgentStatColumnCodec<T> codec;
+    private final TimestampFilter filter;
+    private final AgentStatMapperV2<T> rowMapper;
+
+    public AgentStatColumnMapper(AgentStatHbaseOperationFactory hbaseOperationFactory, AgentStatColumnCodec<T> codec,
+                                 TimestampFilter filter, AgentStatMapperV2<T> rowMapper) {
+        this.hbaseOperationFactory = Objects.requireNonNull(hbaseOperationFactory, "hbaseOperationFactory");
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.rowMapper = Objects.requireNonNull(rowMapper, "rowMapper");
+    }
+
+    @Override
+    public List<T> mapRow(Result result, int rowNum) throws Exception {
+        if (result.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // the row family is not scanned once the range is fully columnar
+        final List<T> rowDataPoints;
+        if (hasColumnFamily(result, HbaseColumnFamily.AGENT_STAT_STATISTICS.getName())) {
+            rowDataPoints = rowMapper.mapRow(result, rowNum);
+        } else {
+            rowDataPoints = Collections.emptyList();
+        }
+        if (!hasColumnFamily(result, HbaseColumnFamily.AGENT_STAT_COLUMNS.getName())) {
+            return rowDataPoints;
+        }
+
+        final byte[] distributedRowKey = result.getRow();
+        final String agentId = this.hbaseOperationFactory.getAgentId(distributedRowKey);
+        final long baseTimestamp = this.hbaseOperationFactory.getBaseTimestamp(distributedRowKey);
+
+        final AgentStatColumnCodec<T>.RowDecoder rowDecoder = codec.newRowDecoder(agentId, baseTimestamp);
+        final byte[] family = HbaseColumnFamily.AGENT_STAT_COLUMNS.getName();
+        for (Cell cell : result.rawCells()) {
+            if (CellUtil.matchingFamily(cell, family)) {
+                Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+                Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+                rowDecoder.addColumn(qualifierBuffer, valueBuffer);
+            }
+        }
+
+        final List<T> candidates = rowDecoder.getDataPoints();
+        final List<T> dataPoints = new ArrayList<>(candidates.size() + rowDataPoints.size());
+        dataPoints.addAll(rowDataPoints);
+        for (T candidate : candidates) {
+            if (filter.filter(candidate.getTimestamp())) {
+                continue;
+            }
+            dataPoints.add(candidate);
+        }
+        // Reverse sort as timestamp is stored in a reversed order.
+        dataPoints.sort(AgentStatMapperV2.REVERSE_TIMESTAMP_COMPARATOR);
+        return dataPoints;
+    }
+
+    private boolean hasColumnFamily(Result result, byte[] family) {
+        for (Cell cell : result.rawCells()) {
+            if (CellUtil.matchingFamily(cell, family)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -31,6 +31,8 @@ public class DotGroup {
 
     private Dot dotLeader;
 
+    private int count;
+
     public DotGroup(Coordinates coordinates) {
         this.coordinates = Objects.requireNonNull(coordinates, "coordinates");
         this.dotList = new ArrayList<>();
@@ -41,7 +43,12 @@ public class DotGroup {
     }
 
     void addDot(Dot dot) {
+        addDot(dot, 1);
+    }
+
+    void addDot(Dot dot, int count) {
         dotList.add(dot);
+        this.count += count;
 
         if (dotLeader == null) {
             dotLeader = dot;
@@ -56,6 +63,13 @@ public class DotGroup {
         return dotList.size();
     }
 
+    /**
+     * @return number of transactions represented by the group, a rollup dot stands for the transactions of its cell
+     */
+    public int getCount() {
+        return count;
+    }
+
     public Dot getDotLeader() {
         return dotLeader;
     }
@@ -43,6 +43,10 @@ public class DotGroups {
 
 
     void addDot(Coordinates coordinates, Dot dot) {
+        addDot(coordinates, dot, 1);
+    }
+
+    void addDot(Coordinates coordinates, Dot dot, int count) {
         Objects.requireNonNull(coordinates, "coordinates");
         Objects.requireNonNull(dot, "dot");
 
@@ -54,7 +58,7 @@ public class DotGroups {
             dotGroupMap.put(key, dotGroup);
         }
 
-        dotGroup.addDot(dot);
+        dotGroup.addDot(dot, count);
     }
 
 
@@ -40,6 +40,8 @@ public class ScatterData {
     private final long oldestAcceptedTime;
     private final long latestAcceptedTime;
 
+    private final boolean rollup;
+
     private static final Comparator<DotGroups> REVERSE = Comparator.comparingLong(DotGroups::getXCoordinates).reversed();
 
 
@@ -49,6 +51,16 @@ public class ScatterData {
                        long latestAcceptedTime,
                        Map<Long, DotGroups> scatterData,
                        ScatterAgentMetadataRepository scatterAgentMetadataRepository) {
+        this(from, to, oldestAcceptedTime, latestAcceptedTime, scatterData, scatterAgentMetadataRepository, false);
+    }
+
+    public ScatterData(long from,
+                       long to,
+                       long oldestAcceptedTime,
+                       long latestAcceptedTime,
+                       Map<Long, DotGroups> scatterData,
+                       ScatterAgentMetadataRepository scatterAgentMetadataRepository,
+                       boolean rollup) {
         if (from <= 0) {
             throw new IllegalArgumentException("from value must be higher than 0");
         }
@@ -62,6 +74,7 @@ public class ScatterData {
         this.latestAcceptedTime = latestAcceptedTime;
         this.scatterData = Objects.requireNonNull(scatterData, "scatterData");
         this.scatterAgentMetadataRepository = Objects.requireNonNull(scatterAgentMetadataRepository, "scatterAgentMetadataRepository");
+        this.rollup = rollup;
     }
 
     ScatterAgentMetadataRepository getScatterAgentMetadataRepository() {
@@ -94,6 +107,10 @@ public class ScatterData {
         return totalDotSize;
     }
 
+    public boolean isRollup() {
+        return rollup;
+    }
+
     public long getFrom() {
         return from;
     }
@@ -38,6 +38,8 @@ public class ScatterDataBuilder {
     private long oldestAcceptedTime = Long.MAX_VALUE;
     private long latestAcceptedTime = Long.MIN_VALUE;
 
+    private boolean rollup;
+
     public ScatterDataBuilder(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis) {
         if (from <= 0) {
             throw new IllegalArgumentException("from value must be higher than 0");
@@ -59,6 +61,13 @@ public class ScatterDataBuilder {
     }
 
     public void addDot(Dot dot) {
+        addDot(dot, 1);
+    }
+
+    /**
+     * @param count number of transactions represented by the dot
+     */
+    public void addDot(Dot dot, int count) {
         if (dot == null) {
             return;
         }
@@ -71,13 +80,13 @@ public class ScatterDataBuilder {
         int y = dot.getElapsedTime() - (dot.getElapsedTime() % yGroupUnitMillis);
 
         Coordinates coordinates = new Coordinates(x, y);
-        addDot(coordinates, new Dot(dot.getTransactionId(), acceptedTimeDiff, dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId()));
+        addDot(coordinates, new Dot(dot.getTransactionId(), acceptedTimeDiff, dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId()), count);
 
         oldestAcceptedTime = Math.min(oldestAcceptedTime, dot.getAcceptedTime());
         latestAcceptedTime = Math.max(latestAcceptedTime, dot.getAcceptedTime());
     }
 
-    private void addDot(Coordinates coordinates, Dot dot) {
+    private void addDot(Coordinates coordinates, Dot dot, int count) {
         final Long x = coordinates.getX();
         DotGroups dotGroups = this.scatterData.get(x);
         if (dotGroups == null) {
@@ -85,7 +94,7 @@ public class ScatterDataBuilder {
             this.scatterData.put(x, dotGroups);
         }
 
-        dotGroups.addDot(coordinates, dot);
+        dotGroups.addDot(coordinates, dot, count);
 
         scatterAgentMetadataRepository.addDotAgentInfo(new DotAgentInfo(dot));
     }
@@ -99,6 +108,13 @@ public class ScatterDataBuilder {
         return to;
     }
 
+    /**
+     * marks the data as built from the scatter rollup, which is complete regardless of the dot count
+     */
+    public void setRollup(boolean rollup) {
+        this.rollup = rollup;
+    }
+
     public ScatterData build() {
         Map<Long, DotGroups> copyScatterData = this.scatterData;
         this.scatterData = new HashMap<>();
@@ -106,7 +122,7 @@ public class ScatterDataBuilder {
         ScatterAgentMetadataRepository copyRepo = new ScatterAgentMetadataRepository(this.scatterAgentMetadataRepository.getDotAgentInfoSet());
         this.scatterAgentMetadataRepository = new ScatterAgentMetadataRepository();
 
-        return new ScatterData(from, to, this.oldestAcceptedTime, this.latestAcceptedTime, copyScatterData, copyRepo);
+        return new ScatterData(from, to, this.oldestAcceptedTime, this.latestAcceptedTime, copyScatterData, copyRepo, this.rollup);
     }
 
 }
@@ -1,10 +1,18 @@
 package com.navercorp.pinpoint.web.scatter.heatmap;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Success/fail counts stored as dense arrays indexed by {@code xIndex * ySize + yIndex}.
+ */
 public class HeatMap {
-    private final List<Point> data;
+    private final int xSize;
+    private final int ySize;
+    private final int[] successGrid;
+    private final int[] failGrid;
+
     private final long success;
     private final long fail;
 
@@ -17,13 +25,19 @@ public class HeatMap {
     private final long[] yIndex;
     private final long yTick;
 
-    public HeatMap(List<Point> data, long success, long fail,
+    public HeatMap(int xSize, int ySize, int[] successGrid, int[] failGrid,
                    long oldestAcceptedTime,
                    long latestAcceptedTime,
                    long[] xIndex, long xTick, long[] yIndex, long yTick) {
-        this.data = Objects.requireNonNull(data, "data");
-        this.success = success;
-        this.fail = fail;
+        this.xSize = xSize;
+        this.ySize = ySize;
+        this.successGrid = Objects.requireNonNull(successGrid, "successGrid");
+        this.failGrid = Objects.requireNonNull(failGrid, "failGrid");
+        if (successGrid.length != xSize * ySize || failGrid.length != xSize * ySize) {
+            throw new IllegalArgumentException("invalid grid length " + xSize + "x" + ySize);
+        }
+        this.success = sum(successGrid);
+        this.fail = sum(failGrid);
 
         this.oldestAcceptedTime = oldestAcceptedTime;
         this.latestAcceptedTime = latestAcceptedTime;
@@ -33,8 +47,46 @@ public class HeatMap {
         this.yTick = yTick;
     }
 
+    private static long sum(int[] grid) {
+        long sum = 0;
+        for (int count : grid) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    public int getSuccessCount(int xIndex, int yIndex) {
+        return successGrid[xIndex * ySize + yIndex];
+    }
+
+    public int getFailCount(int xIndex, int yIndex) {
+        return failGrid[xIndex * ySize + yIndex];
+    }
+
+    /**
+     * @return non-empty cells sorted by x descending, y ascending
+     */
     public List<Point> getData() {
-        return data;
+        final List<Point> list = new ArrayList<>();
+        for (int x = xSize - 1; x >= 0; x--) {
+            for (int y = 0; y < ySize; y++) {
+                final int success = getSuccessCount(x, y);
+                final int fail = getFailCount(x, y);
+                if (success == 0 && fail == 0) {
+                    continue;
+                }
+                list.add(new Point(x, y, success, fail));
+            }
+        }
+        return list;
     }
 
     public long getSuccess() {
@@ -78,7 +130,8 @@ public class HeatMap {
     @Override
     public String toString() {
         return "HeatMap{" +
-                "data=" + data.size() +
+                "xSize=" + xSize +
+                ", ySize=" + ySize +
                 ", success=" + success +
                 ", fail=" + fail +
                 ", oldestAcceptedTime=" + oldestAcceptedTime +
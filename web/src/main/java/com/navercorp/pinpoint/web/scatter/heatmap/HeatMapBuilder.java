@@ -1,28 +1,23 @@
 package com.navercorp.pinpoint.web.scatter.heatmap;
 
-import com.navercorp.pinpoint.common.server.util.pair.IntegerValuePair;
-import com.navercorp.pinpoint.common.server.util.pair.LongPair;
-
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Counts success/fail dots into a dense (x-slot * y-slot) grid.
+ * Builders sharing the same axes can be filled independently (e.g. one per salt bucket) and then {@link #merge(HeatMapBuilder) merged}.
+ */
 public class HeatMapBuilder {
-    private static final long modulate = 100;
     private final AxisResolver xAxisResolver;
     private final AxisResolver yAxisResolver;
 
+    private final int xSize;
+    private final int ySize;
+
     private long oldestAcceptedTime = Long.MAX_VALUE;
     private long latestAcceptedTime = Long.MIN_VALUE;
 
-    private Map<LongPair, IntegerValuePair> map = newMap();
-
-    private Map<LongPair, IntegerValuePair> newMap() {
-        return new HashMap<>(128);
-    }
+    private int[] success;
+    private int[] fail;
 
     public static HeatMapBuilder newBuilder(long startX, long endX, int xSlot, long minY, long maxY, int ySlot) {
         AxisResolver xResolver = new DefaultAxisResolver(xSlot, startX, endX);
@@ -33,6 +28,21 @@ public class HeatMapBuilder {
     public HeatMapBuilder(AxisResolver xAxisResolver, AxisResolver yAxisResolver) {
         this.xAxisResolver = Objects.requireNonNull(xAxisResolver, "xAxisResolver");
         this.yAxisResolver = Objects.requireNonNull(yAxisResolver, "yAxisResolver");
+        this.xSize = xAxisResolver.getSize();
+        this.ySize = yAxisResolver.getSize();
+        this.success = newGrid();
+        this.fail = newGrid();
+    }
+
+    private int[] newGrid() {
+        return new int[xSize * ySize];
+    }
+
+    /**
+     * @return empty builder with the same axes
+     */
+    public HeatMapBuilder newEmptyBuilder() {
+        return new HeatMapBuilder(xAxisResolver, yAxisResolver);
     }
 
 
@@ -42,17 +52,20 @@ public class HeatMapBuilder {
         long[] getIndex();
 
         long getTick();
+
+        /**
+         * @return number of distinct values returned by {@link #getIndex(long)}
+         */
+        int getSize();
     }
 
     public static class DefaultAxisResolver implements AxisResolver {
-        private final long modulate;
         private final long tick;
         private final long start;
         private final long range;
         private final int slotNumber;
 
         public DefaultAxisResolver(int slotNumber, long minY, long maxY) {
-            this.modulate = 200;
             this.start = minY;
             this.range = maxY - minY;
             this.tick = range / slotNumber;
@@ -73,6 +86,14 @@ public class HeatMapBuilder {
             return x / tick;
         }
 
+        @Override
+        public int getSize() {
+            if (tick <= 0) {
+                return 1;
+            }
+            return Math.toIntExact(range / tick) + 1;
+        }
+
         @Override
         public long[] getIndex() {
             long[] index = new long[slotNumber];
@@ -85,63 +106,47 @@ public class HeatMapBuilder {
 
     public void addDataPoint(long x, long y, boolean success) {
 
-        final long xTick = xAxisResolver.getIndex(x);
-        final long yTick = yAxisResolver.getIndex(y);
+        final int xIndex = (int) xAxisResolver.getIndex(x);
+        final int yIndex = (int) yAxisResolver.getIndex(y);
 
         this.oldestAcceptedTime = Math.min(oldestAcceptedTime, x);
         this.latestAcceptedTime = Math.max(latestAcceptedTime, x);
 
-        final LongPair key = new LongPair(xTick, yTick);
-        IntegerValuePair counter = this.map.computeIfAbsent(key, longPair -> new IntegerValuePair(0, 0));
+        final int cell = xIndex * ySize + yIndex;
         if (success) {
-            counter.addFirst(1);
+            this.success[cell]++;
         } else {
-            counter.addSecond(1);
+            this.fail[cell]++;
         }
     }
 
+    public void merge(HeatMapBuilder other) {
+        Objects.requireNonNull(other, "other");
+        if (this.xSize != other.xSize || this.ySize != other.ySize) {
+            throw new IllegalArgumentException("grid size mismatch " + xSize + "x" + ySize + " " + other.xSize + "x" + other.ySize);
+        }
+        final int[] success = this.success;
+        final int[] fail = this.fail;
+        for (int i = 0; i < success.length; i++) {
+            success[i] += other.success[i];
+            fail[i] += other.fail[i];
+        }
+        this.oldestAcceptedTime = Math.min(oldestAcceptedTime, other.oldestAcceptedTime);
+        this.latestAcceptedTime = Math.max(latestAcceptedTime, other.latestAcceptedTime);
+    }
 
     public HeatMap build() {
-        final Map<LongPair, IntegerValuePair> copy = this.map;
-        this.map = newMap();
-
-        long success = 0;
-        long fail = 0;
-
-
-        final List<Point> list = new ArrayList<>(copy.size());
-        for (Map.Entry<LongPair, IntegerValuePair> entry : copy.entrySet()) {
-            LongPair key = entry.getKey();
-            IntegerValuePair value = entry.getValue();
-
-            success += value.getFirst();
-            fail += value.getSecond();
-
-            final long acceptedTime = key.getFirst();
-
-            Point point = new Point(acceptedTime, key.getSecond(), value.getFirst(), value.getSecond());
+        final int[] success = this.success;
+        final int[] fail = this.fail;
+        this.success = newGrid();
+        this.fail = newGrid();
 
-            list.add(point);
-        }
-        list.sort(COMPARATOR);
         long[] xIndex = xAxisResolver.getIndex();
         long xTick = xAxisResolver.getTick();
         long[] yIndex = yAxisResolver.getIndex();
         long yTick = yAxisResolver.getTick();
 
-        return new HeatMap(list, success, fail, oldestAcceptedTime, latestAcceptedTime, xIndex, xTick, yIndex, yTick);
+        return new HeatMap(xSize, ySize, success, fail, oldestAcceptedTime, latestAcceptedTime, xIndex, xTick, yIndex, yTick);
     }
 
-    private static final Comparator<Point> COMPARATOR = new Comparator<Point>() {
-
-        @Override
-        public int compare(Point o1, Point o2) {
-            final int comp1 = Long.compare(o2.getX(), o1.getX());
-            if (comp1 != 0) {
-                return comp1;
-            }
-            return Long.compare(o1.getY(), o2.getY());
-        }
-    };
-
 }
@@ -189,24 +189,33 @@ public class AgentInfoServiceImpl implements AgentInfoService {
         final long fromTimestamp = cal.getTimeInMillis();
         Range queryRange = Range.newRange(fromTimestamp, fastRange.getFrom() + 1);
 
+        // FIXME This needs to be done with a more accurate information.
+        // If at any time a non-java agent is introduced, or an agent that does not collect jvm data,
+        // this will fail
+        final Set<String> activeAgentIds = new HashSet<>(this.jvmGcDao.agentStatExists(agentIds, fastRange));
+        final List<String> candidateAgentIds = filterAgentIds(agentIds, activeAgentIds);
+        if (!candidateAgentIds.isEmpty()) {
+            activeAgentIds.addAll(this.jvmGcDao.agentStatExists(candidateAgentIds, queryRange));
+        }
+
         for (String agentId : agentIds) {
-            // FIXME This needs to be done with a more accurate information.
-            // If at any time a non-java agent is introduced, or an agent that does not collect jvm data,
-            // this will fail
-            boolean dataExists = isActiveAgent(agentId, fastRange);
-            if (dataExists) {
+            if (activeAgentIds.contains(agentId)) {
                 activeAgentIdList.add(agentId);
                 continue;
             }
-
-            dataExists = isActiveAgent(agentId, queryRange);
-            if (dataExists) {
+            if (hasPingEvent(agentId, fastRange) || hasPingEvent(agentId, queryRange)) {
                 activeAgentIdList.add(agentId);
             }
         }
         return activeAgentIdList;
     }
 
+    private List<String> filterAgentIds(List<String> agentIds, Set<String> excludeAgentIds) {
+        return agentIds.stream()
+                .filter(agentId -> !excludeAgentIds.contains(agentId))
+                .collect(Collectors.toList());
+    }
+
     private List<String> getApplicationNameList(List<Application> applications) {
         List<String> applicationNameList = new ArrayList<>(applications.size());
         for (Application application : applications) {
@@ -323,6 +332,10 @@ public class AgentInfoServiceImpl implements AgentInfoService {
             return true;
         }
 
+        return hasPingEvent(agentId, range);
+    }
+
+    private boolean hasPingEvent(String agentId, Range range) {
         List<AgentEvent> agentEvents = this.agentEventService.getAgentEvents(agentId, range);
         return agentEvents.stream().anyMatch(e -> e.getEventTypeCode() == AgentEventType.AGENT_PING.getCode());
     }
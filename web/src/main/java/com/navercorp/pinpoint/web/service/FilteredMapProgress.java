@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.web.vo.SpanSelectStatistics;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how many transactions of a filtered map request have been consumed,
+ * and stops the request once the caller gave up on it or the build timeout expired.
+ */
+public class FilteredMapProgress {
+
+    private final int total;
+    private final long deadline;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger included = new AtomicInteger();
+
+    private final SpanSelectStatistics selectStatistics = new SpanSelectStatistics();
+
+    private volatile boolean cancelled;
+
+    public FilteredMapProgress(int total, long timeoutMillis) {
+        if (total < 0) {
+            throw new IllegalArgumentException("negative total:" + total);
+        }
+        this.total = total;
+        this.deadline = timeoutMillis <= 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+    }
+
+    /**
+     * @throws CancellationException if the request was cancelled, the calling thread was interrupted
+     * or the deadline passed. the exception aborts the pending span selects.
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("filteredMap cancelled. " + this);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            this.cancelled = true;
+            throw new CancellationException("filteredMap interrupted. " + this);
+        }
+        if (System.currentTimeMillis() > deadline) {
+            this.cancelled = true;
+            throw new CancellationException("filteredMap timeout. " + this);
+        }
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return number of processed transactions
+     */
+    public int processed(boolean include) {
+        if (include) {
+            included.incrementAndGet();
+        }
+        return processed.incrementAndGet();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getIncluded() {
+        return included.get();
+    }
+
+    public SpanSelectStatistics getSelectStatistics() {
+        return selectStatistics;
+    }
+
+    @Override
+    public String toString() {
+        return "FilteredMapProgress{" +
+                "total=" + total +
+                ", processed=" + processed +
+                ", included=" + included +
+                ", cancelled=" + cancelled +
+                ", selectStatistics=" + selectStatistics +
+                '}';
+    }
+}
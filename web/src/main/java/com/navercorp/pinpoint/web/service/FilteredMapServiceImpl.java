@@ -16,7 +16,6 @@
 
 package com.navercorp.pinpoint.web.service;
 
-import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
@@ -84,6 +83,8 @@ public class FilteredMapServiceImpl implements FilteredMapService {
 
     private static final Object V = new Object();
 
+    private static final int PROGRESS_LOG_INTERVAL = 1000;
+
     @Value("${web.servermap.build.timeout:600000}")
     private long buildTimeoutMillis;
 
@@ -117,22 +118,8 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return this.applicationTraceIndexDao.scanTraceIndex(applicationName, range, limit, backwardDirection);
     }
 
-    private List<List<SpanBo>> filterList2(List<List<SpanBo>> transactionList, Filter<List<SpanBo>> filter) {
-        final List<List<SpanBo>> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.add(transaction);
-            }
-        }
-        return filteredResult;
-    }
-
     public ApplicationMap selectApplicationMap(FilteredMapServiceOption option) {
-        final List<List<SpanBo>> filterList = selectFilteredSpan(option.getTransactionIdList(), option.getFilter(), option.getColumnGetCount());
-        FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, option.getOriginalRange(), option.getVersion());
-        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
-        FilteredMap filteredMap = filteredMapBuilder.build();
+        FilteredMap filteredMap = selectFilteredMap(option);
 
         ApplicationMap map = createMap(option, filteredMap);
         return map;
@@ -142,11 +129,7 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(option.getTransactionIdList(), option.getFilter(), option.getColumnGetCount());
-        FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, option.getOriginalRange(), option.getVersion());
-        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
-        FilteredMap filteredMap = filteredMapBuilder.build();
+        FilteredMap filteredMap = selectFilteredMap(option);
 
         ApplicationMap map = createMap(option, filteredMap);
 
@@ -159,15 +142,41 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return applicationMapWithScatterData;
     }
 
-    private List<List<SpanBo>> selectFilteredSpan(List<TransactionId> transactionIdList, Filter<List<SpanBo>> filter, ColumnGetCount columnGetCount) {
+    private FilteredMap selectFilteredMap(FilteredMapServiceOption option) {
+        final FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, option.getOriginalRange(), option.getVersion());
+        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
+
         // filters out recursive calls by looking at each objects
         // do not filter here if we change to a tree-based collision check in the future.
-        final List<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
+        final List<TransactionId> recursiveFilterList = recursiveCallFilter(option.getTransactionIdList());
+
+        final FilteredMapProgress progress = getProgress(option, recursiveFilterList.size());
 
-        // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList, columnGetCount);
+        // transactions are added as each batch is decoded instead of materializing every span first
+        final Filter<List<SpanBo>> filter = option.getFilter();
+        this.traceDao.selectAllSpans(recursiveFilterList, option.getColumnGetCount(), transaction -> {
+            // throwing here cancels the pending span selects
+            progress.checkCancelled();
 
-        return filterList2(originalList, filter);
+            final boolean include = filter.include(transaction);
+            if (include) {
+                filteredMapBuilder.addTransaction(transaction);
+            }
+            final int processed = progress.processed(include);
+            if (processed % PROGRESS_LOG_INTERVAL == 0) {
+                logger.debug("selectFilteredMap {}", progress);
+            }
+        }, progress.getSelectStatistics());
+        logger.debug("selectFilteredMap completed {}", progress);
+        return filteredMapBuilder.build();
+    }
+
+    private FilteredMapProgress getProgress(FilteredMapServiceOption option, int total) {
+        final FilteredMapProgress progress = option.getProgress();
+        if (progress != null) {
+            return progress;
+        }
+        return new FilteredMapProgress(total, buildTimeoutMillis);
     }
 
     private ApplicationMap createMap(FilteredMapServiceOption option, FilteredMap filteredMap) {
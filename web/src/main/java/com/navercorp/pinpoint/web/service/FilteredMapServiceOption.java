@@ -39,6 +39,7 @@ public class FilteredMapServiceOption {
     private final int version;
     private final boolean useStatisticsServerInstanceList;
     private final ColumnGetCount columnGetCount;
+    private final FilteredMapProgress progress;
 
     public FilteredMapServiceOption(final Builder builder) {
         this.transactionIdList = builder.transactionIdList;
@@ -51,6 +52,7 @@ public class FilteredMapServiceOption {
         this.version = builder.version;
         this.useStatisticsServerInstanceList = builder.useStatisticsServerInstanceList;
         this.columnGetCount = builder.columnGetCount;
+        this.progress = builder.progress;
     }
 
     public List<TransactionId> getTransactionIdList() {
@@ -89,6 +91,13 @@ public class FilteredMapServiceOption {
         return columnGetCount;
     }
 
+    /**
+     * @return null if the caller does not track the request
+     */
+    public FilteredMapProgress getProgress() {
+        return progress;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("FilteredMapServiceOption{");
@@ -113,6 +122,7 @@ public class FilteredMapServiceOption {
         private Filter<List<SpanBo>> filter;
         private int version;
         private ColumnGetCount columnGetCount;
+        private FilteredMapProgress progress;
 
         private boolean useStatisticsServerInstanceList;
 
@@ -140,6 +150,11 @@ public class FilteredMapServiceOption {
             return this;
         }
 
+        public Builder setProgress(FilteredMapProgress progress) {
+            this.progress = progress;
+            return this;
+        }
+
         public FilteredMapServiceOption build() {
             return new FilteredMapServiceOption(this);
         }
@@ -69,18 +69,12 @@ public class HeatMapServiceImpl implements HeatMapService {
         Objects.requireNonNull(range, "range");
 
 
-        LimitedScanResult<List<Dot>> scanResult = applicationTraceIndexDao.scanTraceScatterData(applicationName, range, limit, true);
-
         final int slotSize = 100;
         HeatMapBuilder builder = HeatMapBuilder.newBuilder(range.getFrom(), range.getTo(), slotSize, 0, maxY, slotSize);
-        for (Dot dot : scanResult.getScanData()) {
-            final boolean success = dot.getExceptionCode() == Dot.EXCEPTION_NONE;
-            builder.addDataPoint(dot.getAcceptedTime(), dot.getElapsedTime(), success);
-        }
-        HeatMap heatMap = builder.build();
-        logger.debug("getHeatMap applicationName:{} dots:{} heatMap:{}", applicationName, scanResult.getScanData().size(), heatMap);
+        LimitedScanResult<HeatMap> scanResult = applicationTraceIndexDao.scanHeatMap(applicationName, range, builder, limit);
+        logger.debug("getHeatMap applicationName:{} heatMap:{}", applicationName, scanResult.getScanData());
 
-        return new LimitedScanResult<>(scanResult.getLimitedTime(), heatMap);
+        return scanResult;
     }
 
     private List<GetTraceInfo> buildQuery(String applicationName, List<Dot> dots) {
@@ -18,8 +18,11 @@ package com.navercorp.pinpoint.web.service;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
 import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.web.config.ScatterChartConfig;
 import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.dao.ScatterRollupDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
@@ -29,6 +32,7 @@ import com.navercorp.pinpoint.web.vo.GetTraceInfo;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,13 +60,22 @@ public class ScatterChartServiceImpl implements ScatterChartService {
 
     private final SpanService spanService;
 
+    private final ScatterRollupDao scatterRollupDao;
+
+    private final boolean enableRollup;
+
     public ScatterChartServiceImpl(ApplicationTraceIndexDao applicationTraceIndexDao,
                                    @Qualifier("hbaseTraceDaoFactory") TraceDao traceDao,
-                                   SpanService spanService
+                                   SpanService spanService,
+                                   ScatterRollupDao scatterRollupDao,
+                                   ScatterChartConfig scatterChartConfig
     ) {
         this.applicationTraceIndexDao = Objects.requireNonNull(applicationTraceIndexDao, "applicationTraceIndexDao");
         this.traceDao = Objects.requireNonNull(traceDao, "traceDao");
         this.spanService = Objects.requireNonNull(spanService, "spanService");
+        this.scatterRollupDao = Objects.requireNonNull(scatterRollupDao, "scatterRollupDao");
+        Objects.requireNonNull(scatterChartConfig, "scatterChartConfig");
+        this.enableRollup = scatterChartConfig.isEnableRollup();
     }
 
     @Override
@@ -116,6 +129,9 @@ public class ScatterChartServiceImpl implements ScatterChartService {
     public ScatterData selectScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection) {
         Objects.requireNonNull(applicationName, "applicationName");
         Objects.requireNonNull(range, "range");
+        if (isRollupApplicable(applicationName, range, xGroupUnit)) {
+            return selectScatterRollup(applicationName, range, xGroupUnit, yGroupUnit);
+        }
         LimitedScanResult<List<Dot>> scanResult = applicationTraceIndexDao.scanTraceScatterData(applicationName, range, limit, backwardDirection);
 
         ScatterDataBuilder builder = new ScatterDataBuilder(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
@@ -123,6 +139,26 @@ public class ScatterChartServiceImpl implements ScatterChartService {
         return builder.build();
     }
 
+    private boolean isRollupApplicable(String applicationName, Range range, int xGroupUnit) {
+        // a rollup cell can not be split into groups finer than its x slot
+        if (!enableRollup || xGroupUnit < ScatterRollupUtils.X_SLOT_MILLIS) {
+            return false;
+        }
+        // transactions accepted before the rollup started are only in the trace index
+        return scatterRollupDao.isRollupStarted(applicationName, range.getFrom());
+    }
+
+    private ScatterData selectScatterRollup(String applicationName, Range range, int xGroupUnit, int yGroupUnit) {
+        final List<RollupDot> rollupDotList = scatterRollupDao.selectScatterRollup(applicationName, range);
+
+        ScatterDataBuilder builder = new ScatterDataBuilder(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
+        builder.setRollup(true);
+        for (RollupDot rollupDot : rollupDotList) {
+            builder.addDot(rollupDot.getDot(), rollupDot.getCount());
+        }
+        return builder.build();
+    }
+
     @Override
     public ScatterData selectScatterData(List<TransactionId> transactionIdList, String applicationName, Range range, int xGroupUnit, int yGroupUnit, Filter<List<SpanBo>> filter) {
         Objects.requireNonNull(transactionIdList, "transactionIdList");
@@ -48,6 +48,7 @@ import com.navercorp.pinpoint.web.security.MetaDataFilter;
 import com.navercorp.pinpoint.web.security.MetaDataFilter.MetaData;
 
 import com.navercorp.pinpoint.web.vo.AgentInfo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -57,10 +58,12 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -129,11 +132,12 @@ public class SpanServiceImpl implements SpanService {
         final CallTreeIterator callTreeIterator = result.getCallTree();
         final List<Align> values = callTreeIterator.values();
 
-        transitionDynamicApiId(values);
-        transitionSqlId(values);
+        final MetaDataLookup metaDataLookup = prefetchMetaData(values);
+        transitionDynamicApiId(values, metaDataLookup);
+        transitionSqlId(values, metaDataLookup);
         transitionMongoJson(values);
-        transitionCachedString(values);
-        transitionException(values);
+        transitionCachedString(values, metaDataLookup);
+        transitionException(values, metaDataLookup);
 
         // TODO need to at least show the row data when root span is not found.
         return result;
@@ -192,7 +196,49 @@ public class SpanServiceImpl implements SpanService {
         }
     }
 
-    private void transitionSqlId(final List<Align> spans) {
+    /**
+     * Walks the call tree once and resolves every api/sql/string id with a single multi-get per metadata kind,
+     * instead of one HBase get per annotation.
+     */
+    private MetaDataLookup prefetchMetaData(List<Align> alignList) {
+        final Set<MetaDataKey> apiKeys = new LinkedHashSet<>();
+        final Set<MetaDataKey> sqlKeys = new LinkedHashSet<>();
+        final Set<MetaDataKey> stringKeys = new LinkedHashSet<>();
+        for (Align align : alignList) {
+            final String agentId = align.getAgentId();
+            final long agentStartTime = align.getAgentStartTime();
+            final List<AnnotationBo> annotationBoList = align.getAnnotationBoList() == null ? Collections.emptyList() : align.getAnnotationBoList();
+
+            final int apiId = align.getApiId();
+            if (apiId != 0 || AnnotationUtils.findApiAnnotation(annotationBoList) == null) {
+                apiKeys.add(new MetaDataKey(agentId, agentStartTime, apiId));
+            }
+
+            final AnnotationBo sqlIdAnnotation = findAnnotation(annotationBoList, AnnotationKey.SQL_ID.getCode());
+            if (sqlIdAnnotation != null) {
+                final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
+                sqlKeys.add(new MetaDataKey(agentId, agentStartTime, sqlValue.getIntValue()));
+            }
+
+            for (AnnotationBo annotationBo : findCachedStringAnnotation(annotationBoList)) {
+                stringKeys.add(new MetaDataKey(agentId, agentStartTime, (Integer) annotationBo.getValue()));
+            }
+            if (align.hasException()) {
+                stringKeys.add(new MetaDataKey(agentId, agentStartTime, align.getExceptionId()));
+            }
+        }
+        logger.debug("prefetchMetaData api:{}, sql:{}, string:{}", apiKeys.size(), sqlKeys.size(), stringKeys.size());
+
+        final Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap = apiKeys.isEmpty() ?
+                Collections.emptyMap() : apiMetaDataDao.getApiMetaData(new ArrayList<>(apiKeys));
+        final Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap = sqlKeys.isEmpty() ?
+                Collections.emptyMap() : sqlMetaDataDao.getSqlMetaData(new ArrayList<>(sqlKeys));
+        final Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap = stringKeys.isEmpty() ?
+                Collections.emptyMap() : stringMetaDataDao.getStringMetaData(new ArrayList<>(stringKeys));
+        return new MetaDataLookup(apiMetaDataMap, sqlMetaDataMap, stringMetaDataMap);
+    }
+
+    private void transitionSqlId(final List<Align> spans, final MetaDataLookup metaDataLookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -210,7 +256,7 @@ public class SpanServiceImpl implements SpanService {
                 final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
                 final int sqlId = sqlValue.getIntValue();
                 final String sqlParam = sqlValue.getStringValue1();
-                final List<SqlMetaDataBo> sqlMetaDataList = sqlMetaDataDao.getSqlMetaData(align.getAgentId(), align.getAgentStartTime(), sqlId);
+                final List<SqlMetaDataBo> sqlMetaDataList = metaDataLookup.getSqlMetaData(align.getAgentId(), align.getAgentStartTime(), sqlId);
                 final int size = sqlMetaDataList.size();
                 if (size == 0) {
                     String errorMessage = "SQL-ID not found sqlId:" + sqlId;
@@ -336,7 +382,7 @@ public class SpanServiceImpl implements SpanService {
     }
 
 
-    private void transitionDynamicApiId(List<Align> spans) {
+    private void transitionDynamicApiId(List<Align> spans, final MetaDataLookup metaDataLookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -356,7 +402,7 @@ public class SpanServiceImpl implements SpanService {
                 }
 
                 // may be able to get a more accurate data using agentIdentifier.
-                List<ApiMetaDataBo> apiMetaDataList = apiMetaDataDao.getApiMetaData(align.getAgentId(), align.getAgentStartTime(), apiId);
+                List<ApiMetaDataBo> apiMetaDataList = metaDataLookup.getApiMetaData(align.getAgentId(), align.getAgentStartTime(), apiId);
                 int size = apiMetaDataList.size();
                 if (size == 0) {
                     String errorMessage = "API-DynamicID not found. api:" + apiId;
@@ -387,7 +433,7 @@ public class SpanServiceImpl implements SpanService {
         });
     }
 
-    private void transitionCachedString(List<Align> spans) {
+    private void transitionCachedString(List<Align> spans, final MetaDataLookup metaDataLookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -399,7 +445,7 @@ public class SpanServiceImpl implements SpanService {
                 for (AnnotationBo annotationBo : cachedStringAnnotation) {
                     final int cachedArgsKey = annotationBo.getKey();
                     int stringMetaDataId = (Integer) annotationBo.getValue();
-                    List<StringMetaDataBo> stringMetaList = stringMetaDataDao.getStringMetaData(align.getAgentId(), align.getAgentStartTime(), stringMetaDataId);
+                    List<StringMetaDataBo> stringMetaList = metaDataLookup.getStringMetaData(align.getAgentId(), align.getAgentStartTime(), stringMetaDataId);
                     int size = stringMetaList.size();
                     if (size == 0) {
                         logger.warn("StringMetaData not Found {}/{}/{}", align.getAgentId(), stringMetaDataId, align.getAgentStartTime());
@@ -432,18 +478,18 @@ public class SpanServiceImpl implements SpanService {
         return findAnnotationBoList;
     }
 
-    private void transitionException(List<Align> alignList) {
+    private void transitionException(List<Align> alignList, MetaDataLookup metaDataLookup) {
         for (Align align : alignList) {
             if (align.hasException()) {
-                StringMetaDataBo stringMetaData = selectStringMetaData(align.getAgentId(), align.getExceptionId(), align.getAgentStartTime());
+                StringMetaDataBo stringMetaData = selectStringMetaData(metaDataLookup, align.getAgentId(), align.getExceptionId(), align.getAgentStartTime());
                 align.setExceptionClass(stringMetaData.getStringValue());
             }
         }
 
     }
 
-    private StringMetaDataBo selectStringMetaData(String agentId, int cacheId, long agentStartTime) {
-        final List<StringMetaDataBo> metaDataList = stringMetaDataDao.getStringMetaData(agentId, agentStartTime, cacheId);
+    private StringMetaDataBo selectStringMetaData(MetaDataLookup metaDataLookup, String agentId, int cacheId, long agentStartTime) {
+        final List<StringMetaDataBo> metaDataList = metaDataLookup.getStringMetaData(agentId, agentStartTime, cacheId);
         if (CollectionUtils.isEmpty(metaDataList)) {
             logger.warn("StringMetaData not Found agent:{}, cacheId{}, agentStartTime:{}", agentId, cacheId, agentStartTime);
             return new StringMetaDataBo(agentId, agentStartTime, cacheId, "STRING-META-DATA-NOT-FOUND");
@@ -488,6 +534,55 @@ public class SpanServiceImpl implements SpanService {
         void replacement(Align align, List<AnnotationBo> annotationBoList);
     }
 
+    /**
+     * Metadata resolved by {@link #prefetchMetaData(List)}.
+     * Falls back to a single lookup when a key was not part of the bulk result.
+     */
+    private class MetaDataLookup {
+        private final Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap;
+        private final Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap;
+        private final Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap;
+
+        private MetaDataLookup(Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap,
+                               Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap,
+                               Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap) {
+            this.apiMetaDataMap = nullToEmpty(apiMetaDataMap);
+            this.sqlMetaDataMap = nullToEmpty(sqlMetaDataMap);
+            this.stringMetaDataMap = nullToEmpty(stringMetaDataMap);
+        }
+
+        private <V> Map<MetaDataKey, List<V>> nullToEmpty(Map<MetaDataKey, List<V>> map) {
+            if (map == null) {
+                return Collections.emptyMap();
+            }
+            return map;
+        }
+
+        List<ApiMetaDataBo> getApiMetaData(String agentId, long agentStartTime, int apiId) {
+            final List<ApiMetaDataBo> result = apiMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, apiId));
+            if (result != null) {
+                return result;
+            }
+            return apiMetaDataDao.getApiMetaData(agentId, agentStartTime, apiId);
+        }
+
+        List<SqlMetaDataBo> getSqlMetaData(String agentId, long agentStartTime, int sqlId) {
+            final List<SqlMetaDataBo> result = sqlMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, sqlId));
+            if (result != null) {
+                return result;
+            }
+            return sqlMetaDataDao.getSqlMetaData(agentId, agentStartTime, sqlId);
+        }
+
+        List<StringMetaDataBo> getStringMetaData(String agentId, long agentStartTime, int stringId) {
+            final List<StringMetaDataBo> result = stringMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, stringId));
+            if (result != null) {
+                return result;
+            }
+            return stringMetaDataDao.getStringMetaData(agentId, agentStartTime, stringId);
+        }
+    }
+
     private SpanResult order(List<SpanBo> spans, Predicate<SpanBo> filter) {
         SpanAligner spanAligner = new SpanAligner(spans, filter, serviceTypeRegistryService);
         final CallTree callTree = spanAligner.align();
@@ -42,6 +42,9 @@ public class FilterMapWrapSerializer extends JsonSerializer<FilterMapWrap> {
 
         jgen.writeObjectField("applicationMapData", wrap.getApplicationMap());
         jgen.writeNumberField("lastFetchedTimestamp", wrap.getLastFetchedTimestamp());
+        if (wrap.getSpanSelectStatistics() != null) {
+            jgen.writeObjectField("spanSelectStatistics", wrap.getSpanSelectStatistics());
+        }
 
         if (wrap.getApplicationMap() instanceof ApplicationMapWithScatterScanResult) {
             final List<ApplicationScatterScanResult> applicationScatterScanResult = ((ApplicationMapWithScatterScanResult) wrap.getApplicationMap()).getApplicationScatterScanResultList();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMap;
+
+import java.io.IOException;
+
+/**
+ * Writes the non-empty cells of a {@link HeatMap} as {@code [x, y, success, fail]} straight from the grid,
+ * sorted by x descending, y ascending.
+ */
+public class HeatMapDataSerializer extends JsonSerializer<HeatMap> {
+
+    @Override
+    public void serialize(HeatMap heatMap, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartArray();
+
+        final int ySize = heatMap.getYSize();
+        for (int x = heatMap.getXSize() - 1; x >= 0; x--) {
+            for (int y = 0; y < ySize; y++) {
+                final int success = heatMap.getSuccessCount(x, y);
+                final int fail = heatMap.getFailCount(x, y);
+                if (success == 0 && fail == 0) {
+                    continue;
+                }
+                jgen.writeStartArray();
+                jgen.writeNumber(x);
+                jgen.writeNumber(y);
+                jgen.writeNumber(success);
+                jgen.writeNumber(fail);
+                jgen.writeEndArray();
+            }
+        }
+
+        jgen.writeEndArray();
+    }
+}
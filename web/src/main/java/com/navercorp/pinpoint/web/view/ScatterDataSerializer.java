@@ -67,7 +67,7 @@ public class ScatterDataSerializer extends JsonSerializer<ScatterData> {
         for (Dot dot : dotSet) {
             final DotGroup dotGroup = dotGroupLeaders.get(dot);
             if (dotGroup != null) {
-                writeDot(dot, dotGroup.getDotSize(), metaData, jgen);
+                writeDot(dot, dotGroup.getCount(), metaData, jgen);
             } else {
                 writeDot(dot, 0, metaData, jgen);
             }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of a partitioned span select.
+ * Partitions are selected in parallel, the results are recorded on the calling thread.
+ */
+public class SpanSelectStatistics {
+
+    private volatile int partitionCount;
+    private volatile int transactionCount;
+    // wall time of the whole select
+    private volatile long selectElapsedNanos;
+    // hbase multi-get and decode time of each partition
+    private volatile long totalPartitionElapsedNanos;
+    private volatile long maxPartitionElapsedNanos;
+    // time spent by the consumer of the selected transactions
+    private volatile long streamElapsedNanos;
+
+    public void recordPartition(int transactionCount, long partitionElapsedNanos, long streamElapsedNanos) {
+        this.partitionCount++;
+        this.transactionCount += transactionCount;
+        this.totalPartitionElapsedNanos += partitionElapsedNanos;
+        this.maxPartitionElapsedNanos = Math.max(maxPartitionElapsedNanos, partitionElapsedNanos);
+        this.streamElapsedNanos += streamElapsedNanos;
+    }
+
+    public void recordSelect(long selectElapsedNanos) {
+        this.selectElapsedNanos += selectElapsedNanos;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getSelectElapsed() {
+        return toMillis(selectElapsedNanos);
+    }
+
+    public long getTotalPartitionElapsed() {
+        return toMillis(totalPartitionElapsedNanos);
+    }
+
+    public long getMaxPartitionElapsed() {
+        return toMillis(maxPartitionElapsedNanos);
+    }
+
+    public long getStreamElapsed() {
+        return toMillis(streamElapsedNanos);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "SpanSelectStatistics{" +
+                "partitionCount=" + partitionCount +
+                ", transactionCount=" + transactionCount +
+                ", selectElapsed=" + getSelectElapsed() +
+                "ms, totalPartitionElapsed=" + getTotalPartitionElapsed() +
+                "ms, maxPartitionElapsed=" + getMaxPartitionElapsed() +
+                "ms, streamElapsed=" + getStreamElapsed() +
+                "ms}";
+    }
+}
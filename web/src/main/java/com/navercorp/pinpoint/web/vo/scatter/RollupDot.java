@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.scatter;
+
+import java.util.Objects;
+
+/**
+ * Sample transaction of a scatter rollup cell and the number of transactions in the cell.
+ */
+public class RollupDot {
+
+    private final Dot dot;
+    private final int count;
+
+    public RollupDot(Dot dot, int count) {
+        this.dot = Objects.requireNonNull(dot, "dot");
+        this.count = count;
+    }
+
+    public Dot getDot() {
+        return dot;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "RollupDot{" +
+                "dot=" + dot +
+                ", count=" + count +
+                '}';
+    }
+}
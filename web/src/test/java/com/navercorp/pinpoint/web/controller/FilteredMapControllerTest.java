@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.controller;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.web.filter.Filter;
+import com.navercorp.pinpoint.web.filter.FilterBuilder;
+import com.navercorp.pinpoint.web.service.FilteredMapProgress;
+import com.navercorp.pinpoint.web.service.FilteredMapService;
+import com.navercorp.pinpoint.web.service.FilteredMapServiceOption;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.AsyncListener;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FilteredMapControllerTest {
+
+    @Mock
+    private FilteredMapService filteredMapService;
+    @Mock
+    private FilterBuilder<List<SpanBo>> filterBuilder;
+    @Mock
+    private ServiceTypeRegistryService registry;
+
+    @InjectMocks
+    private FilteredMapController filteredMapController;
+
+    private MockMvc mockMvc;
+    private ThreadPoolTaskExecutor filteredMapBuildExecutor;
+
+    @Before
+    public void setUp() {
+        filteredMapBuildExecutor = new ThreadPoolTaskExecutor();
+        filteredMapBuildExecutor.setCorePoolSize(1);
+        filteredMapBuildExecutor.setMaxPoolSize(1);
+        filteredMapBuildExecutor.setThreadNamePrefix("Filtered-Map-Build-Test-");
+        filteredMapBuildExecutor.initialize();
+        ReflectionTestUtils.setField(filteredMapController, "filteredMapBuildExecutor", filteredMapBuildExecutor);
+        ReflectionTestUtils.setField(filteredMapController, "buildTimeoutMillis", 600000L);
+        this.mockMvc = MockMvcBuilders.standaloneSetup(filteredMapController).build();
+    }
+
+    @After
+    public void tearDown() {
+        filteredMapBuildExecutor.shutdown();
+    }
+
+    @Test
+    public void cancelSpanSelectOnTimeout() throws Exception {
+        List<TransactionId> transactionIdList = Arrays.asList(new TransactionId("agentId", 1, 1), new TransactionId("agentId", 1, 2));
+        when(filteredMapService.selectTraceIdsFromApplicationTraceIndex(anyString(), any(Range.class), anyInt()))
+                .thenReturn(new LimitedScanResult<>(1000, transactionIdList));
+        when(filterBuilder.build(isNull(), isNull())).thenReturn(Filter.acceptAllFilter());
+
+        final CountDownLatch selectStarted = new CountDownLatch(1);
+        final CountDownLatch selectStopped = new CountDownLatch(1);
+        final AtomicReference<FilteredMapProgress> progressReference = new AtomicReference<>();
+        final AtomicReference<String> buildThreadName = new AtomicReference<>();
+        when(filteredMapService.selectApplicationMapWithScatterData(any(FilteredMapServiceOption.class))).thenAnswer(invocation -> {
+            FilteredMapServiceOption option = invocation.getArgument(0);
+            FilteredMapProgress progress = option.getProgress();
+            progressReference.set(progress);
+            buildThreadName.set(Thread.currentThread().getName());
+            selectStarted.countDown();
+            try {
+                // stands in for the span selects, the progress is checked before each transaction
+                while (true) {
+                    progress.checkCancelled();
+                    Thread.sleep(10);
+                }
+            } finally {
+                selectStopped.countDown();
+            }
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get("/getFilteredServerMapDataMadeOfDotGroup")
+                .param("applicationName", "test")
+                .param("serviceTypeName", "TOMCAT")
+                .param("from", "1000")
+                .param("to", "2000")
+                .param("originTo", "2000")
+                .param("xGroupUnit", "1")
+                .param("yGroupUnit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Assert.assertTrue(selectStarted.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, progressReference.get().getTotal());
+        Assert.assertTrue(buildThreadName.get().startsWith("Filtered-Map-Build-Test-"));
+        Assert.assertFalse(progressReference.get().isCancelled());
+
+        MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(null);
+        }
+
+        Assert.assertTrue(selectStopped.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(progressReference.get().isCancelled());
+        try {
+            progressReference.get().checkCancelled();
+            Assert.fail();
+        } catch (CancellationException ignore) {
+        }
+    }
+}
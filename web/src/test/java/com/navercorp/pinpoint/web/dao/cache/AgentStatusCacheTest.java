@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.util.AgentLifeCycleState;
+import com.navercorp.pinpoint.web.vo.AgentStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AgentStatusCacheTest {
+
+    private static final long TTL = 5000;
+    private static final long BASE = 1_600_000_000_000L;
+
+    private final AtomicLong currentTime = new AtomicLong(BASE);
+
+    private final AgentStatus status = new AgentStatus("agent", AgentLifeCycleState.RUNNING, BASE - 100);
+
+    @Test
+    public void get_hit() {
+        AgentStatusCache cache = new AgentStatusCache(100, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+
+        currentTime.addAndGet(TTL - 1);
+        Assert.assertSame(status, cache.get("agent", 1, BASE + TTL));
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void get_otherAgentStartTime() {
+        AgentStatusCache cache = new AgentStatusCache(100, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+
+        Assert.assertNull(cache.get("agent", 2, BASE));
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_expired() {
+        AgentStatusCache cache = new AgentStatusCache(100, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+
+        currentTime.addAndGet(TTL + 1);
+        Assert.assertNull(cache.get("agent", 1, BASE));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void get_otherQueryTimestamp() {
+        AgentStatusCache cache = new AgentStatusCache(100, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+
+        Assert.assertNull(cache.get("agent", 1, BASE - TTL - 1));
+        Assert.assertSame(status, cache.get("agent", 1, BASE));
+    }
+
+    @Test
+    public void maxSize() {
+        AgentStatusCache cache = new AgentStatusCache(2, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+        cache.put("agent", 2, BASE, status);
+        cache.put("agent", 3, BASE, status);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("agent", 1, BASE));
+    }
+
+    @Test
+    public void disabled() {
+        AgentStatusCache cache = new AgentStatusCache(0, TTL, currentTime::get);
+        cache.put("agent", 1, BASE, status);
+
+        Assert.assertFalse(cache.isEnabled());
+        Assert.assertNull(cache.get("agent", 1, BASE));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.server.util.AgentLifeCycleState;
+import com.navercorp.pinpoint.web.dao.AgentLifeCycleDao;
+import com.navercorp.pinpoint.web.vo.AgentStatus;
+import com.navercorp.pinpoint.web.vo.AgentStatusQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachedAgentLifeCycleDaoTest {
+
+    private static final long QUERY_TIMESTAMP = 1_600_000_000_000L;
+
+    private final AgentLifeCycleDao delegate = mock(AgentLifeCycleDao.class);
+
+    private final CachedAgentLifeCycleDao dao = new CachedAgentLifeCycleDao(delegate, new AgentStatusCache(100, 5000, () -> QUERY_TIMESTAMP));
+
+    @Test
+    public void getAgentStatus_loadMissingAgentsOnly() {
+        AgentStatus status1 = new AgentStatus("agent1", AgentLifeCycleState.RUNNING, 10);
+        AgentStatus status2 = new AgentStatus("agent2", AgentLifeCycleState.SHUTDOWN, 20);
+        when(delegate.getAgentStatus(any(AgentStatusQuery.class)))
+                .thenReturn(Collections.singletonList(Optional.of(status1)))
+                .thenReturn(Collections.singletonList(Optional.of(status2)));
+
+        List<Optional<AgentStatus>> first = dao.getAgentStatus(newQuery("agent1"));
+        Assert.assertEquals(Optional.of(status1), first.get(0));
+
+        List<Optional<AgentStatus>> second = dao.getAgentStatus(newQuery("agent1", null, "agent2"));
+        Assert.assertEquals(Arrays.asList(Optional.of(status1), Optional.empty(), Optional.of(status2)), second);
+
+        ArgumentCaptor<AgentStatusQuery> captor = ArgumentCaptor.forClass(AgentStatusQuery.class);
+        verify(delegate, times(2)).getAgentStatus(captor.capture());
+        AgentStatusQuery missQuery = captor.getAllValues().get(1);
+        Assert.assertEquals(1, missQuery.getAgentKeys().size());
+        Assert.assertEquals("agent2", missQuery.getAgentKeys().get(0).getAgentId());
+    }
+
+    @Test
+    public void getAgentStatus_allCached() {
+        AgentStatus status1 = new AgentStatus("agent1", AgentLifeCycleState.RUNNING, 10);
+        when(delegate.getAgentStatus("agent1", 1, QUERY_TIMESTAMP)).thenReturn(Optional.of(status1));
+
+        Assert.assertEquals(Optional.of(status1), dao.getAgentStatus("agent1", 1, QUERY_TIMESTAMP));
+
+        List<Optional<AgentStatus>> result = dao.getAgentStatus(newQuery("agent1"));
+        Assert.assertEquals(Collections.singletonList(Optional.of(status1)), result);
+        verify(delegate, times(0)).getAgentStatus(any(AgentStatusQuery.class));
+    }
+
+    private AgentStatusQuery newQuery(String... agentIds) {
+        AgentStatusQuery.Builder builder = AgentStatusQuery.newBuilder();
+        for (String agentId : agentIds) {
+            if (agentId == null) {
+                builder.addAgentKey(null);
+            } else {
+                builder.addAgentKey(agentId, 1);
+            }
+        }
+        return builder.build(QUERY_TIMESTAMP);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.LinkKey;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class LinkDataMapSlotCacheTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long BASE = TimeUnit.DAYS.toMillis(10000);
+
+    private final Application caller = new Application("caller", ServiceType.STAND_ALONE);
+    private final Application callee = new Application("callee", ServiceType.STAND_ALONE);
+
+    private final List<Range> loadedRanges = new ArrayList<>();
+
+    @Test
+    public void select_loadMissingSlotsOnly() {
+        LinkDataMapSlotCache cache = new LinkDataMapSlotCache("test", 100, 0, () -> BASE + 60 * MINUTE);
+
+        LinkDataMap first = cache.select(caller, Range.newRange(BASE, BASE + 5 * MINUTE), this::load);
+        Assert.assertEquals(6, first.getTotalCount());
+        Assert.assertEquals(1, loadedRanges.size());
+        Assert.assertEquals(6, cache.size());
+
+        // slides by two minutes
+        LinkDataMap second = cache.select(caller, Range.newRange(BASE + 2 * MINUTE, BASE + 7 * MINUTE), this::load);
+        Assert.assertEquals(6, second.getTotalCount());
+        Assert.assertEquals(2, loadedRanges.size());
+        Assert.assertEquals(Range.newRange(BASE + 6 * MINUTE, BASE + 7 * MINUTE), loadedRanges.get(1));
+
+        LinkData linkData = second.getLinkData(new LinkKey(caller, callee));
+        Assert.assertEquals(6, linkData.getLinkCallDataMap().getLinkDataList().iterator().next().getTimeHistogram().size());
+    }
+
+    @Test
+    public void select_recentSlotIsNotCached() {
+        LinkDataMapSlotCache cache = new LinkDataMapSlotCache("test", 100, MINUTE, () -> BASE + 5 * MINUTE + 1);
+
+        Range range = Range.newRange(BASE, BASE + 5 * MINUTE);
+        Assert.assertEquals(6, cache.select(caller, range, this::load).getTotalCount());
+        // BASE + 5m is current, BASE + 4m is within the stable delay
+        Assert.assertEquals(4, cache.size());
+
+        Assert.assertEquals(6, cache.select(caller, range, this::load).getTotalCount());
+        Assert.assertEquals(Range.newRange(BASE + 4 * MINUTE, BASE + 5 * MINUTE), loadedRanges.get(1));
+    }
+
+    @Test
+    public void select_gap() {
+        LinkDataMapSlotCache cache = new LinkDataMapSlotCache("test", 100, 0, () -> BASE + 60 * MINUTE);
+        cache.select(caller, Range.newRange(BASE + 2 * MINUTE, BASE + 3 * MINUTE), this::load);
+
+        Assert.assertEquals(6, cache.select(caller, Range.newRange(BASE, BASE + 5 * MINUTE), this::load).getTotalCount());
+        Assert.assertEquals(3, loadedRanges.size());
+        Assert.assertEquals(Range.newRange(BASE, BASE + MINUTE), loadedRanges.get(1));
+        Assert.assertEquals(Range.newRange(BASE + 4 * MINUTE, BASE + 5 * MINUTE), loadedRanges.get(2));
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void select_longRangeBypassesCache() {
+        LinkDataMapSlotCache cache = new LinkDataMapSlotCache("test", 100, 0, () -> BASE + 600 * MINUTE);
+        Range range = Range.newRange(BASE, BASE + 120 * MINUTE);
+
+        cache.select(caller, range, this::load);
+        cache.select(caller, range, this::load);
+        Assert.assertEquals(2, loadedRanges.size());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void select_disabled() {
+        LinkDataMapSlotCache cache = new LinkDataMapSlotCache("test", 0, 0, () -> BASE + 60 * MINUTE);
+        Range range = Range.newRange(BASE, BASE + 5 * MINUTE);
+
+        cache.select(caller, range, this::load);
+        cache.select(caller, range, this::load);
+        Assert.assertEquals(2, loadedRanges.size());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private LinkDataMap load(Application application, Range range) {
+        loadedRanges.add(range);
+        LinkDataMap linkDataMap = new LinkDataMap();
+        for (long slot = range.getFrom(); slot <= range.getTo(); slot += MINUTE) {
+            linkDataMap.addLinkData(application, "callerAgent", callee, "calleeAgent", slot, (short) 100, 1);
+        }
+        return linkDataMap;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.cache;
+
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MetaDataCacheTest {
+
+    private final MetaDataKey key1 = new MetaDataKey("agent", 1, 1);
+    private final MetaDataKey key2 = new MetaDataKey("agent", 1, 2);
+    private final MetaDataKey key3 = new MetaDataKey("agent", 1, 3);
+
+    @Test
+    public void get() {
+        MetaDataCache<String> cache = new MetaDataCache<>("test", 10, 1000);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        Assert.assertEquals(Collections.singletonList("1"), cache.get(key1, key -> load(loadCount, key)));
+        Assert.assertEquals(Collections.singletonList("1"), cache.get(new MetaDataKey("agent", 1, 1), key -> load(loadCount, key)));
+
+        Assert.assertEquals(1, loadCount.get());
+        MetaDataCacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(1, stats.getLoadCount());
+    }
+
+    @Test
+    public void getAll_loadMissingKeysOnce() {
+        MetaDataCache<String> cache = new MetaDataCache<>("test", 10, 1000);
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get(key1, key -> load(loadCount, key));
+
+        Map<MetaDataKey, List<String>> result = cache.getAll(Arrays.asList(key1, key2, key3, key2), keys -> {
+            loadCount.incrementAndGet();
+            Assert.assertEquals(Arrays.asList(key2, key3), keys);
+            Map<MetaDataKey, List<String>> map = new HashMap<>();
+            // key3 not found
+            map.put(key2, Collections.singletonList("2"));
+            return map;
+        });
+
+        Assert.assertEquals(2, loadCount.get());
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(Collections.singletonList("1"), result.get(key1));
+        Assert.assertEquals(Collections.singletonList("2"), result.get(key2));
+        Assert.assertEquals(Collections.emptyList(), result.get(key3));
+    }
+
+    @Test
+    public void negativeEntry() throws Exception {
+        MetaDataCache<String> cache = new MetaDataCache<>("test", 10, 50);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        Assert.assertTrue(cache.get(key1, key -> notFound(loadCount)).isEmpty());
+        Assert.assertTrue(cache.get(key1, key -> notFound(loadCount)).isEmpty());
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, cache.getStats().getNegativeHitCount());
+
+        Thread.sleep(100);
+        Assert.assertEquals(Collections.singletonList("1"), cache.get(key1, key -> load(loadCount, key)));
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void eviction() {
+        MetaDataCache<String> cache = new MetaDataCache<>("test", 2, 1000);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        cache.get(key1, key -> load(loadCount, key));
+        cache.get(key2, key -> load(loadCount, key));
+        // key1 is the most recently used
+        cache.get(key1, key -> load(loadCount, key));
+        cache.get(key3, key -> load(loadCount, key));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getStats().getEvictionCount());
+
+        cache.get(key1, key -> load(loadCount, key));
+        Assert.assertEquals(3, loadCount.get());
+        cache.get(key2, key -> load(loadCount, key));
+        Assert.assertEquals(4, loadCount.get());
+    }
+
+    @Test
+    public void disabled() {
+        MetaDataCache<String> cache = new MetaDataCache<>("test", 0, 1000);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        cache.get(key1, key -> load(loadCount, key));
+        cache.get(key1, key -> load(loadCount, key));
+
+        Assert.assertEquals(2, loadCount.get());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private List<String> load(AtomicInteger loadCount, MetaDataKey key) {
+        loadCount.incrementAndGet();
+        return Collections.singletonList(String.valueOf(key.getId()));
+    }
+
+    private List<String> notFound(AtomicInteger loadCount) {
+        loadCount.incrementAndGet();
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
+
+import com.navercorp.pinpoint.common.hbase.DefaultTableDescriptor;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultipleColumnPrefixFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+
+public class HbaseAgentStatDaoOperationsV2Test {
+
+    private static final String AGENT_ID = "testAgent";
+
+    private static final byte[] ROW_FAMILY = HbaseColumnFamily.AGENT_STAT_STATISTICS.getName();
+    private static final byte[] COLUMN_FAMILY = HbaseColumnFamily.AGENT_STAT_COLUMNS.getName();
+
+    private static final long COLUMNAR_SINCE = 1_600_000_000_000L;
+
+    private final AgentStatHbaseOperationFactory operationFactory = new AgentStatHbaseOperationFactory(
+            new AgentStatRowKeyEncoder(), new AgentStatRowKeyDecoder(), new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(0, 33, 64)));
+
+    private HbaseAgentStatDaoOperationsV2 newOperations(boolean columnarEnable, long columnarSince) {
+        DefaultTableDescriptor<HbaseColumnFamily.AgentStatStatistics> descriptor = new DefaultTableDescriptor<>(mock(TableNameProvider.class), HbaseColumnFamily.AGENT_STAT_STATISTICS);
+        return new HbaseAgentStatDaoOperationsV2(mock(HbaseOperations2.class), descriptor, operationFactory, columnarEnable, columnarSince);
+    }
+
+    @Test
+    public void createScan_columnarDisabled() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(false, COLUMNAR_SINCE);
+        Range range = Range.newRange(COLUMNAR_SINCE, COLUMNAR_SINCE + 60000);
+
+        Scan scan = operations.createScan(AgentStatType.JVM_GC, AGENT_ID, range, AgentStatColumnSchemas.JVM_GC.getFields());
+
+        assertFamilies(scan, ROW_FAMILY);
+        Assert.assertNull(scan.getFilter());
+    }
+
+    @Test
+    public void createScan_mixedRange() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(true, COLUMNAR_SINCE);
+        Range range = Range.newRange(COLUMNAR_SINCE - 60000, COLUMNAR_SINCE + 60000);
+
+        Scan scan = operations.createScan(AgentStatType.JVM_GC, AGENT_ID, range,
+                AgentStatColumnSchemas.JVM_GC.getFields("heapUsed", "heapMax", "gcOldCount"));
+
+        assertFamilies(scan, ROW_FAMILY, COLUMN_FAMILY);
+        // every cell of the row family, the projected cells of the columnar family
+        FilterList filter = (FilterList) scan.getFilter();
+        Assert.assertEquals(FilterList.Operator.MUST_PASS_ONE, filter.getOperator());
+        Assert.assertEquals(2, filter.getFilters().size());
+        FilterList columnFilter = (FilterList) filter.getFilters().get(1);
+        assertPrefixes(columnFilter.getFilters().get(1), 0, 2, 3, 6);
+    }
+
+    @Test
+    public void createScan_columnarSinceUnknown() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(true, -1);
+        Range range = Range.newRange(COLUMNAR_SINCE, COLUMNAR_SINCE + 60000);
+
+        Scan scan = operations.createScan(AgentStatType.CPU_LOAD, AGENT_ID, range, AgentStatColumnSchemas.CPU_LOAD.getFields());
+
+        assertFamilies(scan, ROW_FAMILY, COLUMN_FAMILY);
+    }
+
+    @Test
+    public void createScan_columnarRange() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(true, COLUMNAR_SINCE);
+        Range range = Range.newRange(COLUMNAR_SINCE, COLUMNAR_SINCE + 60000);
+
+        Scan scan = operations.createScan(AgentStatType.CPU_LOAD, AGENT_ID, range,
+                AgentStatColumnSchemas.CPU_LOAD.getFields("systemCpuLoad"));
+
+        assertFamilies(scan, COLUMN_FAMILY);
+        assertPrefixes(scan.getFilter(), 0, 2);
+    }
+
+    @Test
+    public void createScan_timestampsOnly() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(true, COLUMNAR_SINCE);
+        Range range = Range.newRange(COLUMNAR_SINCE + 60000, COLUMNAR_SINCE + 120000);
+
+        Scan scan = operations.createScan(AgentStatType.JVM_GC, AGENT_ID, range, Collections.emptyList());
+
+        assertFamilies(scan, COLUMN_FAMILY);
+        assertPrefixes(scan.getFilter(), 0);
+    }
+
+    @Test
+    public void createScan_rowLayoutType() {
+        HbaseAgentStatDaoOperationsV2 operations = newOperations(true, COLUMNAR_SINCE);
+        Range range = Range.newRange(COLUMNAR_SINCE, COLUMNAR_SINCE + 60000);
+
+        Scan scan = operations.createScan(AgentStatType.DATASOURCE, AGENT_ID, range, null);
+
+        assertFamilies(scan, ROW_FAMILY);
+        Assert.assertNull(scan.getFilter());
+    }
+
+    private void assertFamilies(Scan scan, byte[]... families) {
+        Assert.assertEquals(families.length, scan.getFamilyMap().size());
+        for (byte[] family : families) {
+            Assert.assertTrue(scan.getFamilyMap().containsKey(family));
+        }
+    }
+
+    private void assertPrefixes(Filter filter, int... fieldIds) {
+        Assert.assertTrue(filter instanceof MultipleColumnPrefixFilter);
+        byte[][] prefixes = ((MultipleColumnPrefixFilter) filter).getPrefix();
+        Assert.assertEquals(fieldIds.length, prefixes.length);
+        for (int i = 0; i < fieldIds.length; i++) {
+            Assert.assertArrayEquals(new byte[]{(byte) fieldIds[i]}, prefixes[i]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.profiler.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatRollupField;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class AgentStatRollupMapperTest {
+
+    @Test
+    public void mapRow() throws Exception {
+        byte[] rowKey = ApplicationMapStatisticsUtils.makeRowKey("applicationName", (short) 1010, 60000);
+        Cell[] cells = {
+                newCell(rowKey, "agent1", AgentStatRollupField.HEAP_USED.getCode(), 100),
+                newCell(rowKey, "agent1", AgentStatRollupField.HEAP_MAX.getCode(), 200),
+                newCell(rowKey, "agent2", AgentStatRollupField.GC_OLD_COUNT.getCode(), 3),
+                newCell(rowKey, "agent2", (short) 1000, 5),
+        };
+
+        AgentStatRollupMapper mapper = new AgentStatRollupMapper();
+        List<AgentStatRollupBo> rollupList = mapper.mapRow(Result.create(cells), 0);
+
+        Assert.assertEquals(2, rollupList.size());
+        for (AgentStatRollupBo rollup : rollupList) {
+            if ("agent1".equals(rollup.getAgentId())) {
+                Assert.assertEquals(100, rollup.get(AgentStatRollupField.HEAP_USED));
+                Assert.assertEquals(200, rollup.get(AgentStatRollupField.HEAP_MAX));
+            } else {
+                Assert.assertEquals("agent2", rollup.getAgentId());
+                Assert.assertEquals(3, rollup.get(AgentStatRollupField.GC_OLD_COUNT));
+                Assert.assertEquals(0, rollup.get(AgentStatRollupField.HEAP_USED));
+            }
+        }
+    }
+
+    private Cell newCell(byte[] rowKey, String agentId, short code, long value) {
+        byte[] qualifier = ApplicationMapStatisticsUtils.makeColumnName(agentId, code);
+        byte[] family = HbaseColumnFamily.AGENT_STAT_ROLLUP_COUNTER.getName();
+        return CellUtil.createCell(rowKey, family, qualifier, HConstants.LATEST_TIMESTAMP, KeyValue.Type.Put.getCode(), Bytes.toBytes(value));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.hbase.DistributorConfiguration;
+import com.navercorp.pinpoint.common.server.scatter.ScatterRollupUtils;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ScatterRollupMapperTest {
+
+    private static final long ROW_TIME_SLOT = 1_599_999_960_000L;
+
+    private final RowKeyDistributorByHashPrefix distributor = new DistributorConfiguration().getScatterRollupRowKeyDistributor();
+
+    @Test
+    public void mapRow() throws Exception {
+        byte[] rowKey = distributor.getDistributedKey(ScatterRollupUtils.makeRowKey("applicationName", ROW_TIME_SLOT));
+        byte[] column1 = ScatterRollupUtils.makeColumnName(1, 120, false, "agent1");
+        byte[] column2 = ScatterRollupUtils.makeColumnName(2, 1200, true, "agent2");
+        byte[] column3 = ScatterRollupUtils.makeColumnName(3, 10, false, "agent1");
+        // cells of a result are sorted by family and qualifier
+        Cell[] cells = {
+                newCell(rowKey, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER, column1, Bytes.toBytes(10L)),
+                newCell(rowKey, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER, column2, Bytes.toBytes(3L)),
+                newCell(rowKey, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_COUNTER, column3, Bytes.toBytes(7L)),
+                newCell(rowKey, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_SAMPLE, column1, newSample("agent1", 5_123, 125)),
+                newCell(rowKey, HbaseColumnFamily.APPLICATION_SCATTER_ROLLUP_SAMPLE, column3, newSample("agent1", 15_000, 11)),
+        };
+
+        ScatterRollupMapper mapper = new ScatterRollupMapper(distributor);
+        List<RollupDot> dotList = mapper.mapRow(Result.create(cells), 0);
+
+        // column2 has no sample
+        Assert.assertEquals(2, dotList.size());
+
+        RollupDot rollupDot = dotList.get(0);
+        Assert.assertEquals(10, rollupDot.getCount());
+        Dot dot = rollupDot.getDot();
+        Assert.assertEquals("agent1", dot.getAgentId());
+        Assert.assertEquals(ROW_TIME_SLOT + 5_123, dot.getAcceptedTime());
+        Assert.assertEquals(125, dot.getElapsedTime());
+        Assert.assertEquals(Dot.Status.SUCCESS, dot.getStatus());
+        Assert.assertEquals(new TransactionId("agent1", 100, 5_123), dot.getTransactionId());
+
+        Assert.assertEquals(7, dotList.get(1).getCount());
+        Assert.assertEquals(ROW_TIME_SLOT + 15_000, dotList.get(1).getDot().getAcceptedTime());
+    }
+
+    private byte[] newSample(String agentId, long acceptedTimeOffset, int elapsed) {
+        SpanBo span = new SpanBo();
+        span.setAgentId(agentId);
+        span.setTransactionId(new TransactionId(agentId, 100, acceptedTimeOffset));
+        span.setCollectorAcceptTime(ROW_TIME_SLOT + acceptedTimeOffset);
+        span.setElapsed(elapsed);
+        return ScatterRollupUtils.makeSampleValue(span);
+    }
+
+    private Cell newCell(byte[] rowKey, HbaseColumnFamily family, byte[] qualifier, byte[] value) {
+        return CellUtil.createCell(rowKey, family.getName(), qualifier, HConstants.LATEST_TIMESTAMP, KeyValue.Type.Put.getCode(), value);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSchemas;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.column.AgentStatColumnSerializer;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AgentStatColumnMapperTest {
+
+    private static final String AGENT_ID = "testAgent";
+    private static final TimestampFilter TEST_FILTER = timestamp -> false;
+
+    private final AgentStatHbaseOperationFactory hbaseOperationFactory = new AgentStatHbaseOperationFactory(
+            new AgentStatRowKeyEncoder(), new AgentStatRowKeyDecoder(), new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(0, 33, 64)));
+
+    private final CpuLoadCodecV2 cpuLoadCodec = new CpuLoadCodecV2(new AgentStatDataPointCodec());
+
+    @Test
+    public void mapRow_mixedRow() throws Exception {
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(System.currentTimeMillis());
+        // written in the row layout before the columnar layout was enabled
+        final List<CpuLoadBo> rowLayout = createCpuLoadBos(baseTimestamp + 1000, 3);
+        // written in the columnar layout after
+        final List<CpuLoadBo> columnLayout = createCpuLoadBos(baseTimestamp + 60000, 3);
+
+        final AgentStatSerializer<CpuLoadBo> rowSerializer = new AgentStatSerializer<CpuLoadBo>(new AgentStatEncoder<>(cpuLoadCodec)) {
+        };
+        final List<Cell> cells = new ArrayList<>();
+        addCells(cells, hbaseOperationFactory.createPuts(AGENT_ID, AgentStatType.CPU_LOAD, rowLayout, rowSerializer));
+        addCells(cells, hbaseOperationFactory.createPuts(AGENT_ID, AgentStatType.CPU_LOAD, columnLayout,
+                new AgentStatColumnSerializer<>(AgentStatColumnSchemas.CPU_LOAD)));
+        final Result result = Result.create(cells);
+
+        final AgentStatMapperV2<CpuLoadBo> rowMapper = new AgentStatMapperV2<>(hbaseOperationFactory,
+                new AgentStatDecoder<>(Collections.singletonList(cpuLoadCodec)), TEST_FILTER);
+        final AgentStatColumnMapper<CpuLoadBo> mapper = new AgentStatColumnMapper<>(hbaseOperationFactory,
+                new AgentStatColumnCodec<>(AgentStatColumnSchemas.CPU_LOAD), TEST_FILTER, rowMapper);
+
+        final List<CpuLoadBo> dataPoints = mapper.mapRow(result, 0);
+
+        Assert.assertEquals(6, dataPoints.size());
+        final List<CpuLoadBo> expected = new ArrayList<>(rowLayout);
+        expected.addAll(columnLayout);
+        expected.sort(AgentStatMapperV2.REVERSE_TIMESTAMP_COMPARATOR);
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getTimestamp(), dataPoints.get(i).getTimestamp());
+            Assert.assertEquals(AGENT_ID, dataPoints.get(i).getAgentId());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mapRow_columnarOnly() throws Exception {
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(System.currentTimeMillis());
+        final List<CpuLoadBo> columnLayout = createCpuLoadBos(baseTimestamp + 1000, 3);
+
+        final List<Cell> cells = new ArrayList<>();
+        addCells(cells, hbaseOperationFactory.createPuts(AGENT_ID, AgentStatType.CPU_LOAD, columnLayout,
+                new AgentStatColumnSerializer<>(AgentStatColumnSchemas.CPU_LOAD)));
+        final Result result = Result.create(cells);
+
+        final AgentStatMapperV2<CpuLoadBo> rowMapper = mock(AgentStatMapperV2.class);
+        final AgentStatColumnMapper<CpuLoadBo> mapper = new AgentStatColumnMapper<>(hbaseOperationFactory,
+                new AgentStatColumnCodec<>(AgentStatColumnSchemas.CPU_LOAD), TEST_FILTER, rowMapper);
+
+        final List<CpuLoadBo> dataPoints = mapper.mapRow(result, 0);
+
+        Assert.assertEquals(3, dataPoints.size());
+        // the row family was not scanned
+        verify(rowMapper, never()).mapRow(any(Result.class), anyInt());
+    }
+
+    private static void addCells(List<Cell> cells, List<Put> puts) {
+        Assert.assertEquals(1, puts.size());
+        for (List<Cell> familyCells : puts.get(0).getFamilyCellMap().values()) {
+            cells.addAll(familyCells);
+        }
+    }
+
+    private static List<CpuLoadBo> createCpuLoadBos(long startTimestamp, int count) {
+        final List<CpuLoadBo> cpuLoadBos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId(AGENT_ID);
+            cpuLoadBo.setStartTimestamp(startTimestamp - 10000);
+            cpuLoadBo.setTimestamp(startTimestamp + i * 5000L);
+            cpuLoadBo.setJvmCpuLoad(0.1 * i);
+            cpuLoadBo.setSystemCpuLoad(0.2 * i);
+            cpuLoadBos.add(cpuLoadBo);
+        }
+        return cpuLoadBos;
+    }
+}
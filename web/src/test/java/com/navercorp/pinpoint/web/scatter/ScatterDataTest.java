@@ -119,6 +119,31 @@ public class ScatterDataTest {
         Assert.assertEquals(2, dots.size());
     }
 
+    @Test
+    public void addRollupDotTest() {
+        long from = 1000;
+        long to = 10000;
+        int xGroupUnit = 5000;
+        int yGroupUnit = 100;
+
+        ScatterDataBuilder builder = new ScatterDataBuilder(from, to, xGroupUnit, yGroupUnit);
+        builder.setRollup(true);
+
+        long currentTime = System.currentTimeMillis();
+        Dot dot1 = new Dot(new TransactionId(transactionAgentId, currentTime, 1), 2000, 110, 0, agentId);
+        Dot dot2 = new Dot(new TransactionId(transactionAgentId, currentTime, 2), 3000, 120, 0, agentId);
+        builder.addDot(dot1, 10);
+        builder.addDot(dot2, 5);
+        ScatterData scatterData = builder.build();
+
+        Assert.assertTrue(scatterData.isRollup());
+        Assert.assertEquals(2, scatterData.getDotSize());
+        List<DotGroups> values = scatterData.getScatterData();
+        Assert.assertEquals(1, values.size());
+        DotGroup dotGroup = values.get(0).getDotGroupMap().values().iterator().next();
+        Assert.assertEquals(15, dotGroup.getCount());
+    }
+
     private List<Dot> createDotList(String agentId, String transactionAgentId, int createSize, long from) {
         long currentTime = System.currentTimeMillis();
 
@@ -104,4 +104,48 @@ public class HeatMapBuilderTest {
         Assert.assertEquals(750, index[5]);
         Assert.assertEquals(950, index[9]);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void index_size() {
+        HeatMapBuilder.AxisResolver resolver = new HeatMapBuilder.DefaultAxisResolver(100, 0, 1050);
+
+        Assert.assertEquals(105, resolver.getIndex(1100));
+        Assert.assertEquals(106, resolver.getSize());
+    }
+
+    @Test
+    public void merge() {
+        HeatMapBuilder builder1 = HeatMapBuilder.newBuilder(0, 1000, 10, 0, 1000, 10);
+        builder1.addDataPoint(100, 1, true);
+        builder1.addDataPoint(1000, 1000, false);
+
+        HeatMapBuilder builder2 = builder1.newEmptyBuilder();
+        builder2.addDataPoint(1, 1, true);
+        builder2.addDataPoint(100, 1, false);
+
+        builder1.merge(builder2);
+        HeatMap heatMap = builder1.build();
+
+        Assert.assertEquals(2, heatMap.getSuccess());
+        Assert.assertEquals(2, heatMap.getFail());
+        Assert.assertEquals(1, heatMap.getOldestAcceptedTime());
+        Assert.assertEquals(1000, heatMap.getLatestAcceptedTime());
+
+        Assert.assertEquals(1, heatMap.getSuccessCount(1, 0));
+        Assert.assertEquals(1, heatMap.getFailCount(1, 0));
+        Assert.assertEquals(1, heatMap.getSuccessCount(0, 0));
+        Assert.assertEquals(1, heatMap.getFailCount(10, 10));
+
+        List<Point> points = heatMap.getData();
+        Assert.assertEquals(3, points.size());
+        Assert.assertEquals(10, points.get(0).getX());
+        Assert.assertEquals(0, points.get(2).getX());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_sizeMismatch() {
+        HeatMapBuilder builder1 = HeatMapBuilder.newBuilder(0, 1000, 10, 0, 1000, 10);
+        HeatMapBuilder builder2 = HeatMapBuilder.newBuilder(0, 1000, 20, 0, 1000, 10);
+        builder1.merge(builder2);
+    }
+}
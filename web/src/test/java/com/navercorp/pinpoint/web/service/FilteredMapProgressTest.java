@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+public class FilteredMapProgressTest {
+
+    @Test
+    public void processed() {
+        FilteredMapProgress progress = new FilteredMapProgress(3, 0);
+        progress.checkCancelled();
+        Assert.assertEquals(1, progress.processed(true));
+        Assert.assertEquals(2, progress.processed(false));
+
+        Assert.assertEquals(3, progress.getTotal());
+        Assert.assertEquals(2, progress.getProcessed());
+        Assert.assertEquals(1, progress.getIncluded());
+        Assert.assertFalse(progress.isCancelled());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancel() {
+        FilteredMapProgress progress = new FilteredMapProgress(3, 0);
+        progress.cancel();
+        progress.checkCancelled();
+    }
+
+    @Test
+    public void timeout() throws InterruptedException {
+        FilteredMapProgress progress = new FilteredMapProgress(3, 1);
+        Thread.sleep(10);
+        try {
+            progress.checkCancelled();
+            Assert.fail();
+        } catch (CancellationException ignore) {
+        }
+        Assert.assertTrue(progress.isCancelled());
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.service;
 
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
 import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
@@ -59,9 +60,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -69,6 +72,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyShort;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 /**
@@ -182,7 +186,11 @@ public class FilteredMapServiceImplTest {
         SpanEventBo appACacheSpanEvent = new TestTraceUtils.CacheSpanEventBuilder("CacheName", "1.1.1.1", cacheStartElapsed, cacheEndElapsed).build();
         appASpan.addSpanEvent(appACacheSpanEvent);
 
-        when(traceDao.selectAllSpans(anyList(), isNull())).thenReturn(Collections.singletonList(Arrays.asList(rootSpan, appASpan)));
+        doAnswer(invocation -> {
+            Consumer<List<SpanBo>> transactionConsumer = invocation.getArgument(2);
+            transactionConsumer.accept(Arrays.asList(rootSpan, appASpan));
+            return null;
+        }).when(traceDao).selectAllSpans(anyList(), isNull(), any(), any());
 
         // When
         final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(Collections.emptyList(), originalRange, scanRange, 1, 1, Filter.acceptAllFilter(), 0).build();
@@ -314,6 +322,39 @@ public class FilteredMapServiceImplTest {
         }
     }
 
+    @Test
+    public void cancelStopsSpanSelect() {
+        Range range = Range.newRange(1000, 2000);
+        SpanBo span = new TestTraceUtils.SpanBuilder("ROOT_APP", "root-agent")
+                .spanId(1L)
+                .startTime(1000L)
+                .collectorAcceptTime(1100L)
+                .elapsed(100)
+                .build();
+        List<TransactionId> transactionIdList = Arrays.asList(new TransactionId("root-agent", 1, 1), new TransactionId("root-agent", 1, 2));
+        FilteredMapProgress progress = new FilteredMapProgress(transactionIdList.size(), 0);
+
+        doAnswer(invocation -> {
+            Consumer<List<SpanBo>> transactionConsumer = invocation.getArgument(2);
+            transactionConsumer.accept(Collections.singletonList(span));
+            // e.g. the request timed out
+            progress.cancel();
+            transactionConsumer.accept(Collections.singletonList(span));
+            fail("span select not cancelled");
+            return null;
+        }).when(traceDao).selectAllSpans(anyList(), isNull(), any(), any());
+
+        final FilteredMapServiceOption option = new FilteredMapServiceOption.Builder(transactionIdList, range, range, 1, 1, Filter.acceptAllFilter(), 0)
+                .setProgress(progress)
+                .build();
+        try {
+            filteredMapService.selectApplicationMapWithScatterData(option);
+            fail();
+        } catch (CancellationException ignore) {
+        }
+        Assert.assertEquals(1, progress.getProcessed());
+    }
+
     private void assertHistogram(Histogram histogram, int fastCount, int normalCount, int slowCount, int verySlowCount, int totalErrorCount) {
         Assert.assertEquals(fastCount, histogram.getFastCount());
         Assert.assertEquals(normalCount, histogram.getNormalCount());
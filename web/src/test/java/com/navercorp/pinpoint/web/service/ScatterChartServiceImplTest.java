@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.web.config.ScatterChartConfig;
+import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.dao.ScatterRollupDao;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.RollupDot;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScatterChartServiceImplTest {
+
+    private static final String APPLICATION_NAME = "testApplication";
+    private static final Range RANGE = Range.newRange(1_600_000_000_000L, 1_600_000_600_000L);
+
+    @Mock
+    private ApplicationTraceIndexDao applicationTraceIndexDao;
+
+    @Mock
+    private TraceDao traceDao;
+
+    @Mock
+    private SpanService spanService;
+
+    @Mock
+    private ScatterRollupDao scatterRollupDao;
+
+    @Mock
+    private ScatterChartConfig scatterChartConfig;
+
+    private ScatterChartService scatterChartService;
+
+    @Before
+    public void setUp() {
+        when(scatterChartConfig.isEnableRollup()).thenReturn(true);
+        scatterChartService = new ScatterChartServiceImpl(applicationTraceIndexDao, traceDao, spanService, scatterRollupDao, scatterChartConfig);
+    }
+
+    @Test
+    public void selectScatterData_rollup() {
+        final Dot dot = newDot(RANGE.getFrom() + 1000);
+        when(scatterRollupDao.isRollupStarted(APPLICATION_NAME, RANGE.getFrom())).thenReturn(true);
+        when(scatterRollupDao.selectScatterRollup(APPLICATION_NAME, RANGE)).thenReturn(Collections.singletonList(new RollupDot(dot, 10)));
+
+        ScatterData scatterData = scatterChartService.selectScatterData(APPLICATION_NAME, RANGE, 5000, 100, 10, true);
+
+        Assert.assertTrue(scatterData.isRollup());
+        verify(applicationTraceIndexDao, never()).scanTraceScatterData(anyString(), any(Range.class), anyInt(), anyBoolean());
+    }
+
+    @Test
+    public void selectScatterData_beforeRollupStarted() {
+        final Dot dot = newDot(RANGE.getFrom() + 1000);
+        when(scatterRollupDao.isRollupStarted(APPLICATION_NAME, RANGE.getFrom())).thenReturn(false);
+        when(applicationTraceIndexDao.scanTraceScatterData(APPLICATION_NAME, RANGE, 10, true))
+                .thenReturn(new LimitedScanResult<>(RANGE.getFrom(), Collections.singletonList(dot)));
+
+        ScatterData scatterData = scatterChartService.selectScatterData(APPLICATION_NAME, RANGE, 5000, 100, 10, true);
+
+        Assert.assertFalse(scatterData.isRollup());
+        Assert.assertEquals(1, scatterData.getDotSize());
+        verify(scatterRollupDao, never()).selectScatterRollup(anyString(), any(Range.class));
+    }
+
+    @Test
+    public void selectScatterData_finerThanRollup() {
+        when(applicationTraceIndexDao.scanTraceScatterData(APPLICATION_NAME, RANGE, 10, true))
+                .thenReturn(new LimitedScanResult<>(RANGE.getFrom(), Collections.emptyList()));
+
+        ScatterData scatterData = scatterChartService.selectScatterData(APPLICATION_NAME, RANGE, 1000, 100, 10, true);
+
+        Assert.assertFalse(scatterData.isRollup());
+        verify(scatterRollupDao, never()).isRollupStarted(anyString(), anyLong());
+    }
+
+    private static Dot newDot(long acceptedTime) {
+        return new Dot(new TransactionId("agent", 1L, 1L), acceptedTime, 100, Dot.EXCEPTION_NONE, "agent");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMap;
+import com.navercorp.pinpoint.web.scatter.heatmap.HeatMapBuilder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeatMapDataSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testSerialize() throws Exception {
+        HeatMapBuilder builder = HeatMapBuilder.newBuilder(0, 1000, 10, 0, 1000, 10);
+        builder.addDataPoint(1, 1, true);
+        builder.addDataPoint(1, 2, false);
+        builder.addDataPoint(101, 101, true);
+
+        String jsonValue = mapper.writeValueAsString(new Data(builder.build()));
+        Assert.assertEquals("{\"data\":[[1,1,1,0],[0,0,1,1]]}", jsonValue);
+    }
+
+    public static class Data {
+        private final HeatMap heatMap;
+
+        public Data(HeatMap heatMap) {
+            this.heatMap = heatMap;
+        }
+
+        @JsonSerialize(using = HeatMapDataSerializer.class)
+        public HeatMap getData() {
+            return heatMap;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class SpanSelectStatisticsTest {
+
+    @Test
+    public void record() {
+        SpanSelectStatistics statistics = new SpanSelectStatistics();
+        statistics.recordPartition(10, TimeUnit.MILLISECONDS.toNanos(30), TimeUnit.MILLISECONDS.toNanos(5));
+        statistics.recordPartition(5, TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(2));
+        statistics.recordSelect(TimeUnit.MILLISECONDS.toNanos(60));
+
+        Assert.assertEquals(2, statistics.getPartitionCount());
+        Assert.assertEquals(15, statistics.getTransactionCount());
+        Assert.assertEquals(80, statistics.getTotalPartitionElapsed());
+        Assert.assertEquals(50, statistics.getMaxPartitionElapsed());
+        Assert.assertEquals(7, statistics.getStreamElapsed());
+        Assert.assertEquals(60, statistics.getSelectElapsed());
+    }
+}